@@ -34,4 +34,13 @@ public @interface Cleanup {
      * {@link CleanupStrategy#STRICT}.
      */
     CleanupStrategy strategy() default CleanupStrategy.STRICT;
+
+    /**
+     * Whether the tables cleaned entirely, as by {@link CleanupStrategy#STRICT},
+     * {@link CleanupStrategy#USED_TABLES_ONLY} and {@link CleanupStrategy#WRITTEN_TABLES_ONLY}, are
+     * dropped and recreated instead of deleting their contents. This is much faster for large
+     * tables. Currently supported for MongoDB only, which recreates the collections with their
+     * original options and indexes. Ignored for other databases.
+     */
+    boolean dropAndRecreate() default false;
 }
@@ -10,7 +10,9 @@ import java.lang.annotation.Target;
 
 /**
  * Determines when JPA second level cache cleanup should be triggered. Default test phase is
- * {@link CleanupPhase#AFTER}. If not specified the second level cache is not evicted.
+ * {@link CleanupPhase#AFTER}. If not specified the second level cache is not evicted. By default
+ * the entire cache is evicted. The eviction can be restricted to selected entity types, so that
+ * e.g. cached reference data, which is not modified by the tests, remains cached.
  *
  * @see CleanupPhase
  */
@@ -30,4 +32,19 @@ public @interface CleanupCache {
      * settings defined in the <code>persistence.xml</code>
      */
     CleanupPhase phase() default CleanupPhase.AFTER;
+
+    /**
+     * Entity types to evict, including their subtypes. If neither these nor
+     * {@link #seededEntitiesOnly()} are given, the entire cache is evicted.
+     */
+    Class<?>[] entities() default {};
+
+    /**
+     * Whether to evict only the entity types mapped to the tables (or collections) seeded by the
+     * initial data sets of the test. Tables are mapped by the names defined by the
+     * <code>@Table</code>, <code>@SecondaryTable</code>, <code>@JoinTable</code> and
+     * <code>@CollectionTable</code> annotations or the entity names. If the seeded tables are not
+     * known for the used database, the entire cache is evicted.
+     */
+    boolean seededEntitiesOnly() default false;
 }
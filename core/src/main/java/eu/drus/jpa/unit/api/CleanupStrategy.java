@@ -30,6 +30,18 @@ public enum CleanupStrategy {
         public <T> T provide(final StrategyProvider<T> provider) {
             return provider.usedTablesOnlyStrategy();
         }
+    },
+
+    /**
+     * Deletes only those tables which were used in data sets or written to since the last cleanup.
+     * Falls back to {@link #STRICT} if the written tables are not known, e.g. because the database
+     * does not support tracking of writes.
+     */
+    WRITTEN_TABLES_ONLY {
+        @Override
+        public <T> T provide(final StrategyProvider<T> provider) {
+            return provider.writtenTablesOnlyStrategy();
+        }
     };
 
     public abstract <T> T provide(StrategyProvider<T> provider);
@@ -40,5 +52,9 @@ public enum CleanupStrategy {
         T usedTablesOnlyStrategy();
 
         T usedRowsOnlyStrategy();
+
+        default T writtenTablesOnlyStrategy() {
+            return strictStrategy();
+        }
     }
 }
@@ -0,0 +1,27 @@
+package eu.drus.jpa.unit.api;
+
+/**
+ * Growth classes of the execution time and the number of executed statements of a test body in
+ * relation to the data volume.
+ *
+ * @see MaxComplexity
+ */
+public enum Complexity {
+    CONSTANT(0),
+    LINEAR(1),
+    QUADRATIC(2),
+    CUBIC(3);
+
+    private final int exponent;
+
+    private Complexity(final int exponent) {
+        this.exponent = exponent;
+    }
+
+    /**
+     * The exponent <code>k</code> of the growth <code>O(n^k)</code>.
+     */
+    public int exponent() {
+        return exponent;
+    }
+}
@@ -0,0 +1,47 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Verifies the usage of the JPA second level cache by the test body, including the commit of the
+ * test transaction. A negative value disables the corresponding check, which is the default.
+ *
+ * <p>
+ * The statistics are read from the JPA provider. Hibernate and EclipseLink are supported. The
+ * statistics of Hibernate are enabled if required. For EclipseLink the
+ * <code>PerformanceMonitor</code> profiler is installed, unless a different profiler is configured
+ * in the <code>persistence.xml</code>. EclipseLink does not count puts into the cache.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface ExpectedCacheStatistics {
+
+    /**
+     * Minimum ratio of cache hits to all cache lookups, a value between 0 and 1.
+     */
+    double minHitRatio() default -1;
+
+    /**
+     * Minimum number of cache hits.
+     */
+    long minHits() default -1;
+
+    /**
+     * Maximum number of cache misses.
+     */
+    long maxMisses() default -1;
+
+    /**
+     * Maximum number of puts into the cache.
+     */
+    long maxPuts() default -1;
+}
@@ -0,0 +1,71 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Verifies the number of MongoDB commands issued by the JPA provider while the test body is
+ * executed, including the flush on commit of the test transaction. Commands executed for seeding,
+ * verification or cleanup of the database are not taken into account. A negative value disables
+ * the corresponding check, which is the default.
+ *
+ * <p>
+ * On failure, the executed commands are reported grouped by command and collection, together with
+ * their duration and the number of returned documents.
+ *
+ * <p>
+ * The commands are recorded using the database profiler, which is enabled for the duration of the
+ * test body. This requires the <code>dbAdmin</code> role and is not supported by <code>mongos</code>.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface ExpectedMongoCommands {
+
+    /**
+     * Expected number of find commands.
+     */
+    int find() default -1;
+
+    /**
+     * Expected number of aggregate commands.
+     */
+    int aggregate() default -1;
+
+    /**
+     * Expected number of insert commands.
+     */
+    int insert() default -1;
+
+    /**
+     * Expected number of update statements.
+     */
+    int update() default -1;
+
+    /**
+     * Expected number of delete statements.
+     */
+    int delete() default -1;
+
+    /**
+     * Expected number of findAndModify commands.
+     */
+    int findAndModify() default -1;
+
+    /**
+     * Maximum number of commands of any type.
+     */
+    int maxTotal() default -1;
+
+    /**
+     * Maximum number of documents returned by all commands.
+     */
+    long maxReturnedDocuments() default -1;
+}
@@ -0,0 +1,56 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Verifies the number of SQL statements issued by the JPA provider while the test body is
+ * executed, including the flush on commit of the test transaction. Statements executed for
+ * seeding, verification or cleanup of the database are not taken into account. A negative value
+ * disables the corresponding check, which is the default.
+ *
+ * <p>
+ * On failure, the executed statements are reported grouped by their text, with bind parameters and
+ * literals ignored. Thus e.g. lazy loading of an association for each row (N+1 selects) shows up as
+ * a single statement executed N times.
+ *
+ * <p>
+ * Statements can only be recorded for persistence units configured with a JDBC URL.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface ExpectedStatements {
+
+    /**
+     * Expected number of SELECT statements.
+     */
+    int select() default -1;
+
+    /**
+     * Expected number of INSERT statements.
+     */
+    int insert() default -1;
+
+    /**
+     * Expected number of UPDATE statements.
+     */
+    int update() default -1;
+
+    /**
+     * Expected number of DELETE statements.
+     */
+    int delete() default -1;
+
+    /**
+     * Maximum number of statements of any type.
+     */
+    int max() default -1;
+}
@@ -0,0 +1,34 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Verifies the query plans of the SELECT statements issued by the JPA provider while the test body
+ * is executed. Each distinct statement is explained against the seeded data after the test and the
+ * test fails if a plan reads one of the given tables by a full table scan.
+ *
+ * <p>
+ * Supported for relational databases with a dialect to explain queries, currently H2, HSQLDB and
+ * PostgreSQL, and for MongoDB. For MongoDB the plans of the commands recorded by the database
+ * profiler are verified, as described for {@link ExpectedMongoCommands}, and a collection scan
+ * (<code>COLLSCAN</code>) of one of the given collections fails the test.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface ForbidFullTableScan {
+
+    /**
+     * Tables which must not be read by a full table scan. If empty, full scans of any table are
+     * forbidden.
+     */
+    String[] tables() default {};
+}
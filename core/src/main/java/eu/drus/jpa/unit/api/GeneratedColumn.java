@@ -0,0 +1,70 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Defines a column (or a property) of a {@link GeneratedTable} and how its values are generated.
+ * Only the attributes used by the selected {@link ValueGenerator} are taken into account.
+ */
+@Target({})
+@Retention(RUNTIME)
+public @interface GeneratedColumn {
+
+    String name();
+
+    /**
+     * The generator of the values. Default is {@link ValueGenerator#SEQUENCE}.
+     */
+    ValueGenerator generator() default ValueGenerator.SEQUENCE;
+
+    /**
+     * First value of a {@link ValueGenerator#SEQUENCE}.
+     */
+    long start() default 1;
+
+    /**
+     * Increment of a {@link ValueGenerator#SEQUENCE}.
+     */
+    long step() default 1;
+
+    /**
+     * Smallest value of {@link ValueGenerator#UNIFORM} distributed values.
+     */
+    long min() default 0;
+
+    /**
+     * Largest value of {@link ValueGenerator#UNIFORM} distributed values.
+     */
+    long max() default Integer.MAX_VALUE;
+
+    /**
+     * Mean of {@link ValueGenerator#GAUSSIAN} distributed values.
+     */
+    double mean() default 0;
+
+    /**
+     * Standard deviation of {@link ValueGenerator#GAUSSIAN} distributed values.
+     */
+    double deviation() default 1;
+
+    /**
+     * Values to pick from by {@link ValueGenerator#ONE_OF}.
+     */
+    String[] values() default {};
+
+    /**
+     * Template of {@link ValueGenerator#TEMPLATE} values. The placeholder <code>{row}</code> is
+     * replaced by the number of the row starting with 1 and <code>{random}</code> by a random
+     * positive number.
+     */
+    String template() default "";
+
+    /**
+     * The column of a generated table referenced by {@link ValueGenerator#REFERENCE} values in the
+     * form <code>TABLE.column</code>.
+     */
+    String references() default "";
+}
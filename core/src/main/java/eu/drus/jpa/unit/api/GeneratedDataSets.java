@@ -0,0 +1,46 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Seeds the test database with synthetic data generated while seeding, which allows testing with
+ * data volumes, which cannot be checked in as data set files. The rows are generated on demand
+ * and are never held in memory as a whole. Generated data is seeded after the data sets defined
+ * by {@link InitialDataSets}, if both annotations are present, and is taken into account by the
+ * cleanup strategies like data from data set files.
+ *
+ * <p>
+ * The generated values depend on the {@link #seed()} only, so that each run produces the same
+ * data.
+ *
+ * @see GeneratedTable
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface GeneratedDataSets {
+
+    /**
+     * Tables (collections, or node labels) to generate in the order of seeding.
+     */
+    GeneratedTable[] value();
+
+    /**
+     * Seed of the random values.
+     */
+    long seed() default 0;
+
+    /**
+     * Seeding strategy to be used if no {@link InitialDataSets} are defined. Default strategy is
+     * {@link DataSeedStrategy#INSERT}.
+     */
+    DataSeedStrategy seedStrategy() default DataSeedStrategy.INSERT;
+}
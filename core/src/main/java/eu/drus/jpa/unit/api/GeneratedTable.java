@@ -0,0 +1,30 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Defines a table, a collection, or the label of nodes to be generated by
+ * {@link GeneratedDataSets}.
+ */
+@Target({})
+@Retention(RUNTIME)
+public @interface GeneratedTable {
+
+    /**
+     * Name of the table, the collection, or the node label.
+     */
+    String name();
+
+    /**
+     * Number of rows to generate.
+     */
+    int rows();
+
+    /**
+     * Columns (or properties) of each row.
+     */
+    GeneratedColumn[] columns();
+}
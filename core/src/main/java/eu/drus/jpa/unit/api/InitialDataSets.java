@@ -32,4 +32,15 @@ public @interface InitialDataSets {
      * {@link DataSeedStrategy#INSERT}.
      */
     DataSeedStrategy seedStrategy() default DataSeedStrategy.INSERT;
+
+    /**
+     * Whether the data sets are seeded once into template tables and copied from these by the
+     * database server on subsequent seeds, instead of sending the data anew each time. Applies to
+     * {@link DataSeedStrategy#INSERT} and {@link DataSeedStrategy#CLEAN_INSERT}. Currently
+     * supported for MongoDB only. Ignored for other databases. For MongoDB each copy is moved from
+     * the template database into the test database, which copies the documents a second time,
+     * requires the <code>readWrite</code> role on both databases and is not supported by sharded
+     * clusters.
+     */
+    boolean useTemplates() default false;
 }
@@ -0,0 +1,44 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the test method repeatedly with the data volume of the {@link GeneratedDataSets} scaled by
+ * the given factors. The execution time of the test body and the number of the SQL statements it
+ * issued are recorded for each scale. The test fails if the growth of one of these exceeds the
+ * declared {@link Complexity}, which reveals issues like N+1 selects or missing indexes, which
+ * never show up with small data sets. Data sets defined by {@link InitialDataSets} are seeded
+ * unscaled. Statements are only counted for persistence units configured with a JDBC URL.
+ *
+ * <p>
+ * Requires a test framework integration supporting repeated execution, like JUnit 5, where the
+ * test method has to be a <code>@TestTemplate</code>. Other test methods fail.
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface MaxComplexity {
+
+    /**
+     * The worst acceptable growth of the execution time.
+     */
+    Complexity value();
+
+    /**
+     * The worst acceptable growth of the number of executed SQL statements. Default is
+     * {@link Complexity#CONSTANT}, so that e.g. lazy loading of associations per row (N+1 selects)
+     * is reported.
+     */
+    Complexity statements() default Complexity.CONSTANT;
+
+    /**
+     * Factors the number of rows of the generated data sets is multiplied with. At least two
+     * factors are required. Default is 1, 10 and 100.
+     */
+    int[] scale() default {
+            1, 10, 100
+    };
+}
@@ -0,0 +1,33 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the number of entities managed by the injected {@link javax.persistence.EntityManager}
+ * at the end of the test body, right before the test transaction is committed. On failure, the
+ * managed entities and collections are reported per type, together with the number of flushes and
+ * of entities dirty-checked by these.
+ *
+ * <p>
+ * The persistence context is inspected using the API of the JPA provider. Hibernate and
+ * EclipseLink are supported. Flushes can only be counted with Hibernate 4.3 or newer and
+ * EclipseLink. EclipseLink does not track collections separately from their owning entities.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface MaxManagedEntities {
+
+    /**
+     * Maximum number of managed entities.
+     */
+    int value();
+}
@@ -0,0 +1,44 @@
+package eu.drus.jpa.unit.api;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the execution time and the heap memory allocated by the test body, including the commit
+ * of the test transaction. Seeding, verification and cleanup of the database are not measured. A
+ * negative value disables the corresponding limit, which is the default.
+ *
+ * <p>
+ * Memory allocations are measured for the thread executing the test, which requires a JVM
+ * supporting <code>com.sun.management.ThreadMXBean</code>, like HotSpot based JVMs.
+ */
+@Target({
+        TYPE, METHOD
+})
+@Retention(RUNTIME)
+@Inherited
+public @interface PerformanceBudget {
+
+    /**
+     * Maximum execution time in milliseconds.
+     */
+    long maxMillis() default -1;
+
+    /**
+     * Maximum number of bytes allocated on the heap.
+     */
+    long maxAllocatedBytes() default -1;
+
+    /**
+     * Number of executions of the test, including seeding and cleanup, before the measured one, to
+     * warm up the JVM and the JPA provider. Requires a test framework integration supporting
+     * repeated execution. With JUnit 5 the test method has to be a <code>@TestTemplate</code>,
+     * otherwise the test fails.
+     */
+    int warmUps() default 0;
+}
@@ -0,0 +1,40 @@
+package eu.drus.jpa.unit.api;
+
+/**
+ * Generators of the values of a {@link GeneratedColumn}.
+ */
+public enum ValueGenerator {
+    /**
+     * Long values starting with {@link GeneratedColumn#start()} incremented by
+     * {@link GeneratedColumn#step()}.
+     */
+    SEQUENCE,
+
+    /**
+     * Random long values uniformly distributed between {@link GeneratedColumn#min()} and
+     * {@link GeneratedColumn#max()} (both inclusive).
+     */
+    UNIFORM,
+
+    /**
+     * Random double values normally distributed around {@link GeneratedColumn#mean()} with
+     * {@link GeneratedColumn#deviation()}.
+     */
+    GAUSSIAN,
+
+    /**
+     * Random picks of {@link GeneratedColumn#values()}.
+     */
+    ONE_OF,
+
+    /**
+     * String values created from {@link GeneratedColumn#template()}.
+     */
+    TEMPLATE,
+
+    /**
+     * Values of a randomly picked row of the column given by {@link GeneratedColumn#references()},
+     * like foreign keys referencing existing parent keys.
+     */
+    REFERENCE
+}
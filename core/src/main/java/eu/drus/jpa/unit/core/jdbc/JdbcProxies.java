@@ -0,0 +1,78 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamic proxies for the JDBC connections and statements, which report each executed statement
+ * to a {@link StatementRecorder}.
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {}
+
+    static Connection connection(final Connection connection, final StatementRecorder recorder) {
+        if (connection == null) {
+            return null;
+        }
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            final Object result = invoke(connection, method, args);
+            if (result instanceof Statement && method.getName().startsWith("prepare")) {
+                return statement(method.getReturnType(), (Statement) result, (String) args[0], recorder);
+            } else if (result instanceof Statement) {
+                return statement(Statement.class, (Statement) result, null, recorder);
+            }
+            return result;
+        });
+    }
+
+    private static Object statement(final Class<?> type, final Statement statement, final String preparedSql,
+            final StatementRecorder recorder) {
+        final List<String> batch = new ArrayList<>();
+        final Class<?> proxyType = type == CallableStatement.class || type == PreparedStatement.class ? type : Statement.class;
+        return proxy(proxyType, statement, (proxy, method, args) -> {
+            final String name = method.getName();
+            if (name.equals("addBatch")) {
+                batch.add(args == null ? preparedSql : (String) args[0]);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                batch.forEach(recorder::record);
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                recorder.record(args == null || args.length == 0 ? preparedSql : (String) args[0]);
+            } else if (name.equals("getConnection")) {
+                // keep the connection proxied for code navigating from the statement
+                return connection((Connection) invoke(statement, method, args), recorder);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(final Class<T> type, final Object target, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[] {
+                type
+        }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("equals") ? proxy == args[0] : invoke(target, method, args);
+            }
+            return handler.invoke(proxy, method, args);
+        }));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
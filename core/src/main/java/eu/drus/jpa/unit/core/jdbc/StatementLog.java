@@ -0,0 +1,64 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The statements executed while a recording was active, in the order of their execution.
+ */
+public class StatementLog {
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRING_LITERALS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERALS = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final List<String> statements = new ArrayList<>();
+
+    StatementLog() {}
+
+    synchronized void add(final String sql) {
+        statements.add(sql);
+    }
+
+    public synchronized List<String> getStatements() {
+        return new ArrayList<>(statements);
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized int count(final StatementType type) {
+        int count = 0;
+        for (final String statement : statements) {
+            if (StatementType.of(statement) == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of executions per statement, in the order of the first execution.
+     * Statements differing only in bind parameters, literals, comments or white space are counted
+     * as the same statement.
+     */
+    public synchronized Map<String, Integer> countByStatement() {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        for (final String statement : statements) {
+            counts.merge(normalize(statement), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    static String normalize(final String sql) {
+        String statement = COMMENTS.matcher(sql).replaceAll(" ");
+        statement = STRING_LITERALS.matcher(statement).replaceAll("?");
+        statement = NUMERIC_LITERALS.matcher(statement).replaceAll("?");
+        return WHITESPACE.matcher(statement).replaceAll(" ").trim();
+    }
+}
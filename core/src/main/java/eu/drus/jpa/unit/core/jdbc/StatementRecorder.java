@@ -0,0 +1,65 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatches the statements executed through the connections of one persistence unit, e.g. of one
+ * EntityManagerFactory, to the {@link StatementLog}s currently active for it. The connections are
+ * bound to their recorder by the URL of the {@link StatementRecordingDriver}, so that concurrently
+ * executed tests using other persistence units do not see each other's statements.
+ */
+public final class StatementRecorder {
+
+    private static final Map<String, StatementRecorder> RECORDERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final String id;
+    private final List<StatementLog> activeLogs = new CopyOnWriteArrayList<>();
+
+    private StatementRecorder(final String id) {
+        this.id = id;
+    }
+
+    /**
+     * Creates a new recorder, which must be closed once the connections bound to it are no longer
+     * used.
+     */
+    public static StatementRecorder create() {
+        final StatementRecorder recorder = new StatementRecorder("r" + COUNTER.incrementAndGet());
+        RECORDERS.put(recorder.id, recorder);
+        return recorder;
+    }
+
+    static StatementRecorder get(final String id) {
+        return RECORDERS.get(id);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    public StatementLog startRecording() {
+        final StatementLog log = new StatementLog();
+        activeLogs.add(log);
+        return log;
+    }
+
+    public void stopRecording(final StatementLog log) {
+        activeLogs.remove(log);
+    }
+
+    public void close() {
+        RECORDERS.remove(id);
+        activeLogs.clear();
+    }
+
+    void record(final String sql) {
+        for (final StatementLog log : activeLogs) {
+            log.add(sql);
+        }
+    }
+}
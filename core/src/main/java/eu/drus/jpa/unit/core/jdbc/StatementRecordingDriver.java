@@ -0,0 +1,140 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+
+/**
+ * JDBC driver, which records the statements executed by the JPA provider. It accepts URLs of the
+ * form <code>jdbc:jpa-unit:&lt;recorder id&gt;:&lt;original url&gt;</code> and delegates to the
+ * driver registered for the original URL. The statements are reported to the
+ * {@link StatementRecorder} identified by the URL. The connection properties of a persistence unit
+ * are rewritten to use this driver by {@link #wrapConnectionProperties(Map, StatementRecorder)}.
+ */
+public class StatementRecordingDriver implements Driver {
+
+    public static final String URL_PREFIX = "jdbc:jpa-unit:";
+
+    private static final String[][] CONNECTION_PROPERTIES = {
+            {
+                    "javax.persistence.jdbc.driver", "javax.persistence.jdbc.url"
+            }, {
+                    "hibernate.connection.driver_class", "hibernate.connection.url"
+            }
+    };
+
+    static {
+        try {
+            DriverManager.registerDriver(new StatementRecordingDriver());
+        } catch (final SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Whether the given persistence unit properties define a JDBC connection, which can be wrapped.
+     * This is not the case e.g. for NoSQL persistence units or for persistence units using a data
+     * source.
+     */
+    public static boolean isWrappable(final Map<String, Object> properties) {
+        for (final String[] keys : CONNECTION_PROPERTIES) {
+            if (isWrappable(properties, keys)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWrappable(final Map<String, Object> properties, final String[] keys) {
+        final Object driverClass = properties.get(keys[0]);
+        final Object url = properties.get(keys[1]);
+        return driverClass instanceof String && url instanceof String && ((String) url).startsWith("jdbc:")
+                && !((String) url).startsWith(URL_PREFIX);
+    }
+
+    /**
+     * Returns a copy of the given persistence unit properties, with the JDBC driver and URL
+     * replaced by this driver reporting to the given recorder. Properties not
+     * {@link #isWrappable(Map) wrappable} are returned unchanged.
+     */
+    public static Map<String, Object> wrapConnectionProperties(final Map<String, Object> properties, final StatementRecorder recorder) {
+        final Map<String, Object> wrapped = new HashMap<>(properties);
+        for (final String[] keys : CONNECTION_PROPERTIES) {
+            if (isWrappable(properties, keys)) {
+                loadDriver((String) properties.get(keys[0]));
+                wrapped.put(keys[0], StatementRecordingDriver.class.getName());
+                wrapped.put(keys[1], URL_PREFIX + recorder.getId() + ":" + properties.get(keys[1]));
+            }
+        }
+        return wrapped;
+    }
+
+    private static void loadDriver(final String driverClass) {
+        // registers the original driver with the DriverManager
+        try {
+            Class.forName(driverClass, true, Thread.currentThread().getContextClassLoader());
+        } catch (final ClassNotFoundException e) {
+            throw new JpaUnitException("Could not load JDBC driver " + driverClass, e);
+        }
+    }
+
+    private static String getRecorderId(final String url) {
+        return url.substring(URL_PREFIX.length(), url.indexOf(':', URL_PREFIX.length()));
+    }
+
+    private static String unwrap(final String url) {
+        return url.substring(url.indexOf(':', URL_PREFIX.length()) + 1);
+    }
+
+    @Override
+    public Connection connect(final String url, final Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        final String originalUrl = unwrap(url);
+        final Connection connection = DriverManager.getDriver(originalUrl).connect(originalUrl, info);
+        final StatementRecorder recorder = StatementRecorder.get(getRecorderId(url));
+        // the recorder is closed together with the persistence unit
+        return recorder == null ? connection : JdbcProxies.connection(connection, recorder);
+    }
+
+    @Override
+    public boolean acceptsURL(final String url) {
+        return url != null && url.startsWith(URL_PREFIX) && url.indexOf(':', URL_PREFIX.length()) != -1;
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) throws SQLException {
+        final String originalUrl = unwrap(url);
+        return DriverManager.getDriver(originalUrl).getPropertyInfo(originalUrl, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,25 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import java.util.Locale;
+
+public enum StatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER;
+
+    public static StatementType of(final String sql) {
+        final String statement = StatementLog.normalize(sql).replaceFirst("^[(\\s]+", "").toUpperCase(Locale.ROOT);
+        if (statement.startsWith("SELECT") || statement.startsWith("WITH")) {
+            return SELECT;
+        } else if (statement.startsWith("INSERT")) {
+            return INSERT;
+        } else if (statement.startsWith("UPDATE")) {
+            return UPDATE;
+        } else if (statement.startsWith("DELETE")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+}
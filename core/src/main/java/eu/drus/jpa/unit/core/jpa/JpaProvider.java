@@ -0,0 +1,336 @@
+package eu.drus.jpa.unit.core.jpa;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.spi.CacheStatistics;
+import eu.drus.jpa.unit.spi.PersistenceContextStatistics;
+
+/**
+ * Access to the persistence context and the second level cache of the supported JPA providers. The
+ * providers are optional dependencies and are thus accessed using reflection only.
+ */
+enum JpaProvider {
+    HIBERNATE("org.hibernate.") {
+        private static final String SESSION = "org.hibernate.Session";
+        private static final String SESSION_FACTORY = "org.hibernate.SessionFactory";
+
+        @Override
+        Object getSession(final EntityManager em) {
+            return em.unwrap(loadClass(em, SESSION));
+        }
+
+        @Override
+        void collectManagedObjects(final Object session, final PersistenceContextStatistics statistics) {
+            final Object sessionStatistics = invoke(session, loadClass(session, SESSION), "getStatistics");
+            final Class<?> statisticsType = loadClass(session, "org.hibernate.stat.SessionStatistics");
+            for (final Object key : (Collection<?>) invoke(sessionStatistics, statisticsType, "getEntityKeys")) {
+                statistics.addManagedEntity((String) invoke(key, key.getClass(), "getEntityName"));
+            }
+            for (final Object key : (Collection<?>) invoke(sessionStatistics, statisticsType, "getCollectionKeys")) {
+                statistics.addManagedCollection((String) invoke(key, key.getClass(), "getRole"));
+            }
+        }
+
+        @Override
+        boolean addFlushListener(final Object session, final IntConsumer listener) {
+            final Class<?> listenerType;
+            try {
+                listenerType = Class.forName("org.hibernate.SessionEventListener", true, session.getClass().getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                // introduced with Hibernate 4.3
+                return false;
+            }
+
+            final Object listeners = Array.newInstance(listenerType, 1);
+            Array.set(listeners, 0, newListener(listenerType, "flushEnd", args -> listener.accept((Integer) args[0])));
+            invoke(session, loadClass(session, SESSION), "addEventListeners", new Class<?>[] {
+                    listeners.getClass()
+            }, listeners);
+            return true;
+        }
+
+        @Override
+        void evictCollections(final EntityManagerFactory emf) {
+            final Object cache = invoke(getSessionFactory(emf), loadClass(emf, SESSION_FACTORY), "getCache");
+            invoke(cache, loadClass(emf, "org.hibernate.Cache"), "evictCollectionRegions");
+        }
+
+        @Override
+        CacheStatistics getCacheStatistics(final EntityManagerFactory emf) {
+            final Class<?> statisticsType = loadClass(emf, "org.hibernate.stat.Statistics");
+            final Object statistics = invoke(getSessionFactory(emf), loadClass(emf, SESSION_FACTORY), "getStatistics");
+            if (!(Boolean) invoke(statistics, statisticsType, "isStatisticsEnabled")) {
+                invoke(statistics, statisticsType, "setStatisticsEnabled", new Class<?>[] {
+                        boolean.class
+                }, Boolean.TRUE);
+            }
+
+            return new CacheStatistics((Long) invoke(statistics, statisticsType, "getSecondLevelCacheHitCount"),
+                    (Long) invoke(statistics, statisticsType, "getSecondLevelCacheMissCount"),
+                    (Long) invoke(statistics, statisticsType, "getSecondLevelCachePutCount"));
+        }
+
+        @Override
+        void collectMappedTables(final EntityManagerFactory emf, final BiConsumer<String, Class<?>> tables) {
+            final Class<?> entityPersisterType = loadClass(emf, "org.hibernate.persister.entity.EntityPersister");
+            final Class<?> collectionPersisterType = loadClass(emf, "org.hibernate.persister.collection.CollectionPersister");
+
+            // the query spaces of an entity include its secondary tables and the tables of its
+            // supertypes
+            for (final Object persister : getPersisters(emf, "entityPersisters", "getAllClassMetadata")) {
+                final Class<?> entityType = (Class<?>) invoke(persister, entityPersisterType, "getMappedClass");
+                for (final Object table : (Object[]) invoke(persister, entityPersisterType, "getQuerySpaces")) {
+                    tables.accept((String) table, entityType);
+                }
+            }
+            for (final Object persister : getPersisters(emf, "collectionPersisters", "getAllCollectionMetadata")) {
+                final Object owner = invoke(persister, collectionPersisterType, "getOwnerEntityPersister");
+                final Class<?> entityType = (Class<?>) invoke(owner, entityPersisterType, "getMappedClass");
+                for (final Object table : (Object[]) invoke(persister, collectionPersisterType, "getCollectionSpaces")) {
+                    tables.accept((String) table, entityType);
+                }
+            }
+        }
+
+        private Collection<?> getPersisters(final EntityManagerFactory emf, final String metamodelMethod, final String metadataMethod) {
+            final Object sessionFactory = getSessionFactory(emf);
+            final Class<?> metamodelType;
+            try {
+                metamodelType = Class.forName("org.hibernate.metamodel.spi.MetamodelImplementor", true, emf.getClass().getClassLoader());
+            } catch (final ClassNotFoundException e) {
+                // before Hibernate 5.2 the persisters are accessed as class and collection metadata
+                return ((Map<?, ?>) invoke(sessionFactory, loadClass(emf, SESSION_FACTORY), metadataMethod)).values();
+            }
+
+            final Object metamodel = invoke(sessionFactory, loadClass(emf, "org.hibernate.engine.spi.SessionFactoryImplementor"),
+                    "getMetamodel");
+            return ((Map<?, ?>) invoke(metamodel, metamodelType, metamodelMethod)).values();
+        }
+
+        private Object getSessionFactory(final EntityManagerFactory emf) {
+            // since Hibernate 5.2 the SessionFactory implements the EntityManagerFactory
+            return loadClass(emf, SESSION_FACTORY).isInstance(emf) ? emf : invoke(emf, emf.getClass(), "getSessionFactory");
+        }
+    },
+    ECLIPSELINK("org.eclipse.persistence.") {
+        private static final String SESSION = "org.eclipse.persistence.sessions.Session";
+
+        @Override
+        Object getSession(final EntityManager em) {
+            return em.unwrap(loadClass(em, "org.eclipse.persistence.sessions.UnitOfWork"));
+        }
+
+        @Override
+        void collectManagedObjects(final Object unitOfWork, final PersistenceContextStatistics statistics) {
+            // EclipseLink registers the clones of all managed entities, but not their collections
+            for (final Object clone : getCloneMapping(unitOfWork).keySet()) {
+                statistics.addManagedEntity(clone.getClass().getName());
+            }
+        }
+
+        @Override
+        boolean addFlushListener(final Object unitOfWork, final IntConsumer listener) {
+            final Class<?> listenerType = loadClass(unitOfWork, "org.eclipse.persistence.sessions.SessionEventListener");
+            final Object eventManager = invoke(unitOfWork, loadClass(unitOfWork, SESSION), "getEventManager");
+
+            // the change set is calculated on each flush by comparing all registered clones with
+            // their backup copies
+            final Object flushListener = newListener(listenerType, "preCalculateUnitOfWorkChangeSet",
+                    args -> listener.accept(getCloneMapping(unitOfWork).size()));
+            invoke(eventManager, eventManager.getClass(), "addListener", new Class<?>[] {
+                    listenerType
+            }, flushListener);
+            return true;
+        }
+
+        @Override
+        void evictCollections(final EntityManagerFactory emf) {
+            // nothing to do. Collections are cached as part of their owning entities
+        }
+
+        @Override
+        CacheStatistics getCacheStatistics(final EntityManagerFactory emf) {
+            final Object serverSession = invoke(emf, emf.getClass(), "getServerSession");
+            final Class<?> sessionType = loadClass(emf, SESSION);
+            final Class<?> monitorType = loadClass(emf, "org.eclipse.persistence.tools.profiler.PerformanceMonitor");
+
+            Object profiler = invoke(serverSession, sessionType, "getProfiler");
+            if (profiler == null) {
+                profiler = newInstance(monitorType);
+                // the monitor logs its results every minute by default
+                invoke(profiler, monitorType, "setDumpTime", new Class<?>[] {
+                        long.class
+                }, Long.MAX_VALUE);
+                invoke(serverSession, sessionType, "setProfiler", new Class<?>[] {
+                        loadClass(emf, "org.eclipse.persistence.sessions.SessionProfiler")
+                }, profiler);
+            } else if (!monitorType.isInstance(profiler)) {
+                throw new JpaUnitException(
+                        "Cache statistics require the EclipseLink PerformanceMonitor, but " + profiler.getClass().getName() + " is configured");
+            }
+
+            // EclipseLink does not count puts
+            return new CacheStatistics(getCounter(profiler, monitorType, "Counter:CacheHits"),
+                    getCounter(profiler, monitorType, "Counter:CacheMisses"), -1);
+        }
+
+        @Override
+        void collectMappedTables(final EntityManagerFactory emf, final BiConsumer<String, Class<?>> tables) {
+            final Object serverSession = invoke(emf, emf.getClass(), "getServerSession");
+            final Class<?> descriptorType = loadClass(emf, "org.eclipse.persistence.descriptors.ClassDescriptor");
+            for (final Object descriptor : ((Map<?, ?>) invoke(serverSession, loadClass(emf, SESSION), "getDescriptors")).values()) {
+                final Class<?> entityType = (Class<?>) invoke(descriptor, descriptorType, "getJavaClass");
+                for (final Object table : (Collection<?>) invoke(descriptor, descriptorType, "getTableNames")) {
+                    tables.accept((String) table, entityType);
+                }
+
+                // join tables are mapped by relationships, collection tables by direct collections
+                for (final Object mapping : (Collection<?>) invoke(descriptor, descriptorType, "getMappings")) {
+                    for (final String methodName : new String[] {
+                            "getRelationTableName", "getReferenceTableName"
+                    }) {
+                        final Object table = invokeIfPresent(mapping, methodName);
+                        if (table != null) {
+                            tables.accept((String) table, entityType);
+                        }
+                    }
+                }
+            }
+        }
+
+        private Object invokeIfPresent(final Object target, final String methodName) {
+            try {
+                target.getClass().getMethod(methodName);
+            } catch (final NoSuchMethodException e) {
+                return null;
+            }
+            return invoke(target, target.getClass(), methodName);
+        }
+
+        private long getCounter(final Object profiler, final Class<?> monitorType, final String name) {
+            final Object value = invoke(profiler, monitorType, "getOperationTime", new Class<?>[] {
+                    String.class
+            }, name);
+            return value == null ? 0 : ((Number) value).longValue();
+        }
+
+        private Map<?, ?> getCloneMapping(final Object unitOfWork) {
+            return (Map<?, ?>) invoke(unitOfWork, unitOfWork.getClass(), "getCloneMapping");
+        }
+    };
+
+    private final String packagePrefix;
+
+    private JpaProvider(final String packagePrefix) {
+        this.packagePrefix = packagePrefix;
+    }
+
+    /**
+     * The provider specific session implementing the persistence context of the given
+     * EntityManager.
+     */
+    abstract Object getSession(EntityManager em);
+
+    abstract void collectManagedObjects(Object session, PersistenceContextStatistics statistics);
+
+    /**
+     * Registers a listener, which is notified with the number of dirty-checked entities on each
+     * flush of the given session.
+     *
+     * @return false, if flushes can not be observed with the version of the provider
+     */
+    abstract boolean addFlushListener(Object session, IntConsumer listener);
+
+    /**
+     * Evicts all cached collections, which are not evicted together with the entities by
+     * {@link javax.persistence.Cache#evict(Class)}.
+     */
+    abstract void evictCollections(EntityManagerFactory emf);
+
+    /**
+     * Reports the tables mapped by the entity types of the given EntityManagerFactory including
+     * their secondary, join and collection tables.
+     */
+    abstract void collectMappedTables(EntityManagerFactory emf, BiConsumer<String, Class<?>> tables);
+
+    /**
+     * The current counters of the second level cache. Collecting these is enabled if required.
+     */
+    abstract CacheStatistics getCacheStatistics(EntityManagerFactory emf);
+
+    /**
+     * The provider implementing the given EntityManager or EntityManagerFactory or null, if not
+     * supported.
+     */
+    static JpaProvider of(final Object jpaObject) {
+        for (final JpaProvider provider : values()) {
+            if (jpaObject.getClass().getName().startsWith(provider.packagePrefix)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> loadClass(final Object instance, final String className) {
+        try {
+            return Class.forName(className, true, instance.getClass().getClassLoader());
+        } catch (final ClassNotFoundException e) {
+            throw new JpaUnitException("Could not access the JPA provider", e);
+        }
+    }
+
+    private static Object invoke(final Object target, final Class<?> type, final String methodName) {
+        return invoke(target, type, methodName, new Class<?>[0]);
+    }
+
+    private static Object invoke(final Object target, final Class<?> type, final String methodName, final Class<?>[] parameterTypes,
+            final Object... args) {
+        try {
+            return type.getMethod(methodName, parameterTypes).invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw new JpaUnitException("Could not access the JPA provider", e.getCause());
+        } catch (final ReflectiveOperationException e) {
+            throw new JpaUnitException("Could not access the JPA provider", e);
+        }
+    }
+
+    private static Object newInstance(final Class<?> type) {
+        try {
+            return type.newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new JpaUnitException("Could not access the JPA provider", e);
+        }
+    }
+
+    private static Object newListener(final Class<?> listenerType, final String eventMethod, final Consumer<Object[]> handler) {
+        return Proxy.newProxyInstance(listenerType.getClassLoader(), new Class<?>[] {
+                listenerType
+        }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "persistence context inspector";
+            default:
+                // all other listener methods are void
+                if (method.getName().equals(eventMethod)) {
+                    handler.accept(args);
+                }
+                return null;
+            }
+        });
+    }
+}
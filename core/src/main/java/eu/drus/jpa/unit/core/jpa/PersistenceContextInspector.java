@@ -0,0 +1,70 @@
+package eu.drus.jpa.unit.core.jpa;
+
+import javax.persistence.EntityManager;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.spi.PersistenceContextStatistics;
+
+/**
+ * Inspects the persistence context of an EntityManager. An inspector is bound to a single
+ * EntityManager, which may be used by several tests, as e.g. for an <code>EXTENDED</code>
+ * persistence context. Each test starts a new inspection.
+ */
+public class PersistenceContextInspector {
+
+    private final EntityManager em;
+    private final JpaProvider provider;
+    private Object session;
+    private boolean flushesCounted;
+    private PersistenceContextStatistics statistics;
+
+    private PersistenceContextInspector(final EntityManager em, final JpaProvider provider) {
+        this.em = em;
+        this.provider = provider;
+    }
+
+    public static PersistenceContextInspector create(final EntityManager em) {
+        final JpaProvider provider = JpaProvider.of(em);
+        if (provider == null) {
+            throw new JpaUnitException("Inspection of the persistence context is not supported for " + em.getClass().getName());
+        }
+        return new PersistenceContextInspector(em, provider);
+    }
+
+    public boolean inspects(final EntityManager entityManager) {
+        return em == entityManager;
+    }
+
+    /**
+     * Starts a new inspection. Flushes are counted from now on until the next inspection is
+     * started.
+     */
+    public void start() {
+        final Object currentSession = provider.getSession(em);
+        if (currentSession != session) {
+            // the provider may replace its session, e.g. if the persistence context is cleared
+            // outside of a transaction. The flush listener is registered once per session.
+            session = currentSession;
+            flushesCounted = provider.addFlushListener(session, this::flushed);
+        }
+        statistics = new PersistenceContextStatistics(flushesCounted);
+    }
+
+    private void flushed(final int dirtyCheckedEntities) {
+        if (statistics != null) {
+            statistics.addFlush(dirtyCheckedEntities);
+        }
+    }
+
+    /**
+     * Records the currently managed entities and collections in the statistics of the running
+     * inspection.
+     */
+    public void collectManagedObjects() {
+        provider.collectManagedObjects(provider.getSession(em), statistics);
+    }
+
+    public PersistenceContextStatistics getStatistics() {
+        return statistics;
+    }
+}
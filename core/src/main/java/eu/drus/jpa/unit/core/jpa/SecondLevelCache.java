@@ -0,0 +1,100 @@
+package eu.drus.jpa.unit.core.jpa;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EntityType;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.spi.CacheStatistics;
+
+/**
+ * Access to the second level cache of an EntityManagerFactory beyond the capabilities of
+ * {@link javax.persistence.Cache}.
+ */
+public class SecondLevelCache {
+
+    private final EntityManagerFactory emf;
+    private final JpaProvider provider;
+
+    public SecondLevelCache(final EntityManagerFactory emf) {
+        this.emf = emf;
+        provider = JpaProvider.of(emf);
+    }
+
+    public void evictAll() {
+        emf.getCache().evictAll();
+    }
+
+    /**
+     * Evicts the given entity types including their subtypes. Since the JPA API does not support
+     * the eviction of cached collections, all these are evicted as well, if supported by the JPA
+     * provider.
+     */
+    public void evict(final Collection<Class<?>> entityTypes) {
+        for (final Class<?> entityType : entityTypes) {
+            emf.getCache().evict(entityType);
+        }
+
+        if (provider != null) {
+            provider.evictCollections(emf);
+        }
+    }
+
+    /**
+     * Determines the entity types mapped to the given tables using the mapping metadata of the JPA
+     * provider. The table names are compared case insensitive and without schema.
+     *
+     * @return the entity types or null, if the JPA provider is not supported or any of the given
+     *         tables is not mapped by an entity type
+     */
+    public Set<Class<?>> getEntityTypesMappedTo(final Collection<String> tableNames) {
+        if (provider == null) {
+            return null;
+        }
+
+        final Set<Class<?>> entities = new HashSet<>();
+        for (final EntityType<?> entityType : emf.getMetamodel().getEntities()) {
+            entities.add(entityType.getJavaType());
+        }
+
+        final Map<String, Set<Class<?>>> entityTypesByTable = new HashMap<>();
+        provider.collectMappedTables(emf, (tableName, entityType) -> {
+            if (entities.contains(entityType)) {
+                entityTypesByTable.computeIfAbsent(normalize(tableName), k -> new HashSet<>()).add(entityType);
+            }
+        });
+
+        final Set<Class<?>> entityTypes = new LinkedHashSet<>();
+        for (final String tableName : tableNames) {
+            final Set<Class<?>> mappedTypes = entityTypesByTable.get(normalize(tableName));
+            if (mappedTypes == null) {
+                return null;
+            }
+            entityTypes.addAll(mappedTypes);
+        }
+        return entityTypes;
+    }
+
+    /**
+     * The current counters of the cache.
+     */
+    public CacheStatistics getStatistics() {
+        if (provider == null) {
+            throw new JpaUnitException("Second level cache statistics are not supported for " + emf.getClass().getName());
+        }
+        return provider.getCacheStatistics(emf);
+    }
+
+    private static String normalize(final String tableName) {
+        // quoted names are reported including their quotes
+        final String name = tableName.substring(tableName.lastIndexOf('.') + 1).replaceAll("[`\"\\[\\]]", "");
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+}
@@ -13,8 +13,16 @@ import eu.drus.jpa.unit.api.Bootstrapping;
 import eu.drus.jpa.unit.api.Cleanup;
 import eu.drus.jpa.unit.api.CleanupCache;
 import eu.drus.jpa.unit.api.CleanupUsingScripts;
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
 import eu.drus.jpa.unit.api.ExpectedDataSets;
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
 import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.api.MaxComplexity;
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.api.PerformanceBudget;
 import eu.drus.jpa.unit.api.Transactional;
 
 public class MetadataExtractor {
@@ -46,10 +54,42 @@ public class MetadataExtractor {
         return using(InitialDataSets.class);
     }
 
+    public AnnotationInspector<GeneratedDataSets> generatedDataSets() {
+        return using(GeneratedDataSets.class);
+    }
+
+    public AnnotationInspector<MaxComplexity> maxComplexity() {
+        return using(MaxComplexity.class);
+    }
+
+    public AnnotationInspector<PerformanceBudget> performanceBudget() {
+        return using(PerformanceBudget.class);
+    }
+
     public AnnotationInspector<ExpectedDataSets> expectedDataSets() {
         return using(ExpectedDataSets.class);
     }
 
+    public AnnotationInspector<ExpectedStatements> expectedStatements() {
+        return using(ExpectedStatements.class);
+    }
+
+    public AnnotationInspector<ExpectedMongoCommands> expectedMongoCommands() {
+        return using(ExpectedMongoCommands.class);
+    }
+
+    public AnnotationInspector<ForbidFullTableScan> forbidFullTableScan() {
+        return using(ForbidFullTableScan.class);
+    }
+
+    public AnnotationInspector<ExpectedCacheStatistics> expectedCacheStatistics() {
+        return using(ExpectedCacheStatistics.class);
+    }
+
+    public AnnotationInspector<MaxManagedEntities> maxManagedEntities() {
+        return using(MaxManagedEntities.class);
+    }
+
     public AnnotationInspector<Cleanup> cleanup() {
         return using(Cleanup.class);
     }
@@ -1,9 +1,13 @@
 package eu.drus.jpa.unit.decorator.jpa;
 
+import java.util.Map;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 
+import eu.drus.jpa.unit.core.jdbc.StatementRecorder;
+import eu.drus.jpa.unit.core.jdbc.StatementRecordingDriver;
 import eu.drus.jpa.unit.spi.Constants;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
@@ -22,7 +26,17 @@ public class EntityManagerFactoryDecorator implements TestClassDecorator {
         ExecutionContext context = invocation.getContext();
         final PersistenceUnitDescriptor descriptor = context.getDescriptor();
 
-        final EntityManagerFactory emf = Persistence.createEntityManagerFactory(descriptor.getUnitName(), descriptor.getProperties());
+        // if required, the connections of the JPA provider are wrapped to record the statements
+        // issued by the tests. Connections opened by jpa-unit itself, e.g. for seeding, are not
+        // affected.
+        Map<String, Object> properties = descriptor.getProperties();
+        if (invocation.getFeatureResolver().shouldRecordStatements() && StatementRecordingDriver.isWrappable(properties)) {
+            final StatementRecorder recorder = StatementRecorder.create();
+            properties = StatementRecordingDriver.wrapConnectionProperties(properties, recorder);
+            context.storeData(Constants.KEY_STATEMENT_RECORDER, recorder);
+        }
+
+        final EntityManagerFactory emf = Persistence.createEntityManagerFactory(descriptor.getUnitName(), properties);
         context.storeData(Constants.KEY_ENTITY_MANAGER_FACTORY, emf);
     }
 
@@ -41,6 +55,12 @@ public class EntityManagerFactoryDecorator implements TestClassDecorator {
         final EntityManagerFactory emf = (EntityManagerFactory) context.getData(Constants.KEY_ENTITY_MANAGER_FACTORY);
         context.storeData(Constants.KEY_ENTITY_MANAGER_FACTORY, null);
         emf.close();
+
+        final StatementRecorder recorder = (StatementRecorder) context.getData(Constants.KEY_STATEMENT_RECORDER);
+        context.storeData(Constants.KEY_STATEMENT_RECORDER, null);
+        if (recorder != null) {
+            recorder.close();
+        }
     }
 
     @Override
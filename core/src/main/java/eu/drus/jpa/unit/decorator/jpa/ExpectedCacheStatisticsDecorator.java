@@ -0,0 +1,65 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.CacheStatistics;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class ExpectedCacheStatisticsDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        // nothing to do. The statistics are collected by the SecondLevelCacheDecorator
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final ExpectedCacheStatistics expected = invocation.getFeatureResolver().getExpectedCacheStatistics();
+        final CacheStatistics statistics = (CacheStatistics) invocation.getContext().getData(Constants.KEY_CACHE_STATISTICS);
+        if (expected == null || statistics == null || invocation.getException().isPresent()) {
+            return;
+        }
+
+        final AssertionErrorCollector errorCollector = (AssertionErrorCollector) invocation.getContext()
+                .getData(Constants.KEY_ASSERTION_ERROR_COLLECTOR);
+        if (expected.minHitRatio() >= 0) {
+            final double hitRatio = statistics.getHitRatio();
+            if (Double.isNaN(hitRatio)) {
+                errorCollector.collect(String.format("Expected a cache hit ratio of at least %d%%, but the cache has not been looked up",
+                        Math.round(expected.minHitRatio() * 100)));
+            } else if (hitRatio < expected.minHitRatio()) {
+                errorCollector.collect(String.format("Expected a cache hit ratio of at least %d%%, but it was %d%% (%d hits, %d misses)",
+                        Math.round(expected.minHitRatio() * 100), Math.round(hitRatio * 100), statistics.getHits(), statistics.getMisses()));
+            }
+        }
+        if (expected.minHits() >= 0 && statistics.getHits() < expected.minHits()) {
+            errorCollector.collect(String.format("Expected at least %d cache hits, but %d occurred", expected.minHits(), statistics.getHits()));
+        }
+        if (expected.maxMisses() >= 0 && statistics.getMisses() > expected.maxMisses()) {
+            errorCollector
+                    .collect(String.format("Expected at most %d cache misses, but %d occurred", expected.maxMisses(), statistics.getMisses()));
+        }
+        if (expected.maxPuts() >= 0) {
+            if (statistics.getPuts() == -1) {
+                throw new JpaUnitException("Cache puts are not counted by the JPA provider");
+            }
+            if (statistics.getPuts() > expected.maxPuts()) {
+                errorCollector.collect(String.format("Expected at most %d cache puts, but %d occurred", expected.maxPuts(), statistics.getPuts()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
+import eu.drus.jpa.unit.core.jdbc.StatementType;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class ExpectedStatementsDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        // nothing to do. The statements are recorded by the MeasurementDecorator
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final ExpectedStatements expectedStatements = invocation.getFeatureResolver().getExpectedStatements();
+        final Measurement measurement = (Measurement) invocation.getContext().getData(Constants.KEY_MEASUREMENT);
+        if (expectedStatements == null || measurement == null || invocation.getException().isPresent()) {
+            return;
+        }
+
+        final AssertionErrorCollector errorCollector = (AssertionErrorCollector) invocation.getContext()
+                .getData(Constants.KEY_ASSERTION_ERROR_COLLECTOR);
+        final StatementLog log = measurement.getStatementLog();
+        if (log == null) {
+            // passing without any verification would be misleading
+            errorCollector.collect("Statement recording is not available for persistence unit "
+                    + invocation.getContext().getDescriptor().getUnitName() + ". @ExpectedStatements requires the JDBC connection"
+                    + " to be configured by javax.persistence.jdbc.url or hibernate.connection.url");
+            return;
+        }
+
+        verify(errorCollector, log, StatementType.SELECT, expectedStatements.select());
+        verify(errorCollector, log, StatementType.INSERT, expectedStatements.insert());
+        verify(errorCollector, log, StatementType.UPDATE, expectedStatements.update());
+        verify(errorCollector, log, StatementType.DELETE, expectedStatements.delete());
+        if (expectedStatements.max() >= 0 && log.size() > expectedStatements.max()) {
+            errorCollector.collect(String.format("Expected at most %d statements, but %d were executed:%n%s", expectedStatements.max(),
+                    log.size(), describe(log, null)));
+        }
+    }
+
+    private void verify(final AssertionErrorCollector errorCollector, final StatementLog log, final StatementType type,
+            final int expected) {
+        final int actual = log.count(type);
+        if (expected >= 0 && actual != expected) {
+            errorCollector.collect(
+                    String.format("Expected %d %s statements, but %d were executed:%n%s", expected, type, actual, describe(log, type)));
+        }
+    }
+
+    private String describe(final StatementLog log, final StatementType type) {
+        final List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        for (final Map.Entry<String, Integer> entry : log.countByStatement().entrySet()) {
+            if (type == null || StatementType.of(entry.getKey()) == type) {
+                entries.add(entry);
+            }
+        }
+        // most frequent statements first. The sort is stable, so equally frequent statements
+        // retain the order of their first execution
+        entries.sort((a, b) -> b.getValue() - a.getValue());
+
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<String, Integer> entry : entries) {
+            builder.append(String.format("  %5dx %s%n", entry.getValue(), entry.getKey()));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import java.util.Map;
+
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.core.jpa.PersistenceContextInspector;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.PersistenceContextStatistics;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class MaxManagedEntitiesDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        // nothing to do. The persistence context is inspected by the
+        // PersistenceContextInspectionDecorator
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final MaxManagedEntities maxManagedEntities = invocation.getFeatureResolver().getMaxManagedEntities();
+        final PersistenceContextInspector inspector = (PersistenceContextInspector) invocation.getContext()
+                .getData(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR);
+        if (maxManagedEntities == null || inspector == null || invocation.getException().isPresent()) {
+            return;
+        }
+
+        final PersistenceContextStatistics statistics = inspector.getStatistics();
+        final AssertionErrorCollector errorCollector = (AssertionErrorCollector) invocation.getContext()
+                .getData(Constants.KEY_ASSERTION_ERROR_COLLECTOR);
+        if (statistics.getManagedEntityCount() > maxManagedEntities.value()) {
+            errorCollector.collect(String.format("Expected at most %d managed entities, but %d were managed at commit time:%n%s",
+                    maxManagedEntities.value(), statistics.getManagedEntityCount(), describe(statistics)));
+        }
+    }
+
+    private String describe(final PersistenceContextStatistics statistics) {
+        final StringBuilder builder = new StringBuilder();
+        append(builder, "entities", statistics.getManagedEntities());
+        append(builder, "collections", statistics.getManagedCollections());
+        if (statistics.getFlushes() == -1) {
+            builder.append(String.format("  flushes: not supported by the JPA provider%n"));
+        } else {
+            builder.append(String.format("  flushes: %d, dirty-checked entities: %d%n", statistics.getFlushes(), statistics.getDirtyChecks()));
+        }
+        return builder.toString();
+    }
+
+    private void append(final StringBuilder builder, final String title, final Map<String, Integer> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        builder.append(String.format("  managed %s:%n", title));
+        // most frequent types first. The sort is stable, so equally frequent types retain their
+        // alphabetical order
+        counts.entrySet().stream().sorted((a, b) -> b.getValue() - a.getValue())
+                .forEach(entry -> builder.append(String.format("  %5dx %s%n", entry.getValue(), entry.getKey())));
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
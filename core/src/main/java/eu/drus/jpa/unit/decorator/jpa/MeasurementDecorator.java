@@ -0,0 +1,40 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import eu.drus.jpa.unit.core.jdbc.StatementRecorder;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class MeasurementDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        // runs after seeding the database and before the transaction is started. Thus the commit
+        // of the transaction (and the flush of the changes) is measured as well, but not the
+        // verification of the data base contents.
+        return 50;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        final ExecutionContext context = invocation.getContext();
+        final boolean measure = invocation.getFeatureResolver().shouldMeasureExecution();
+        final StatementRecorder recorder = (StatementRecorder) context.getData(Constants.KEY_STATEMENT_RECORDER);
+        context.storeData(Constants.KEY_MEASUREMENT, measure ? Measurement.start(recorder) : null);
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final Measurement measurement = (Measurement) invocation.getContext().getData(Constants.KEY_MEASUREMENT);
+        if (measurement != null) {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
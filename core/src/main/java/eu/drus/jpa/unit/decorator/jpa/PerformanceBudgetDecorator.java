@@ -0,0 +1,59 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import java.util.concurrent.TimeUnit;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.api.PerformanceBudget;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class PerformanceBudgetDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        // nothing to do. The test body is measured by the MeasurementDecorator
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final FeatureResolver resolver = invocation.getFeatureResolver();
+        final PerformanceBudget performanceBudget = resolver.getPerformanceBudget();
+        final Measurement measurement = (Measurement) invocation.getContext().getData(Constants.KEY_MEASUREMENT);
+        if (performanceBudget == null || measurement == null || resolver.isWarmUp() || invocation.getException().isPresent()) {
+            return;
+        }
+
+        final AssertionErrorCollector errorCollector = (AssertionErrorCollector) invocation.getContext()
+                .getData(Constants.KEY_ASSERTION_ERROR_COLLECTOR);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(measurement.getElapsedTime());
+        if (performanceBudget.maxMillis() >= 0 && elapsedMillis > performanceBudget.maxMillis()) {
+            errorCollector.collect(
+                    String.format("Test took %d ms, which exceeds the budget of %d ms", elapsedMillis, performanceBudget.maxMillis()));
+        }
+
+        if (performanceBudget.maxAllocatedBytes() >= 0) {
+            final long allocatedBytes = measurement.getAllocatedBytes();
+            if (allocatedBytes == -1) {
+                throw new JpaUnitException("Allocated memory can not be measured on this JVM");
+            } else if (allocatedBytes > performanceBudget.maxAllocatedBytes()) {
+                errorCollector.collect(String.format("Test allocated %d bytes, which exceeds the budget of %d bytes", allocatedBytes,
+                        performanceBudget.maxAllocatedBytes()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import javax.persistence.EntityManager;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.core.jpa.PersistenceContextInspector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class PersistenceContextInspectionDecorator implements TestMethodDecorator {
+
+    @Override
+    public int getPriority() {
+        // runs closest to the test body. Thus the persistence context is inspected before the
+        // TransactionDecorator commits the transaction and clears the persistence context
+        return 101;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        if (invocation.getFeatureResolver().getMaxManagedEntities() == null) {
+            return;
+        }
+
+        final ExecutionContext context = invocation.getContext();
+        final EntityManager em = (EntityManager) context.getData(Constants.KEY_ENTITY_MANAGER);
+        if (em == null) {
+            throw new JpaUnitException("Inspection of the persistence context requires an injected EntityManager");
+        }
+
+        PersistenceContextInspector inspector = (PersistenceContextInspector) context.getData(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR);
+        if (inspector == null || !inspector.inspects(em)) {
+            // an EXTENDED persistence context is inspected by the same inspector in all tests
+            inspector = PersistenceContextInspector.create(em);
+            context.storeData(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR, inspector);
+        }
+        inspector.start();
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final PersistenceContextInspector inspector = (PersistenceContextInspector) invocation.getContext()
+                .getData(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR);
+        if (invocation.getFeatureResolver().getMaxManagedEntities() == null || inspector == null
+                || invocation.getException().isPresent()) {
+            return;
+        }
+
+        // the flush on commit is still counted by the inspector
+        inspector.collectManagedObjects();
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return true;
+    }
+}
@@ -1,37 +1,78 @@
 package eu.drus.jpa.unit.decorator.jpa;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import javax.persistence.EntityManagerFactory;
 
+import eu.drus.jpa.unit.core.jpa.SecondLevelCache;
+import eu.drus.jpa.unit.spi.CacheStatistics;
 import eu.drus.jpa.unit.spi.Constants;
 import eu.drus.jpa.unit.spi.ExecutionContext;
-import eu.drus.jpa.unit.spi.TestMethodDecorator;
+import eu.drus.jpa.unit.spi.FeatureResolver;
 import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
 
 public class SecondLevelCacheDecorator implements TestMethodDecorator {
 
     @Override
     public int getPriority() {
-        return 0;
+        // runs after the decorators seeding the database, so that the seeded tables are known
+        // before the test and the cache statistics cover the test body and the commit of the
+        // test transaction only
+        return 6;
     }
 
-    private void evictCache(final boolean doEvict, final EntityManagerFactory emf) {
-        if (doEvict) {
-            emf.getCache().evictAll();
+    private void evictCache(final boolean doEvict, final TestInvocation invocation, final SecondLevelCache cache) {
+        if (!doEvict) {
+            return;
+        }
+
+        final FeatureResolver resolver = invocation.getFeatureResolver();
+        final Set<Class<?>> entityTypes = new LinkedHashSet<>(resolver.getEntitiesToEvict());
+        if (resolver.shouldEvictSeededEntitiesOnly()) {
+            @SuppressWarnings("unchecked")
+            final Collection<String> seededTables = (Collection<String>) invocation.getContext().getData(Constants.KEY_SEEDED_TABLES);
+            final Set<Class<?>> seededEntityTypes = seededTables != null ? cache.getEntityTypesMappedTo(seededTables) : null;
+            if (seededEntityTypes == null) {
+                // the seeded tables are not known for the used database or not all of them are
+                // mapped by entity types
+                cache.evictAll();
+                return;
+            }
+            entityTypes.addAll(seededEntityTypes);
+        } else if (entityTypes.isEmpty()) {
+            cache.evictAll();
+            return;
         }
+
+        cache.evict(entityTypes);
     }
 
     @Override
     public void beforeTest(final TestInvocation invocation) throws Exception {
         final EntityManagerFactory emf = (EntityManagerFactory) invocation.getContext().getData(Constants.KEY_ENTITY_MANAGER_FACTORY);
+        final SecondLevelCache cache = new SecondLevelCache(emf);
+
+        evictCache(invocation.getFeatureResolver().shouldEvictCacheBefore(), invocation, cache);
 
-        evictCache(invocation.getFeatureResolver().shouldEvictCacheBefore(), emf);
+        if (invocation.getFeatureResolver().getExpectedCacheStatistics() != null) {
+            invocation.getContext().storeData(Constants.KEY_CACHE_STATISTICS, cache.getStatistics());
+        }
     }
 
     @Override
     public void afterTest(final TestInvocation invocation) throws Exception {
         final EntityManagerFactory emf = (EntityManagerFactory) invocation.getContext().getData(Constants.KEY_ENTITY_MANAGER_FACTORY);
+        final SecondLevelCache cache = new SecondLevelCache(emf);
+
+        if (invocation.getFeatureResolver().getExpectedCacheStatistics() != null) {
+            final CacheStatistics start = (CacheStatistics) invocation.getContext().getData(Constants.KEY_CACHE_STATISTICS);
+            invocation.getContext().storeData(Constants.KEY_CACHE_STATISTICS, cache.getStatistics().since(start));
+        }
 
-        evictCache(invocation.getFeatureResolver().shouldEvictCacheAfter(), emf);
+        evictCache(invocation.getFeatureResolver().shouldEvictCacheAfter(), invocation, cache);
     }
 
     @Override
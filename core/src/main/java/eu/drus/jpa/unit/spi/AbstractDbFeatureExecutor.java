@@ -6,12 +6,18 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import eu.drus.jpa.unit.api.CleanupStrategy;
 import eu.drus.jpa.unit.api.DataSeedStrategy;
 import eu.drus.jpa.unit.api.ExpectedDataSets;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
+import eu.drus.jpa.unit.util.ResourceLocator;
 
 public abstract class AbstractDbFeatureExecutor<D, C> {
 
@@ -43,6 +49,8 @@ public abstract class AbstractDbFeatureExecutor<D, C> {
 
     protected abstract List<D> loadDataSets(final List<String> paths);
 
+    protected abstract D createGeneratedDataSet(GeneratedDataSet generatedDataSet);
+
     protected abstract DbFeature<C> createCleanupFeature(CleanupStrategy cleanupStrategy, List<D> initialDataSets);
 
     protected abstract DbFeature<C> createApplyCustomScriptFeature(List<String> scriptPaths);
@@ -51,14 +59,48 @@ public abstract class AbstractDbFeatureExecutor<D, C> {
 
     protected abstract DbFeature<C> createVerifyDataAfterFeature(ExpectedDataSets expectedDataSets);
 
+    /**
+     * Returns the names of the tables of the given data set or null, if these can not be
+     * determined.
+     */
+    protected Collection<String> getTableNames(final D dataSet) {
+        return null;
+    }
+
+    /**
+     * The names of the tables seeded by the initial data sets of the test or null, if these can
+     * not be determined.
+     */
+    public Set<String> getSeededTables() {
+        if (!featureResolver.shouldSeedData()) {
+            return Collections.emptySet();
+        }
+
+        final Set<String> tableNames = new HashSet<>();
+        for (final D dataSet : getInitialDataSets()) {
+            final Collection<String> names = getTableNames(dataSet);
+            if (names == null) {
+                return null;
+            }
+            tableNames.addAll(names);
+        }
+        return tableNames;
+    }
+
     protected String loadScript(final String scriptPath) throws IOException, URISyntaxException {
         final URL url = getResource(scriptPath);
-        return new String(Files.readAllBytes(Paths.get(url.toURI()))).trim();
+        return new String(Files.readAllBytes(ResourceLocator.toPath(url))).trim();
     }
 
     private List<D> getInitialDataSets() {
         if (initialDataSets == null) {
             initialDataSets = loadDataSets(featureResolver.getSeedData());
+
+            final GeneratedDataSets generatedDataSets = featureResolver.getGeneratedData();
+            if (generatedDataSets != null) {
+                initialDataSets = new ArrayList<>(initialDataSets);
+                initialDataSets.add(createGeneratedDataSet(new GeneratedDataSet(generatedDataSets, featureResolver.getScaleFactor())));
+            }
         }
         return initialDataSets;
     }
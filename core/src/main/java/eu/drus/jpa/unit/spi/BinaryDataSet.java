@@ -0,0 +1,316 @@
+package eu.drus.jpa.unit.spi;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read only view on a data set stored in the binary columnar format. The file is memory mapped and
+ * only its header is read on opening. Values are decoded from the mapped buffer when accessed.
+ *
+ * <p>
+ * The layout of the file is as follows (all numbers are big endian):
+ *
+ * <pre>
+ * file   := MAGIC VERSION tableCount:int table*  block*
+ * table  := name:string rowCount:int columnCount:int column*
+ * column := name:string type:byte offset:long
+ * block  := length:int nullBitmap:byte[(rowCount + 7) / 8] values
+ * string := length:int utf8:byte[length]
+ * </pre>
+ *
+ * Fixed size values (INT, LONG, DOUBLE, BOOLEAN) are stored one after the other. Variable size
+ * values (STRING, BYTES) are stored as <code>rowCount + 1</code> int offsets followed by the
+ * concatenated value bytes.
+ */
+public class BinaryDataSet {
+
+    public static final int MAGIC = 0x4A554453;
+    public static final short VERSION = 1;
+    public static final String FILE_EXTENSION = ".bin";
+
+    public enum ColumnType {
+        INT(Integer.BYTES),
+        LONG(Long.BYTES),
+        DOUBLE(Double.BYTES),
+        BOOLEAN(1),
+        STRING(-1),
+        BYTES(-1);
+
+        private final int size;
+
+        private ColumnType(final int size) {
+            this.size = size;
+        }
+
+        boolean isFixedSize() {
+            return size > 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        public static ColumnType of(final Object value) {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return INT;
+            } else if (value instanceof Long) {
+                return LONG;
+            } else if (value instanceof Double || value instanceof Float) {
+                return DOUBLE;
+            } else if (value instanceof Boolean) {
+                return BOOLEAN;
+            } else if (value instanceof byte[]) {
+                return BYTES;
+            } else {
+                return STRING;
+            }
+        }
+    }
+
+    private final List<Table> tables;
+
+    private BinaryDataSet(final ByteBuffer buffer, final Path file) throws IOException {
+        if (buffer.remaining() < Integer.BYTES + Short.BYTES + Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary data set");
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary data set version " + version);
+        }
+
+        final int tableCount = buffer.getInt();
+        if (tableCount < 0) {
+            throw corrupted(file, "negative table count");
+        }
+        final List<Table> tableList = new ArrayList<>();
+        try {
+            for (int i = 0; i < tableCount; i++) {
+                tableList.add(new Table(buffer, file));
+            }
+        } catch (final BufferUnderflowException e) {
+            throw corrupted(file, "truncated header");
+        }
+        tables = Collections.unmodifiableList(tableList);
+    }
+
+    /**
+     * Returns the file a data set compiled at build time is stored in. A compiled data set is
+     * placed next to its source file, e.g. <code>data.json</code> is compiled to
+     * <code>data.json.bin</code>.
+     */
+    public static Path compiledFileOf(final Path source) {
+        final String fileName = String.valueOf(source.getFileName());
+        if (fileName.endsWith(FILE_EXTENSION)) {
+            return source;
+        }
+        return source.resolveSibling(fileName + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns whether a compiled data set exists for the given source file, which is not older
+     * than the source file itself.
+     */
+    public static boolean isCompiled(final Path source) {
+        final Path compiled = compiledFileOf(source);
+        try {
+            return compiled != source && Files.isRegularFile(compiled)
+                    && Files.getLastModifiedTime(compiled).toMillis() >= lastModified(source);
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private static long lastModified(final Path source) throws IOException {
+        long lastModified = Files.getLastModifiedTime(source).toMillis();
+        if (Files.isDirectory(source)) {
+            // data sets stored in a directory, like csv data sets
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(source)) {
+                for (final Path file : files) {
+                    lastModified = Math.max(lastModified, Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+        }
+        return lastModified;
+    }
+
+    public static BinaryDataSet open(final Path file) throws IOException {
+        final Compression compression = Compression.inferFromFile(file);
+        if (compression != Compression.NONE && compression.strip(String.valueOf(file.getFileName())).endsWith(FILE_EXTENSION)) {
+            throw new UnsupportedDataSetFormatException("Compressed binary data sets are not supported, since these are memory mapped");
+        }
+
+        final Path compiled = compiledFileOf(file);
+        if (compiled.getFileSystem() != FileSystems.getDefault()) {
+            // entries of an archive, like a jar on the class path, cannot be mapped
+            return new BinaryDataSet(ByteBuffer.wrap(Files.readAllBytes(compiled)), compiled);
+        }
+
+        try (FileChannel channel = FileChannel.open(compiled, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new BinaryDataSet(channel.map(MapMode.READ_ONLY, 0, channel.size()), compiled);
+        }
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    private static String readString(final ByteBuffer buffer, final Path file) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw corrupted(file, "invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static UnsupportedDataSetFormatException corrupted(final Path file, final String reason) {
+        return new UnsupportedDataSetFormatException("Binary data set " + file + " is corrupted: " + reason);
+    }
+
+    public static class Table {
+
+        private final ByteBuffer buffer;
+        private final Path file;
+        private final String name;
+        private final int rowCount;
+        private final String[] columnNames;
+        private final ColumnType[] columnTypes;
+        private final int[] blockOffsets;
+        private final int[] blockEnds;
+
+        private Table(final ByteBuffer buffer, final Path file) {
+            this.buffer = buffer;
+            this.file = file;
+            name = readString(buffer, file);
+            rowCount = buffer.getInt();
+            if (rowCount < 0) {
+                throw corrupted(file, "negative row count of table " + name);
+            }
+
+            final int columnCount = buffer.getInt();
+            if (columnCount < 0 || columnCount > buffer.remaining()) {
+                throw corrupted(file, "invalid column count " + columnCount + " of table " + name);
+            }
+            columnNames = new String[columnCount];
+            columnTypes = new ColumnType[columnCount];
+            blockOffsets = new int[columnCount];
+            blockEnds = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnNames[i] = readString(buffer, file);
+                final int type = buffer.get() & 0xFF;
+                if (type >= ColumnType.values().length) {
+                    throw corrupted(file, "unknown type " + type + " of column " + name + "." + columnNames[i]);
+                }
+                columnTypes[i] = ColumnType.values()[type];
+                readBlock(i, buffer.getLong());
+            }
+        }
+
+        private void readBlock(final int column, final long offset) {
+            final String columnName = name + "." + columnNames[column];
+            if (offset < 0 || offset > buffer.limit() - Integer.BYTES) {
+                throw corrupted(file, "block offset " + offset + " of column " + columnName + " is out of range");
+            }
+            final long length = buffer.getInt((int) offset);
+            // skip the length prefix of the block
+            final long start = offset + Integer.BYTES;
+            if (length < 0 || start + length > buffer.limit()) {
+                throw corrupted(file, "block of column " + columnName + " exceeds the file");
+            }
+
+            final ColumnType type = columnTypes[column];
+            final long valuesSize = type.isFixedSize() ? (long) rowCount * type.size() : (rowCount + 1L) * Integer.BYTES;
+            if ((rowCount + 7) / 8 + valuesSize > length) {
+                throw corrupted(file, "block of column " + columnName + " is too small for " + rowCount + " rows");
+            }
+            blockOffsets[column] = (int) start;
+            blockEnds[column] = (int) (start + length);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        public String getColumnName(final int column) {
+            return columnNames[column];
+        }
+
+        public ColumnType getColumnType(final int column) {
+            return columnTypes[column];
+        }
+
+        public int getColumnIndex(final String columnName) {
+            for (int i = 0; i < columnNames.length; i++) {
+                if (columnNames[i].equalsIgnoreCase(columnName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public boolean isNull(final int row, final int column) {
+            return (buffer.get(blockOffsets[column] + (row >> 3)) & (1 << (row & 7))) != 0;
+        }
+
+        public Object getValue(final int row, final int column) {
+            if (row < 0 || row >= rowCount) {
+                throw new IndexOutOfBoundsException("Row " + row + " is out of range for table " + name);
+            }
+
+            if (isNull(row, column)) {
+                return null;
+            }
+
+            final ColumnType type = columnTypes[column];
+            final int valuesOffset = blockOffsets[column] + (rowCount + 7) / 8;
+            if (type.isFixedSize()) {
+                final int offset = valuesOffset + row * type.size();
+                switch (type) {
+                case INT:
+                    return buffer.getInt(offset);
+                case LONG:
+                    return buffer.getLong(offset);
+                case DOUBLE:
+                    return buffer.getDouble(offset);
+                default:
+                    return buffer.get(offset) != 0;
+                }
+            }
+
+            final int start = buffer.getInt(valuesOffset + row * Integer.BYTES);
+            final int end = buffer.getInt(valuesOffset + (row + 1) * Integer.BYTES);
+            final long bytesOffset = valuesOffset + (rowCount + 1L) * Integer.BYTES;
+            if (start < 0 || end < start || bytesOffset + end > blockEnds[column]) {
+                throw corrupted(file, "value of row " + row + " of column " + name + "." + columnNames[column] + " exceeds its block");
+            }
+            final byte[] bytes = new byte[end - start];
+            final ByteBuffer view = buffer.duplicate();
+            view.position((int) bytesOffset + start);
+            view.get(bytes);
+
+            return type == ColumnType.STRING ? new String(bytes, StandardCharsets.UTF_8) : bytes;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package eu.drus.jpa.unit.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+
+public class BinaryDataSetWriter {
+
+    private final List<Table> tables = new ArrayList<>();
+
+    public Table addTable(final String name) {
+        final Table table = new Table(name);
+        tables.add(table);
+        return table;
+    }
+
+    public void write(final OutputStream out) throws IOException {
+        final List<List<byte[]>> blocks = new ArrayList<>();
+        long headerSize = Integer.BYTES + Short.BYTES + Integer.BYTES;
+        long blocksSize = 0;
+        for (final Table table : tables) {
+            headerSize += stringSize(table.name) + 2 * Integer.BYTES;
+            final List<byte[]> tableBlocks = new ArrayList<>();
+            for (int i = 0; i < table.columnNames.size(); i++) {
+                headerSize += stringSize(table.columnNames.get(i)) + 1 + Long.BYTES;
+                final byte[] block = table.createBlock(i);
+                blocksSize += Integer.BYTES + block.length;
+                tableBlocks.add(block);
+            }
+            blocks.add(tableBlocks);
+        }
+        // the reader addresses the data set with int offsets
+        if (headerSize + blocksSize > Integer.MAX_VALUE) {
+            throw new IOException("The binary data set would exceed the maximum size of " + Integer.MAX_VALUE + " bytes");
+        }
+
+        final DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(BinaryDataSet.MAGIC);
+        dos.writeShort(BinaryDataSet.VERSION);
+        dos.writeInt(tables.size());
+
+        long offset = headerSize;
+        for (int t = 0; t < tables.size(); t++) {
+            final Table table = tables.get(t);
+            writeString(dos, table.name);
+            dos.writeInt(table.rows.size());
+            dos.writeInt(table.columnNames.size());
+            for (int i = 0; i < table.columnNames.size(); i++) {
+                writeString(dos, table.columnNames.get(i));
+                dos.writeByte(table.columnTypes.get(i).ordinal());
+                dos.writeLong(offset);
+                offset += Integer.BYTES + blocks.get(t).get(i).length;
+            }
+        }
+
+        for (final List<byte[]> tableBlocks : blocks) {
+            for (final byte[] block : tableBlocks) {
+                dos.writeInt(block.length);
+                dos.write(block);
+            }
+        }
+        dos.flush();
+    }
+
+    private static int stringSize(final String value) {
+        return Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeString(final DataOutputStream dos, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    public static class Table {
+
+        private final String name;
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<ColumnType> columnTypes = new ArrayList<>();
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Table(final String name) {
+            this.name = name;
+        }
+
+        public Table addColumn(final String columnName, final ColumnType type) {
+            if (!rows.isEmpty()) {
+                throw new IllegalStateException("Columns must be defined before rows are added");
+            }
+            columnNames.add(columnName);
+            columnTypes.add(type);
+            return this;
+        }
+
+        public Table addRow(final Object... values) {
+            if (values.length != columnNames.size()) {
+                throw new IllegalArgumentException("Expected " + columnNames.size() + " values, but got " + values.length);
+            }
+            rows.add(values);
+            return this;
+        }
+
+        private byte[] createBlock(final int column) throws IOException {
+            final ColumnType type = columnTypes.get(column);
+            final byte[] nullBitmap = new byte[(rows.size() + 7) / 8];
+            for (int row = 0; row < rows.size(); row++) {
+                if (rows.get(row)[column] == null) {
+                    nullBitmap[row >> 3] |= 1 << (row & 7);
+                }
+            }
+
+            final ByteArrayOutputStream block = new ByteArrayOutputStream();
+            final DataOutputStream dos = new DataOutputStream(block);
+            dos.write(nullBitmap);
+
+            if (type.isFixedSize()) {
+                for (final Object[] row : rows) {
+                    writeFixedSizeValue(dos, type, row[column]);
+                }
+            } else {
+                final List<byte[]> values = new ArrayList<>(rows.size());
+                int offset = 0;
+                dos.writeInt(offset);
+                for (final Object[] row : rows) {
+                    final byte[] value = toBytes(type, row[column]);
+                    values.add(value);
+                    offset += value.length;
+                    dos.writeInt(offset);
+                }
+                for (final byte[] value : values) {
+                    dos.write(value);
+                }
+            }
+            dos.flush();
+            return block.toByteArray();
+        }
+
+        private static void writeFixedSizeValue(final DataOutputStream dos, final ColumnType type, final Object value)
+                throws IOException {
+            switch (type) {
+            case INT:
+                dos.writeInt(value == null ? 0 : ((Number) value).intValue());
+                break;
+            case LONG:
+                dos.writeLong(value == null ? 0L : ((Number) value).longValue());
+                break;
+            case DOUBLE:
+                dos.writeDouble(value == null ? 0.0 : ((Number) value).doubleValue());
+                break;
+            default:
+                dos.writeBoolean(value != null && (Boolean) value);
+            }
+        }
+
+        private static byte[] toBytes(final ColumnType type, final Object value) {
+            if (value == null) {
+                return new byte[0];
+            }
+            return type == ColumnType.BYTES ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
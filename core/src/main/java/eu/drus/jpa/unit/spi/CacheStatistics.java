@@ -0,0 +1,47 @@
+package eu.drus.jpa.unit.spi;
+
+/**
+ * Counters of the JPA second level cache. A counter not supported by the JPA provider is -1.
+ */
+public class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long puts;
+
+    public CacheStatistics(final long hits, final long misses, final long puts) {
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * The ratio of hits to all lookups or <code>NaN</code>, if the cache has not been looked up.
+     */
+    public double getHitRatio() {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    /**
+     * The difference of these counters to the given earlier ones.
+     */
+    public CacheStatistics since(final CacheStatistics start) {
+        return new CacheStatistics(difference(hits, start.hits), difference(misses, start.misses), difference(puts, start.puts));
+    }
+
+    private static long difference(final long end, final long start) {
+        return end == -1 || start == -1 ? -1 : end - start;
+    }
+}
@@ -0,0 +1,99 @@
+package eu.drus.jpa.unit.spi;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression of data set files, which is inferred from the suffix of the file name, like
+ * <code>data.json.gz</code>. The content is decompressed while it is read, so the loaders never see
+ * the compressed bytes.
+ */
+public enum Compression {
+    NONE("") {
+        @Override
+        public InputStream decompress(final InputStream in) {
+            return in;
+        }
+    },
+    GZIP(".gz") {
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+    DEFLATE(".deflate") {
+        @Override
+        public InputStream decompress(final InputStream in) {
+            // zlib format as written by java.util.zip.DeflaterOutputStream
+            return new InflaterInputStream(in);
+        }
+    },
+    ZSTD(".zst") {
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            // zstd-jni is an optional dependency and is thus not referenced directly
+            try {
+                final Class<?> streamClass = Class.forName(ZSTD_INPUT_STREAM);
+                return (InputStream) streamClass.getConstructor(InputStream.class).newInstance(in);
+            } catch (final ClassNotFoundException e) {
+                throw new UnsupportedDataSetFormatException("zstd compressed data sets require com.github.luben:zstd-jni on the classpath");
+            } catch (final InvocationTargetException e) {
+                throw new IOException(e.getCause());
+            } catch (final ReflectiveOperationException e) {
+                throw new IOException(e);
+            }
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String ZSTD_INPUT_STREAM = "com.github.luben.zstd.ZstdInputStream";
+
+    private final String fileSuffix;
+
+    private Compression(final String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    public String suffix() {
+        return fileSuffix;
+    }
+
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Returns the given file name without the suffix of this compression.
+     */
+    public String strip(final String fileName) {
+        return fileName.endsWith(fileSuffix) ? fileName.substring(0, fileName.length() - fileSuffix.length()) : fileName;
+    }
+
+    public static Compression inferFromFile(final Path file) {
+        final String fileName = String.valueOf(file.getFileName());
+        for (final Compression compression : values()) {
+            if (compression != NONE && fileName.endsWith(compression.fileSuffix)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Opens the given file for reading its uncompressed content. The file may be an entry of an
+     * archive, like a jar on the class path.
+     */
+    public static InputStream openStream(final Path file) throws IOException {
+        final InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            return inferFromFile(file).decompress(in);
+        } catch (final IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
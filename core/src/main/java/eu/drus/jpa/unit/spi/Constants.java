@@ -6,4 +6,10 @@ public final class Constants {
 
     public static final String KEY_ENTITY_MANAGER_FACTORY = "eu.drus.jpa.unit.core.EntityManagerFactory";
     public static final String KEY_ENTITY_MANAGER = "eu.drus.jpa.unit.core.EntityManager";
+    public static final String KEY_MEASUREMENT = "eu.drus.jpa.unit.core.Measurement";
+    public static final String KEY_STATEMENT_RECORDER = "eu.drus.jpa.unit.core.StatementRecorder";
+    public static final String KEY_SEEDED_TABLES = "eu.drus.jpa.unit.core.SeededTables";
+    public static final String KEY_CACHE_STATISTICS = "eu.drus.jpa.unit.core.CacheStatistics";
+    public static final String KEY_PERSISTENCE_CONTEXT_INSPECTOR = "eu.drus.jpa.unit.core.PersistenceContextInspector";
+    public static final String KEY_ASSERTION_ERROR_COLLECTOR = "eu.drus.jpa.unit.core.AssertionErrorCollector";
 }
@@ -1,6 +1,9 @@
 package eu.drus.jpa.unit.spi;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public enum DataSetFormat {
     XML("xml") {
@@ -21,6 +24,12 @@ public enum DataSetFormat {
             return provider.jsonLoader();
         }
     },
+    BSON("bson") {
+        @Override
+        public <T> DataSetLoader<T> select(final LoaderProvider<T> provider) {
+            return provider.bsonLoader();
+        }
+    },
     CSV("csv") {
         @Override
         public <T> DataSetLoader<T> select(final LoaderProvider<T> provider) {
@@ -38,6 +47,12 @@ public enum DataSetFormat {
         public <T> DataSetLoader<T> select(final LoaderProvider<T> provider) {
             return provider.xlsLoader();
         }
+    },
+    BINARY("bin") {
+        @Override
+        public <T> DataSetLoader<T> select(final LoaderProvider<T> provider) {
+            return provider.binaryLoader();
+        }
     };
 
     private static final String TABLE_ORDERING_FILE = "table-ordering.txt";
@@ -53,14 +68,20 @@ public enum DataSetFormat {
 
     public abstract <T> DataSetLoader<T> select(LoaderProvider<T> provider);
 
-    public static DataSetFormat inferFromFile(final File file) {
+    public static DataSetFormat inferFromFile(final Path file) {
+
+        if (BinaryDataSet.isCompiled(file)) {
+            // data set compiled at build time by the jpa-unit-maven-plugin
+            return BINARY;
+        }
 
         if (isCsvDirectory(file)) {
             return CSV;
         }
 
+        final String fileName = Compression.inferFromFile(file).strip(String.valueOf(file.getFileName()));
         for (final DataSetFormat format : values()) {
-            if (file.getName().endsWith(format.fileExtension)) {
+            if (fileName.endsWith(format.fileExtension)) {
                 return format;
             }
         }
@@ -68,16 +89,29 @@ public enum DataSetFormat {
         throw new UnsupportedDataSetFormatException("File " + file + " is not supported as data set format.");
     }
 
-    private static boolean isCsvDirectory(final File file) {
-        if (file.isDirectory()) {
-            final File[] csvFiles = file.listFiles((final File pathname) -> pathname.getName().endsWith(CSV.fileExtension));
-            final File[] metaFiles = file.listFiles((final File pathname) -> pathname.getName().equals(TABLE_ORDERING_FILE));
-
-            return csvFiles.length != 0 && metaFiles.length != 0;
+    private static boolean isCsvDirectory(final Path file) {
+        if (Files.isDirectory(file)) {
+            boolean hasCsvFiles = false;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(file)) {
+                for (final Path member : files) {
+                    hasCsvFiles |= isCsvFile(member);
+                }
+            } catch (final IOException e) {
+                return false;
+            }
+            return hasCsvFiles && Files.isRegularFile(file.resolve(TABLE_ORDERING_FILE));
         }
         return false;
     }
 
+    /**
+     * Returns whether the given file is a member of a csv directory data set. Members may be
+     * compressed, like <code>TABLE.csv.gz</code>.
+     */
+    public static boolean isCsvFile(final Path file) {
+        return Compression.inferFromFile(file).strip(String.valueOf(file.getFileName())).endsWith("." + CSV.fileExtension);
+    }
+
     public interface LoaderProvider<T> {
         DataSetLoader<T> xmlLoader();
 
@@ -85,8 +119,17 @@ public enum DataSetFormat {
 
         DataSetLoader<T> jsonLoader();
 
+        /**
+         * Loader for raw BSON data sets, like the files written by <code>mongodump</code>.
+         */
+        default DataSetLoader<T> bsonLoader() {
+            throw new UnsupportedDataSetFormatException("BSON data sets are not supported");
+        }
+
         DataSetLoader<T> csvLoader();
 
         DataSetLoader<T> xlsLoader();
+
+        DataSetLoader<T> binaryLoader();
     }
 }
@@ -1,9 +1,14 @@
 package eu.drus.jpa.unit.spi;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 
 @FunctionalInterface
 public interface DataSetLoader<T> {
-    T load(File path) throws IOException;
+    /**
+     * Loads the data set stored at the given path. The path may refer to a file system entry or
+     * to an entry of an archive, like a jar on the class path (see
+     * {@link eu.drus.jpa.unit.util.ResourceLocator#toPath(java.net.URL)}).
+     */
+    T load(Path path) throws IOException;
 }
@@ -33,10 +33,20 @@ public class DecoratorExecutor {
     }
 
     public void processAfter(final TestInvocation invocation) throws Exception {
-        final Iterator<TestMethodDecorator> it = methodDecoratorIterator(invocation.getContext(), AFTER_COMPARATOR);
-        while (it.hasNext()) {
-            it.next().afterTest(invocation);
+        final ExecutionContext ctx = invocation.getContext();
+        // verifying decorators collect their errors instead of throwing them, so that all after hooks,
+        // e.g. the cleanup of the database, run. The errors are reported after the last hook
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+        ctx.storeData(Constants.KEY_ASSERTION_ERROR_COLLECTOR, errorCollector);
+        try {
+            final Iterator<TestMethodDecorator> it = methodDecoratorIterator(ctx, AFTER_COMPARATOR);
+            while (it.hasNext()) {
+                it.next().afterTest(invocation);
+            }
+        } finally {
+            ctx.storeData(Constants.KEY_ASSERTION_ERROR_COLLECTOR, null);
         }
+        errorCollector.report();
     }
 
     private Iterator<TestClassDecorator> classDecoratorIterator(final ExecutionContext ctx, final Comparator<TestDecorator> comparator) {
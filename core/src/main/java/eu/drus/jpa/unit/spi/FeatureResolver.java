@@ -17,8 +17,16 @@ import eu.drus.jpa.unit.api.CleanupPhase;
 import eu.drus.jpa.unit.api.CleanupStrategy;
 import eu.drus.jpa.unit.api.CleanupUsingScripts;
 import eu.drus.jpa.unit.api.DataSeedStrategy;
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
 import eu.drus.jpa.unit.api.ExpectedDataSets;
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
 import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.api.MaxComplexity;
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.api.PerformanceBudget;
 import eu.drus.jpa.unit.api.TransactionMode;
 import eu.drus.jpa.unit.api.Transactional;
 import eu.drus.jpa.unit.core.metadata.MetadataExtractor;
@@ -34,6 +42,8 @@ public class FeatureResolver {
     private CleanupPhase defaultCleanupUsingScriptsPhase = CleanupPhase.AFTER;
     private DataSeedStrategy defaultDataSeedStrategy = DataSeedStrategy.INSERT;
     private TransactionMode defaultTransactionMode = TransactionMode.COMMIT;
+    private int scaleFactor = 1;
+    private boolean warmUp;
 
     private FeatureResolver(final Class<?> clazz) {
         metadataExtractor = new MetadataExtractor(clazz);
@@ -48,9 +58,23 @@ public class FeatureResolver {
         return cleanup == null ? defaultCleanupStrategy : cleanup.strategy();
     }
 
+    public boolean shouldDropAndRecreateOnCleanup() {
+        final Cleanup cleanup = metadataExtractor.cleanup().fetchUsingFirst(testMethod);
+        return cleanup != null && cleanup.dropAndRecreate();
+    }
+
     public DataSeedStrategy getDataSeedStrategy() {
         final InitialDataSets initialDataSet = metadataExtractor.initialDataSets().fetchUsingFirst(testMethod);
-        return initialDataSet == null ? defaultDataSeedStrategy : initialDataSet.seedStrategy();
+        if (initialDataSet != null) {
+            return initialDataSet.seedStrategy();
+        }
+        final GeneratedDataSets generatedDataSets = getGeneratedData();
+        return generatedDataSets == null ? defaultDataSeedStrategy : generatedDataSets.seedStrategy();
+    }
+
+    public boolean shouldSeedUsingTemplates() {
+        final InitialDataSets initialDataSet = metadataExtractor.initialDataSets().fetchUsingFirst(testMethod);
+        return initialDataSet != null && initialDataSet.useTemplates();
     }
 
     public TransactionMode getTransactionMode() {
@@ -63,6 +87,68 @@ public class FeatureResolver {
         return dataSet == null ? Collections.emptyList() : Arrays.asList(dataSet.value());
     }
 
+    public GeneratedDataSets getGeneratedData() {
+        return metadataExtractor.generatedDataSets().fetchUsingFirst(testMethod);
+    }
+
+    public int getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public MaxComplexity getMaxComplexity() {
+        return metadataExtractor.maxComplexity().fetchUsingFirst(testMethod);
+    }
+
+    public PerformanceBudget getPerformanceBudget() {
+        return metadataExtractor.performanceBudget().fetchUsingFirst(testMethod);
+    }
+
+    public int getWarmUps() {
+        final PerformanceBudget performanceBudget = getPerformanceBudget();
+        return performanceBudget == null ? 0 : Math.max(performanceBudget.warmUps(), 0);
+    }
+
+    /**
+     * Whether the test is executed to warm up only, so that its performance is not verified.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public ExpectedStatements getExpectedStatements() {
+        return metadataExtractor.expectedStatements().fetchUsingFirst(testMethod);
+    }
+
+    public ExpectedMongoCommands getExpectedMongoCommands() {
+        return metadataExtractor.expectedMongoCommands().fetchUsingFirst(testMethod);
+    }
+
+    public ForbidFullTableScan getForbidFullTableScan() {
+        return metadataExtractor.forbidFullTableScan().fetchUsingFirst(testMethod);
+    }
+
+    public MaxManagedEntities getMaxManagedEntities() {
+        return metadataExtractor.maxManagedEntities().fetchUsingFirst(testMethod);
+    }
+
+    /**
+     * Whether the execution time and the SQL statements of the test body are to be recorded, as
+     * required by any of the performance related features.
+     */
+    public boolean shouldMeasureExecution() {
+        return getMaxComplexity() != null || getExpectedStatements() != null || getForbidFullTableScan() != null
+                || getPerformanceBudget() != null;
+    }
+
+    /**
+     * Whether any test of the class verifies the executed SQL statements, so that these need to be
+     * recorded.
+     */
+    public boolean shouldRecordStatements() {
+        return !metadataExtractor.maxComplexity().fetchAll().isEmpty() || !metadataExtractor.expectedStatements().fetchAll().isEmpty()
+                || !metadataExtractor.forbidFullTableScan().fetchAll().isEmpty();
+    }
+
     public List<String> getCleanupScripts() {
         final CleanupUsingScripts cleanupUsingScripts = metadataExtractor.cleanupUsingScripts().fetchUsingFirst(testMethod);
         return cleanupUsingScripts == null ? Collections.emptyList() : Arrays.asList(cleanupUsingScripts.value());
@@ -89,7 +175,9 @@ public class FeatureResolver {
 
     public boolean shouldSeedData() {
         return metadataExtractor.initialDataSets().isDefinedOnClassLevel()
-                || metadataExtractor.initialDataSets().isDefinedOnMethod(testMethod);
+                || metadataExtractor.initialDataSets().isDefinedOnMethod(testMethod)
+                || metadataExtractor.generatedDataSets().isDefinedOnClassLevel()
+                || metadataExtractor.generatedDataSets().isDefinedOnMethod(testMethod);
     }
 
     public boolean shouldApplyCustomScriptBefore() {
@@ -156,6 +244,24 @@ public class FeatureResolver {
         return getCleanupCachePhase() == CleanupPhase.AFTER;
     }
 
+    /**
+     * The entity types to evict from the second level cache. If empty and
+     * {@link #shouldEvictSeededEntitiesOnly()} is false, the entire cache is evicted.
+     */
+    public List<Class<?>> getEntitiesToEvict() {
+        final CleanupCache cleanupCache = metadataExtractor.cleanupCache().fetchUsingFirst(testMethod);
+        return cleanupCache == null ? Collections.emptyList() : Arrays.asList(cleanupCache.entities());
+    }
+
+    public boolean shouldEvictSeededEntitiesOnly() {
+        final CleanupCache cleanupCache = metadataExtractor.cleanupCache().fetchUsingFirst(testMethod);
+        return cleanupCache != null && cleanupCache.seededEntitiesOnly();
+    }
+
+    public ExpectedCacheStatistics getExpectedCacheStatistics() {
+        return metadataExtractor.expectedCacheStatistics().fetchUsingFirst(testMethod);
+    }
+
     public static class Builder {
 
         private FeatureResolver featureResolver;
@@ -175,6 +281,17 @@ public class FeatureResolver {
             return this;
         }
 
+        public Builder withScaleFactor(final int factor) {
+            checkArgument(factor > 0, "Scale factor must be positive");
+            featureResolver.scaleFactor = factor;
+            return this;
+        }
+
+        public Builder asWarmUp(final boolean warmUp) {
+            featureResolver.warmUp = warmUp;
+            return this;
+        }
+
         public FeatureResolver build() {
             return featureResolver;
         }
@@ -0,0 +1,206 @@
+package eu.drus.jpa.unit.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import eu.drus.jpa.unit.api.GeneratedColumn;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
+import eu.drus.jpa.unit.api.GeneratedTable;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.api.ValueGenerator;
+
+/**
+ * Synthetic data set defined by {@link GeneratedDataSets}. Values are computed from the seed, the
+ * position of the table and column and the row index when accessed. Nothing is stored, so that
+ * arbitrary volumes can be streamed into the database and each access of a row yields the same
+ * values.
+ */
+public class GeneratedDataSet {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final List<Table> tables;
+
+    public GeneratedDataSet(final GeneratedDataSets definition) {
+        this(definition, 1);
+    }
+
+    /**
+     * Creates the data set with the number of rows of each table multiplied by the given factor.
+     */
+    public GeneratedDataSet(final GeneratedDataSets definition, final int scaleFactor) {
+        final List<Table> tableList = new ArrayList<>();
+        long tableSeed = mix(definition.seed());
+        for (final GeneratedTable table : definition.value()) {
+            tableSeed = mix(tableSeed + GOLDEN_GAMMA);
+            tableList.add(new Table(table, scaleFactor, tableSeed));
+        }
+        tables = Collections.unmodifiableList(tableList);
+
+        for (final Table table : tables) {
+            for (final Column column : table.columns) {
+                column.resolveReference(this);
+            }
+        }
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    private Table getTable(final String name) {
+        for (final Table table : tables) {
+            if (table.name.equals(name)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    // finalizer of the SplitMix64 generator
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    private static double toUnitInterval(final long random) {
+        return (random >>> 11) * 0x1.0p-53;
+    }
+
+    public static class Table {
+
+        private final String name;
+        private final int rowCount;
+        private final List<Column> columns;
+        private final List<String> columnNames;
+
+        private Table(final GeneratedTable definition, final int scaleFactor, final long seed) {
+            final long rows = (long) definition.rows() * scaleFactor;
+            if (rows < 0) {
+                throw new JpaUnitException("Number of rows of generated table " + definition.name() + " is negative");
+            } else if (rows > Integer.MAX_VALUE) {
+                throw new JpaUnitException("Number of rows of generated table " + definition.name() + " exceeds " + Integer.MAX_VALUE);
+            }
+            name = definition.name();
+            rowCount = (int) rows;
+
+            final List<Column> columnList = new ArrayList<>();
+            final List<String> nameList = new ArrayList<>();
+            long columnSeed = seed;
+            for (final GeneratedColumn column : definition.columns()) {
+                columnSeed = mix(columnSeed + GOLDEN_GAMMA);
+                columnList.add(new Column(this, column, columnSeed));
+                nameList.add(column.name());
+            }
+            columns = Collections.unmodifiableList(columnList);
+            columnNames = Collections.unmodifiableList(nameList);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        public Object getValue(final int row, final int column) {
+            if (row < 0 || row >= rowCount) {
+                throw new IndexOutOfBoundsException("Row " + row + " of generated table " + name + " does not exist");
+            }
+            return columns.get(column).getValue(row);
+        }
+    }
+
+    private static class Column {
+
+        private final Table table;
+        private final GeneratedColumn definition;
+        private final long seed;
+        private Table referencedTable;
+        private int referencedColumn;
+
+        private Column(final Table table, final GeneratedColumn definition, final long seed) {
+            this.table = table;
+            this.definition = definition;
+            this.seed = seed;
+
+            switch (definition.generator()) {
+            case UNIFORM:
+                check(definition.min() <= definition.max(), "min is greater than max");
+                break;
+            case ONE_OF:
+                check(definition.values().length != 0, "no values defined");
+                break;
+            case REFERENCE:
+                check(definition.references().lastIndexOf('.') > 0, "references is not of the form TABLE.column");
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void check(final boolean condition, final String message) {
+            if (!condition) {
+                throw new JpaUnitException("Invalid definition of generated column " + table.name + "." + definition.name() + ": " + message);
+            }
+        }
+
+        private void resolveReference(final GeneratedDataSet dataSet) {
+            Column column = this;
+            final List<Column> visited = new ArrayList<>();
+            while (column.definition.generator() == ValueGenerator.REFERENCE) {
+                check(!visited.contains(column), "cyclic references");
+                visited.add(column);
+
+                final String references = column.definition.references();
+                final int separator = references.lastIndexOf('.');
+                final Table target = dataSet.getTable(references.substring(0, separator));
+                column.check(target != null, "referenced table " + references.substring(0, separator) + " is not generated");
+                final int index = target.columnNames.indexOf(references.substring(separator + 1));
+                column.check(index != -1, "referenced column " + references + " is not generated");
+                column.check(target.rowCount > 0, "referenced table " + target.name + " has no rows");
+                column.referencedTable = target;
+                column.referencedColumn = index;
+                column = target.columns.get(index);
+            }
+        }
+
+        private long random(final int row) {
+            return mix(seed + row * GOLDEN_GAMMA);
+        }
+
+        private Object getValue(final int row) {
+            switch (definition.generator()) {
+            case SEQUENCE:
+                return definition.start() + row * definition.step();
+            case UNIFORM:
+                final long range = definition.max() - definition.min() + 1;
+                // the range is treated as unsigned value. 0 is the result of an overflow, which means
+                // all long values
+                return range == 0 ? random(row) : definition.min() + Long.remainderUnsigned(random(row), range);
+            case GAUSSIAN:
+                // Box-Muller transform
+                final double u1 = 1.0 - toUnitInterval(random(row));
+                final double u2 = toUnitInterval(mix(random(row)));
+                return definition.mean() + definition.deviation() * Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+            case ONE_OF:
+                return definition.values()[(int) Math.floorMod(random(row), (long) definition.values().length)];
+            case TEMPLATE:
+                return definition.template().replace("{row}", String.valueOf(row + 1)).replace("{random}",
+                        String.valueOf(random(row) >>> 1));
+            case REFERENCE:
+                return referencedTable.getValue((int) Math.floorMod(random(row), (long) referencedTable.rowCount), referencedColumn);
+            default:
+                throw new IllegalStateException("Unsupported value generator " + definition.generator());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package eu.drus.jpa.unit.spi;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
+import eu.drus.jpa.unit.core.jdbc.StatementRecorder;
+
+/**
+ * Execution time, allocated memory and executed SQL statements of a test body.
+ */
+public class Measurement {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final long start;
+    private final long startAllocatedBytes;
+    private final StatementRecorder statementRecorder;
+    private final StatementLog statementLog;
+    private long elapsedTime = -1;
+    private long allocatedBytes = -1;
+
+    private Measurement(final StatementRecorder statementRecorder) {
+        this.statementRecorder = statementRecorder;
+        statementLog = statementRecorder == null ? null : statementRecorder.startRecording();
+        startAllocatedBytes = currentThreadAllocatedBytes();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Starts a measurement, which records the statements reported to the given recorder. If
+     * <code>null</code>, the statements are not recorded.
+     */
+    public static Measurement start(final StatementRecorder statementRecorder) {
+        return new Measurement(statementRecorder);
+    }
+
+    public void stop() {
+        if (elapsedTime == -1) {
+            elapsedTime = System.nanoTime() - start;
+            final long endAllocatedBytes = currentThreadAllocatedBytes();
+            if (startAllocatedBytes != -1 && endAllocatedBytes != -1) {
+                allocatedBytes = endAllocatedBytes - startAllocatedBytes;
+            }
+            if (statementRecorder != null) {
+                statementRecorder.stopRecording(statementLog);
+            }
+        }
+    }
+
+    /**
+     * The elapsed time in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * The number of bytes allocated on the heap by the thread executing the test or -1, if not
+     * supported by the JVM.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * The executed SQL statements or <code>null</code>, if these could not be recorded, e.g. since
+     * the persistence unit does not define a JDBC connection.
+     */
+    public StatementLog getStatementLog() {
+        return statementLog;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (!threadMXBean.isThreadAllocatedMemorySupported() || !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,77 @@
+package eu.drus.jpa.unit.spi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Contents of a persistence context at the end of a test body and the flushes performed while the
+ * test body was executed.
+ */
+public class PersistenceContextStatistics {
+
+    private final Map<String, Integer> managedEntities = new TreeMap<>();
+    private final Map<String, Integer> managedCollections = new TreeMap<>();
+    private final boolean flushesCounted;
+    private int flushes;
+    private long dirtyChecks;
+
+    /**
+     * @param flushesCounted
+     *            whether the flushes are reported to these statistics. If not, the number of
+     *            flushes and dirty checks is unknown.
+     */
+    public PersistenceContextStatistics(final boolean flushesCounted) {
+        this.flushesCounted = flushesCounted;
+    }
+
+    public void addManagedEntity(final String entityName) {
+        managedEntities.merge(entityName, 1, Integer::sum);
+    }
+
+    public void addManagedCollection(final String role) {
+        managedCollections.merge(role, 1, Integer::sum);
+    }
+
+    public void addFlush(final int dirtyCheckedEntities) {
+        flushes++;
+        dirtyChecks += dirtyCheckedEntities;
+    }
+
+    /**
+     * The number of managed entities by entity name.
+     */
+    public Map<String, Integer> getManagedEntities() {
+        return Collections.unmodifiableMap(managedEntities);
+    }
+
+    public int getManagedEntityCount() {
+        int count = 0;
+        for (final int value : managedEntities.values()) {
+            count += value;
+        }
+        return count;
+    }
+
+    /**
+     * The number of managed collections by collection role.
+     */
+    public Map<String, Integer> getManagedCollections() {
+        return Collections.unmodifiableMap(managedCollections);
+    }
+
+    /**
+     * The number of flushes or -1, if not supported by the JPA provider.
+     */
+    public int getFlushes() {
+        return flushesCounted ? flushes : -1;
+    }
+
+    /**
+     * The number of entities checked for modifications by all flushes or -1, if not supported by
+     * the JPA provider.
+     */
+    public long getDirtyChecks() {
+        return flushesCounted ? dirtyChecks : -1;
+    }
+}
@@ -0,0 +1,115 @@
+package eu.drus.jpa.unit.spi;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import eu.drus.jpa.unit.api.Complexity;
+import eu.drus.jpa.unit.api.MaxComplexity;
+
+/**
+ * Repeated execution of a test method annotated with {@link MaxComplexity} with increasing data
+ * volumes. The growth of the measured values is estimated by fitting a power function
+ * <code>c * n^k</code> to these, i.e. by the slope of a linear regression in log-log space.
+ */
+public class ScalingRun {
+
+    // estimated exponents up to the declared one plus this tolerance are accepted. This absorbs
+    // constant overheads and measurement noise, like these of JIT compilation.
+    private static final double TOLERANCE = 0.5;
+
+    private final MaxComplexity maxComplexity;
+    private final List<Measurement> measurements = new ArrayList<>();
+
+    public ScalingRun(final MaxComplexity maxComplexity) {
+        final int[] scale = maxComplexity.scale();
+        checkArgument(scale.length >= 2, "At least two scale factors are required to estimate the complexity");
+        for (int i = 0; i < scale.length; i++) {
+            checkArgument(scale[i] > 0, "Scale factors must be positive");
+            checkArgument(i == 0 || scale[i] > scale[i - 1], "Scale factors must be strictly increasing");
+        }
+        this.maxComplexity = maxComplexity;
+    }
+
+    public int size() {
+        return maxComplexity.scale().length;
+    }
+
+    public int getScaleFactor(final int index) {
+        return maxComplexity.scale()[index];
+    }
+
+    /**
+     * The scale factor of the next execution.
+     */
+    public int getCurrentScaleFactor() {
+        return getScaleFactor(Math.min(measurements.size(), size() - 1));
+    }
+
+    /**
+     * Adds the measurement of the next execution. <code>null</code> denotes a failed execution,
+     * which prevents the verification of the complexity.
+     */
+    public void add(final Measurement measurement) {
+        checkArgument(!isComplete(), "All scale factors have been measured already");
+        measurements.add(measurement);
+    }
+
+    public boolean isComplete() {
+        return measurements.size() == size();
+    }
+
+    public void verify(final AssertionErrorCollector errorCollector) {
+        if (!isComplete() || measurements.contains(null)) {
+            return;
+        }
+        verify(errorCollector, "Execution time", maxComplexity.value(), m -> TimeUnit.NANOSECONDS.toMicros(m.getElapsedTime()),
+                v -> TimeUnit.MICROSECONDS.toMillis(v) + " ms");
+        if (measurements.stream().allMatch(m -> m.getStatementLog() != null)) {
+            verify(errorCollector, "Number of SQL statements", maxComplexity.statements(), m -> m.getStatementLog().size(),
+                    String::valueOf);
+        }
+    }
+
+    private void verify(final AssertionErrorCollector errorCollector, final String subject, final Complexity complexity,
+            final ToLongFunction<Measurement> metric, final LongFunction<String> formatter) {
+        final double[] x = new double[measurements.size()];
+        final double[] y = new double[measurements.size()];
+        final StringBuilder values = new StringBuilder();
+        for (int i = 0; i < measurements.size(); i++) {
+            final long value = metric.applyAsLong(measurements.get(i));
+            x[i] = Math.log(getScaleFactor(i));
+            // values below one are dominated by the measurement resolution
+            y[i] = Math.log(Math.max(value, 1));
+            values.append(i == 0 ? "" : ", ").append('x').append(getScaleFactor(i)).append(": ").append(formatter.apply(value));
+        }
+
+        final double exponent = slope(x, y);
+        if (exponent > complexity.exponent() + TOLERANCE) {
+            errorCollector.collect(String.format(Locale.ROOT, "%s grows with O(n^%.2f), which exceeds the declared %s complexity (%s)", subject,
+                    exponent, complexity, values));
+        }
+    }
+
+    private static double slope(final double[] x, final double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < x.length; i++) {
+            meanX += x[i] / x.length;
+            meanY += y[i] / y.length;
+        }
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return covariance / variance;
+    }
+}
@@ -1,13 +1,30 @@
 package eu.drus.jpa.unit.util;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class ResourceLocator {
 
+    private static final String JAR_SCHEME = "jar";
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+
+    // the file systems of the archives stay open, so that each jar is opened only once
+    private static final Map<URI, FileSystem> ARCHIVES = new HashMap<>();
+
     private ResourceLocator() {}
 
     public static URL getResource(final String resource) throws MalformedURLException {
@@ -28,4 +45,46 @@ public final class ResourceLocator {
         }
         return null;
     }
+
+    /**
+     * Converts the given resource url to a path. Resources packaged in a jar, like
+     * <code>jar:file:/fixtures.jar!/data.json</code>, are accessed in place using a zip file
+     * system, which is created once per jar.
+     */
+    public static Path toPath(final URL url) throws IOException {
+        final URI uri;
+        try {
+            uri = url.toURI();
+        } catch (final URISyntaxException e) {
+            throw new IOException("Could not convert " + url + " to URI", e);
+        }
+
+        if (!JAR_SCHEME.equals(uri.getScheme())) {
+            return Paths.get(uri);
+        }
+
+        final String spec = uri.getRawSchemeSpecificPart();
+        final int separator = spec.indexOf(JAR_ENTRY_SEPARATOR);
+        if (separator == -1) {
+            throw new IOException("Not a jar entry: " + url);
+        }
+
+        final URI archive = URI.create(JAR_SCHEME + ":" + spec.substring(0, separator));
+        final String entry = URI.create(spec.substring(separator + 1)).getPath();
+        return getArchive(archive).getPath(entry);
+    }
+
+    private static synchronized FileSystem getArchive(final URI archive) throws IOException {
+        FileSystem fileSystem = ARCHIVES.get(archive);
+        if (fileSystem == null || !fileSystem.isOpen()) {
+            try {
+                fileSystem = FileSystems.newFileSystem(archive, Collections.<String, Object>emptyMap());
+            } catch (final FileSystemAlreadyExistsException e) {
+                // opened by someone else
+                fileSystem = FileSystems.getFileSystem(archive);
+            }
+            ARCHIVES.put(archive, fileSystem);
+        }
+        return fileSystem;
+    }
 }
@@ -0,0 +1,141 @@
+package eu.drus.jpa.unit.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A JVM wide registry of expensive resources, like clients holding connection pools, which are
+ * shared by all test classes using an equal key, e.g. the same configuration. The resources are
+ * reference counted. A resource no longer referenced is closed after it has been idle for the
+ * time configured by the system property {@value #IDLE_TIMEOUT_PROPERTY} (in seconds, defaults to
+ * {@value #DEFAULT_IDLE_TIMEOUT}). A timeout of <code>0</code> closes it right away. All remaining
+ * resources are closed on JVM shutdown.
+ *
+ * @param <K>
+ *            the type of the key identifying a resource
+ * @param <V>
+ *            the type of the resource
+ */
+public class SharedResources<K, V> {
+
+    public static final String IDLE_TIMEOUT_PROPERTY = "jpa-unit.shared-resources.idle-timeout";
+    public static final long DEFAULT_IDLE_TIMEOUT = 30;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "jpa-unit-shared-resources");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private final Consumer<V> closer;
+    private final long idleTimeout;
+
+    public SharedResources(final Consumer<V> closer) {
+        this(closer, TimeUnit.SECONDS.toMillis(Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT)));
+    }
+
+    /**
+     * @param closer
+     *            closes a resource no longer used
+     * @param idleTimeout
+     *            the time in milliseconds a resource no longer referenced is kept open
+     */
+    public SharedResources(final Consumer<V> closer, final long idleTimeout) {
+        this.closer = closer;
+        this.idleTimeout = idleTimeout;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAll));
+    }
+
+    /**
+     * Returns the resource registered for the given key. If there is none, it is created using the
+     * given factory. Each call must be paired with a call to {@link #release(Object)}.
+     */
+    public synchronized V acquire(final K key, final Supplier<V> factory) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(factory.get());
+            entries.put(key, entry);
+        } else if (entry.pendingClose != null) {
+            entry.pendingClose.cancel(false);
+            entry.pendingClose = null;
+        }
+        entry.references++;
+        return entry.resource;
+    }
+
+    /**
+     * Releases a reference to the resource registered for the given key. The resource is closed,
+     * once it is no longer referenced and the idle timeout has elapsed.
+     */
+    public synchronized void release(final K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry == null || entry.references == 0) {
+            throw new IllegalStateException("No resource acquired for " + key);
+        }
+
+        entry.references--;
+        entry.releases++;
+        if (entry.references == 0) {
+            if (idleTimeout <= 0) {
+                entries.remove(key);
+                closer.accept(entry.resource);
+            } else {
+                final long release = entry.releases;
+                entry.pendingClose = SCHEDULER.schedule(() -> closeIdle(key, entry, release), idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Closes all resources, regardless of whether these are still referenced.
+     */
+    public void closeAll() {
+        final List<Entry<V>> closed;
+        synchronized (this) {
+            closed = new ArrayList<>(entries.values());
+            entries.clear();
+        }
+
+        for (final Entry<V> entry : closed) {
+            if (entry.pendingClose != null) {
+                entry.pendingClose.cancel(false);
+            }
+            try {
+                closer.accept(entry.resource);
+            } catch (final RuntimeException e) {
+                // the remaining resources must be closed nevertheless
+            }
+        }
+    }
+
+    private void closeIdle(final K key, final Entry<V> entry, final long release) {
+        synchronized (this) {
+            // the resource might have been acquired (and released) again in the meantime
+            if (entries.get(key) != entry || entry.references != 0 || entry.releases != release) {
+                return;
+            }
+            entries.remove(key);
+        }
+        closer.accept(entry.resource);
+    }
+
+    private static class Entry<V> {
+        private final V resource;
+        private int references;
+        private long releases;
+        private ScheduledFuture<?> pendingClose;
+
+        private Entry(final V resource) {
+            this.resource = resource;
+        }
+    }
+}
@@ -41,4 +41,13 @@ public class CleanupStrategyTest {
 
         verify(strategyProvider).usedTablesOnlyStrategy();
     }
+
+    @Test
+    public void testWrittenTablesOnlyStrategySelection() {
+        final CleanupStrategy strategy = CleanupStrategy.WRITTEN_TABLES_ONLY;
+
+        strategy.provide(strategyProvider);
+
+        verify(strategyProvider).writtenTablesOnlyStrategy();
+    }
 }
@@ -0,0 +1,65 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class StatementLogTest {
+
+    @Test
+    public void testClassificationOfStatements() {
+        assertThat(StatementType.of("select * from DEPOSITOR"), equalTo(StatementType.SELECT));
+        assertThat(StatementType.of("  /* load */ (SELECT 1) union (select 2)"), equalTo(StatementType.SELECT));
+        assertThat(StatementType.of("with T as (select 1) select * from T"), equalTo(StatementType.SELECT));
+        assertThat(StatementType.of("insert into DEPOSITOR (ID) values (?)"), equalTo(StatementType.INSERT));
+        assertThat(StatementType.of("Update DEPOSITOR set NAME=? where ID=?"), equalTo(StatementType.UPDATE));
+        assertThat(StatementType.of("delete from DEPOSITOR"), equalTo(StatementType.DELETE));
+        assertThat(StatementType.of("call next value for SEQ"), equalTo(StatementType.OTHER));
+    }
+
+    @Test
+    public void testCountOfStatementsPerType() {
+        // GIVEN
+        final StatementLog log = new StatementLog();
+        log.add("select * from DEPOSITOR");
+        log.add("insert into DEPOSITOR (ID) values (?)");
+        log.add("select * from ADDRESS");
+
+        // WHEN
+        final int selects = log.count(StatementType.SELECT);
+        final int inserts = log.count(StatementType.INSERT);
+        final int deletes = log.count(StatementType.DELETE);
+
+        // THEN
+        assertThat(selects, equalTo(2));
+        assertThat(inserts, equalTo(1));
+        assertThat(deletes, equalTo(0));
+    }
+
+    @Test
+    public void testStatementsDifferingOnlyInParametersAreGrouped() {
+        // GIVEN
+        final StatementLog log = new StatementLog();
+        log.add("select * from DEPOSITOR");
+        log.add("select * from ADDRESS where DEPOSITOR_ID=1");
+        log.add("select *\n  from ADDRESS where DEPOSITOR_ID=?");
+        log.add("select * from ADDRESS where DEPOSITOR_ID=-2.5");
+        log.add("select * from ADDRESS where CITY='Don''t care' and DEPOSITOR_ID=3");
+        log.add("select * from ADDRESS where CITY='x' and DEPOSITOR_ID=4");
+        log.add("select * from ADDRESS_2 where DEPOSITOR_ID=?");
+
+        // WHEN
+        final Map<String, Integer> counts = log.countByStatement();
+
+        // THEN
+        assertThat(counts.keySet().size(), equalTo(4));
+        assertThat(Arrays.asList(counts.values().toArray()), equalTo(Arrays.<Object> asList(1, 3, 2, 1)));
+        assertThat(counts.get("select * from ADDRESS where DEPOSITOR_ID=?"), equalTo(3));
+        assertThat(counts.get("select * from ADDRESS where CITY=? and DEPOSITOR_ID=?"), equalTo(2));
+        assertThat(counts.get("select * from ADDRESS_2 where DEPOSITOR_ID=?"), equalTo(1));
+    }
+}
@@ -0,0 +1,225 @@
+package eu.drus.jpa.unit.core.jdbc;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StatementRecordingDriverTest {
+
+    private static final String URL = "jdbc:stub:test";
+
+    private static final StubDriver STUB_DRIVER = new StubDriver();
+
+    public static class StubDriver implements Driver {
+
+        private Connection connection;
+
+        @Override
+        public Connection connect(final String url, final Properties info) {
+            return acceptsURL(url) ? connection : null;
+        }
+
+        @Override
+        public boolean acceptsURL(final String url) {
+            return url.startsWith("jdbc:stub:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private Statement statement;
+    private StatementRecorder recorder;
+
+    @BeforeClass
+    public static void registerStubDriver() throws SQLException {
+        DriverManager.registerDriver(STUB_DRIVER);
+    }
+
+    @AfterClass
+    public static void deregisterStubDriver() throws SQLException {
+        DriverManager.deregisterDriver(STUB_DRIVER);
+    }
+
+    @Before
+    public void prepareMocks() throws SQLException {
+        connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        statement = mock(Statement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        STUB_DRIVER.connection = connection;
+        recorder = StatementRecorder.create();
+    }
+
+    @After
+    public void closeRecorder() {
+        recorder.close();
+    }
+
+    private static Connection openConnection(final StatementRecorder recorder) throws SQLException {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", StubDriver.class.getName());
+        properties.put("javax.persistence.jdbc.url", URL);
+        final Map<String, Object> wrapped = StatementRecordingDriver.wrapConnectionProperties(properties, recorder);
+
+        return DriverManager.getConnection((String) wrapped.get("javax.persistence.jdbc.url"));
+    }
+
+    @Test
+    public void testWrapConnectionProperties() {
+        // GIVEN
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", StubDriver.class.getName());
+        properties.put("javax.persistence.jdbc.url", URL);
+        properties.put("javax.persistence.jdbc.user", "test");
+
+        // WHEN
+        final Map<String, Object> wrapped = StatementRecordingDriver.wrapConnectionProperties(properties, recorder);
+
+        // THEN
+        assertThat(StatementRecordingDriver.isWrappable(properties), equalTo(Boolean.TRUE));
+        assertThat(wrapped.get("javax.persistence.jdbc.driver"), equalTo((Object) StatementRecordingDriver.class.getName()));
+        assertThat(wrapped.get("javax.persistence.jdbc.url"), equalTo((Object) ("jdbc:jpa-unit:" + recorder.getId() + ":" + URL)));
+        assertThat(wrapped.get("javax.persistence.jdbc.user"), equalTo((Object) "test"));
+        assertThat(properties.get("javax.persistence.jdbc.url"), equalTo((Object) URL));
+
+        // wrapping is idempotent
+        assertThat(StatementRecordingDriver.isWrappable(wrapped), equalTo(Boolean.FALSE));
+        assertThat(StatementRecordingDriver.wrapConnectionProperties(wrapped, recorder), equalTo(wrapped));
+    }
+
+    @Test
+    public void testPropertiesWithoutJdbcUrlAreNotWrapped() {
+        // GIVEN
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", StubDriver.class.getName());
+        properties.put("javax.persistence.jdbc.url", "mongodb://localhost:27017");
+
+        // WHEN
+        final Map<String, Object> wrapped = StatementRecordingDriver.wrapConnectionProperties(properties, recorder);
+
+        // THEN
+        assertThat(StatementRecordingDriver.isWrappable(properties), equalTo(Boolean.FALSE));
+        assertThat(wrapped, equalTo(properties));
+    }
+
+    @Test
+    public void testStatementsAreRecordedWhileRecordingIsActive() throws SQLException {
+        // GIVEN
+        final Connection proxy = openConnection(recorder);
+        assertThat(proxy, notNullValue());
+        proxy.prepareStatement("select 1").executeQuery();
+
+        // WHEN
+        final StatementLog log = recorder.startRecording();
+        final PreparedStatement ps = proxy.prepareStatement("select * from A where ID = ?");
+        ps.setLong(1, 1L);
+        ps.executeQuery();
+        ps.setLong(1, 2L);
+        ps.executeQuery();
+        final Statement st = proxy.createStatement();
+        st.executeUpdate("delete from A");
+        st.addBatch("insert into A values (1)");
+        st.addBatch("insert into A values (2)");
+        st.executeBatch();
+        recorder.stopRecording(log);
+
+        proxy.createStatement().execute("select 2");
+
+        // THEN
+        assertThat(log.getStatements(), contains("select * from A where ID = ?", "select * from A where ID = ?", "delete from A",
+                "insert into A values (1)", "insert into A values (2)"));
+        verify(preparedStatement).setLong(1, 2L);
+        verify(statement).executeBatch();
+    }
+
+    @Test(expected = SQLException.class)
+    public void testExceptionsOfTheDriverArePropagated() throws SQLException {
+        // GIVEN
+        when(statement.executeUpdate(anyString())).thenThrow(new SQLException("broken"));
+        final Connection proxy = openConnection(recorder);
+
+        // WHEN
+        proxy.createStatement().executeUpdate("delete from A");
+    }
+
+    @Test
+    public void testNoStatementsAreRecordedWithoutActiveRecording() throws SQLException {
+        // GIVEN
+        final StatementLog log = recorder.startRecording();
+        recorder.stopRecording(log);
+
+        // WHEN
+        openConnection(recorder).createStatement().execute("select 2");
+
+        // THEN
+        assertThat(log.getStatements(), empty());
+    }
+
+    @Test
+    public void testStatementsAreRecordedByTheRecorderOfTheConnectionOnly() throws SQLException {
+        // GIVEN
+        final StatementRecorder otherRecorder = StatementRecorder.create();
+        final StatementLog log = recorder.startRecording();
+        final StatementLog otherLog = otherRecorder.startRecording();
+
+        // WHEN
+        openConnection(otherRecorder).createStatement().execute("select 2");
+        recorder.stopRecording(log);
+        otherRecorder.close();
+
+        // THEN
+        assertThat(log.getStatements(), empty());
+        assertThat(otherLog.getStatements(), contains("select 2"));
+    }
+}
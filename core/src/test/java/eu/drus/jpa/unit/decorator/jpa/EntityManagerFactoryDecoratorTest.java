@@ -1,13 +1,19 @@
 package eu.drus.jpa.unit.decorator.jpa;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -15,17 +21,25 @@ import javax.persistence.Persistence;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import eu.drus.jpa.unit.core.jdbc.StatementRecorder;
+import eu.drus.jpa.unit.core.jdbc.StatementRecordingDriver;
 import eu.drus.jpa.unit.spi.Constants;
 import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
 import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
 import eu.drus.jpa.unit.spi.TestInvocation;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest(Persistence.class)
+@PrepareForTest({
+        Persistence.class, StatementRecorder.class
+})
 public class EntityManagerFactoryDecoratorTest {
 
     private static final HashMap<String, Object> PERSISTENCE_PROPERTIES = new HashMap<>();
@@ -44,6 +58,15 @@ public class EntityManagerFactoryDecoratorTest {
     @Mock
     private PersistenceUnitDescriptor descriptor;
 
+    @Mock
+    private FeatureResolver resolver;
+
+    @Captor
+    private ArgumentCaptor<StatementRecorder> recorderCaptor;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Object>> propertiesCaptor;
+
     @SuppressWarnings({
             "unchecked", "rawtypes"
     })
@@ -53,6 +76,7 @@ public class EntityManagerFactoryDecoratorTest {
         when(Persistence.createEntityManagerFactory(eq(UNIT_NAME), eq(PERSISTENCE_PROPERTIES))).thenReturn(factory);
 
         when(invocation.getContext()).thenReturn(ctx);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
         when(invocation.getTestClass()).thenReturn((Class) getClass());
         when(ctx.getDescriptor()).thenReturn(descriptor);
         when(descriptor.getUnitName()).thenReturn(UNIT_NAME);
@@ -81,6 +105,33 @@ public class EntityManagerFactoryDecoratorTest {
 
         // THEN
         verify(ctx).storeData(eq(Constants.KEY_ENTITY_MANAGER_FACTORY), eq(factory));
+        verify(ctx, never()).storeData(eq(Constants.KEY_STATEMENT_RECORDER), any(StatementRecorder.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testConnectionPropertiesAreWrappedIfStatementsAreRecorded() throws Throwable {
+        // GIVEN
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", StatementRecordingDriver.class.getName());
+        properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:test");
+        when(descriptor.getProperties()).thenReturn(properties);
+        when(resolver.shouldRecordStatements()).thenReturn(Boolean.TRUE);
+        when(Persistence.createEntityManagerFactory(eq(UNIT_NAME), any(Map.class))).thenReturn(factory);
+
+        final EntityManagerFactoryDecorator decorator = new EntityManagerFactoryDecorator();
+
+        // WHEN
+        decorator.beforeAll(invocation);
+
+        // THEN
+        verify(ctx).storeData(eq(Constants.KEY_STATEMENT_RECORDER), recorderCaptor.capture());
+        verifyStatic();
+        Persistence.createEntityManagerFactory(eq(UNIT_NAME), propertiesCaptor.capture());
+        final String url = (String) propertiesCaptor.getValue().get("javax.persistence.jdbc.url");
+        assertThat(url, startsWith(StatementRecordingDriver.URL_PREFIX));
+        assertThat(url, endsWith(":jdbc:h2:mem:test"));
+        recorderCaptor.getValue().close();
     }
 
     @Test
@@ -98,4 +149,21 @@ public class EntityManagerFactoryDecoratorTest {
         verify(factory).close();
     }
 
+    @Test
+    public void testStatementRecorderIsClosedAfterAll() throws Throwable {
+        // GIVEN
+        final StatementRecorder recorder = PowerMockito.mock(StatementRecorder.class);
+        when(ctx.getData(Constants.KEY_ENTITY_MANAGER_FACTORY)).thenReturn(factory);
+        when(ctx.getData(Constants.KEY_STATEMENT_RECORDER)).thenReturn(recorder);
+
+        final EntityManagerFactoryDecorator decorator = new EntityManagerFactoryDecorator();
+
+        // WHEN
+        decorator.afterAll(invocation);
+
+        // THEN
+        verify(ctx).storeData(eq(Constants.KEY_STATEMENT_RECORDER), eq(null));
+        verify(recorder).close();
+    }
+
 }
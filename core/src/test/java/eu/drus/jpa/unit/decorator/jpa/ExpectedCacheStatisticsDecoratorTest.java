@@ -0,0 +1,158 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.CacheStatistics;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpectedCacheStatisticsDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private ExpectedCacheStatistics expected;
+
+    private AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+    @Before
+    public void setupMocks() {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(ctx.getData(eq(Constants.KEY_ASSERTION_ERROR_COLLECTOR))).thenReturn(errorCollector);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getExpectedCacheStatistics()).thenReturn(expected);
+        when(expected.minHitRatio()).thenReturn(-1.0);
+        when(expected.minHits()).thenReturn(-1L);
+        when(expected.maxMisses()).thenReturn(-1L);
+        when(expected.maxPuts()).thenReturn(-1L);
+        when(ctx.getData(eq(Constants.KEY_CACHE_STATISTICS))).thenReturn(new CacheStatistics(3, 1, 2));
+    }
+
+    @Test
+    public void testStatisticsAreNotVerifiedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getExpectedCacheStatistics()).thenReturn(null);
+        when(expected.minHits()).thenReturn(10L);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testStatisticsAreNotVerifiedIfTestFailed() throws Exception {
+        // GIVEN
+        when(invocation.getException()).thenReturn(Optional.of(new AssertionError()));
+        when(expected.minHits()).thenReturn(10L);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testStatisticsMeetExpectations() throws Exception {
+        // GIVEN
+        when(expected.minHitRatio()).thenReturn(0.75);
+        when(expected.minHits()).thenReturn(3L);
+        when(expected.maxMisses()).thenReturn(1L);
+        when(expected.maxPuts()).thenReturn(2L);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testAllViolatedExpectationsAreReported() throws Exception {
+        // GIVEN
+        when(expected.minHitRatio()).thenReturn(0.9);
+        when(expected.minHits()).thenReturn(4L);
+        when(expected.maxMisses()).thenReturn(0L);
+        when(expected.maxPuts()).thenReturn(1L);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            final String message = e.getMessage();
+            assertThat(message, containsString("Test failed in 4 cases"));
+            assertThat(message, containsString("Expected a cache hit ratio of at least 90%, but it was 75% (3 hits, 1 misses)"));
+            assertThat(message, containsString("Expected at least 4 cache hits, but 3 occurred"));
+            assertThat(message, containsString("Expected at most 0 cache misses, but 1 occurred"));
+            assertThat(message, containsString("Expected at most 1 cache puts, but 2 occurred"));
+        }
+    }
+
+    @Test
+    public void testHitRatioWithoutCacheLookups() throws Exception {
+        // GIVEN
+        when(ctx.getData(eq(Constants.KEY_CACHE_STATISTICS))).thenReturn(new CacheStatistics(0, 0, 0));
+        when(expected.minHitRatio()).thenReturn(0.5);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Expected a cache hit ratio of at least 50%, but the cache has not been looked up"));
+        }
+    }
+
+    @Test(expected = JpaUnitException.class)
+    public void testPutsNotCountedByJpaProvider() throws Exception {
+        // GIVEN
+        when(ctx.getData(eq(Constants.KEY_CACHE_STATISTICS))).thenReturn(new CacheStatistics(3, 1, -1));
+        when(expected.maxPuts()).thenReturn(1L);
+        final ExpectedCacheStatisticsDecorator fixture = new ExpectedCacheStatisticsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+    }
+}
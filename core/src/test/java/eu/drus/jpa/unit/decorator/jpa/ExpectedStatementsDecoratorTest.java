@@ -0,0 +1,182 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
+import eu.drus.jpa.unit.core.jdbc.StatementType;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpectedStatementsDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private Measurement measurement;
+
+    @Mock
+    private StatementLog log;
+
+    @Mock
+    private ExpectedStatements expectedStatements;
+
+    private AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+    @Before
+    public void setupMocks() throws Exception {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(ctx.getData(eq(Constants.KEY_ASSERTION_ERROR_COLLECTOR))).thenReturn(errorCollector);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getExpectedStatements()).thenReturn(expectedStatements);
+        when(ctx.getData(eq(Constants.KEY_MEASUREMENT))).thenReturn(measurement);
+        when(measurement.getStatementLog()).thenReturn(log);
+
+        when(expectedStatements.select()).thenReturn(-1);
+        when(expectedStatements.insert()).thenReturn(-1);
+        when(expectedStatements.update()).thenReturn(-1);
+        when(expectedStatements.delete()).thenReturn(-1);
+        when(expectedStatements.max()).thenReturn(-1);
+
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("select * from DEPOSITOR where ID=?", 1);
+        counts.put("update DEPOSITOR set NAME=? where ID=?", 1);
+        counts.put("select * from ADDRESS where DEPOSITOR_ID=?", 10);
+        when(log.countByStatement()).thenReturn(counts);
+        when(log.count(any(StatementType.class))).thenReturn(0);
+        when(log.count(StatementType.SELECT)).thenReturn(11);
+        when(log.count(StatementType.UPDATE)).thenReturn(1);
+        when(log.size()).thenReturn(12);
+    }
+
+    @Test
+    public void testExpectedStatementsAreNotVerifiedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getExpectedStatements()).thenReturn(null);
+        final ExpectedStatementsDecorator fixture = new ExpectedStatementsDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(measurement);
+    }
+
+    @Test
+    public void testExpectedStatementsAreNotVerifiedIfTestFailed() throws Exception {
+        // GIVEN
+        when(expectedStatements.select()).thenReturn(1);
+        when(invocation.getException()).thenReturn(Optional.of(new AssertionError()));
+        final ExpectedStatementsDecorator fixture = new ExpectedStatementsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(measurement);
+    }
+
+    @Test
+    public void testUnavailableStatementRecordingIsReported() throws Exception {
+        // GIVEN
+        final PersistenceUnitDescriptor descriptor = mock(PersistenceUnitDescriptor.class);
+        when(descriptor.getUnitName()).thenReturn("my-unit");
+        when(ctx.getDescriptor()).thenReturn(descriptor);
+        when(measurement.getStatementLog()).thenReturn(null);
+        when(expectedStatements.max()).thenReturn(12);
+        final ExpectedStatementsDecorator fixture = new ExpectedStatementsDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Statement recording is not available for persistence unit my-unit"));
+        }
+    }
+
+    @Test
+    public void testMatchingExpectations() throws Exception {
+        // GIVEN
+        when(expectedStatements.select()).thenReturn(11);
+        when(expectedStatements.insert()).thenReturn(0);
+        when(expectedStatements.update()).thenReturn(1);
+        when(expectedStatements.max()).thenReturn(12);
+        final ExpectedStatementsDecorator fixture = new ExpectedStatementsDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testViolatedExpectationsAreReportedWithGroupedStatements() throws Exception {
+        // GIVEN
+        when(expectedStatements.select()).thenReturn(2);
+        when(expectedStatements.delete()).thenReturn(0);
+        when(expectedStatements.max()).thenReturn(5);
+        final ExpectedStatementsDecorator fixture = new ExpectedStatementsDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            final String message = e.getMessage();
+            assertThat(message, containsString("Test failed in 2 cases"));
+            assertThat(message, containsString("Expected 2 SELECT statements, but 11 were executed:"));
+            assertThat(message, containsString("Expected at most 5 statements, but 12 were executed:"));
+            assertThat(message, containsString("   10x select * from ADDRESS where DEPOSITOR_ID=?"));
+            assertThat(message, containsString("    1x update DEPOSITOR set NAME=? where ID=?"));
+            assertThat(message, not(containsString("DELETE")));
+
+            // the most frequent statement is reported first
+            final String selects = message.substring(message.indexOf("SELECT"), message.indexOf("Expected at most"));
+            assertThat(selects.indexOf("ADDRESS") < selects.indexOf("DEPOSITOR where"), equalTo(true));
+            assertThat(selects, not(containsString("update")));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.core.jpa.PersistenceContextInspector;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.PersistenceContextStatistics;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MaxManagedEntitiesDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private PersistenceContextInspector inspector;
+
+    @Mock
+    private MaxManagedEntities maxManagedEntities;
+
+    private PersistenceContextStatistics statistics;
+
+    private AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+    @Before
+    public void setupMocks() {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(ctx.getData(eq(Constants.KEY_ASSERTION_ERROR_COLLECTOR))).thenReturn(errorCollector);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getMaxManagedEntities()).thenReturn(maxManagedEntities);
+        when(ctx.getData(eq(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR))).thenReturn(inspector);
+
+        statistics = new PersistenceContextStatistics(true);
+        statistics.addManagedEntity("Depositor");
+        for (int i = 0; i < 3; i++) {
+            statistics.addManagedEntity("Address");
+            statistics.addManagedCollection("Depositor.addresses");
+        }
+        statistics.addFlush(4);
+        statistics.addFlush(4);
+        when(inspector.getStatistics()).thenReturn(statistics);
+    }
+
+    @Test
+    public void testMaxManagedEntitiesAreNotVerifiedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getMaxManagedEntities()).thenReturn(null);
+        final MaxManagedEntitiesDecorator fixture = new MaxManagedEntitiesDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(inspector);
+    }
+
+    @Test
+    public void testMaxManagedEntitiesAreNotVerifiedIfTestFailed() throws Exception {
+        // GIVEN
+        when(maxManagedEntities.value()).thenReturn(0);
+        when(invocation.getException()).thenReturn(Optional.of(new AssertionError()));
+        final MaxManagedEntitiesDecorator fixture = new MaxManagedEntitiesDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(inspector);
+    }
+
+    @Test
+    public void testManagedEntitiesWithinLimit() throws Exception {
+        // GIVEN
+        when(maxManagedEntities.value()).thenReturn(4);
+        final MaxManagedEntitiesDecorator fixture = new MaxManagedEntitiesDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testExceededLimitIsReportedWithManagedObjectsAndFlushes() throws Exception {
+        // GIVEN
+        when(maxManagedEntities.value()).thenReturn(3);
+        final MaxManagedEntitiesDecorator fixture = new MaxManagedEntitiesDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            final String message = e.getMessage();
+            assertThat(message, containsString("Expected at most 3 managed entities, but 4 were managed at commit time:"));
+            assertThat(message, containsString("    3x Address"));
+            assertThat(message, containsString("    1x Depositor"));
+            assertThat(message, containsString("    3x Depositor.addresses"));
+            assertThat(message, containsString("flushes: 2, dirty-checked entities: 8"));
+
+            // the most frequent type is reported first
+            assertThat(message.indexOf("Address") < message.indexOf("Depositor"), equalTo(true));
+        }
+    }
+
+    @Test
+    public void testFlushesNotSupportedByJpaProvider() throws Exception {
+        // GIVEN
+        statistics = new PersistenceContextStatistics(false);
+        statistics.addManagedEntity("Depositor");
+        when(inspector.getStatistics()).thenReturn(statistics);
+        when(maxManagedEntities.value()).thenReturn(0);
+        final MaxManagedEntitiesDecorator fixture = new MaxManagedEntitiesDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("flushes: not supported by the JPA provider"));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.api.PerformanceBudget;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PerformanceBudgetDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private Measurement measurement;
+
+    @Mock
+    private PerformanceBudget performanceBudget;
+
+    private AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+    @Before
+    public void setupMocks() throws Exception {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(ctx.getData(eq(Constants.KEY_ASSERTION_ERROR_COLLECTOR))).thenReturn(errorCollector);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getPerformanceBudget()).thenReturn(performanceBudget);
+        when(ctx.getData(eq(Constants.KEY_MEASUREMENT))).thenReturn(measurement);
+
+        when(performanceBudget.maxMillis()).thenReturn(100L);
+        when(performanceBudget.maxAllocatedBytes()).thenReturn(1000L);
+        when(measurement.getElapsedTime()).thenReturn(TimeUnit.MILLISECONDS.toNanos(150));
+        when(measurement.getAllocatedBytes()).thenReturn(2000L);
+    }
+
+    @Test
+    public void testBudgetIsNotVerifiedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getPerformanceBudget()).thenReturn(null);
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(measurement);
+    }
+
+    @Test
+    public void testBudgetIsNotVerifiedForWarmUps() throws Exception {
+        // GIVEN
+        when(resolver.isWarmUp()).thenReturn(Boolean.TRUE);
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(measurement);
+    }
+
+    @Test
+    public void testBudgetIsNotVerifiedIfTestFailed() throws Exception {
+        // GIVEN
+        when(invocation.getException()).thenReturn(Optional.of(new AssertionError()));
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(measurement);
+    }
+
+    @Test
+    public void testMeasurementWithinBudget() throws Exception {
+        // GIVEN
+        when(measurement.getElapsedTime()).thenReturn(TimeUnit.MILLISECONDS.toNanos(100));
+        when(measurement.getAllocatedBytes()).thenReturn(1000L);
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no assertion error is thrown
+    }
+
+    @Test
+    public void testExceededBudgetIsReported() throws Exception {
+        // GIVEN
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Test failed in 2 cases"));
+            assertThat(e.getMessage(), containsString("Test took 150 ms, which exceeds the budget of 100 ms"));
+            assertThat(e.getMessage(), containsString("Test allocated 2000 bytes, which exceeds the budget of 1000 bytes"));
+        }
+    }
+
+    @Test
+    public void testDisabledLimitsAreNotVerified() throws Exception {
+        // GIVEN
+        when(performanceBudget.maxMillis()).thenReturn(-1L);
+        when(performanceBudget.maxAllocatedBytes()).thenReturn(-1L);
+        when(measurement.getAllocatedBytes()).thenReturn(-1L);
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no exception is thrown
+    }
+
+    @Test
+    public void testAllocationBudgetRequiresSupportOfTheJvm() throws Exception {
+        // GIVEN
+        when(performanceBudget.maxMillis()).thenReturn(-1L);
+        when(measurement.getAllocatedBytes()).thenReturn(-1L);
+        final PerformanceBudgetDecorator fixture = new PerformanceBudgetDecorator();
+
+        // WHEN
+        try {
+            fixture.afterTest(invocation);
+            errorCollector.report();
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), equalTo("Allocated memory can not be measured on this JVM"));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package eu.drus.jpa.unit.decorator.jpa;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.core.jpa.PersistenceContextInspector;
+import eu.drus.jpa.unit.spi.Constants;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PersistenceContextInspectionDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PersistenceContextInspector inspector;
+
+    @Mock
+    private MaxManagedEntities maxManagedEntities;
+
+    @Before
+    public void setupMocks() {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getMaxManagedEntities()).thenReturn(maxManagedEntities);
+        when(ctx.getData(eq(Constants.KEY_ENTITY_MANAGER))).thenReturn(entityManager);
+        when(ctx.getData(eq(Constants.KEY_PERSISTENCE_CONTEXT_INSPECTOR))).thenReturn(inspector);
+        when(inspector.inspects(entityManager)).thenReturn(Boolean.TRUE);
+    }
+
+    @Test
+    public void testPersistenceContextIsNotInspectedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getMaxManagedEntities()).thenReturn(null);
+        final PersistenceContextInspectionDecorator fixture = new PersistenceContextInspectionDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+        fixture.afterTest(invocation);
+
+        // THEN
+        verify(inspector, never()).start();
+        verify(inspector, never()).collectManagedObjects();
+    }
+
+    @Test
+    public void testInspectorOfEntityManagerIsReused() throws Exception {
+        // GIVEN
+        final PersistenceContextInspectionDecorator fixture = new PersistenceContextInspectionDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+        fixture.afterTest(invocation);
+
+        // THEN
+        verify(ctx, never()).storeData(anyString(), any());
+        verify(inspector).start();
+        verify(inspector).collectManagedObjects();
+    }
+
+    @Test
+    public void testManagedObjectsAreNotCollectedIfTestFailed() throws Exception {
+        // GIVEN
+        when(invocation.getException()).thenReturn(Optional.of(new AssertionError()));
+        final PersistenceContextInspectionDecorator fixture = new PersistenceContextInspectionDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+
+        // THEN
+        verify(inspector, never()).collectManagedObjects();
+    }
+
+    @Test
+    public void testInspectionRequiresEntityManager() throws Exception {
+        // GIVEN
+        when(ctx.getData(eq(Constants.KEY_ENTITY_MANAGER))).thenReturn(null);
+        final PersistenceContextInspectionDecorator fixture = new PersistenceContextInspectionDecorator();
+
+        // WHEN
+        try {
+            fixture.beforeTest(invocation);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("requires an injected EntityManager"));
+        }
+    }
+
+    @Test
+    public void testInspectionOfUnsupportedJpaProvider() throws Exception {
+        // GIVEN
+        when(inspector.inspects(entityManager)).thenReturn(Boolean.FALSE);
+        final PersistenceContextInspectionDecorator fixture = new PersistenceContextInspectionDecorator();
+
+        // WHEN
+        try {
+            fixture.beforeTest(invocation);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Inspection of the persistence context is not supported"));
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package eu.drus.jpa.unit.decorator.jpa;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import javax.persistence.Cache;
 import javax.persistence.EntityManagerFactory;
 
@@ -17,6 +22,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
+import eu.drus.jpa.unit.api.JpaUnitException;
 import eu.drus.jpa.unit.spi.Constants;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.FeatureResolver;
@@ -115,6 +122,68 @@ public class SecondLevelCacheDecoratorTest {
         verifyNoMoreInteractions(cache, emf);
     }
 
+    @Test
+    public void testEvictionOfSelectedEntityTypes() throws Throwable {
+        // GIVEN
+        when(resolver.shouldEvictCacheAfter()).thenReturn(Boolean.TRUE);
+        when(resolver.getEntitiesToEvict()).thenReturn(Arrays.asList(String.class, Integer.class));
+        final SecondLevelCacheDecorator fixture = new SecondLevelCacheDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+
+        // THEN
+        verify(cache).evict(String.class);
+        verify(cache).evict(Integer.class);
+        verify(cache, times(0)).evictAll();
+    }
+
+    @Test
+    public void testEvictionOfSeededEntityTypesEvictsEntireCacheIfSeededTablesAreUnknown() throws Throwable {
+        // GIVEN
+        when(resolver.shouldEvictCacheBefore()).thenReturn(Boolean.TRUE);
+        when(resolver.shouldEvictSeededEntitiesOnly()).thenReturn(Boolean.TRUE);
+        final SecondLevelCacheDecorator fixture = new SecondLevelCacheDecorator();
+
+        // WHEN
+        fixture.beforeTest(invocation);
+
+        // THEN
+        verify(cache).evictAll();
+    }
+
+    @Test
+    public void testEvictionOfSeededEntityTypesEvictsEntireCacheIfTablesCanNotBeMapped() throws Throwable {
+        // GIVEN
+        when(resolver.shouldEvictCacheAfter()).thenReturn(Boolean.TRUE);
+        when(resolver.shouldEvictSeededEntitiesOnly()).thenReturn(Boolean.TRUE);
+        when(ctx.getData(eq(Constants.KEY_SEEDED_TABLES))).thenReturn(Arrays.asList("DEPOSITOR"));
+        final SecondLevelCacheDecorator fixture = new SecondLevelCacheDecorator();
+
+        // WHEN
+        fixture.afterTest(invocation);
+
+        // THEN
+        // the mapping metadata of the mocked JPA provider is not accessible
+        verify(cache).evictAll();
+    }
+
+    @Test
+    public void testCacheStatisticsAreNotSupportedForUnknownJpaProvider() throws Throwable {
+        // GIVEN
+        when(resolver.getExpectedCacheStatistics()).thenReturn(mock(ExpectedCacheStatistics.class));
+        final SecondLevelCacheDecorator fixture = new SecondLevelCacheDecorator();
+
+        // WHEN
+        try {
+            fixture.beforeTest(invocation);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Second level cache statistics are not supported"));
+        }
+    }
+
     @Test
     public void testRequiredPriority() {
         // GIVEN
@@ -124,6 +193,6 @@ public class SecondLevelCacheDecoratorTest {
         final int priority = fixture.getPriority();
 
         // THEN
-        assertThat(priority, equalTo(0));
+        assertThat(priority, equalTo(6));
     }
 }
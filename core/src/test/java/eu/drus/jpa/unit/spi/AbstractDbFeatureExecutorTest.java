@@ -1,10 +1,13 @@
 package eu.drus.jpa.unit.spi;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -12,7 +15,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -48,6 +53,11 @@ public class AbstractDbFeatureExecutorTest {
             return null;
         }
 
+        @Override
+        protected Data createGeneratedDataSet(final GeneratedDataSet generatedDataSet) {
+            return null;
+        }
+
         @Override
         protected DbFeature<Connection> createCleanupFeature(final CleanupStrategy cleanupStrategy, final List<Data> initialDataSets) {
             return null;
@@ -271,6 +281,32 @@ public class AbstractDbFeatureExecutorTest {
         verify(executor).createSeedDataFeature(any(DataSeedStrategy.class), anyList());
     }
 
+    @Test
+    public void testNoTablesAreSeededIfSeedDataIsDisabled() throws Exception {
+        // GIVEN
+        when(resolver.shouldSeedData()).thenReturn(Boolean.FALSE);
+
+        // WHEN
+        final Set<String> seededTables = executor.getSeededTables();
+
+        // THEN
+        assertThat(seededTables.isEmpty(), equalTo(Boolean.TRUE));
+        verify(executor, never()).loadDataSets(anyList());
+    }
+
+    @Test
+    public void testSeededTablesAreUnknownIfNotSupportedByTheDataSets() throws Exception {
+        // GIVEN
+        when(resolver.shouldSeedData()).thenReturn(Boolean.TRUE);
+        doReturn(Arrays.asList(new Data())).when(executor).loadDataSets(anyList());
+
+        // WHEN
+        final Set<String> seededTables = executor.getSeededTables();
+
+        // THEN
+        assertThat(seededTables, nullValue());
+    }
+
     @Test
     public void testVerifyDataAfterIsDisabled() throws Exception {
         // GIVEN
@@ -0,0 +1,195 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSet.Table;
+
+public class BinaryDataSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private File write(final BinaryDataSetWriter writer) throws IOException {
+        final File file = folder.newFile("test-data.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.write(out);
+        }
+        return file;
+    }
+
+    private File writeSingleColumnDataSet() throws IOException {
+        // header layout: magic, version, table count, "T", row count, column count, "id", type at 29, block offset at 30
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("T").addColumn("id", ColumnType.INT).addRow(1);
+        return write(writer);
+    }
+
+    @Test
+    public void testWrittenDataSetCanBeRead() throws Exception {
+        // GIVEN
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("TABLE_1").addColumn("id", ColumnType.INT).addColumn("count", ColumnType.LONG)
+                .addColumn("value", ColumnType.DOUBLE).addColumn("flag", ColumnType.BOOLEAN).addColumn("name", ColumnType.STRING)
+                .addColumn("data", ColumnType.BYTES).addRow(1, 10L, 1.5, true, "foo", new byte[] {
+                        1, 2
+                }).addRow(2, null, null, false, null, new byte[0]);
+        writer.addTable("TABLE_2").addColumn("id", ColumnType.INT);
+
+        // WHEN
+        final BinaryDataSet dataSet = BinaryDataSet.open(write(writer).toPath());
+
+        // THEN
+        assertThat(dataSet.getTables().size(), equalTo(2));
+
+        final Table table1 = dataSet.getTables().get(0);
+        assertThat(table1.getName(), equalTo("TABLE_1"));
+        assertThat(table1.getRowCount(), equalTo(2));
+        assertThat(table1.getColumnCount(), equalTo(6));
+        assertThat(table1.getColumnIndex("NAME"), equalTo(4));
+        assertThat(table1.getColumnType(4), equalTo(ColumnType.STRING));
+
+        assertThat(table1.getValue(0, 0), equalTo((Object) 1));
+        assertThat(table1.getValue(0, 1), equalTo((Object) 10L));
+        assertThat(table1.getValue(0, 2), equalTo((Object) 1.5));
+        assertThat(table1.getValue(0, 3), equalTo((Object) true));
+        assertThat(table1.getValue(0, 4), equalTo((Object) "foo"));
+        assertThat(table1.getValue(0, 5), equalTo((Object) new byte[] {
+                1, 2
+        }));
+
+        assertThat(table1.getValue(1, 0), equalTo((Object) 2));
+        assertThat(table1.getValue(1, 1), nullValue());
+        assertThat(table1.getValue(1, 2), nullValue());
+        assertThat(table1.getValue(1, 3), equalTo((Object) false));
+        assertThat(table1.getValue(1, 4), nullValue());
+        assertThat(table1.getValue(1, 5), equalTo((Object) new byte[0]));
+
+        final Table table2 = dataSet.getTables().get(1);
+        assertThat(table2.getName(), equalTo("TABLE_2"));
+        assertThat(table2.getRowCount(), equalTo(0));
+    }
+
+    @Test
+    public void testOpenCompiledDataSetUsingItsSourceFile() throws Exception {
+        // GIVEN
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("TABLE_1").addColumn("id", ColumnType.INT).addRow(1);
+        final File compiled = folder.newFile("test-data.json.bin");
+        try (OutputStream out = new FileOutputStream(compiled)) {
+            writer.write(out);
+        }
+
+        // WHEN
+        final BinaryDataSet dataSet = BinaryDataSet.open(new File(folder.getRoot(), "test-data.json").toPath());
+
+        // THEN
+        assertThat(BinaryDataSet.compiledFileOf(new File(folder.getRoot(), "test-data.json").toPath()), equalTo(compiled.toPath()));
+        assertThat(dataSet.getTables().get(0).getValue(0, 0), equalTo((Object) 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenFileNotBeingABinaryDataSet() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("test-data.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write("{\"foo\": []}".getBytes());
+        }
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddRowWithWrongNumberOfValues() {
+        // WHEN
+        new BinaryDataSetWriter().addTable("TABLE_1").addColumn("id", ColumnType.INT).addRow(1, 2);
+    }
+
+    @Test(expected = UnsupportedDataSetFormatException.class)
+    public void testOpenCompressedBinaryDataSet() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("test-data.bin.gz");
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+
+    @Test
+    public void testOpenBinaryDataSetWithUnknownColumnType() throws Exception {
+        // GIVEN
+        final File file = writeSingleColumnDataSet();
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[29] = (byte) 0xFF;
+        Files.write(file.toPath(), bytes);
+
+        expectedException.expect(UnsupportedDataSetFormatException.class);
+        expectedException.expectMessage(containsString(file.toString()));
+        expectedException.expectMessage(containsString("unknown type 255 of column T.id"));
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+
+    @Test
+    public void testOpenBinaryDataSetWithBlockOffsetOutOfRange() throws Exception {
+        // GIVEN
+        final File file = writeSingleColumnDataSet();
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        bytes.putLong(30, Integer.MAX_VALUE + 1L);
+        Files.write(file.toPath(), bytes.array());
+
+        expectedException.expect(UnsupportedDataSetFormatException.class);
+        expectedException.expectMessage(containsString("block offset 2147483648 of column T.id is out of range"));
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+
+    @Test
+    public void testOpenBinaryDataSetWithBlockTooSmallForItsRows() throws Exception {
+        // GIVEN
+        final File file = writeSingleColumnDataSet();
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        bytes.putInt(15, 1000);
+        Files.write(file.toPath(), bytes.array());
+
+        expectedException.expect(UnsupportedDataSetFormatException.class);
+        expectedException.expectMessage(containsString("block of column T.id is too small for 1000 rows"));
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+
+    @Test
+    public void testOpenTruncatedBinaryDataSet() throws Exception {
+        // GIVEN
+        final File file = writeSingleColumnDataSet();
+        Files.write(file.toPath(), Arrays.copyOf(Files.readAllBytes(file.toPath()), 20));
+
+        expectedException.expect(UnsupportedDataSetFormatException.class);
+        expectedException.expectMessage(containsString("truncated header"));
+
+        // WHEN
+        BinaryDataSet.open(file.toPath());
+    }
+}
@@ -0,0 +1,48 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class CacheStatisticsTest {
+
+    @Test
+    public void testHitRatio() {
+        // GIVEN
+        final CacheStatistics statistics = new CacheStatistics(3, 1, 0);
+
+        // WHEN
+        final double hitRatio = statistics.getHitRatio();
+
+        // THEN
+        assertThat(hitRatio, equalTo(0.75));
+    }
+
+    @Test
+    public void testHitRatioWithoutLookups() {
+        // GIVEN
+        final CacheStatistics statistics = new CacheStatistics(0, 0, 5);
+
+        // WHEN
+        final double hitRatio = statistics.getHitRatio();
+
+        // THEN
+        assertThat(Double.isNaN(hitRatio), equalTo(true));
+    }
+
+    @Test
+    public void testDifferenceToEarlierStatistics() {
+        // GIVEN
+        final CacheStatistics start = new CacheStatistics(2, 5, -1);
+        final CacheStatistics end = new CacheStatistics(7, 6, -1);
+
+        // WHEN
+        final CacheStatistics statistics = end.since(start);
+
+        // THEN
+        assertThat(statistics.getHits(), equalTo(5L));
+        assertThat(statistics.getMisses(), equalTo(1L));
+        assertThat(statistics.getPuts(), equalTo(-1L));
+    }
+}
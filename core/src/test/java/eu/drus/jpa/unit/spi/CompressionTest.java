@@ -0,0 +1,89 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.common.io.ByteStreams;
+
+public class CompressionTest {
+
+    private static final String CONTENT = "{\"TABLE\": [{\"id\": 1}]}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @FunctionalInterface
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private Path write(final String fileName, final Compressor compressor) throws IOException {
+        final File file = folder.newFile(fileName);
+        try (OutputStream out = compressor.wrap(new FileOutputStream(file))) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        return file.toPath();
+    }
+
+    private static String read(final Path file) throws IOException {
+        try (InputStream in = Compression.openStream(file)) {
+            return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testInferCompressionFromFile() {
+        assertThat(Compression.inferFromFile(Paths.get("data.json")), equalTo(Compression.NONE));
+        assertThat(Compression.inferFromFile(Paths.get("data.json.gz")), equalTo(Compression.GZIP));
+        assertThat(Compression.inferFromFile(Paths.get("data.json.deflate")), equalTo(Compression.DEFLATE));
+        assertThat(Compression.inferFromFile(Paths.get("data.json.zst")), equalTo(Compression.ZSTD));
+    }
+
+    @Test
+    public void testStripCompressionSuffix() {
+        assertThat(Compression.GZIP.strip("data.json.gz"), equalTo("data.json"));
+        assertThat(Compression.GZIP.strip("data.json"), equalTo("data.json"));
+        assertThat(Compression.NONE.strip("data.json"), equalTo("data.json"));
+    }
+
+    @Test
+    public void testOpenUncompressedFile() throws IOException {
+        assertThat(read(write("data.json", out -> out)), equalTo(CONTENT));
+    }
+
+    @Test
+    public void testOpenGzipCompressedFile() throws IOException {
+        assertThat(read(write("data.json.gz", GZIPOutputStream::new)), equalTo(CONTENT));
+    }
+
+    @Test
+    public void testOpenDeflateCompressedFile() throws IOException {
+        assertThat(read(write("data.json.deflate", DeflaterOutputStream::new)), equalTo(CONTENT));
+    }
+
+    @Test
+    public void testOpenZstdCompressedFile() throws IOException {
+        assertThat(read(write("data.json.zst", ZstdOutputStream::new)), equalTo(CONTENT));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenFileNotMatchingItsCompression() throws IOException {
+        read(write("data.json.gz", out -> out));
+    }
+}
@@ -5,10 +5,13 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.verify;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -19,6 +22,9 @@ import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
 @RunWith(MockitoJUnitRunner.class)
 public class DataSetFormatTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Mock
     private DataSetFormat.LoaderProvider<Object> loaderProvider;
 
@@ -36,6 +42,15 @@ public class DataSetFormatTest {
         verify(loaderProvider).jsonLoader();
     }
 
+    @Test
+    public void testVerifyBsonLoaderSelection() {
+        final DataSetFormat format = DataSetFormat.BSON;
+
+        format.select(loaderProvider);
+
+        verify(loaderProvider).bsonLoader();
+    }
+
     @Test
     public void testVerifyYamlLoaderSelection() {
         final DataSetFormat format = DataSetFormat.YAML;
@@ -81,17 +96,34 @@ public class DataSetFormatTest {
         verify(loaderProvider).csvLoader();
     }
 
+    @Test
+    public void testVerifyBinaryLoaderSelection() {
+        final DataSetFormat format = DataSetFormat.BINARY;
+
+        format.select(loaderProvider);
+
+        verify(loaderProvider).binaryLoader();
+    }
+
     @Test
     public void testInferJsonFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.json"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.json").toPath());
 
         assertThat(format, equalTo(DataSetFormat.JSON));
         assertThat(format.extension(), equalTo("json"));
     }
 
+    @Test
+    public void testInferBsonFormatFromFile() throws IOException {
+        final DataSetFormat format = DataSetFormat.inferFromFile(folder.newFile("people.bson.gz").toPath());
+
+        assertThat(format, equalTo(DataSetFormat.BSON));
+        assertThat(format.extension(), equalTo("bson"));
+    }
+
     @Test
     public void testInferXmlFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xml"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xml").toPath());
 
         assertThat(format, equalTo(DataSetFormat.XML));
         assertThat(format.extension(), equalTo("xml"));
@@ -99,7 +131,7 @@ public class DataSetFormatTest {
 
     @Test
     public void testInferYamlFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.yaml"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.yaml").toPath());
 
         assertThat(format, equalTo(DataSetFormat.YAML));
         assertThat(format.extension(), equalTo("yaml"));
@@ -107,7 +139,7 @@ public class DataSetFormatTest {
 
     @Test
     public void testInferXlsFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xls"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xls").toPath());
 
         assertThat(format, equalTo(DataSetFormat.XLS));
         assertThat(format.extension(), equalTo("xls"));
@@ -115,7 +147,7 @@ public class DataSetFormatTest {
 
     @Test
     public void testInferXlsxFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xlsx"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data.xlsx").toPath());
 
         assertThat(format, equalTo(DataSetFormat.XLSX));
         assertThat(format.extension(), equalTo("xlsx"));
@@ -123,14 +155,62 @@ public class DataSetFormatTest {
 
     @Test
     public void testInferCsvFormatFromFile() throws URISyntaxException {
-        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data"));
+        final DataSetFormat format = DataSetFormat.inferFromFile(getFile("test-data").toPath());
 
         assertThat(format, equalTo(DataSetFormat.CSV));
         assertThat(format.extension(), equalTo("csv"));
     }
 
+    @Test
+    public void testInferBinaryFormatFromFile() throws IOException {
+        final DataSetFormat format = DataSetFormat.inferFromFile(folder.newFile("test-data.bin").toPath());
+
+        assertThat(format, equalTo(DataSetFormat.BINARY));
+        assertThat(format.extension(), equalTo("bin"));
+    }
+
+    @Test
+    public void testInferBinaryFormatFromFileHavingCompiledDataSet() throws IOException {
+        final File source = folder.newFile("test-data.json");
+        final File compiled = folder.newFile("test-data.json.bin");
+        source.setLastModified(compiled.lastModified() - 1000);
+
+        final DataSetFormat format = DataSetFormat.inferFromFile(source.toPath());
+
+        assertThat(format, equalTo(DataSetFormat.BINARY));
+    }
+
+    @Test
+    public void testInferFormatFromFileHavingOutdatedCompiledDataSet() throws IOException {
+        final File source = folder.newFile("test-data.json");
+        final File compiled = folder.newFile("test-data.json.bin");
+        compiled.setLastModified(source.lastModified() - 1000);
+
+        final DataSetFormat format = DataSetFormat.inferFromFile(source.toPath());
+
+        assertThat(format, equalTo(DataSetFormat.JSON));
+    }
+
+    @Test
+    public void testInferFormatFromCompressedFile() throws IOException {
+        assertThat(DataSetFormat.inferFromFile(folder.newFile("test-data.json.gz").toPath()), equalTo(DataSetFormat.JSON));
+        assertThat(DataSetFormat.inferFromFile(folder.newFile("test-data.xml.zst").toPath()), equalTo(DataSetFormat.XML));
+        assertThat(DataSetFormat.inferFromFile(folder.newFile("test-data.yaml.deflate").toPath()), equalTo(DataSetFormat.YAML));
+    }
+
+    @Test
+    public void testInferCsvFormatFromDirectoryWithCompressedFiles() throws IOException {
+        final File directory = folder.newFolder("test-data");
+        new File(directory, "table-ordering.txt").createNewFile();
+        new File(directory, "TABLE_1.csv.gz").createNewFile();
+
+        final DataSetFormat format = DataSetFormat.inferFromFile(directory.toPath());
+
+        assertThat(format, equalTo(DataSetFormat.CSV));
+    }
+
     @Test(expected = UnsupportedDataSetFormatException.class)
     public void testInferFormatFromFileWithUnknownFileExtension() throws URISyntaxException {
-        DataSetFormat.inferFromFile(getFile("empty.file"));
+        DataSetFormat.inferFromFile(getFile("empty.file").toPath());
     }
 }
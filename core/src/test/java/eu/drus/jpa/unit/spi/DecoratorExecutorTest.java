@@ -1,13 +1,22 @@
 package eu.drus.jpa.unit.spi;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -127,4 +136,35 @@ public class DecoratorExecutorTest {
         order.verify(firstMethodDecorator).afterTest(eq(invocation));
         verifyZeroInteractions(firstClassDecorator, secondClassDecorator);
     }
+
+    @Test
+    public void testProcessAfterRunsAllTestDecoratorsAndReportsTheCollectedErrorsOnce() throws Exception {
+        // GIVEN
+        final Map<String, Object> data = new HashMap<>();
+        doAnswer(i -> data.put((String) i.getArguments()[0], i.getArguments()[1])).when(jpaUnitContext).storeData(anyString(), any());
+        when(jpaUnitContext.getData(anyString())).thenAnswer(i -> data.get(i.getArguments()[0]));
+        doAnswer(i -> collect("second failed")).when(secondMethodDecorator).afterTest(eq(invocation));
+        doAnswer(i -> collect("first failed")).when(firstMethodDecorator).afterTest(eq(invocation));
+        final DecoratorExecutor unit = new DecoratorExecutor();
+
+        // WHEN
+        try {
+            unit.processAfter(invocation);
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Test failed in 2 cases"));
+            assertThat(e.getMessage(), containsString("second failed"));
+            assertThat(e.getMessage(), containsString("first failed"));
+        }
+
+        verify(secondMethodDecorator).afterTest(eq(invocation));
+        verify(firstMethodDecorator).afterTest(eq(invocation));
+        assertThat(data.get(Constants.KEY_ASSERTION_ERROR_COLLECTOR), nullValue());
+    }
+
+    private Object collect(final String message) {
+        ((AssertionErrorCollector) jpaUnitContext.getData(Constants.KEY_ASSERTION_ERROR_COLLECTOR)).collect(message);
+        return null;
+    }
 }
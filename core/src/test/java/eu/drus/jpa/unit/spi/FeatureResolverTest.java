@@ -5,9 +5,12 @@ import static eu.drus.jpa.unit.test.util.TestCodeUtils.compileModel;
 import static eu.drus.jpa.unit.test.util.TestCodeUtils.loadClass;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -32,9 +35,17 @@ import eu.drus.jpa.unit.api.CleanupCache;
 import eu.drus.jpa.unit.api.CleanupPhase;
 import eu.drus.jpa.unit.api.CleanupStrategy;
 import eu.drus.jpa.unit.api.CleanupUsingScripts;
+import eu.drus.jpa.unit.api.Complexity;
 import eu.drus.jpa.unit.api.DataSeedStrategy;
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
 import eu.drus.jpa.unit.api.ExpectedDataSets;
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
 import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.api.MaxComplexity;
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.api.PerformanceBudget;
 
 public class FeatureResolverTest {
 
@@ -610,6 +621,65 @@ public class FeatureResolverTest {
         assertThat(resolver.getCleanupStrategy(), equalTo(CleanupStrategy.STRICT));
     }
 
+    @Test
+    public void testDropAndRecreateOnCleanup() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        jClass.annotate(Cleanup.class).param("dropAndRecreate", true);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        jMethod2.annotate(Cleanup.class);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.shouldDropAndRecreateOnCleanup(), equalTo(Boolean.TRUE));
+        assertThat(resolver2.shouldDropAndRecreateOnCleanup(), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testSeedUsingTemplates() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        JAnnotationUse jAnnotationUse = jClass.annotate(InitialDataSets.class);
+        jAnnotationUse.param("value", "Script.file");
+        jAnnotationUse.param("useTemplates", true);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        jAnnotationUse = jMethod2.annotate(InitialDataSets.class);
+        jAnnotationUse.param("value", "Script.file");
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.shouldSeedUsingTemplates(), equalTo(Boolean.TRUE));
+        assertThat(resolver2.shouldSeedUsingTemplates(), equalTo(Boolean.FALSE));
+    }
+
     @Test
     public void testCleanupAfterTestIsDisabledIfCleanupUsingScriptsAfterIsEnabled() throws Exception {
         // GIVEN
@@ -1205,4 +1275,297 @@ public class FeatureResolverTest {
         // THEN
         assertThat(resolver.shouldEvictCacheBefore(), equalTo(Boolean.TRUE));
     }
+
+    @Test
+    public void testCleanupCacheRestrictedToSelectedEntities() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        jMethod1.annotate(CleanupCache.class);
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        final JAnnotationUse jAnnotationUse = jMethod2.annotate(CleanupCache.class);
+        jAnnotationUse.paramArray("entities").param(String.class).param(Integer.class);
+        jAnnotationUse.param("seededEntitiesOnly", true);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getEntitiesToEvict().isEmpty(), equalTo(Boolean.TRUE));
+        assertThat(resolver1.shouldEvictSeededEntitiesOnly(), equalTo(Boolean.FALSE));
+        assertThat(resolver2.getEntitiesToEvict(), equalTo(Arrays.asList(String.class, Integer.class)));
+        assertThat(resolver2.shouldEvictSeededEntitiesOnly(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testExpectedCacheStatisticsOfMethodOverridesTheOneOfTheClass() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        jClass.annotate(ExpectedCacheStatistics.class).param("minHits", 5L);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        jMethod2.annotate(ExpectedCacheStatistics.class).param("minHitRatio", 0.5);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getExpectedCacheStatistics().minHits(), equalTo(5L));
+        assertThat(resolver2.getExpectedCacheStatistics().minHits(), equalTo(-1L));
+        assertThat(resolver2.getExpectedCacheStatistics().minHitRatio(), equalTo(0.5));
+    }
+
+    @Test
+    public void testScaleFactorDefaultsToOne() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        final JMethod jMethod = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test");
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method = cut.getDeclaredMethod(jMethod.name());
+
+        // WHEN
+        final FeatureResolver resolver = FeatureResolver.newFeatureResolver(cut).withTestMethod(method).build();
+
+        // THEN
+        assertThat(resolver.getScaleFactor(), equalTo(1));
+        assertThat(resolver.getMaxComplexity(), nullValue());
+    }
+
+    @Test
+    public void testMaxComplexityAndScaleFactorForMethodWithMaxComplexityAnnotation() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        final JMethod jMethod = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test");
+        final JAnnotationUse jAnnotationUse = jMethod.annotate(MaxComplexity.class);
+        jAnnotationUse.param("value", Complexity.LINEAR);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method = cut.getDeclaredMethod(jMethod.name());
+
+        // WHEN
+        final FeatureResolver resolver = FeatureResolver.newFeatureResolver(cut).withTestMethod(method).withScaleFactor(10).build();
+
+        // THEN
+        assertThat(resolver.getScaleFactor(), equalTo(10));
+        assertThat(resolver.getMaxComplexity(), notNullValue());
+        assertThat(resolver.getMaxComplexity().value(), equalTo(Complexity.LINEAR));
+    }
+
+    @Test
+    public void testExpectedStatementsForClassWithExpectedStatementsAnnotationOverriddenByMethod() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        jClass.annotate(ExpectedStatements.class).param("max", 10);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        final JAnnotationUse jAnnotationUse = jMethod2.annotate(ExpectedStatements.class);
+        jAnnotationUse.param("select", 3);
+        jAnnotationUse.param("insert", 1);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getExpectedStatements().max(), equalTo(10));
+        assertThat(resolver1.getExpectedStatements().select(), equalTo(-1));
+        assertThat(resolver2.getExpectedStatements().max(), equalTo(-1));
+        assertThat(resolver2.getExpectedStatements().select(), equalTo(3));
+        assertThat(resolver2.getExpectedStatements().insert(), equalTo(1));
+    }
+
+    @Test
+    public void testExpectedMongoCommandsForClassWithExpectedMongoCommandsAnnotationOverriddenByMethod() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        jClass.annotate(ExpectedMongoCommands.class).param("maxTotal", 5);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        final JAnnotationUse jAnnotationUse = jMethod2.annotate(ExpectedMongoCommands.class);
+        jAnnotationUse.param("find", 2);
+        jAnnotationUse.param("maxReturnedDocuments", 10L);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getExpectedMongoCommands().maxTotal(), equalTo(5));
+        assertThat(resolver1.getExpectedMongoCommands().find(), equalTo(-1));
+        assertThat(resolver2.getExpectedMongoCommands().maxTotal(), equalTo(-1));
+        assertThat(resolver2.getExpectedMongoCommands().find(), equalTo(2));
+        assertThat(resolver2.getExpectedMongoCommands().maxReturnedDocuments(), equalTo(10L));
+    }
+
+    @Test
+    public void testExecutionIsMeasuredForMethodWithForbidFullTableScanAnnotation() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        jMethod2.annotate(ForbidFullTableScan.class).param("tables", "DEPOSITOR");
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getForbidFullTableScan(), nullValue());
+        assertThat(resolver1.shouldMeasureExecution(), equalTo(Boolean.FALSE));
+        assertThat(resolver2.getForbidFullTableScan().tables(), equalTo(new String[] {
+                "DEPOSITOR"
+        }));
+        assertThat(resolver2.shouldMeasureExecution(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testStatementsAreRecordedForClassWithAnyMethodVerifyingStatements() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass1 = jp._class(JMod.PUBLIC, "ClassUnderTest1");
+        jClass1.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        jClass1.method(JMod.PUBLIC, jCodeModel.VOID, "test2").annotate(ExpectedStatements.class).param("max", 1);
+        final JDefinedClass jClass2 = jp._class(JMod.PUBLIC, "ClassUnderTest2");
+        jClass2.method(JMod.PUBLIC, jCodeModel.VOID, "test1").annotate(PerformanceBudget.class).param("maxMillis", 200L);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut1 = loadClass(testFolder.getRoot(), jClass1.name());
+        final Class<?> cut2 = loadClass(testFolder.getRoot(), jClass2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut2).build();
+
+        // THEN
+        assertThat(resolver1.shouldRecordStatements(), equalTo(Boolean.TRUE));
+        assertThat(resolver2.shouldRecordStatements(), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testPerformanceBudgetAndWarmUpsForClassWithPerformanceBudgetAnnotation() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        final JAnnotationUse jAnnotationUse = jClass.annotate(PerformanceBudget.class);
+        jAnnotationUse.param("maxMillis", 200L);
+        jAnnotationUse.param("warmUps", 3);
+        final JMethod jMethod = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test");
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method = cut.getDeclaredMethod(jMethod.name());
+
+        // WHEN
+        final FeatureResolver resolver = FeatureResolver.newFeatureResolver(cut).withTestMethod(method).build();
+        final FeatureResolver warmUpResolver = FeatureResolver.newFeatureResolver(cut).withTestMethod(method).asWarmUp(true).build();
+
+        // THEN
+        assertThat(resolver.getPerformanceBudget().maxMillis(), equalTo(200L));
+        assertThat(resolver.getPerformanceBudget().maxAllocatedBytes(), equalTo(-1L));
+        assertThat(resolver.getWarmUps(), equalTo(3));
+        assertThat(resolver.shouldMeasureExecution(), equalTo(Boolean.TRUE));
+        assertThat(resolver.isWarmUp(), equalTo(Boolean.FALSE));
+        assertThat(warmUpResolver.isWarmUp(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testMaxManagedEntitiesOfMethodOverridesTheOneOfTheClass() throws Exception {
+        // GIVEN
+        final JCodeModel jCodeModel = new JCodeModel();
+        final JPackage jp = jCodeModel.rootPackage();
+        final JDefinedClass jClass = jp._class(JMod.PUBLIC, "ClassUnderTest");
+        jClass.annotate(MaxManagedEntities.class).param("value", 500);
+        final JMethod jMethod1 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test1");
+        final JMethod jMethod2 = jClass.method(JMod.PUBLIC, jCodeModel.VOID, "test2");
+        jMethod2.annotate(MaxManagedEntities.class).param("value", 10);
+
+        buildModel(testFolder.getRoot(), jCodeModel);
+
+        compileModel(testFolder.getRoot());
+
+        final Class<?> cut = loadClass(testFolder.getRoot(), jClass.name());
+        final Method method1 = cut.getDeclaredMethod(jMethod1.name());
+        final Method method2 = cut.getDeclaredMethod(jMethod2.name());
+
+        // WHEN
+        final FeatureResolver resolver1 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method1).build();
+        final FeatureResolver resolver2 = FeatureResolver.newFeatureResolver(cut).withTestMethod(method2).build();
+
+        // THEN
+        assertThat(resolver1.getMaxManagedEntities().value(), equalTo(500));
+        assertThat(resolver2.getMaxManagedEntities().value(), equalTo(10));
+    }
 }
@@ -0,0 +1,185 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.isIn;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.GeneratedColumn;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
+import eu.drus.jpa.unit.api.GeneratedTable;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.api.ValueGenerator;
+
+public class GeneratedDataSetTest {
+
+    @GeneratedDataSets(seed = 42, value = {
+            @GeneratedTable(name = "DEPOSITOR", rows = 10, columns = {
+                    @GeneratedColumn(name = "id", start = 100, step = 10),
+                    @GeneratedColumn(name = "name", generator = ValueGenerator.TEMPLATE, template = "name-{row}"),
+                    @GeneratedColumn(name = "age", generator = ValueGenerator.UNIFORM, min = 18, max = 65),
+                    @GeneratedColumn(name = "score", generator = ValueGenerator.GAUSSIAN, mean = 5, deviation = 2),
+                    @GeneratedColumn(name = "state", generator = ValueGenerator.ONE_OF, values = {
+                            "ACTIVE", "INACTIVE"
+                    })
+            }), @GeneratedTable(name = "ACCOUNT", rows = 100, columns = {
+                    @GeneratedColumn(name = "id"),
+                    @GeneratedColumn(name = "depositor_id", generator = ValueGenerator.REFERENCE, references = "DEPOSITOR.id")
+            })
+    })
+    private static class Generated {}
+
+    @GeneratedDataSets(seed = 43, value = @GeneratedTable(name = "DEPOSITOR", rows = 10, columns = {
+            @GeneratedColumn(name = "id", start = 100, step = 10),
+            @GeneratedColumn(name = "name", generator = ValueGenerator.TEMPLATE, template = "name-{row}"),
+            @GeneratedColumn(name = "age", generator = ValueGenerator.UNIFORM, min = 18, max = 65),
+            @GeneratedColumn(name = "score", generator = ValueGenerator.GAUSSIAN, mean = 5, deviation = 2)
+    }))
+    private static class OtherSeed {}
+
+    @GeneratedDataSets(@GeneratedTable(name = "ACCOUNT", rows = 1, columns = {
+            @GeneratedColumn(name = "depositor_id", generator = ValueGenerator.REFERENCE, references = "DEPOSITOR.id")
+    }))
+    private static class UnknownReference {}
+
+    @GeneratedDataSets(@GeneratedTable(name = "ACCOUNT", rows = 1, columns = {
+            @GeneratedColumn(name = "a", generator = ValueGenerator.REFERENCE, references = "ACCOUNT.b"),
+            @GeneratedColumn(name = "b", generator = ValueGenerator.REFERENCE, references = "ACCOUNT.a")
+    }))
+    private static class CyclicReference {}
+
+    @GeneratedDataSets(@GeneratedTable(name = "ACCOUNT", rows = 1, columns = {
+            @GeneratedColumn(name = "a", generator = ValueGenerator.UNIFORM, min = 10, max = 1)
+    }))
+    private static class InvalidRange {}
+
+    private static GeneratedDataSet create(final Class<?> clazz) {
+        return new GeneratedDataSet(clazz.getAnnotation(GeneratedDataSets.class));
+    }
+
+    @Test
+    public void testGeneratedTables() {
+        // GIVEN
+        final GeneratedDataSet dataSet = create(Generated.class);
+
+        // WHEN
+        final GeneratedDataSet.Table depositor = dataSet.getTables().get(0);
+        final GeneratedDataSet.Table account = dataSet.getTables().get(1);
+
+        // THEN
+        assertThat(dataSet.getTables().size(), equalTo(2));
+        assertThat(depositor.getName(), equalTo("DEPOSITOR"));
+        assertThat(depositor.getRowCount(), equalTo(10));
+        assertThat(depositor.getColumnNames(), contains("id", "name", "age", "score", "state"));
+        assertThat(account.getName(), equalTo("ACCOUNT"));
+        assertThat(account.getRowCount(), equalTo(100));
+    }
+
+    @Test
+    public void testGeneratedValues() {
+        // GIVEN
+        final GeneratedDataSet.Table depositor = create(Generated.class).getTables().get(0);
+
+        // WHEN
+        for (int row = 0; row < depositor.getRowCount(); row++) {
+
+            // THEN
+            assertThat(depositor.getValue(row, 0), equalTo((Object) (100L + row * 10L)));
+            assertThat(depositor.getValue(row, 1), equalTo((Object) ("name-" + (row + 1))));
+            assertThat((Long) depositor.getValue(row, 2), allOf(greaterThanOrEqualTo(18L), lessThanOrEqualTo(65L)));
+            assertThat(depositor.getValue(row, 4), isIn(new Object[] {
+                    "ACTIVE", "INACTIVE"
+            }));
+        }
+    }
+
+    @Test
+    public void testReferencesPointToExistingValues() {
+        // GIVEN
+        final GeneratedDataSet dataSet = create(Generated.class);
+        final GeneratedDataSet.Table depositor = dataSet.getTables().get(0);
+        final GeneratedDataSet.Table account = dataSet.getTables().get(1);
+
+        // WHEN
+        for (int row = 0; row < account.getRowCount(); row++) {
+            final long depositorId = (Long) account.getValue(row, 1);
+
+            // THEN
+            assertThat(depositorId % 10, equalTo(0L));
+            assertThat(depositorId, allOf(greaterThanOrEqualTo(100L), lessThanOrEqualTo(100L + (depositor.getRowCount() - 1) * 10L)));
+        }
+    }
+
+    @Test
+    public void testValuesDependOnTheSeedOnly() {
+        // GIVEN
+        final GeneratedDataSet.Table table1 = create(Generated.class).getTables().get(0);
+        final GeneratedDataSet.Table table2 = create(Generated.class).getTables().get(0);
+        final GeneratedDataSet.Table table3 = create(OtherSeed.class).getTables().get(0);
+
+        // WHEN
+        final StringBuilder values1 = new StringBuilder();
+        final StringBuilder values2 = new StringBuilder();
+        final StringBuilder values3 = new StringBuilder();
+        for (int row = table1.getRowCount() - 1; row >= 0; row--) {
+            values1.append(table1.getValue(row, 3));
+        }
+        for (int row = table2.getRowCount() - 1; row >= 0; row--) {
+            values2.append(table2.getValue(row, 3));
+        }
+        for (int row = table3.getRowCount() - 1; row >= 0; row--) {
+            values3.append(table3.getValue(row, 3));
+        }
+
+        // THEN
+        assertThat(values1.toString(), equalTo(values2.toString()));
+        assertThat(values1.toString(), not(equalTo(values3.toString())));
+    }
+
+    @Test
+    public void testScaledTables() {
+        // GIVEN
+        final GeneratedDataSets definition = Generated.class.getAnnotation(GeneratedDataSets.class);
+
+        // WHEN
+        final GeneratedDataSet dataSet = new GeneratedDataSet(definition, 10);
+
+        // THEN
+        assertThat(dataSet.getTables().get(0).getRowCount(), equalTo(100));
+        assertThat(dataSet.getTables().get(1).getRowCount(), equalTo(1000));
+        assertThat(dataSet.getTables().get(0).getValue(99, 0), equalTo((Object) 1090L));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAccessOfNotExistingRow() {
+        // GIVEN
+        final GeneratedDataSet.Table table = create(Generated.class).getTables().get(0);
+
+        // WHEN
+        table.getValue(10, 0);
+    }
+
+    @Test(expected = JpaUnitException.class)
+    public void testReferenceToNotGeneratedTable() {
+        // WHEN
+        create(UnknownReference.class);
+    }
+
+    @Test(expected = JpaUnitException.class)
+    public void testCyclicReferences() {
+        // WHEN
+        create(CyclicReference.class);
+    }
+
+    @Test(expected = JpaUnitException.class)
+    public void testInvalidRange() {
+        // WHEN
+        create(InvalidRange.class);
+    }
+}
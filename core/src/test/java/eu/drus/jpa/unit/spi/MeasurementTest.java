@@ -0,0 +1,40 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import org.junit.Test;
+
+public class MeasurementTest {
+
+    @Test
+    public void testMeasurementIsFinishedByStop() throws Exception {
+        // GIVEN
+        final Measurement measurement = Measurement.start(null);
+
+        // WHEN
+        final long elapsedTimeBeforeStop = measurement.getElapsedTime();
+        Thread.sleep(5);
+        measurement.stop();
+
+        // THEN
+        assertThat(elapsedTimeBeforeStop, equalTo(-1L));
+        assertThat(measurement.getElapsedTime(), greaterThanOrEqualTo(5000000L));
+    }
+
+    @Test
+    public void testAllocatedBytesOfCurrentThread() {
+        // GIVEN
+        final Measurement measurement = Measurement.start(null);
+
+        // WHEN
+        final byte[] allocation = new byte[1024 * 1024];
+        measurement.stop();
+
+        // THEN
+        assumeThat(measurement.getAllocatedBytes() != -1, equalTo(Boolean.TRUE));
+        assertThat(measurement.getAllocatedBytes(), greaterThanOrEqualTo((long) allocation.length));
+    }
+}
@@ -0,0 +1,174 @@
+package eu.drus.jpa.unit.spi;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.Complexity;
+import eu.drus.jpa.unit.api.MaxComplexity;
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
+
+public class ScalingRunTest {
+
+    @MaxComplexity(Complexity.LINEAR)
+    public void linear() {}
+
+    @MaxComplexity(value = Complexity.LINEAR, statements = Complexity.LINEAR, scale = {
+            1, 2, 4, 8
+    })
+    public void linearStatements() {}
+
+    @MaxComplexity(value = Complexity.LINEAR, scale = 1)
+    public void singleScale() {}
+
+    @MaxComplexity(value = Complexity.LINEAR, scale = {
+            10, 1
+    })
+    public void decreasingScale() {}
+
+    private static MaxComplexity definition(final String method) throws Exception {
+        return ScalingRunTest.class.getMethod(method).getAnnotation(MaxComplexity.class);
+    }
+
+    private static Measurement measurement(final long millis, final int statements) {
+        final StatementLog log = mock(StatementLog.class);
+        when(log.size()).thenReturn(statements);
+        final Measurement measurement = mock(Measurement.class);
+        when(measurement.getElapsedTime()).thenReturn(millis * 1000000L);
+        when(measurement.getStatementLog()).thenReturn(log);
+        return measurement;
+    }
+
+    @Test
+    public void testScaleFactors() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linear"));
+
+        // WHEN
+        final int first = run.getCurrentScaleFactor();
+        run.add(measurement(1, 1));
+        final int second = run.getCurrentScaleFactor();
+        run.add(measurement(10, 1));
+        final int third = run.getCurrentScaleFactor();
+        run.add(measurement(100, 1));
+
+        // THEN
+        assertThat(run.size(), equalTo(3));
+        assertThat(first, equalTo(1));
+        assertThat(second, equalTo(10));
+        assertThat(third, equalTo(100));
+        assertThat(run.isComplete(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testLinearGrowthIsAccepted() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linear"));
+        run.add(measurement(3, 2));
+        run.add(measurement(20, 2));
+        run.add(measurement(250, 3));
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        run.verify(errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test
+    public void testQuadraticExecutionTimeIsReported() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linear"));
+        run.add(measurement(1, 1));
+        run.add(measurement(100, 1));
+        run.add(measurement(10000, 1));
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        run.verify(errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString("Execution time grows with O(n^2.00)"));
+            assertThat(e.getMessage(), containsString("x100: 10000 ms"));
+        }
+    }
+
+    @Test
+    public void testStatementsPerRowAreReported() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linear"));
+        run.add(measurement(1, 11));
+        run.add(measurement(1, 101));
+        run.add(measurement(1, 1001));
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        run.verify(errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString("Number of SQL statements grows"));
+            assertThat(e.getMessage(), containsString("CONSTANT"));
+        }
+    }
+
+    @Test
+    public void testDeclaredStatementComplexityIsRespected() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linearStatements"));
+        run.add(measurement(1, 11));
+        run.add(measurement(1, 21));
+        run.add(measurement(1, 41));
+        run.add(measurement(1, 81));
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        run.verify(errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test
+    public void testFailedExecutionsAreNotVerified() throws Exception {
+        // GIVEN
+        final ScalingRun run = new ScalingRun(definition("linear"));
+        run.add(measurement(1, 1));
+        run.add(null);
+        run.add(measurement(10000, 1));
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        run.verify(errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSingleScaleFactorIsRejected() throws Exception {
+        // WHEN
+        new ScalingRun(definition("singleScale"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreasingScaleFactorsAreRejected() throws Exception {
+        // WHEN
+        new ScalingRun(definition("decreasingScale"));
+    }
+}
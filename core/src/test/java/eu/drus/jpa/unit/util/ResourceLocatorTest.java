@@ -2,13 +2,21 @@ package eu.drus.jpa.unit.util;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -55,4 +63,42 @@ public class ResourceLocatorTest {
         assertThat(resource, notNullValue());
         assertThat(new File(resource.toURI()).exists(), equalTo(Boolean.FALSE));
     }
+
+    @Test
+    public void testConvertFileUrlToPath() throws IOException {
+        // GIVEN
+        final File tmpFile = tmpFolder.newFile();
+
+        // WHEN
+        final Path path = ResourceLocator.toPath(tmpFile.toURI().toURL());
+
+        // THEN
+        assertThat(path, equalTo(tmpFile.toPath()));
+    }
+
+    @Test
+    public void testConvertJarUrlToPath() throws IOException {
+        // GIVEN
+        final File jar = tmpFolder.newFile("fixtures.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("data sets/data.json"));
+            out.write("{}".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {
+                jar.toURI().toURL()
+        }, null)) {
+            final URL resource = classLoader.getResource("data sets/data.json");
+
+            // WHEN
+            final Path path = ResourceLocator.toPath(resource);
+            final Path secondPath = ResourceLocator.toPath(resource);
+
+            // THEN
+            assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), equalTo("{}"));
+            assertThat(path.getFileName().toString(), equalTo("data.json"));
+            assertThat(secondPath.getFileSystem(), sameInstance(path.getFileSystem()));
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package eu.drus.jpa.unit.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedResourcesTest {
+
+    @Mock
+    private Consumer<Object> closer;
+
+    @Mock
+    private Supplier<Object> factory;
+
+    private final Object resource = new Object();
+
+    @Before
+    public void prepareMocks() {
+        when(factory.get()).thenReturn(resource, new Object());
+    }
+
+    @Test
+    public void testResourceIsSharedForEqualKeys() {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 0);
+
+        // WHEN
+        final Object first = resources.acquire(new String("key"), factory);
+        final Object second = resources.acquire(new String("key"), factory);
+
+        // THEN
+        assertThat(first, sameInstance(resource));
+        assertThat(second, sameInstance(resource));
+        verify(factory).get();
+    }
+
+    @Test
+    public void testResourceIsClosedWhenNoLongerReferenced() {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 0);
+        resources.acquire("key", factory);
+        resources.acquire("key", factory);
+
+        // WHEN
+        resources.release("key");
+
+        // THEN
+        verify(closer, never()).accept(resource);
+
+        // WHEN
+        resources.release("key");
+
+        // THEN
+        verify(closer).accept(resource);
+    }
+
+    @Test
+    public void testIdleResourceIsClosedAfterTimeout() {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 50);
+        resources.acquire("key", factory);
+
+        // WHEN
+        resources.release("key");
+
+        // THEN
+        verify(closer, never()).accept(resource);
+        verify(closer, timeout(5000)).accept(resource);
+        assertThat(resources.acquire("key", factory) == resource, equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testIdleResourceIsReusedWhenAcquiredBeforeTimeout() throws InterruptedException {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 100);
+        resources.acquire("key", factory);
+        resources.release("key");
+
+        // WHEN
+        final Object reacquired = resources.acquire("key", factory);
+        Thread.sleep(300);
+
+        // THEN
+        assertThat(reacquired, sameInstance(resource));
+        verify(closer, never()).accept(resource);
+    }
+
+    @Test
+    public void testCloseAllClosesReferencedResources() {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 0);
+        final AtomicInteger counter = new AtomicInteger();
+        final Object other = resources.acquire("other", () -> counter.incrementAndGet());
+        resources.acquire("key", factory);
+
+        // WHEN
+        resources.closeAll();
+
+        // THEN
+        verify(closer).accept(resource);
+        verify(closer).accept(other);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleaseOfNotAcquiredResource() {
+        // GIVEN
+        final SharedResources<String, Object> resources = new SharedResources<>(closer, 0);
+
+        // WHEN
+        resources.release("key");
+
+        // THEN
+        // exception is thrown
+    }
+}
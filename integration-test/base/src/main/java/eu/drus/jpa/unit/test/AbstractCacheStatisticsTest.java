@@ -0,0 +1,64 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import eu.drus.jpa.unit.api.CleanupCache;
+import eu.drus.jpa.unit.api.CleanupPhase;
+import eu.drus.jpa.unit.api.ExpectedCacheStatistics;
+import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.test.model.Address;
+import eu.drus.jpa.unit.test.model.Depositor;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public abstract class AbstractCacheStatisticsTest {
+
+    @PersistenceContext(unitName = "my-cache-unit")
+    private EntityManager manager;
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @CleanupCache(phase = CleanupPhase.BEFORE)
+    public void test1() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    @CleanupCache(phase = CleanupPhase.BEFORE, entities = Address.class)
+    @ExpectedCacheStatistics(minHits = 1)
+    public void test2() {
+        // The database has been cleaned after the previous test and only the addresses have been
+        // evicted from the second level cache. So the depositor is still found in the cache
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @CleanupCache(phase = CleanupPhase.AFTER, seededEntitiesOnly = true)
+    public void test3() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+
+        // The DEPOSITOR table has been seeded, so the depositor is evicted after the test
+    }
+
+    @Test
+    @ExpectedCacheStatistics(maxMisses = 1)
+    public void test4() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNull(entity);
+    }
+}
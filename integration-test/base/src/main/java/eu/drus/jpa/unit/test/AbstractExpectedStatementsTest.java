@@ -0,0 +1,46 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.test.model.Depositor;
+
+@ExpectedStatements(insert = 0, update = 0, delete = 0)
+public abstract class AbstractExpectedStatementsTest {
+
+    @PersistenceContext(unitName = "my-test-unit")
+    private EntityManager manager;
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    public void readingAnEntityDoesNotIssueWriteStatements() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @ExpectedStatements(select = 1, max = 1)
+    public void countingEntitiesIssuesASingleSelect() {
+        final Long count = manager.createQuery("SELECT COUNT(d) FROM Depositor d", Long.class).getSingleResult();
+
+        assertEquals(Long.valueOf(1), count);
+    }
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @ExpectedStatements(select = 0, update = 1, max = 1)
+    public void bulkUpdateIssuesASingleUpdate() {
+        final int updated = manager.createQuery("UPDATE Depositor d SET d.name = 'David' WHERE d.id = 106").executeUpdate();
+
+        assertEquals(1, updated);
+    }
+}
@@ -0,0 +1,38 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.test.model.Depositor;
+
+@InitialDataSets("datasets/initial-data.json")
+public abstract class AbstractForbidFullTableScanTest {
+
+    @PersistenceContext(unitName = "my-test-unit")
+    private EntityManager manager;
+
+    @Test
+    @ForbidFullTableScan(tables = "DEPOSITOR")
+    public void findingAnEntityByIdUsesThePrimaryKey() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    @ForbidFullTableScan(tables = "ADDRESS")
+    public void fullTableScansOfNotListedTablesAreAllowed() {
+        final List<Depositor> entities = manager.createQuery("SELECT d FROM Depositor d", Depositor.class).getResultList();
+
+        assertEquals(1, entities.size());
+    }
+}
@@ -0,0 +1,53 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertTrue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestTemplate;
+
+import eu.drus.jpa.unit.api.Complexity;
+import eu.drus.jpa.unit.api.ExpectedStatements;
+import eu.drus.jpa.unit.api.GeneratedColumn;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
+import eu.drus.jpa.unit.api.GeneratedTable;
+import eu.drus.jpa.unit.api.MaxComplexity;
+import eu.drus.jpa.unit.api.ValueGenerator;
+
+public abstract class AbstractMaxComplexityJunit5Test {
+
+    @PersistenceContext(unitName = "my-test-unit")
+    private EntityManager manager;
+
+    @TestTemplate
+    @GeneratedDataSets(@GeneratedTable(name = "DEPOSITOR", rows = 20, columns = {
+            @GeneratedColumn(name = "ID", start = 1000),
+            @GeneratedColumn(name = "VERSION", step = 0),
+            @GeneratedColumn(name = "NAME", generator = ValueGenerator.TEMPLATE, template = "Name {row}"),
+            @GeneratedColumn(name = "SURNAME", generator = ValueGenerator.ONE_OF, values = {
+                    "Doe", "Smith"
+            })
+    }))
+    @MaxComplexity(Complexity.LINEAR)
+    public void countDepositors() {
+        final Long count = manager.createQuery("SELECT COUNT(d) FROM Depositor d", Long.class).getSingleResult();
+
+        assertTrue(count >= 20);
+    }
+
+    @Test
+    @GeneratedDataSets(@GeneratedTable(name = "DEPOSITOR", rows = 5, columns = {
+            @GeneratedColumn(name = "ID", start = 1000),
+            @GeneratedColumn(name = "VERSION", step = 0),
+            @GeneratedColumn(name = "NAME", generator = ValueGenerator.TEMPLATE, template = "Name {row}"),
+            @GeneratedColumn(name = "SURNAME", generator = ValueGenerator.TEMPLATE, template = "Surname {row}")
+    }))
+    @ExpectedStatements(select = 1)
+    public void statementsOfTheJpaProviderAreRecorded() {
+        final Long count = manager.createQuery("SELECT COUNT(d) FROM Depositor d", Long.class).getSingleResult();
+
+        assertTrue(count >= 5);
+    }
+}
@@ -0,0 +1,43 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceContextType;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.api.MaxManagedEntities;
+import eu.drus.jpa.unit.test.model.Depositor;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+@MaxManagedEntities(10)
+public abstract class AbstractMaxManagedEntitiesTest {
+
+    @PersistenceContext(unitName = "my-test-unit", type = PersistenceContextType.EXTENDED)
+    private EntityManager manager;
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    public void test1FindingAnEntityManagesItsEagerlyFetchedAssociations() {
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @MaxManagedEntities(0)
+    public void test2CountingEntitiesDoesNotManageAnyEntity() {
+        // the extended persistence context is still open, but has been cleared after the previous
+        // test
+        final Long count = manager.createQuery("SELECT COUNT(d) FROM Depositor d", Long.class).getSingleResult();
+
+        assertEquals(Long.valueOf(1), count);
+    }
+}
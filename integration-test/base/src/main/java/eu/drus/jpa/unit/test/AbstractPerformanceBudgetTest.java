@@ -0,0 +1,41 @@
+package eu.drus.jpa.unit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import eu.drus.jpa.unit.api.InitialDataSets;
+import eu.drus.jpa.unit.api.PerformanceBudget;
+import eu.drus.jpa.unit.test.model.Depositor;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public abstract class AbstractPerformanceBudgetTest {
+
+    private static int executions;
+
+    @PersistenceContext(unitName = "my-test-unit")
+    private EntityManager manager;
+
+    @Test
+    @InitialDataSets("datasets/initial-data.json")
+    @PerformanceBudget(maxMillis = 10000, maxAllocatedBytes = 500000000, warmUps = 2)
+    public void test1() {
+        executions++;
+
+        final Depositor entity = manager.find(Depositor.class, 106L);
+
+        assertNotNull(entity);
+    }
+
+    @Test
+    public void test2() {
+        // the test above was executed twice to warm up and a third time to be measured
+        assertEquals(3, executions);
+    }
+}
@@ -0,0 +1,8 @@
+package eu.drus.jpa.unit.test;
+
+import org.junit.runner.RunWith;
+
+import eu.drus.jpa.unit.api.JpaUnitRunner;
+
+@RunWith(JpaUnitRunner.class)
+public class ForbidFullTableScanTest extends AbstractForbidFullTableScanTest {}
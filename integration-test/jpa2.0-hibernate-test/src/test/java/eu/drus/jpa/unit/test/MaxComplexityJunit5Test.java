@@ -0,0 +1,11 @@
+package eu.drus.jpa.unit.test;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import eu.drus.jpa.unit.api.JpaUnit;
+
+@ExtendWith(JpaUnit.class)
+@RunWith(JUnitPlatform.class)
+public class MaxComplexityJunit5Test extends AbstractMaxComplexityJunit5Test {}
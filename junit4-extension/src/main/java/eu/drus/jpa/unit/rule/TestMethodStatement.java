@@ -19,6 +19,7 @@ public class TestMethodStatement extends Statement implements TestInvocation {
     private final FrameworkMethod method;
     private final Object target;
     private Throwable thrownException;
+    private boolean warmUp;
 
     public TestMethodStatement(final ExecutionContext ctx, final DecoratorExecutor executor, final Statement base,
             final FrameworkMethod method, final Object target) {
@@ -32,6 +33,16 @@ public class TestMethodStatement extends Statement implements TestInvocation {
 
     @Override
     public void evaluate() throws Throwable {
+        final int warmUps = getFeatureResolver().getWarmUps();
+        for (int i = 0; i < warmUps; i++) {
+            execute(true);
+        }
+        execute(false);
+    }
+
+    private void execute(final boolean asWarmUp) throws Throwable {
+        warmUp = asWarmUp;
+        thrownException = null;
         executor.processBefore(this);
         try {
             base.evaluate();
@@ -65,7 +76,7 @@ public class TestMethodStatement extends Statement implements TestInvocation {
 
     @Override
     public FeatureResolver getFeatureResolver() {
-        return FeatureResolver.newFeatureResolver(target.getClass()).withTestMethod(method.getMethod()).build();
+        return FeatureResolver.newFeatureResolver(target.getClass()).withTestMethod(method.getMethod()).asWarmUp(warmUp).build();
     }
 
     @Override
@@ -1,11 +1,19 @@
 package eu.drus.jpa.unit.rule;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +24,7 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import eu.drus.jpa.unit.api.PerformanceBudget;
 import eu.drus.jpa.unit.spi.DecoratorExecutor;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 
@@ -79,4 +88,27 @@ public class TestMethodStatementTest {
 
         assertTrue(statement.getException().isPresent());
     }
+
+    @PerformanceBudget(warmUps = 2)
+    public void warmedUpTest() {}
+
+    @Test
+    public void testStatementEvaluationWithWarmUps() throws Throwable {
+        // GIVEN
+        when(method.getMethod()).thenReturn(getClass().getMethod("warmedUpTest"));
+        final List<Boolean> warmUpFlags = new ArrayList<>();
+        doAnswer(i -> warmUpFlags.add(statement.getFeatureResolver().isWarmUp())).when(jpaUnit).processBefore(eq(statement));
+
+        // WHEN
+        statement.evaluate();
+
+        // THEN
+        final InOrder inOrder = inOrder(jpaUnit, base);
+        for (int i = 0; i < 3; i++) {
+            inOrder.verify(jpaUnit).processBefore(eq(statement));
+            inOrder.verify(base).evaluate();
+            inOrder.verify(jpaUnit).processAfter(eq(statement));
+        }
+        assertThat(warmUpFlags, equalTo(Arrays.asList(Boolean.TRUE, Boolean.TRUE, Boolean.FALSE)));
+    }
 }
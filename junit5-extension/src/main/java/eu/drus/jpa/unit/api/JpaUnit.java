@@ -1,21 +1,39 @@
 package eu.drus.jpa.unit.api;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.Extension;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
 
 import eu.drus.jpa.unit.core.JpaUnitContext;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.Constants;
 import eu.drus.jpa.unit.spi.DecoratorExecutor;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.ScalingRun;
 import eu.drus.jpa.unit.spi.TestInvocation;
 
-public class JpaUnit implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+public class JpaUnit implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback, TestTemplateInvocationContextProvider {
+
+    private static final Namespace NAMESPACE = Namespace.create(JpaUnit.class);
+    private static final String WARM_UPS = "WarmUps";
 
     private final DecoratorExecutor executor = new DecoratorExecutor();
 
@@ -31,12 +49,119 @@ public class JpaUnit implements BeforeAllCallback, AfterAllCallback, BeforeEachC
 
     @Override
     public void beforeEach(final ExtensionContext context) throws Exception {
+        verifyTestTemplate(context);
         executor.processBefore(createTestMethodInvocation(context, true));
     }
 
     @Override
     public void afterEach(final ExtensionContext context) throws Exception {
-        executor.processAfter(createTestMethodInvocation(context, true));
+        final TestInvocation invocation = createTestMethodInvocation(context, true);
+        executor.processAfter(invocation);
+
+        final AtomicInteger pendingWarmUps = getPendingWarmUps(context);
+        if (pendingWarmUps != null && pendingWarmUps.get() > 0) {
+            pendingWarmUps.decrementAndGet();
+            // measurements of warm-ups are not taken into account
+            invocation.getContext().storeData(Constants.KEY_MEASUREMENT, null);
+            return;
+        }
+
+        final ScalingRun scalingRun = getScalingRun(context);
+        if (scalingRun != null) {
+            final ExecutionContext ctx = invocation.getContext();
+            final Measurement measurement = (Measurement) ctx.getData(Constants.KEY_MEASUREMENT);
+            ctx.storeData(Constants.KEY_MEASUREMENT, null);
+
+            scalingRun.add(invocation.getException().isPresent() ? null : measurement);
+            if (scalingRun.isComplete()) {
+                final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+                scalingRun.verify(errorCollector);
+                errorCollector.report();
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsTestTemplate(final ExtensionContext context) {
+        final FeatureResolver resolver = getFeatureResolver(context);
+        return resolver.getMaxComplexity() != null || resolver.getWarmUps() > 0;
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(final ExtensionContext context) {
+        final FeatureResolver resolver = getFeatureResolver(context);
+        final int warmUps = resolver.getWarmUps();
+        context.getStore(NAMESPACE).put(WARM_UPS, new AtomicInteger(warmUps));
+        final Stream<TestTemplateInvocationContext> warmUpInvocations = IntStream.rangeClosed(1, warmUps)
+                .mapToObj(i -> invocationContext("warm-up " + i));
+
+        final MaxComplexity maxComplexity = resolver.getMaxComplexity();
+        if (maxComplexity == null) {
+            return Stream.concat(warmUpInvocations, Stream.of(invocationContext("measured")));
+        }
+
+        final ScalingRun scalingRun = new ScalingRun(maxComplexity);
+        context.getStore(NAMESPACE).put(ScalingRun.class, scalingRun);
+
+        return Stream.concat(warmUpInvocations,
+                IntStream.range(0, scalingRun.size()).mapToObj(i -> invocationContext("scale x" + scalingRun.getScaleFactor(i))));
+    }
+
+    private static void verifyTestTemplate(final ExtensionContext context) {
+        // the repeated executions are only provided for test templates. Otherwise the test would
+        // be executed once without verifying the complexity or without warming up
+        final Method method = context.getTestMethod().get();
+        if (AnnotationSupport.isAnnotated(method, TestTemplate.class)) {
+            return;
+        }
+        final FeatureResolver resolver = getFeatureResolver(context);
+        if (resolver.getMaxComplexity() != null) {
+            throw new JpaUnitException("@MaxComplexity requires " + method + " to be annotated with @TestTemplate instead of @Test");
+        }
+        if (resolver.getWarmUps() > 0) {
+            throw new JpaUnitException(
+                    "@PerformanceBudget with warmUps requires " + method + " to be annotated with @TestTemplate instead of @Test");
+        }
+    }
+
+    private static TestTemplateInvocationContext invocationContext(final String displayName) {
+        return new TestTemplateInvocationContext() {
+
+            @Override
+            public String getDisplayName(final int invocationIndex) {
+                return displayName;
+            }
+
+            @Override
+            public List<Extension> getAdditionalExtensions() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    private static FeatureResolver getFeatureResolver(final ExtensionContext context) {
+        final FeatureResolver.Builder builder = FeatureResolver.newFeatureResolver(context.getTestClass().get());
+        context.getTestMethod().ifPresent(builder::withTestMethod);
+        return builder.build();
+    }
+
+    private static AtomicInteger getPendingWarmUps(final ExtensionContext context) {
+        // like the scaling run, the number of pending warm-ups is stored in the context of the
+        // test template
+        if (!context.getTestMethod().isPresent() || getFeatureResolver(context).getWarmUps() == 0) {
+            return null;
+        }
+        return context.getStore(NAMESPACE).get(WARM_UPS, AtomicInteger.class);
+    }
+
+    private static ScalingRun getScalingRun(final ExtensionContext context) {
+        // the run is stored in the context of the test template and thus visible to all its
+        // invocations
+        final Optional<Method> method = context.getTestMethod();
+        if (!method.isPresent() || !method.get().isAnnotationPresent(MaxComplexity.class)) {
+            return null;
+        }
+        return context.getStore(NAMESPACE).get(ScalingRun.class, ScalingRun.class);
     }
 
     private TestInvocation createTestMethodInvocation(final ExtensionContext context, final boolean considerExceptions) {
@@ -71,6 +196,12 @@ public class JpaUnit implements BeforeAllCallback, AfterAllCallback, BeforeEachC
                 if (method.isPresent()) {
                     builder.withTestMethod(method.get());
                 }
+                final ScalingRun scalingRun = getScalingRun(context);
+                if (scalingRun != null) {
+                    builder.withScaleFactor(scalingRun.getCurrentScaleFactor());
+                }
+                final AtomicInteger pendingWarmUps = getPendingWarmUps(context);
+                builder.asWarmUp(pendingWarmUps != null && pendingWarmUps.get() > 0);
                 return builder.build();
             }
 
@@ -1,24 +1,37 @@
 package eu.drus.jpa.unit.api;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.notNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
@@ -30,6 +43,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import eu.drus.jpa.unit.core.DecoratorRegistrar;
 import eu.drus.jpa.unit.core.JpaUnitContext;
 import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.ScalingRun;
 import eu.drus.jpa.unit.spi.TestClassDecorator;
 import eu.drus.jpa.unit.spi.TestInvocation;
 import eu.drus.jpa.unit.spi.TestMethodDecorator;
@@ -59,6 +73,9 @@ public class JpaUnitTest {
     @Mock
     private JpaUnitContext jpaUnitContext;
 
+    @Mock
+    private Store store;
+
     private final Class<?> testClass = getClass();
 
     @Before
@@ -202,4 +219,146 @@ public class JpaUnitTest {
         assertThat(invocation.getFeatureResolver().shouldCleanupAfter(), equalTo(Boolean.TRUE));
         assertThat(invocation.getTestInstance(), notNullValue());
     }
+
+    @TestTemplate
+    @MaxComplexity(Complexity.LINEAR)
+    public void scaledTest() {}
+
+    @org.junit.jupiter.api.Test
+    @MaxComplexity(Complexity.LINEAR)
+    public void scaledPlainTest() {}
+
+    @TestTemplate
+    @PerformanceBudget(maxMillis = 100, warmUps = 2)
+    public void warmedUpTest() {}
+
+    @Test
+    public void testMaxComplexityIsRejectedForPlainTests() throws Exception {
+        // GIVEN
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("scaledPlainTest")));
+        final JpaUnit unit = new JpaUnit();
+
+        try {
+            // WHEN
+            unit.beforeEach(context);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("@MaxComplexity requires"));
+            assertThat(e.getMessage(), containsString("@TestTemplate"));
+        }
+        verifyZeroInteractions(firstMethodDecorator, secondMethodDecorator);
+    }
+
+    @org.junit.jupiter.api.Test
+    @PerformanceBudget(maxMillis = 100, warmUps = 2)
+    public void warmedUpPlainTest() {}
+
+    @Test
+    public void testWarmUpsAreRejectedForPlainTests() throws Exception {
+        // GIVEN
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("warmedUpPlainTest")));
+        final JpaUnit unit = new JpaUnit();
+
+        try {
+            // WHEN
+            unit.beforeEach(context);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("@PerformanceBudget with warmUps requires"));
+            assertThat(e.getMessage(), containsString("@TestTemplate"));
+        }
+        verifyZeroInteractions(firstMethodDecorator, secondMethodDecorator);
+    }
+
+    @Test
+    public void testMaxComplexityIsAcceptedForTestTemplates() throws Exception {
+        // GIVEN
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("scaledTest")));
+        final JpaUnit unit = new JpaUnit();
+
+        // WHEN
+        unit.beforeEach(context);
+
+        // THEN
+        verify(firstMethodDecorator).beforeTest(notNull(TestInvocation.class));
+    }
+
+    @Test
+    public void testTestTemplatesAreSupportedForMethodsWithMaxComplexity() throws Exception {
+        // GIVEN
+        final JpaUnit unit = new JpaUnit();
+
+        // WHEN
+        final boolean unscaledSupported = unit.supportsTestTemplate(context);
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("scaledTest")));
+        final boolean scaledSupported = unit.supportsTestTemplate(context);
+
+        // THEN
+        assertFalse(unscaledSupported);
+        assertTrue(scaledSupported);
+    }
+
+    @Test
+    public void testInvocationContextPerScaleFactor() throws Exception {
+        // GIVEN
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("scaledTest")));
+        when(context.getStore(any(Namespace.class))).thenReturn(store);
+        final JpaUnit unit = new JpaUnit();
+
+        // WHEN
+        final List<TestTemplateInvocationContext> invocationContexts = unit.provideTestTemplateInvocationContexts(context)
+                .collect(Collectors.toList());
+
+        // THEN
+        assertThat(invocationContexts.size(), equalTo(3));
+        assertThat(invocationContexts.get(0).getDisplayName(1), equalTo("scale x1"));
+        assertThat(invocationContexts.get(1).getDisplayName(2), equalTo("scale x10"));
+        assertThat(invocationContexts.get(2).getDisplayName(3), equalTo("scale x100"));
+        verify(store).put(eq(ScalingRun.class), any(ScalingRun.class));
+    }
+
+    @Test
+    public void testInvocationContextsWithWarmUps() throws Exception {
+        // GIVEN
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("warmedUpTest")));
+        when(context.getStore(any(Namespace.class))).thenReturn(store);
+        final JpaUnit unit = new JpaUnit();
+
+        // WHEN
+        final boolean supported = unit.supportsTestTemplate(context);
+        final List<TestTemplateInvocationContext> invocationContexts = unit.provideTestTemplateInvocationContexts(context)
+                .collect(Collectors.toList());
+
+        // THEN
+        assertTrue(supported);
+        assertThat(invocationContexts.size(), equalTo(3));
+        assertThat(invocationContexts.get(0).getDisplayName(1), equalTo("warm-up 1"));
+        assertThat(invocationContexts.get(1).getDisplayName(2), equalTo("warm-up 2"));
+        assertThat(invocationContexts.get(2).getDisplayName(3), equalTo("measured"));
+        verify(store).put(eq("WarmUps"), any(AtomicInteger.class));
+    }
+
+    @Test
+    public void testWarmUpsAreFlaggedInFeatureResolver() throws Exception {
+        // GIVEN
+        when(DecoratorRegistrar.getMethodDecorators()).thenReturn(Arrays.asList(firstMethodDecorator));
+        when(context.getTestMethod()).thenReturn(Optional.of(getClass().getMethod("warmedUpTest")));
+        when(context.getStore(any(Namespace.class))).thenReturn(store);
+        final AtomicInteger pendingWarmUps = new AtomicInteger(1);
+        when(store.get(eq("WarmUps"), eq(AtomicInteger.class))).thenReturn(pendingWarmUps);
+        final List<Boolean> warmUpFlags = new ArrayList<>();
+        doAnswer(i -> warmUpFlags.add(((TestInvocation) i.getArguments()[0]).getFeatureResolver().isWarmUp())).when(firstMethodDecorator)
+                .afterTest(any(TestInvocation.class));
+        final JpaUnit unit = new JpaUnit();
+
+        // WHEN
+        unit.afterEach(context);
+        unit.afterEach(context);
+
+        // THEN
+        assertThat(warmUpFlags, equalTo(Arrays.asList(Boolean.TRUE, Boolean.FALSE)));
+        assertThat(pendingWarmUps.get(), equalTo(0));
+    }
 }
@@ -0,0 +1,170 @@
+package eu.drus.jpa.unit.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
+import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
+
+/**
+ * Validates all data sets referenced by {@code @InitialDataSets} and {@code @ExpectedDataSets}
+ * annotations of the test sources and compiles these into the binary data set format. The compiled
+ * data sets are placed next to the copied test resources and are used by JPA Unit instead of the
+ * source files as long as these are up to date.
+ */
+@Mojo(name = "compile-data-sets", defaultPhase = LifecyclePhase.PROCESS_TEST_RESOURCES, threadSafe = true)
+public class CompileDataSetsMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${project.build.testOutputDirectory}", required = true)
+    private File testOutputDirectory;
+
+    /**
+     * The kind of data sets to compile. Either <code>SQL</code> or <code>MONGODB</code>.
+     */
+    @Parameter(property = "jpa-unit.dataSetType", defaultValue = "SQL")
+    private DataSetType dataSetType;
+
+    /**
+     * Additional data sets to compile, like the ones referenced by test classes from other
+     * artifacts.
+     */
+    @Parameter
+    private List<String> dataSets = new ArrayList<>();
+
+    @Parameter(property = "jpa-unit.skip", defaultValue = "false")
+    private boolean skip;
+
+    private long totalSourceSize;
+    private long totalCompiledSize;
+    private int compiledCount;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping data set compilation");
+            return;
+        }
+
+        final Map<String, Set<File>> references;
+        try {
+            references = new DataSetReferenceScanner()
+                    .scan(project.getTestCompileSourceRoots().stream().map(File::new).collect(Collectors.toList()));
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Could not scan test sources for data set references", e);
+        }
+        for (final String dataSet : dataSets) {
+            references.computeIfAbsent(dataSet, k -> new LinkedHashSet<>()).add(project.getFile());
+        }
+
+        final DataSetCompiler compiler = dataSetType.compiler();
+        final List<String> errors = new ArrayList<>();
+        for (final Entry<String, Set<File>> reference : references.entrySet()) {
+            final File source = new File(testOutputDirectory, reference.getKey());
+            if (!source.exists()) {
+                errors.add(reference.getKey() + " referenced from " + reference.getValue() + " does not exist");
+                continue;
+            }
+
+            try {
+                DataSetFormat.inferFromFile(source.toPath());
+            } catch (final UnsupportedDataSetFormatException e) {
+                errors.add(reference.getKey() + " referenced from " + reference.getValue() + " has an unsupported format");
+                continue;
+            }
+
+            try {
+                compile(compiler, reference.getKey(), source);
+            } catch (final IOException | UnsupportedDataSetFormatException e) {
+                errors.add(reference.getKey() + " referenced from " + reference.getValue() + " is not valid: " + e.getMessage());
+            }
+        }
+
+        getLog().info(String.format("Compiled %d of %d data sets: %s -> %s", compiledCount, references.size(), formatSize(totalSourceSize),
+                formatSize(totalCompiledSize)));
+
+        if (!errors.isEmpty()) {
+            errors.forEach(getLog()::error);
+            throw new MojoFailureException("Found " + errors.size() + " invalid data set references");
+        }
+    }
+
+    private void compile(final DataSetCompiler compiler, final String name, final File source) throws IOException {
+        final File target = BinaryDataSet.compiledFileOf(source.toPath()).toFile();
+        if (target.equals(source)) {
+            // already in the binary format
+            BinaryDataSet.open(source.toPath());
+            return;
+        }
+
+        if (!BinaryDataSet.isCompiled(source.toPath())) {
+            final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+            try {
+                compiler.compile(source, writer);
+            } catch (final UnsupportedDataSetFormatException e) {
+                getLog().info(name + " is used as is: " + e.getMessage());
+                Files.deleteIfExists(target.toPath());
+                return;
+            }
+
+            try (OutputStream out = new FileOutputStream(target)) {
+                writer.write(out);
+            } catch (final IOException e) {
+                Files.deleteIfExists(target.toPath());
+                throw e;
+            }
+        }
+
+        final BinaryDataSet dataSet = BinaryDataSet.open(target.toPath());
+        final long sourceSize = sizeOf(source);
+        final long compiledSize = target.length();
+        final int rowCount = dataSet.getTables().stream().mapToInt(BinaryDataSet.Table::getRowCount).sum();
+        getLog().info(String.format("%s: %d tables, %d rows, %s -> %s", name, dataSet.getTables().size(), rowCount, formatSize(sourceSize),
+                formatSize(compiledSize)));
+
+        totalSourceSize += sourceSize;
+        totalCompiledSize += compiledSize;
+        compiledCount++;
+    }
+
+    private static long sizeOf(final File file) throws IOException {
+        if (!file.isDirectory()) {
+            return file.length();
+        }
+
+        // e.g. csv data sets
+        try (Stream<File> files = Files.walk(file.toPath()).map(p -> p.toFile())) {
+            return files.filter(File::isFile).mapToLong(File::length).sum();
+        }
+    }
+
+    private static String formatSize(final long size) {
+        if (size < 1024) {
+            return size + " B";
+        }
+        return String.format("%.1f KiB", size / 1024.0);
+    }
+}
@@ -0,0 +1,20 @@
+package eu.drus.jpa.unit.maven;
+
+import java.io.File;
+import java.io.IOException;
+
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+
+interface DataSetCompiler {
+
+    /**
+     * Parses the given data set and adds its contents to the writer.
+     *
+     * @throws IOException
+     *             if the data set is not valid
+     * @throws eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException
+     *             if the data set cannot be represented in the binary format. Such data sets are
+     *             loaded from their source at test time.
+     */
+    void compile(File source, BinaryDataSetWriter writer) throws IOException;
+}
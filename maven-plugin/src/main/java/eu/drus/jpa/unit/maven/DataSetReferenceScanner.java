@@ -0,0 +1,134 @@
+package eu.drus.jpa.unit.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Collects the paths of all data sets referenced by {@code @InitialDataSets} and
+ * {@code @ExpectedDataSets} annotations. The scanner works on the test sources, since the test
+ * classes are not compiled yet when test resources are processed. Only string literals are
+ * considered; references using constants cannot be resolved this way.
+ */
+class DataSetReferenceScanner {
+
+    private static final Pattern ANNOTATION = Pattern.compile("@(?:[\\w.]+\\.)?(?:InitialDataSets|ExpectedDataSets)\\s*\\(");
+    private static final Pattern ATTRIBUTE = Pattern.compile("^\\s*(\\w+)\\s*=(.*)$", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    public Map<String, Set<File>> scan(final Collection<File> sourceRoots) throws IOException {
+        final Map<String, Set<File>> references = new TreeMap<>();
+        for (final File sourceRoot : sourceRoots) {
+            if (!sourceRoot.isDirectory()) {
+                continue;
+            }
+
+            final List<Path> sources;
+            try (Stream<Path> paths = Files.walk(sourceRoot.toPath())) {
+                sources = paths.filter(p -> p.toString().endsWith(".java")).collect(Collectors.toList());
+            }
+
+            for (final Path source : sources) {
+                final String content = new String(Files.readAllBytes(source), StandardCharsets.UTF_8);
+                for (final String dataSet : findDataSets(content)) {
+                    references.computeIfAbsent(dataSet, k -> new LinkedHashSet<>()).add(source.toFile());
+                }
+            }
+        }
+        return references;
+    }
+
+    static List<String> findDataSets(final String content) {
+        final List<String> dataSets = new ArrayList<>();
+        final Matcher matcher = ANNOTATION.matcher(content);
+        while (matcher.find()) {
+            final int end = findClosingParenthesis(content, matcher.end());
+            if (end < 0) {
+                continue;
+            }
+
+            final List<String> attributes = splitAttributes(content.substring(matcher.end(), end));
+            for (final String attribute : attributes) {
+                final Matcher attributeMatcher = ATTRIBUTE.matcher(attribute);
+                if (!attributeMatcher.matches()) {
+                    // single element annotation
+                    dataSets.addAll(extractStrings(attribute));
+                } else if (attributeMatcher.group(1).equals("value")) {
+                    dataSets.addAll(extractStrings(attributeMatcher.group(2)));
+                }
+            }
+        }
+        return dataSets;
+    }
+
+    private static int findClosingParenthesis(final String content, final int start) {
+        int depth = 1;
+        for (int i = start; i < content.length(); i++) {
+            final char c = content.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(content, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipLiteral(final String content, final int start) {
+        final char quote = content.charAt(start);
+        for (int i = start + 1; i < content.length(); i++) {
+            final char c = content.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i;
+            }
+        }
+        return content.length();
+    }
+
+    private static List<String> splitAttributes(final String arguments) {
+        final List<String> attributes = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            final char c = arguments.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(arguments, i);
+            } else if (c == '{' || c == '(') {
+                depth++;
+            } else if (c == '}' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                attributes.add(arguments.substring(start, i));
+                start = i + 1;
+            }
+        }
+        attributes.add(arguments.substring(start));
+        return attributes;
+    }
+
+    private static List<String> extractStrings(final String expression) {
+        final List<String> strings = new ArrayList<>();
+        final Matcher matcher = STRING_LITERAL.matcher(expression);
+        while (matcher.find()) {
+            strings.add(matcher.group(1));
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,18 @@
+package eu.drus.jpa.unit.maven;
+
+public enum DataSetType {
+    SQL {
+        @Override
+        DataSetCompiler compiler() {
+            return new SqlDataSetCompiler();
+        }
+    },
+    MONGODB {
+        @Override
+        DataSetCompiler compiler() {
+            return new MongoDbDataSetCompiler();
+        }
+    };
+
+    abstract DataSetCompiler compiler();
+}
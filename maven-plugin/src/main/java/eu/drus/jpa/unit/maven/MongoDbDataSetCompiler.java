@@ -0,0 +1,77 @@
+package eu.drus.jpa.unit.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonParseException;
+
+import eu.drus.jpa.unit.mongodb.DataSetLoaderProvider;
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
+import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
+
+class MongoDbDataSetCompiler implements DataSetCompiler {
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    @Override
+    public void compile(final File source, final BinaryDataSetWriter writer) throws IOException {
+        if (DataSetFormat.inferFromFile(source.toPath()) != DataSetFormat.JSON) {
+            throw new UnsupportedDataSetFormatException(source + " is not compiled");
+        }
+
+        final Document dataSet;
+        try {
+            dataSet = new DataSetLoaderProvider().jsonLoader().load(source.toPath());
+        } catch (final JsonParseException e) {
+            throw new IOException(e);
+        }
+
+        for (final Entry<String, Object> collection : dataSet.entrySet()) {
+            final String name = collection.getKey();
+            final Object content = collection.getValue();
+            if (content instanceof List) {
+                addCollection(writer, name, (List<?>) content);
+            } else if (content instanceof Document) {
+                final Document document = (Document) content;
+                addCollection(writer, name, documents(name, document.get("data")));
+                addCollection(writer, name + DataSetLoaderProvider.INDEXES_TABLE_SUFFIX, documents(name, document.get("indexes")));
+            } else {
+                throw new IOException("Unexpected content of collection " + name);
+            }
+        }
+    }
+
+    private static List<?> documents(final String collection, final Object content) throws IOException {
+        if (!(content instanceof List)) {
+            throw new IOException("Unexpected content of collection " + collection);
+        }
+        return (List<?>) content;
+    }
+
+    private static void addCollection(final BinaryDataSetWriter writer, final String name, final List<?> documents) throws IOException {
+        final BinaryDataSetWriter.Table table = writer.addTable(name).addColumn(DataSetLoaderProvider.BSON_COLUMN, ColumnType.BYTES);
+        for (final Object document : documents) {
+            if (!(document instanceof Document)) {
+                throw new IOException("Collection " + name + " contains " + document + " which is not a document");
+            }
+            table.addRow(encode((Document) document));
+        }
+    }
+
+    private static byte[] encode(final Document document) {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            CODEC.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package eu.drus.jpa.unit.maven;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
+import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
+import eu.drus.jpa.unit.sql.dbunit.dataset.DataSetLoaderProvider;
+
+class SqlDataSetCompiler implements DataSetCompiler {
+
+    // [null] expressions are resolved by the loaded data set
+    private final DataSetLoaderProvider loaderProvider = new DataSetLoaderProvider();
+
+    @Override
+    public void compile(final File source, final BinaryDataSetWriter writer) throws IOException {
+        final DataSetFormat format = DataSetFormat.inferFromFile(source.toPath());
+        if (format == DataSetFormat.XLS || format == DataSetFormat.XLSX || format == DataSetFormat.BINARY) {
+            throw new UnsupportedDataSetFormatException(source + " is not compiled");
+        }
+
+        final IDataSet dataSet = format.select(loaderProvider).load(source.toPath());
+        try {
+            final ITableIterator tables = dataSet.iterator();
+            while (tables.next()) {
+                addTable(writer, tables.getTable());
+            }
+        } catch (final DataSetException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void addTable(final BinaryDataSetWriter writer, final ITable table) throws DataSetException {
+        final Column[] columns = table.getTableMetaData().getColumns();
+        final BinaryDataSetWriter.Table binaryTable = writer.addTable(table.getTableMetaData().getTableName());
+        for (final Column column : columns) {
+            binaryTable.addColumn(column.getColumnName(), columnTypeOf(table, column));
+        }
+
+        for (int row = 0; row < table.getRowCount(); row++) {
+            final Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = table.getValue(row, columns[i].getColumnName());
+            }
+            binaryTable.addRow(values);
+        }
+    }
+
+    private static ColumnType columnTypeOf(final ITable table, final Column column) throws DataSetException {
+        ColumnType type = null;
+        for (int row = 0; row < table.getRowCount(); row++) {
+            final Object value = table.getValue(row, column.getColumnName());
+            if (value == null) {
+                continue;
+            }
+
+            if (!(value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof byte[])) {
+                // e.g. dates parsed by the yaml parser
+                throw new UnsupportedDataSetFormatException(
+                        "Values of type " + value.getClass().getName() + " in column " + column.getColumnName() + " are not supported");
+            }
+
+            final ColumnType valueType = ColumnType.of(value);
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                if (type == ColumnType.BYTES || valueType == ColumnType.BYTES) {
+                    throw new UnsupportedDataSetFormatException("Column " + column.getColumnName() + " mixes binary and other values");
+                }
+                // mixed values are kept in their string representation
+                type = ColumnType.STRING;
+            }
+        }
+        return type == null ? ColumnType.STRING : type;
+    }
+}
@@ -0,0 +1,73 @@
+package eu.drus.jpa.unit.maven;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DataSetReferenceScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFindDataSetsOfSingleElementAnnotation() {
+        // WHEN
+        final List<String> dataSets = DataSetReferenceScanner.findDataSets("@InitialDataSets(\"datasets/initial.json\")");
+
+        // THEN
+        assertThat(dataSets, equalTo(Arrays.asList("datasets/initial.json")));
+    }
+
+    @Test
+    public void testFindDataSetsIgnoresOtherAttributes() {
+        // GIVEN
+        final String source = "@InitialDataSets(value = {\"a.json\", \"b.xml\"}, seedStrategy = DataSeedStrategy.REFRESH)\n"
+                + "@eu.drus.jpa.unit.api.ExpectedDataSets(value = \"c.yaml\", excludeColumns = {\"ID\", \"VERSION\"}, orderBy = \"NAME\")";
+
+        // WHEN
+        final List<String> dataSets = DataSetReferenceScanner.findDataSets(source);
+
+        // THEN
+        assertThat(dataSets, equalTo(Arrays.asList("a.json", "b.xml", "c.yaml")));
+    }
+
+    @Test
+    public void testFindDataSetsIgnoresConstantReferences() {
+        // WHEN
+        final List<String> dataSets = DataSetReferenceScanner.findDataSets("@InitialDataSets(DATA_SET) @InitialDataSetsHolder(\"x\")");
+
+        // THEN
+        assertThat(dataSets.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void testScanCollectsReferencingSources() throws Exception {
+        // GIVEN
+        final File root = folder.newFolder("java");
+        final File test1 = new File(root, "Test1.java");
+        final File test2 = new File(root, "Test2.java");
+        Files.write(test1.toPath(), "@InitialDataSets(\"a.json\") class Test1 {}".getBytes(StandardCharsets.UTF_8));
+        Files.write(test2.toPath(), "@ExpectedDataSets(\"a.json\") class Test2 {}".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        final Map<String, Set<File>> references = new DataSetReferenceScanner()
+                .scan(Arrays.asList(root, new File(folder.getRoot(), "not-existing")));
+
+        // THEN
+        assertThat(references.keySet(), equalTo(Collections.singleton("a.json")));
+        assertThat(references.get("a.json"), hasItems(test1, test2));
+    }
+}
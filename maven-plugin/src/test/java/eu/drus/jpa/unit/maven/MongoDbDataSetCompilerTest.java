@@ -0,0 +1,80 @@
+package eu.drus.jpa.unit.maven;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.bson.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import eu.drus.jpa.unit.mongodb.DataSetLoaderProvider;
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
+import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
+
+public class MongoDbDataSetCompilerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File newDataSet(final String name, final String content) throws IOException {
+        final File file = folder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(System.currentTimeMillis() - 10000);
+        return file;
+    }
+
+    private static void compile(final File source) throws IOException {
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        new MongoDbDataSetCompiler().compile(source, writer);
+        try (OutputStream out = new FileOutputStream(BinaryDataSet.compiledFileOf(source.toPath()).toFile())) {
+            writer.write(out);
+        }
+    }
+
+    @Test
+    public void testCompiledDataSetIsUsedInsteadOfSourceFile() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.json",
+                "{\"collection_1\": [{\"_id\": 1, \"nested\": {\"values\": [1, 2]}}],"
+                        + "\"collection_2\": {\"indexes\": [{\"index\": {\"name\": 1}}], \"data\": [{\"_id\": 2, \"name\": \"foo\"}]}}");
+        final Document expected = new DataSetLoaderProvider().jsonLoader().load(source.toPath());
+
+        // WHEN
+        compile(source);
+
+        // THEN
+        final DataSetFormat format = DataSetFormat.inferFromFile(source.toPath());
+        assertThat(format, equalTo(DataSetFormat.BINARY));
+
+        final Document dataSet = format.select(new DataSetLoaderProvider()).load(source.toPath());
+        assertThat(dataSet.toJson(), equalTo(expected.toJson()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testCompileInvalidDataSet() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.json", "{\"collection_1\": 1}");
+
+        // WHEN
+        compile(source);
+    }
+
+    @Test(expected = UnsupportedDataSetFormatException.class)
+    public void testCompileNonJsonDataSet() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.xml", "<dataset/>");
+
+        // WHEN
+        compile(source);
+    }
+}
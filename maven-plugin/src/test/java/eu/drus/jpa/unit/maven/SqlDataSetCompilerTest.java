@@ -0,0 +1,107 @@
+package eu.drus.jpa.unit.maven;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
+import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
+import eu.drus.jpa.unit.sql.dbunit.dataset.DataSetLoaderProvider;
+
+public class SqlDataSetCompilerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File newDataSet(final String name, final String content) throws IOException {
+        final File file = folder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void compile(final File source) throws IOException {
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        new SqlDataSetCompiler().compile(source, writer);
+        try (OutputStream out = new FileOutputStream(BinaryDataSet.compiledFileOf(source.toPath()).toFile())) {
+            writer.write(out);
+        }
+    }
+
+    @Test
+    public void testCompiledDataSetIsUsedInsteadOfSourceFile() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.json",
+                "{\"TABLE_1\": [{\"id\": \"1\", \"name\": \"foo\"}, {\"id\": \"2\", \"name\": \"[null]\"}], \"TABLE_2\": []}");
+        source.setLastModified(System.currentTimeMillis() - 10000);
+
+        // WHEN
+        compile(source);
+
+        // THEN
+        final DataSetFormat format = DataSetFormat.inferFromFile(source.toPath());
+        assertThat(format, equalTo(DataSetFormat.BINARY));
+
+        final IDataSet dataSet = format.select(new DataSetLoaderProvider()).load(source.toPath());
+        assertThat(dataSet.getTableNames().length, equalTo(2));
+
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getRowCount(), equalTo(2));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1"));
+        assertThat(table.getValue(0, "name"), equalTo((Object) "foo"));
+        assertThat(table.getValue(1, "id"), equalTo((Object) "2"));
+        assertThat(table.getValue(1, "name"), nullValue());
+    }
+
+    @Test
+    public void testCompileXmlDataSet() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.xml", "<dataset><TABLE_1 id=\"1\"/><TABLE_2 id=\"2\"/><TABLE_1 id=\"3\" name=\"foo\"/></dataset>");
+
+        // WHEN
+        compile(source);
+
+        // THEN
+        final BinaryDataSet dataSet = BinaryDataSet.open(source.toPath());
+        assertThat(dataSet.getTables().size(), equalTo(2));
+
+        final BinaryDataSet.Table table = dataSet.getTables().get(0);
+        assertThat(table.getName(), equalTo("TABLE_1"));
+        assertThat(table.getRowCount(), equalTo(2));
+        assertThat(table.getValue(1, table.getColumnIndex("id")), equalTo((Object) "3"));
+        assertThat(table.getValue(0, table.getColumnIndex("name")), nullValue());
+        assertThat(table.getValue(1, table.getColumnIndex("name")), equalTo((Object) "foo"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testCompileInvalidDataSet() throws Exception {
+        // GIVEN
+        final File source = newDataSet("data.json", "{\"TABLE_1\": [{\"id\": ");
+
+        // WHEN
+        compile(source);
+    }
+
+    @Test(expected = UnsupportedDataSetFormatException.class)
+    public void testCompileXlsDataSet() throws Exception {
+        // GIVEN
+        final File source = folder.newFile("data.xls");
+
+        // WHEN
+        compile(source);
+    }
+}
@@ -1,13 +1,16 @@
 package eu.drus.jpa.unit.mongodb;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import org.bson.Document;
@@ -19,9 +22,11 @@ import org.junit.Test;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
 
 import de.flapdoodle.embed.mongo.distribution.Version;
 import de.flapdoodle.embed.mongo.tests.MongodForTestsFactory;
+import eu.drus.jpa.unit.mongodb.operation.CollectionDefinitions;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperation;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperations;
 import eu.drus.jpa.unit.spi.CleanupStrategyExecutor;
@@ -51,7 +56,7 @@ public class CleanupStrategyProviderIT {
         mongoClient = factory.newMongo();
         connection = mongoClient.getDatabase(UUID.randomUUID().toString());
 
-        initialDataSet = new DataSetLoaderProvider().jsonLoader().load(new File("src/test/resources/test-data.json"));
+        initialDataSet = new DataSetLoaderProvider().jsonLoader().load(new File("src/test/resources/test-data.json").toPath());
 
         final MongoDbOperation operation = MongoDbOperations.CLEAN_INSERT;
         operation.execute(connection, initialDataSet);
@@ -283,4 +288,93 @@ public class CleanupStrategyProviderIT {
         // WHEN
         strategyExecutor.execute(connection, Arrays.asList(initialDataSet));
     }
+
+    @Test
+    public void testStrictCleanupDroppingAndRecreatingCollections() throws Exception {
+        // GIVEN
+        connection.getCollection("JSON_COLLECTION_1").createIndex(new Document("value_1", 1), new IndexOptions().background(true));
+        final CleanupStrategyExecutor<MongoDatabase, Document> strategyExecutor = new CleanupStrategyProvider(new CollectionDefinitions())
+                .strictStrategy();
+
+        // WHEN
+        strategyExecutor.execute(connection, Arrays.asList(initialDataSet), "JSON_COLLECTION_2");
+
+        // THEN
+        assertThat(connection.getCollection("JSON_COLLECTION_1").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_2").count(), equalTo(1l));
+        assertThat(connection.getCollection("JSON_COLLECTION_3").count(), equalTo(0l));
+
+        final List<String> indexNames = new ArrayList<>();
+        for (final Document index : connection.getCollection("JSON_COLLECTION_1").listIndexes()) {
+            indexNames.add(index.getString("name"));
+        }
+        assertThat(indexNames, hasItems("_id_", "value_1_1"));
+    }
+
+    @Test
+    public void testUsedTablesOnlyCleanupDroppingAndRecreatingCollections() throws Exception {
+        // GIVEN
+        final CleanupStrategyExecutor<MongoDatabase, Document> strategyExecutor = new CleanupStrategyProvider(new CollectionDefinitions())
+                .usedTablesOnlyStrategy();
+
+        // WHEN
+        strategyExecutor.execute(connection, Arrays.asList(initialDataSet));
+
+        // THEN
+        assertThat(connection.getCollection("JSON_COLLECTION_1").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_2").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_3").count(), equalTo(1l));
+    }
+
+    @Test
+    public void testWrittenTablesOnlyCleanupWithoutWrites() throws Exception {
+        // GIVEN
+        final WriteTracker writeTracker = new WriteTracker();
+        writeTracker.track(mongoClient);
+        writeTracker.reset(connection);
+        final CleanupStrategyExecutor<MongoDatabase, Document> strategyExecutor = new CleanupStrategyProvider(MongoDbOperations.DELETE_ALL,
+                writeTracker).writtenTablesOnlyStrategy();
+
+        // WHEN
+        strategyExecutor.execute(connection, Arrays.asList(initialDataSet));
+
+        // THEN
+        assertThat(connection.getCollection("JSON_COLLECTION_1").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_2").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_3").count(), equalTo(1l));
+    }
+
+    @Test
+    public void testWrittenTablesOnlyCleanupWithWrites() throws Exception {
+        // GIVEN
+        final WriteTracker writeTracker = new WriteTracker();
+        writeTracker.track(mongoClient);
+        writeTracker.reset(connection);
+        final CleanupStrategyExecutor<MongoDatabase, Document> strategyExecutor = new CleanupStrategyProvider(MongoDbOperations.DELETE_ALL,
+                writeTracker).writtenTablesOnlyStrategy();
+        connection.getCollection("JSON_COLLECTION_3").insertOne(new Document().append("_id", 12).append("version", "Record 12 version"));
+
+        // WHEN
+        strategyExecutor.execute(connection, Arrays.asList(initialDataSet));
+
+        // THEN
+        assertThat(connection.getCollection("JSON_COLLECTION_1").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_2").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_3").count(), equalTo(0l));
+    }
+
+    @Test
+    public void testWrittenTablesOnlyCleanupWithoutKnownWrites() throws Exception {
+        // GIVEN
+        final CleanupStrategyExecutor<MongoDatabase, Document> strategyExecutor = new CleanupStrategyProvider(MongoDbOperations.DELETE_ALL,
+                new WriteTracker()).writtenTablesOnlyStrategy();
+
+        // WHEN
+        strategyExecutor.execute(connection, Arrays.asList(initialDataSet));
+
+        // THEN
+        assertThat(connection.getCollection("JSON_COLLECTION_1").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_2").count(), equalTo(0l));
+        assertThat(connection.getCollection("JSON_COLLECTION_3").count(), equalTo(0l));
+    }
 }
@@ -91,9 +91,10 @@ public class CleanupUsingScriptIT {
     }
 
     @Test
-    @CleanupUsingScripts(phase = CleanupPhase.BEFORE, value = "scripts/delete-all.script")
+    @CleanupUsingScripts(phase = CleanupPhase.BEFORE, value = "scripts/delete-all-using-shell.script")
     public void test5() {
-        // since the entire DB is erased before the execution of the given test, the query should
+        // the shell script is evaluated by $eval, which is available before MongoDB 4.2 only. Since
+        // the entire DB is erased before the execution of the given test, the query should
         // return an empty result set
         final TypedQuery<Customer> query = manager.createQuery("SELECT c FROM Customer c WHERE c.name='Max'", Customer.class);
 
@@ -1,25 +1,63 @@
 package eu.drus.jpa.unit.mongodb;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.bson.Document;
 
 import com.mongodb.client.MongoDatabase;
 
 import eu.drus.jpa.unit.api.CleanupStrategy.StrategyProvider;
+import eu.drus.jpa.unit.mongodb.operation.CollectionDefinitions;
+import eu.drus.jpa.unit.mongodb.operation.DropAndRecreateOperation;
+import eu.drus.jpa.unit.mongodb.operation.IndexRegistry;
+import eu.drus.jpa.unit.mongodb.operation.MongoDbOperation;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperations;
 import eu.drus.jpa.unit.spi.CleanupStrategyExecutor;
 
 public class CleanupStrategyProvider implements StrategyProvider<CleanupStrategyExecutor<MongoDatabase, Document>> {
 
+    private final MongoDbOperation deleteAllOperation;
+    private final WriteTracker writeTracker;
+
+    public CleanupStrategyProvider() {
+        this(MongoDbOperations.DELETE_ALL, null);
+    }
+
+    /**
+     * Creates a provider, which empties collections by dropping and recreating them using the given
+     * definitions.
+     */
+    public CleanupStrategyProvider(final CollectionDefinitions collectionDefinitions) {
+        this(collectionDefinitions, new IndexRegistry());
+    }
+
+    /**
+     * Creates a provider, which empties collections by dropping and recreating them using the given
+     * definitions and invalidates the indexes registered for these.
+     */
+    public CleanupStrategyProvider(final CollectionDefinitions collectionDefinitions, final IndexRegistry indexRegistry) {
+        this(new DropAndRecreateOperation(collectionDefinitions, indexRegistry), null);
+    }
+
+    /**
+     * Creates a provider, which empties entire collections using the given operation and determines
+     * the collections written to by the test using the given tracker, if not null.
+     */
+    public CleanupStrategyProvider(final MongoDbOperation deleteAllOperation, final WriteTracker writeTracker) {
+        this.deleteAllOperation = deleteAllOperation;
+        this.writeTracker = writeTracker;
+    }
+
     @Override
     public CleanupStrategyExecutor<MongoDatabase, Document> strictStrategy() {
         return (final MongoDatabase connection, final List<Document> initialCollections, final String... collectionsToExclude) -> {
             final Document toDelete = excludeCollections(connection.listCollections(), collectionsToExclude);
 
-            MongoDbOperations.DELETE_ALL.execute(connection, toDelete);
+            deleteAllOperation.execute(connection, toDelete);
         };
     }
 
@@ -32,7 +70,32 @@ public class CleanupStrategyProvider implements StrategyProvider<CleanupStrategy
 
             final Document toDelete = excludeCollections(initialCollections, collectionsToExclude);
 
-            MongoDbOperations.DELETE_ALL.execute(connection, toDelete);
+            deleteAllOperation.execute(connection, toDelete);
+        };
+    }
+
+    @Override
+    public CleanupStrategyExecutor<MongoDatabase, Document> writtenTablesOnlyStrategy() {
+        return (final MongoDatabase connection, final List<Document> initialCollections, final String... collectionsToExclude) -> {
+            final Set<String> writtenCollections = writeTracker == null ? null : writeTracker.getWrittenCollections(connection);
+
+            final Document toDelete;
+            if (writtenCollections == null) {
+                // the written collections are not known. Fall back to the strict strategy
+                toDelete = excludeCollections(connection.listCollections(), collectionsToExclude);
+            } else {
+                final List<Document> collections = new ArrayList<>(initialCollections);
+                for (final String collectionName : writtenCollections) {
+                    collections.add(new Document("name", collectionName));
+                }
+                toDelete = excludeCollections(collections, collectionsToExclude);
+            }
+
+            deleteAllOperation.execute(connection, toDelete);
+
+            if (writeTracker != null) {
+                writeTracker.reset(connection);
+            }
         };
     }
 
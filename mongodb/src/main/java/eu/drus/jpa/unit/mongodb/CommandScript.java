@@ -0,0 +1,163 @@
+package eu.drus.jpa.unit.mongodb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+
+import eu.drus.jpa.unit.spi.DbFeatureException;
+
+/**
+ * A script of database commands written in (extended) JSON. The script is either a single step or
+ * an array of steps, which are executed in order. A step is one of
+ * <ul>
+ * <li>a database command, like <code>{ "insert": "Customer", "documents": [ ... ] }</code>,</li>
+ * <li>a bulk write, like <code>{ "bulkWrite": "Customer", "operations": [ ... ] }</code>, with the
+ * operations of the shell's <code>bulkWrite()</code> and the optional <code>ordered</code> flag
+ * (defaults to <code>true</code>),</li>
+ * <li><code>{ "parallel": [ ... ] }</code> with steps independent of each other, which are executed
+ * concurrently.</li>
+ * </ul>
+ * The script is parsed entirely before any step is executed. Write errors reported by a command fail
+ * the script.
+ */
+class CommandScript {
+
+    private final List<Consumer<MongoDatabase>> steps;
+
+    private CommandScript(final List<Consumer<MongoDatabase>> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Whether the given script consists of JSON, in contrast to a script of shell commands.
+     */
+    static boolean isCommandScript(final String script) {
+        return script.startsWith("{") || script.startsWith("[");
+    }
+
+    static CommandScript parse(final String script) {
+        // the json parser of the driver accepts documents only
+        final Object content = Document.parse("{ \"script\": " + script + " }").get("script");
+        return new CommandScript(content instanceof List ? toSteps((List<?>) content) : Collections.singletonList(toStep(content)));
+    }
+
+    void execute(final MongoDatabase connection) throws DbFeatureException {
+        try {
+            for (final Consumer<MongoDatabase> step : steps) {
+                step.accept(connection);
+            }
+        } catch (final CommandFailedException e) {
+            throw new DbFeatureException(e.getMessage(), e);
+        }
+    }
+
+    private static List<Consumer<MongoDatabase>> toSteps(final List<?> content) {
+        final List<Consumer<MongoDatabase>> steps = new ArrayList<>();
+        for (final Object step : content) {
+            steps.add(toStep(step));
+        }
+        return steps;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<MongoDatabase> toStep(final Object content) {
+        if (!(content instanceof Document) || ((Document) content).isEmpty()) {
+            throw new JsonParseException("A script step must be a non empty document, but is " + content);
+        }
+
+        final Document step = (Document) content;
+        final String name = step.keySet().iterator().next();
+        if ("parallel".equals(name) && step.get(name) instanceof List) {
+            final List<Consumer<MongoDatabase>> steps = toSteps((List<?>) step.get(name));
+            return connection -> steps.parallelStream().forEach(s -> s.accept(connection));
+        } else if ("bulkWrite".equals(name) && step.get(name) instanceof String) {
+            final String collectionName = step.getString(name);
+            final List<WriteModel<Document>> operations = toWriteModels(step.get("operations", List.class));
+            final BulkWriteOptions options = new BulkWriteOptions().ordered(step.getBoolean("ordered", true));
+            return connection -> connection.getCollection(collectionName).bulkWrite(operations, options);
+        } else {
+            return connection -> verifyResult(step, connection.runCommand(step));
+        }
+    }
+
+    private static void verifyResult(final Document command, final Document result) {
+        // write commands report failed writes with ok: 1 instead of throwing an exception
+        final Document errors = new Document();
+        if (result != null && result.containsKey("writeErrors")) {
+            errors.append("writeErrors", result.get("writeErrors"));
+        }
+        if (result != null && result.containsKey("writeConcernError")) {
+            errors.append("writeConcernError", result.get("writeConcernError"));
+        }
+        if (!errors.isEmpty()) {
+            throw new CommandFailedException("Command " + command.toJson() + " failed with " + errors.toJson());
+        }
+    }
+
+    private static List<WriteModel<Document>> toWriteModels(final List<Document> operations) {
+        if (operations == null) {
+            throw new JsonParseException("A bulk write requires operations");
+        }
+
+        final List<WriteModel<Document>> writeModels = new ArrayList<>();
+        for (final Document operation : operations) {
+            final String type = operation.keySet().iterator().next();
+            final Object value = operation.get(type);
+            if (!(value instanceof Document)) {
+                throw new JsonParseException("The bulk write operation " + type + " requires a document");
+            }
+            final Document arguments = (Document) value;
+            final UpdateOptions updateOptions = new UpdateOptions().upsert(arguments.getBoolean("upsert", false));
+            switch (type) {
+            case "insertOne":
+                writeModels.add(new InsertOneModel<>(arguments.get("document", Document.class)));
+                break;
+            case "updateOne":
+                writeModels.add(new UpdateOneModel<>(arguments.get("filter", Document.class), arguments.get("update", Document.class),
+                        updateOptions));
+                break;
+            case "updateMany":
+                writeModels.add(new UpdateManyModel<>(arguments.get("filter", Document.class), arguments.get("update", Document.class),
+                        updateOptions));
+                break;
+            case "replaceOne":
+                writeModels.add(new ReplaceOneModel<>(arguments.get("filter", Document.class),
+                        arguments.get("replacement", Document.class), updateOptions));
+                break;
+            case "deleteOne":
+                writeModels.add(new DeleteOneModel<>(arguments.get("filter", Document.class)));
+                break;
+            case "deleteMany":
+                writeModels.add(new DeleteManyModel<>(arguments.get("filter", Document.class)));
+                break;
+            default:
+                throw new JsonParseException("Unsupported bulk write operation " + type);
+            }
+        }
+        return writeModels;
+    }
+
+    private static class CommandFailedException extends RuntimeException {
+
+        private static final long serialVersionUID = -2349185745373426451L;
+
+        private CommandFailedException(final String message) {
+            super(message);
+        }
+    }
+}
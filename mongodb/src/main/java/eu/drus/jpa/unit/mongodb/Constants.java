@@ -7,5 +7,11 @@ public final class Constants {
     public static final String KEY_MONGO_CLIENT = "eu.drus.jpa.unit.mongodb.MongoClient";
     public static final String KEY_MONGO_DB = "eu.drus.jpa.unit.mongodb.MongoDatabase";
     public static final String KEY_FEATURE_EXECUTOR = "eu.drus.jpa.unit.mongodb.FeatureExecutor";
+    public static final String KEY_COLLECTION_DEFINITIONS = "eu.drus.jpa.unit.mongodb.CollectionDefinitions";
+    public static final String KEY_INDEX_REGISTRY = "eu.drus.jpa.unit.mongodb.IndexRegistry";
+    public static final String KEY_TEMPLATE_REGISTRY = "eu.drus.jpa.unit.mongodb.TemplateRegistry";
+    public static final String KEY_WRITE_TRACKER = "eu.drus.jpa.unit.mongodb.WriteTracker";
+    public static final String KEY_COMMAND_PROFILER = "eu.drus.jpa.unit.mongodb.CommandProfiler";
+    public static final String KEY_COMMAND_LOG = "eu.drus.jpa.unit.mongodb.CommandLog";
 
 }
@@ -1,19 +1,47 @@
 package eu.drus.jpa.unit.mongodb;
 
 import eu.drus.jpa.unit.api.DataSeedStrategy.StrategyProvider;
+import eu.drus.jpa.unit.mongodb.operation.CompositeOperation;
+import eu.drus.jpa.unit.mongodb.operation.IndexRegistry;
+import eu.drus.jpa.unit.mongodb.operation.InsertOperation;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperation;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperations;
 
 public class DataSeedStrategyProvider implements StrategyProvider<MongoDbOperation> {
 
+    private final MongoDbOperation insertOperation;
+    private final MongoDbOperation cleanInsertOperation;
+
+    public DataSeedStrategyProvider() {
+        insertOperation = MongoDbOperations.INSERT;
+        cleanInsertOperation = MongoDbOperations.CLEAN_INSERT;
+    }
+
+    /**
+     * Creates a provider, which creates only those indexes of the data sets not already known to
+     * the given registry.
+     */
+    public DataSeedStrategyProvider(final IndexRegistry indexRegistry) {
+        this(new InsertOperation(indexRegistry));
+    }
+
+    /**
+     * Creates a provider, which inserts the data sets using the given operation, e.g. one copying
+     * template collections.
+     */
+    public DataSeedStrategyProvider(final MongoDbOperation insertOperation) {
+        this.insertOperation = insertOperation;
+        cleanInsertOperation = new CompositeOperation(MongoDbOperations.DELETE_ALL, insertOperation);
+    }
+
     @Override
     public MongoDbOperation insertStrategy() {
-        return MongoDbOperations.INSERT;
+        return insertOperation;
     }
 
     @Override
     public MongoDbOperation cleanInsertStrategy() {
-        return MongoDbOperations.CLEAN_INSERT;
+        return cleanInsertOperation;
     }
 
     @Override
@@ -1,7 +1,10 @@
 package eu.drus.jpa.unit.mongodb;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Function;
@@ -9,8 +12,8 @@ import java.util.function.Function;
 import org.bson.Document;
 
 import com.mongodb.client.FindIterable;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Projections;
 
 import eu.drus.jpa.unit.spi.AssertionErrorCollector;
 import eu.drus.jpa.unit.spi.ColumnsHolder;
@@ -19,6 +22,8 @@ public class DataSetComparator {
 
     private static final Function<String, String> ID_MAPPER = (final String name) -> name;
 
+    private static final int BATCH_SIZE = 1000;
+
     private ColumnsHolder toExclude;
     private boolean isStrict;
 
@@ -64,7 +69,7 @@ public class DataSetComparator {
 
     private void verifyCollectionNames(final MongoDatabase connection, final Set<String> expectedCollectionNames,
             final AssertionErrorCollector errorCollector) {
-        final List<String> currentCollections = new ArrayList<>();
+        final Set<String> currentCollections = new HashSet<>();
         connection.listCollectionNames().iterator().forEachRemaining(currentCollections::add);
         for (final String expectedCollectionName : expectedCollectionNames) {
             if (!currentCollections.contains(expectedCollectionName)) {
@@ -76,28 +81,94 @@ public class DataSetComparator {
     private void verifyCollectionContent(final MongoDatabase connection, final Document expectedDataSet, final String collectionName,
             final AssertionErrorCollector errorCollector) {
 
-        final List<Document> expectedCollectionEntries = getCollectionData(expectedDataSet.get(collectionName));
         final List<String> columnsToExclude = toExclude.getColumns(collectionName);
-        final List<Document> foundEntries = new ArrayList<>();
+        final List<Document> expectedCollectionEntries = getCollectionData(expectedDataSet.get(collectionName));
 
-        final MongoCollection<Document> currentCollection = connection.getCollection(collectionName);
+        // an expected entry matches a document having equal values for the fields of the entry. Each
+        // entry matches exactly one document. To match each document in constant time, the expected
+        // entries are grouped by their fields and hashed into a multiset per group
+        final Map<Set<String>, Map<Document, ExpectedEntries>> groups = new LinkedHashMap<>();
         for (final Document expectedEntry : expectedCollectionEntries) {
-
             final Document expected = filterRequest(expectedEntry, columnsToExclude);
-            final FindIterable<Document> resultIt = currentCollection.find(expected);
-            if (!resultIt.iterator().hasNext()) {
-                errorCollector.collect(expectedEntry + " was expected in [" + collectionName + "], but is not present");
-            }
+            groups.computeIfAbsent(new HashSet<>(expected.keySet()), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(normalize(expected), k -> new ExpectedEntries()).entries.add(expectedEntry);
+        }
 
-            resultIt.iterator().forEachRemaining(foundEntries::add);
+        FindIterable<Document> currentEntries = connection.getCollection(collectionName).find();
+        if (!columnsToExclude.isEmpty()) {
+            currentEntries = currentEntries.projection(Projections.exclude(columnsToExclude));
         }
 
-        final FindIterable<Document> allEntries = currentCollection.find();
-        for (final Document d : allEntries) {
-            if (!foundEntries.contains(d)) {
+        // a document matched by entries of a single group only is counted right away. Documents matched
+        // by entries of different groups are assigned after all documents have been read
+        final List<CurrentEntry> ambiguousEntries = new ArrayList<>();
+        for (final Document d : currentEntries.batchSize(BATCH_SIZE)) {
+            final List<ExpectedEntries> candidates = findMatchingEntries(groups, d);
+            if (candidates.size() > 1) {
+                ambiguousEntries.add(new CurrentEntry(d, candidates));
+            } else if (!candidates.isEmpty() && !candidates.get(0).isSaturated()) {
+                candidates.get(0).matched++;
+            } else {
                 errorCollector.collect(d + " was not expected in [" + collectionName + "], but is present");
             }
         }
+
+        for (final CurrentEntry entry : ambiguousEntries) {
+            if (!assign(entry, new HashSet<>())) {
+                errorCollector.collect(entry.document + " was not expected in [" + collectionName + "], but is present");
+            }
+        }
+
+        for (final Map<Document, ExpectedEntries> group : groups.values()) {
+            for (final ExpectedEntries entries : group.values()) {
+                for (final Document expectedEntry : entries.getMissing()) {
+                    errorCollector.collect(expectedEntry + " was expected in [" + collectionName + "], but is not present");
+                }
+            }
+        }
+    }
+
+    private static List<ExpectedEntries> findMatchingEntries(final Map<Set<String>, Map<Document, ExpectedEntries>> groups,
+            final Document current) {
+        final List<ExpectedEntries> candidates = new ArrayList<>();
+        for (final Entry<Set<String>, Map<Document, ExpectedEntries>> group : groups.entrySet()) {
+            if (current.keySet().containsAll(group.getKey())) {
+                final ExpectedEntries entries = group.getValue().get(normalize(project(current, group.getKey())));
+                if (entries != null) {
+                    candidates.add(entries);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean assign(final CurrentEntry current, final Set<ExpectedEntries> visited) {
+        // augmenting path search: an entry already assigned to another document is taken over if
+        // that document can be assigned to a different entry
+        for (final ExpectedEntries candidate : current.candidates) {
+            if (!visited.add(candidate)) {
+                continue;
+            }
+            if (!candidate.isSaturated()) {
+                candidate.assigned.add(current);
+                return true;
+            }
+            for (int i = 0; i < candidate.assigned.size(); i++) {
+                if (assign(candidate.assigned.get(i), visited)) {
+                    candidate.assigned.set(i, current);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Document project(final Document document, final Set<String> fields) {
+        final Document projected = new Document();
+        for (final String field : fields) {
+            projected.put(field, document.get(field));
+        }
+        return projected;
     }
 
     private Document filterRequest(final Document expectedEntry, final List<String> columnsToExclude) {
@@ -110,6 +181,37 @@ public class DataSetComparator {
         return filtered;
     }
 
+    private static Document normalize(final Document document) {
+        final Document normalized = new Document();
+        for (final Entry<String, Object> entry : document.entrySet()) {
+            normalized.put(entry.getKey(), normalizeValue(entry.getValue()));
+        }
+        return normalized;
+    }
+
+    private static Object normalizeValue(final Object value) {
+        if (value instanceof Map) {
+            final Document document = new Document();
+            for (final Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                document.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            return normalize(document);
+        } else if (value instanceof List) {
+            final List<Object> list = new ArrayList<>();
+            for (final Object element : (List<?>) value) {
+                list.add(normalizeValue(element));
+            }
+            return list;
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            // the database compares numbers by value regardless of their type
+            return ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            final double number = ((Number) value).doubleValue();
+            return number == Math.rint(number) && !Double.isInfinite(number) ? Long.valueOf((long) number) : value;
+        }
+        return value;
+    }
+
     @SuppressWarnings("unchecked")
     private List<Document> getCollectionData(final Object obj) {
         if (List.class.isAssignableFrom(obj.getClass())) {
@@ -118,4 +220,28 @@ public class DataSetComparator {
             return ((Document) obj).get("data", List.class);
         }
     }
-}
\ No newline at end of file
+
+    private static class ExpectedEntries {
+        private final List<Document> entries = new ArrayList<>();
+        private final List<CurrentEntry> assigned = new ArrayList<>();
+        private int matched;
+
+        private boolean isSaturated() {
+            return matched + assigned.size() >= entries.size();
+        }
+
+        private List<Document> getMissing() {
+            return entries.subList(matched + assigned.size(), entries.size());
+        }
+    }
+
+    private static class CurrentEntry {
+        private final Document document;
+        private final List<ExpectedEntries> candidates;
+
+        private CurrentEntry(final Document document, final List<ExpectedEntries> candidates) {
+            this.document = document;
+            this.candidates = candidates;
+        }
+    }
+}
@@ -1,17 +1,44 @@
 package eu.drus.jpa.unit.mongodb;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
+import org.bson.BsonType;
 import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonReader;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.Compression;
 import eu.drus.jpa.unit.spi.DataSetFormat.LoaderProvider;
 import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
 
 public class DataSetLoaderProvider implements LoaderProvider<Document> {
 
+    // '$' is not allowed in collection names
+    public static final String INDEXES_TABLE_SUFFIX = "$indexes";
+
+    public static final String BSON_COLUMN = "bson";
+
+    private static final String BSON_SUFFIX = ".bson";
+    private static final String METADATA_SUFFIX = ".metadata.json";
+    private static final String ID_INDEX_NAME = "_id_";
+
     @Override
     public DataSetLoader<Document> xmlLoader() {
         throw new UnsupportedDataSetFormatException("XML data sets are not supportred for MongoDB");
@@ -24,7 +51,37 @@ public class DataSetLoaderProvider implements LoaderProvider<Document> {
 
     @Override
     public DataSetLoader<Document> jsonLoader() {
-        return (final File path) -> Document.parse(new String(Files.readAllBytes(path.toPath()), StandardCharsets.UTF_8));
+        return (final Path path) -> {
+            // the json reader of the driver operates on strings only. The documents are however kept
+            // in their BSON representation and not as a tree of documents
+            final String json;
+            try (Reader reader = new InputStreamReader(Compression.openStream(path), StandardCharsets.UTF_8)) {
+                json = CharStreams.toString(reader);
+            }
+            return readDataSet(new JsonReader(json));
+        };
+    }
+
+    @Override
+    public DataSetLoader<Document> bsonLoader() {
+        return (final Path path) -> {
+            // a file written by mongodump contains the documents of a single collection, named like
+            // the file. The indexes are stored in an accompanying metadata file
+            final String fileName = Compression.inferFromFile(path).strip(String.valueOf(path.getFileName()));
+            final String collectionName = stripSuffix(fileName, BSON_SUFFIX);
+
+            final List<Document> data;
+            try (InputStream in = Compression.openStream(path)) {
+                data = RawDocumentList.of(ByteStreams.toByteArray(in));
+            }
+
+            final Path metadataFile = path.resolveSibling(collectionName + METADATA_SUFFIX);
+            if (!Files.isRegularFile(metadataFile)) {
+                return new Document(collectionName, data);
+            }
+            final List<Document> indexes = readIndexes(metadataFile);
+            return new Document(collectionName, new Document("indexes", indexes).append("data", data));
+        };
     }
 
     @Override
@@ -36,4 +93,129 @@ public class DataSetLoaderProvider implements LoaderProvider<Document> {
     public DataSetLoader<Document> xlsLoader() {
         throw new UnsupportedDataSetFormatException("XSL data sets are not supportred for MongoDB");
     }
+
+    @Override
+    public DataSetLoader<Document> binaryLoader() {
+        return (final Path path) -> {
+            final BinaryDataSet dataSet = BinaryDataSet.open(path);
+
+            final Map<String, BinaryDataSet.Table> indexes = new HashMap<>();
+            for (final BinaryDataSet.Table table : dataSet.getTables()) {
+                if (table.getName().endsWith(INDEXES_TABLE_SUFFIX)) {
+                    indexes.put(table.getName().substring(0, table.getName().length() - INDEXES_TABLE_SUFFIX.length()), table);
+                }
+            }
+
+            final Document document = new Document();
+            for (final BinaryDataSet.Table table : dataSet.getTables()) {
+                if (table.getName().endsWith(INDEXES_TABLE_SUFFIX)) {
+                    continue;
+                }
+
+                final List<Document> data = new MappedDocumentList(table);
+                final BinaryDataSet.Table indexTable = indexes.get(table.getName());
+                if (indexTable == null) {
+                    document.put(table.getName(), data);
+                } else {
+                    document.put(table.getName(), new Document("indexes", new MappedDocumentList(indexTable)).append("data", data));
+                }
+            }
+            return document;
+        };
+    }
+
+    private static Document readDataSet(final JsonReader reader) {
+        final Document dataSet = new Document();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String collectionName = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.ARRAY) {
+                dataSet.put(collectionName, readDocuments(reader, collectionName));
+            } else if (reader.getCurrentBsonType() == BsonType.DOCUMENT) {
+                dataSet.put(collectionName, readCollection(reader, collectionName));
+            } else {
+                throw new JsonParseException("Unexpected content of collection " + collectionName);
+            }
+        }
+        reader.readEndDocument();
+        return dataSet;
+    }
+
+    private static Document readCollection(final JsonReader reader, final String collectionName) {
+        // a collection with indexes
+        final Document collection = new Document();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if (("indexes".equals(name) || "data".equals(name)) && reader.getCurrentBsonType() == BsonType.ARRAY) {
+                collection.put(name, readDocuments(reader, collectionName));
+            } else {
+                throw new JsonParseException("Unexpected content of collection " + collectionName);
+            }
+        }
+        reader.readEndDocument();
+        return collection;
+    }
+
+    private static List<Document> readDocuments(final JsonReader reader, final String collectionName) {
+        final RawDocumentList.Builder documents = new RawDocumentList.Builder();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+                throw new JsonParseException("Collection " + collectionName + " contains a value which is not a document");
+            }
+            documents.add(reader);
+        }
+        reader.readEndArray();
+        try {
+            return documents.build();
+        } catch (final IOException e) {
+            // the documents have been encoded by the builder itself
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Document> readIndexes(final Path metadataFile) throws IOException {
+        final Document metadata;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(metadataFile), StandardCharsets.UTF_8)) {
+            metadata = Document.parse(CharStreams.toString(reader));
+        }
+
+        final List<Document> indexes = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        final List<Document> indexSpecifications = metadata.get("indexes", List.class);
+        for (final Document specification : indexSpecifications == null ? Collections.<Document> emptyList() : indexSpecifications) {
+            if (!ID_INDEX_NAME.equals(specification.getString("name"))) {
+                indexes.add(toIndexDefinition(specification));
+            }
+        }
+        return indexes;
+    }
+
+    private static Document toIndexDefinition(final Document specification) {
+        // converts the format of listIndexes to the one of the data sets
+        final Document options = new Document();
+        for (final Entry<String, Object> entry : specification.entrySet()) {
+            switch (entry.getKey()) {
+            case "key":
+            case "ns":
+            case "v":
+                // the namespace and version are determined by the server
+                break;
+            case "textIndexVersion":
+                options.put("textVersion", entry.getValue());
+                break;
+            case "2dsphereIndexVersion":
+                options.put("sphereVersion", entry.getValue());
+                break;
+            default:
+                options.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new Document("index", specification.get("key", Document.class)).append("options", options);
+    }
+
+    private static String stripSuffix(final String fileName, final String suffix) {
+        return fileName.endsWith(suffix) ? fileName.substring(0, fileName.length() - suffix.length()) : fileName;
+    }
 }
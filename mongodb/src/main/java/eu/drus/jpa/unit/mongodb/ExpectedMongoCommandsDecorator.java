@@ -0,0 +1,66 @@
+package eu.drus.jpa.unit.mongodb;
+
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.mongodb.ext.ConfigurationRegistry;
+import eu.drus.jpa.unit.mongodb.profiler.CommandLog;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.spi.TestMethodDecorator;
+
+public class ExpectedMongoCommandsDecorator implements TestMethodDecorator {
+
+    private ConfigurationRegistry configurationRegistry = new ConfigurationRegistry();
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public void beforeTest(final TestInvocation invocation) throws Exception {
+        // nothing to do. The commands are recorded by the MongoDbDecorator
+    }
+
+    @Override
+    public void afterTest(final TestInvocation invocation) throws Exception {
+        final ExecutionContext context = invocation.getContext();
+        final CommandLog log = (CommandLog) context.getData(Constants.KEY_COMMAND_LOG);
+        context.storeData(Constants.KEY_COMMAND_LOG, null);
+
+        final ExpectedMongoCommands expectedCommands = invocation.getFeatureResolver().getExpectedMongoCommands();
+        if (expectedCommands == null || log == null || invocation.getException().isPresent()) {
+            return;
+        }
+
+        final AssertionErrorCollector errorCollector = (AssertionErrorCollector) context
+                .getData(eu.drus.jpa.unit.spi.Constants.KEY_ASSERTION_ERROR_COLLECTOR);
+        verify(errorCollector, log, "find", expectedCommands.find());
+        verify(errorCollector, log, "aggregate", expectedCommands.aggregate());
+        verify(errorCollector, log, "insert", expectedCommands.insert());
+        verify(errorCollector, log, "update", expectedCommands.update());
+        verify(errorCollector, log, "delete", expectedCommands.delete());
+        verify(errorCollector, log, "findAndModify", expectedCommands.findAndModify());
+        if (expectedCommands.maxTotal() >= 0 && log.size() > expectedCommands.maxTotal()) {
+            errorCollector.collect(String.format("Expected at most %d commands, but %d were executed:%n%s", expectedCommands.maxTotal(),
+                    log.size(), log.describe(null)));
+        }
+        if (expectedCommands.maxReturnedDocuments() >= 0 && log.getReturnedDocuments() > expectedCommands.maxReturnedDocuments()) {
+            errorCollector.collect(String.format("Expected at most %d returned documents, but %d were returned:%n%s",
+                    expectedCommands.maxReturnedDocuments(), log.getReturnedDocuments(), log.describe(null)));
+        }
+    }
+
+    private void verify(final AssertionErrorCollector errorCollector, final CommandLog log, final String type, final int expected) {
+        final int actual = log.count(type);
+        if (expected >= 0 && actual != expected) {
+            errorCollector
+                    .collect(String.format("Expected %d %s commands, but %d were executed:%n%s", expected, type, actual, log.describe(type)));
+        }
+    }
+
+    @Override
+    public boolean isConfigurationSupported(final ExecutionContext ctx) {
+        return configurationRegistry.hasConfiguration(ctx.getDescriptor());
+    }
+}
@@ -0,0 +1,33 @@
+package eu.drus.jpa.unit.mongodb;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.bson.Document;
+
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+
+class GeneratedDocumentList extends AbstractList<Document> {
+
+    private final GeneratedDataSet.Table table;
+
+    GeneratedDocumentList(final GeneratedDataSet.Table table) {
+        this.table = table;
+    }
+
+    @Override
+    public Document get(final int index) {
+        // documents are generated on access
+        final List<String> columnNames = table.getColumnNames();
+        final Document document = new Document();
+        for (int i = 0; i < columnNames.size(); i++) {
+            document.put(columnNames.get(i), table.getValue(index, i));
+        }
+        return document;
+    }
+
+    @Override
+    public int size() {
+        return table.getRowCount();
+    }
+}
@@ -0,0 +1,55 @@
+package eu.drus.jpa.unit.mongodb;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+
+class MappedDocumentList extends AbstractList<Document> {
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private final BinaryDataSet.Table table;
+    private final boolean isBson;
+
+    MappedDocumentList(final BinaryDataSet.Table table) {
+        this.table = table;
+        isBson = table.getColumnCount() == 1 && table.getColumnName(0).equals(DataSetLoaderProvider.BSON_COLUMN)
+                && table.getColumnType(0) == ColumnType.BYTES;
+    }
+
+    @Override
+    public Document get(final int index) {
+        // documents are decoded from the mapped data set on access
+        return isBson ? decodeBson(index) : decodeColumns(index);
+    }
+
+    @Override
+    public int size() {
+        return table.getRowCount();
+    }
+
+    private Document decodeBson(final int row) {
+        final byte[] bytes = (byte[]) table.getValue(row, 0);
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes))) {
+            return CODEC.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private Document decodeColumns(final int row) {
+        final Document document = new Document();
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            final Object value = table.getValue(row, i);
+            if (value != null) {
+                document.put(table.getColumnName(i), value);
+            }
+        }
+        return document;
+    }
+}
@@ -1,15 +1,26 @@
 package eu.drus.jpa.unit.mongodb;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
 
 import eu.drus.jpa.unit.mongodb.ext.Configuration;
 import eu.drus.jpa.unit.mongodb.ext.ConfigurationRegistry;
+import eu.drus.jpa.unit.mongodb.operation.CollectionDefinitions;
+import eu.drus.jpa.unit.mongodb.operation.IndexRegistry;
+import eu.drus.jpa.unit.mongodb.operation.TemplateRegistry;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.TestClassDecorator;
 import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.util.SharedResources;
 
 public class MongoClientDecorator implements TestClassDecorator {
 
+    // clients are shared by all test classes using the same servers, credentials and options
+    static final SharedResources<List<Object>, SharedClient> CLIENTS = new SharedResources<>(SharedClient::close);
+
     private ConfigurationRegistry configurationRegistry = new ConfigurationRegistry();
 
     @Override
@@ -27,18 +38,63 @@ public class MongoClientDecorator implements TestClassDecorator {
         final ExecutionContext context = invocation.getContext();
         final Configuration configuration = configurationRegistry.getConfiguration(context.getDescriptor());
 
-        final MongoClient client = new MongoClient(configuration.getServerAddresses(), configuration.getCredentials(),
-                configuration.getClientOptions());
+        final SharedClient sharedClient = CLIENTS.acquire(getClientKey(configuration), () -> createClient(configuration));
 
-        context.storeData(Constants.KEY_MONGO_CLIENT, client);
+        context.storeData(Constants.KEY_MONGO_CLIENT, sharedClient.client);
+        context.storeData(Constants.KEY_WRITE_TRACKER, sharedClient.writeTracker);
+        context.storeData(Constants.KEY_COLLECTION_DEFINITIONS, new CollectionDefinitions());
+        context.storeData(Constants.KEY_INDEX_REGISTRY, new IndexRegistry());
+        context.storeData(Constants.KEY_TEMPLATE_REGISTRY, sharedClient.templateRegistry);
     }
 
     @Override
     public void afterAll(final TestInvocation invocation) throws Exception {
         final ExecutionContext context = invocation.getContext();
-        final MongoClient client = (MongoClient) context.getData(Constants.KEY_MONGO_CLIENT);
+        final Configuration configuration = configurationRegistry.getConfiguration(context.getDescriptor());
         context.storeData(Constants.KEY_MONGO_CLIENT, null);
-        client.close();
+        context.storeData(Constants.KEY_COLLECTION_DEFINITIONS, null);
+        context.storeData(Constants.KEY_INDEX_REGISTRY, null);
+        context.storeData(Constants.KEY_WRITE_TRACKER, null);
+        context.storeData(Constants.KEY_TEMPLATE_REGISTRY, null);
+        CLIENTS.release(getClientKey(configuration));
+    }
+
+    private static List<Object> getClientKey(final Configuration configuration) {
+        return Arrays.asList(configuration.getServerAddresses(), configuration.getCredentials(), configuration.getClientOptions());
+    }
+
+    private static SharedClient createClient(final Configuration configuration) {
+        final WriteTracker writeTracker = new WriteTracker();
+        final MongoClientOptions clientOptions = MongoClientOptions.builder(configuration.getClientOptions())
+                .addCommandListener(writeTracker).build();
+
+        final MongoClient client = new MongoClient(configuration.getServerAddresses(), configuration.getCredentials(), clientOptions);
+        writeTracker.track(client);
+
+        return new SharedClient(client, writeTracker, new TemplateRegistry(client));
     }
 
+    /**
+     * A client together with the state bound to it. The write tracker is registered with the
+     * client and the templates are kept until the client is closed.
+     */
+    static class SharedClient {
+        private final MongoClient client;
+        private final WriteTracker writeTracker;
+        private final TemplateRegistry templateRegistry;
+
+        private SharedClient(final MongoClient client, final WriteTracker writeTracker, final TemplateRegistry templateRegistry) {
+            this.client = client;
+            this.writeTracker = writeTracker;
+            this.templateRegistry = templateRegistry;
+        }
+
+        private void close() {
+            try {
+                templateRegistry.dropAll();
+            } finally {
+                client.close();
+            }
+        }
+    }
 }
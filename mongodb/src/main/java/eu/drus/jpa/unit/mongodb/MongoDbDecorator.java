@@ -1,11 +1,23 @@
 package eu.drus.jpa.unit.mongodb;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.mongodb.MongoClient;
 import com.mongodb.client.MongoDatabase;
 
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
 import eu.drus.jpa.unit.mongodb.ext.Configuration;
 import eu.drus.jpa.unit.mongodb.ext.ConfigurationRegistry;
+import eu.drus.jpa.unit.mongodb.operation.CollectionDefinitions;
+import eu.drus.jpa.unit.mongodb.operation.IndexRegistry;
+import eu.drus.jpa.unit.mongodb.operation.TemplateRegistry;
+import eu.drus.jpa.unit.mongodb.profiler.CommandLog;
+import eu.drus.jpa.unit.mongodb.profiler.CommandProfiler;
+import eu.drus.jpa.unit.mongodb.profiler.ProfiledCommand;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
 import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
 import eu.drus.jpa.unit.spi.TestInvocation;
 import eu.drus.jpa.unit.spi.TestMethodDecorator;
 
@@ -28,10 +40,24 @@ public class MongoDbDecorator implements TestMethodDecorator {
         final MongoDatabase mongoDb = client.getDatabase(configuration.getDatabaseName());
         context.storeData(Constants.KEY_MONGO_DB, mongoDb);
 
-        final MongoDbFeatureExecutor dbFeatureExecutor = new MongoDbFeatureExecutor(invocation.getFeatureResolver());
+        final CollectionDefinitions collectionDefinitions = (CollectionDefinitions) context.getData(Constants.KEY_COLLECTION_DEFINITIONS);
+        final IndexRegistry indexRegistry = (IndexRegistry) context.getData(Constants.KEY_INDEX_REGISTRY);
+        final WriteTracker writeTracker = (WriteTracker) context.getData(Constants.KEY_WRITE_TRACKER);
+        final TemplateRegistry templateRegistry = (TemplateRegistry) context.getData(Constants.KEY_TEMPLATE_REGISTRY);
+        final MongoDbFeatureExecutor dbFeatureExecutor = new MongoDbFeatureExecutor(invocation.getFeatureResolver(),
+                collectionDefinitions == null ? new CollectionDefinitions() : collectionDefinitions,
+                indexRegistry == null ? new IndexRegistry() : indexRegistry, writeTracker, templateRegistry);
 
         dbFeatureExecutor.executeBeforeTest(mongoDb);
         context.storeData(Constants.KEY_FEATURE_EXECUTOR, dbFeatureExecutor);
+        context.storeData(eu.drus.jpa.unit.spi.Constants.KEY_SEEDED_TABLES, dbFeatureExecutor.getSeededTables());
+
+        final FeatureResolver featureResolver = invocation.getFeatureResolver();
+        if (featureResolver.getExpectedMongoCommands() != null || featureResolver.getForbidFullTableScan() != null) {
+            // started after seeding, so that only the commands of the test body and the commit of
+            // the transaction are recorded
+            context.storeData(Constants.KEY_COMMAND_PROFILER, CommandProfiler.start(mongoDb));
+        }
     }
 
     @Override
@@ -43,7 +69,36 @@ public class MongoDbDecorator implements TestMethodDecorator {
         context.storeData(Constants.KEY_MONGO_DB, null);
         context.storeData(Constants.KEY_FEATURE_EXECUTOR, null);
 
-        dbFeatureExecutor.executeAfterTest(mongoDb, invocation.getException().isPresent());
+        try {
+            final CommandProfiler profiler = (CommandProfiler) context.getData(Constants.KEY_COMMAND_PROFILER);
+            if (profiler != null) {
+                context.storeData(Constants.KEY_COMMAND_PROFILER, null);
+                final CommandLog commandLog = profiler.stop();
+                context.storeData(Constants.KEY_COMMAND_LOG, commandLog);
+
+                if (!invocation.getException().isPresent()) {
+                    verifyCollectionScans(invocation.getFeatureResolver().getForbidFullTableScan(), commandLog);
+                }
+            }
+        } finally {
+            dbFeatureExecutor.executeAfterTest(mongoDb, invocation.getException().isPresent());
+        }
+    }
+
+    private void verifyCollectionScans(final ForbidFullTableScan forbidFullTableScan, final CommandLog commandLog) {
+        if (forbidFullTableScan == null) {
+            return;
+        }
+
+        final List<String> forbiddenCollections = Arrays.asList(forbidFullTableScan.tables());
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+        for (final ProfiledCommand command : commandLog.getCommands()) {
+            if (command.isCollectionScan() && (forbiddenCollections.isEmpty() || forbiddenCollections.contains(command.getCollection()))) {
+                errorCollector.collect(String.format("Collection scan on %s by %s command with plan %s", command.getCollection(),
+                        command.getType(), command.getPlanSummary()));
+            }
+        }
+        errorCollector.report();
     }
 
     @Override
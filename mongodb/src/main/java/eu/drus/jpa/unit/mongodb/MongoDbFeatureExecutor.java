@@ -1,15 +1,16 @@
 package eu.drus.jpa.unit.mongodb;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.bson.Document;
+import org.bson.json.JsonParseException;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoDatabase;
@@ -18,7 +19,14 @@ import eu.drus.jpa.unit.api.CleanupStrategy;
 import eu.drus.jpa.unit.api.DataSeedStrategy;
 import eu.drus.jpa.unit.api.ExpectedDataSets;
 import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.mongodb.operation.CollectionDefinitions;
+import eu.drus.jpa.unit.mongodb.operation.DropAndRecreateOperation;
+import eu.drus.jpa.unit.mongodb.operation.IndexRegistry;
+import eu.drus.jpa.unit.mongodb.operation.InsertOperation;
 import eu.drus.jpa.unit.mongodb.operation.MongoDbOperation;
+import eu.drus.jpa.unit.mongodb.operation.MongoDbOperations;
+import eu.drus.jpa.unit.mongodb.operation.TemplateInsertOperation;
+import eu.drus.jpa.unit.mongodb.operation.TemplateRegistry;
 import eu.drus.jpa.unit.spi.AbstractDbFeatureExecutor;
 import eu.drus.jpa.unit.spi.AssertionErrorCollector;
 import eu.drus.jpa.unit.spi.CleanupStrategyExecutor;
@@ -27,11 +35,29 @@ import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.DbFeature;
 import eu.drus.jpa.unit.spi.DbFeatureException;
 import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+import eu.drus.jpa.unit.util.ResourceLocator;
 
 public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document, MongoDatabase> {
 
+    private final FeatureResolver featureResolver;
+    private final CollectionDefinitions collectionDefinitions;
+    private final IndexRegistry indexRegistry;
+    private final WriteTracker writeTracker;
+    private final TemplateRegistry templateRegistry;
+
     public MongoDbFeatureExecutor(final FeatureResolver featureResolver) {
+        this(featureResolver, new CollectionDefinitions(), new IndexRegistry(), null, null);
+    }
+
+    public MongoDbFeatureExecutor(final FeatureResolver featureResolver, final CollectionDefinitions collectionDefinitions,
+            final IndexRegistry indexRegistry, final WriteTracker writeTracker, final TemplateRegistry templateRegistry) {
         super(featureResolver);
+        this.featureResolver = featureResolver;
+        this.collectionDefinitions = collectionDefinitions;
+        this.indexRegistry = indexRegistry;
+        this.writeTracker = writeTracker;
+        this.templateRegistry = templateRegistry;
     }
 
     private static Document mergeDataSets(final Iterable<Document> dataSetList) {
@@ -42,13 +68,13 @@ public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document,
         return dataSet;
     }
 
-    private static URI toUri(final String path) throws URISyntaxException {
+    private static Path toPath(final String path) throws IOException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(path);
         if (url == null) {
             throw new JpaUnitException(path + " not found");
         }
 
-        return url.toURI();
+        return ResourceLocator.toPath(url);
     }
 
     @Override
@@ -56,20 +82,38 @@ public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document,
         final List<Document> dataSets = new ArrayList<>();
         try {
             for (final String path : paths) {
-                final File file = new File(toUri(path));
+                final Path file = toPath(path);
                 final DataSetLoader<Document> loader = DataSetFormat.inferFromFile(file).select(new DataSetLoaderProvider());
                 dataSets.add(loader.load(file));
             }
-        } catch (final IOException | URISyntaxException e) {
+        } catch (final IOException e) {
             throw new JpaUnitException("Could not load initial data sets", e);
         }
         return dataSets;
     }
 
+    @Override
+    protected Document createGeneratedDataSet(final GeneratedDataSet generatedDataSet) {
+        final Document dataSet = new Document();
+        for (final GeneratedDataSet.Table table : generatedDataSet.getTables()) {
+            dataSet.put(table.getName(), new GeneratedDocumentList(table));
+        }
+        return dataSet;
+    }
+
+    @Override
+    protected Collection<String> getTableNames(final Document dataSet) {
+        return dataSet.keySet();
+    }
+
     @Override
     protected DbFeature<MongoDatabase> createCleanupFeature(final CleanupStrategy cleanupStrategy, final List<Document> initialDataSets) {
         return (final MongoDatabase connection) -> {
-            final CleanupStrategyExecutor<MongoDatabase, Document> executor = cleanupStrategy.provide(new CleanupStrategyProvider());
+            final MongoDbOperation deleteAllOperation = featureResolver.shouldDropAndRecreateOnCleanup()
+                    ? new DropAndRecreateOperation(collectionDefinitions, indexRegistry)
+                    : MongoDbOperations.DELETE_ALL;
+            final CleanupStrategyProvider provider = new CleanupStrategyProvider(deleteAllOperation, writeTracker);
+            final CleanupStrategyExecutor<MongoDatabase, Document> executor = cleanupStrategy.provide(provider);
             executor.execute(connection, initialDataSets);
         };
     }
@@ -81,8 +125,11 @@ public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document,
                 for (final String scriptPath : scriptPaths) {
                     executeScript(loadScript(scriptPath), connection);
                 }
-            } catch (IOException | URISyntaxException e) {
+            } catch (IOException | URISyntaxException | JsonParseException e) {
                 throw new DbFeatureException("Could not apply custom scripts feature", e);
+            } finally {
+                // scripts may drop collections or indexes
+                indexRegistry.clear();
             }
         };
     }
@@ -91,11 +138,23 @@ public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document,
     protected DbFeature<MongoDatabase> createSeedDataFeature(final DataSeedStrategy dataSeedStrategy,
             final List<Document> initialDataSets) {
         return (final MongoDatabase connection) -> {
-            final MongoDbOperation operation = dataSeedStrategy.provide(new DataSeedStrategyProvider());
+            final MongoDbOperation operation = dataSeedStrategy.provide(createDataSeedStrategyProvider());
             operation.execute(connection, mergeDataSets(initialDataSets));
         };
     }
 
+    private DataSeedStrategyProvider createDataSeedStrategyProvider() {
+        // generated data sets depend on the scale factor and their generators and are thus not
+        // identified by the paths of the data sets
+        if (templateRegistry == null || !featureResolver.shouldSeedUsingTemplates() || featureResolver.getGeneratedData() != null) {
+            return new DataSeedStrategyProvider(indexRegistry);
+        }
+
+        final String dataSetKey = String.join(",", featureResolver.getSeedData());
+        return new DataSeedStrategyProvider(new TemplateInsertOperation(templateRegistry, dataSetKey, collectionDefinitions, indexRegistry,
+                new InsertOperation(indexRegistry)));
+    }
+
     @Override
     protected DbFeature<MongoDatabase> createVerifyDataAfterFeature(final ExpectedDataSets expectedDataSets) {
         return (final MongoDatabase connection) -> {
@@ -110,12 +169,19 @@ public class MongoDbFeatureExecutor extends AbstractDbFeatureExecutor<Document,
         };
     }
 
-    private void executeScript(final String script, final MongoDatabase connection) {
+    private void executeScript(final String script, final MongoDatabase connection) throws DbFeatureException {
         if (script.isEmpty()) {
             return;
         }
-        final BasicDBObject command = new BasicDBObject();
-        command.append("$eval", script);
-        connection.runCommand(command);
+
+        if (CommandScript.isCommandScript(script)) {
+            CommandScript.parse(script).execute(connection);
+        } else {
+            // shell scripts can only be evaluated by servers before 4.2, which take a global lock
+            // for the evaluation
+            final BasicDBObject command = new BasicDBObject();
+            command.append("$eval", script);
+            connection.runCommand(command);
+        }
     }
 }
@@ -0,0 +1,95 @@
+package eu.drus.jpa.unit.mongodb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.io.BasicOutputBuffer;
+
+/**
+ * Documents kept in their BSON representation, which are decoded on access only. Thus a data set
+ * is not held in memory as a tree of documents, but as a single byte array per collection.
+ */
+class RawDocumentList extends AbstractList<Document> {
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    // the smallest document consists of its length and the terminating zero byte
+    private static final int MIN_DOCUMENT_SIZE = 5;
+
+    private final byte[] bytes;
+    private final int[] offsets;
+
+    private RawDocumentList(final byte[] bytes, final int[] offsets) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Splits the given concatenated BSON documents, like the content of a file written by
+     * <code>mongodump</code>.
+     */
+    static RawDocumentList of(final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int[] offsets = new int[16];
+        int size = 0;
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int length = bytes.length - offset < 4 ? -1 : buffer.getInt(offset);
+            if (length < MIN_DOCUMENT_SIZE || length > bytes.length - offset) {
+                throw new IOException("Invalid BSON document at offset " + offset);
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+            offset += length;
+        }
+        return new RawDocumentList(bytes, Arrays.copyOf(offsets, size));
+    }
+
+    @Override
+    public Document get(final int index) {
+        final int offset = offsets[index];
+        final int length = (index + 1 < offsets.length ? offsets[index + 1] : bytes.length) - offset;
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes, offset, length).slice())) {
+            return CODEC.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    @Override
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Collects documents read from arbitrary readers, like the driver's JSON reader, in their BSON
+     * representation.
+     */
+    static class Builder {
+
+        private final BasicOutputBuffer buffer = new BasicOutputBuffer();
+
+        /**
+         * Copies the document the given reader is positioned at.
+         */
+        Builder add(final BsonReader reader) {
+            try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+                writer.pipe(reader);
+            }
+            return this;
+        }
+
+        RawDocumentList build() throws IOException {
+            return of(buffer.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package eu.drus.jpa.unit.mongodb;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Tracks the collections written to since the last cleanup. The writes issued using the client
+ * this listener is registered with are recorded as these happen. Since the code under test usually
+ * uses a client of its own, e.g. the one of the JPA provider, the writes of all other clients are
+ * determined by comparing the usage statistics of the server, as reported by the <code>top</code>
+ * command, to the ones taken at the last cleanup. Since the client, and thus this tracker, is
+ * shared by all test classes using the same configuration, the state is kept per database.
+ */
+public class WriteTracker implements CommandListener {
+
+    private static final List<String> WRITE_COMMANDS = Arrays.asList("insert", "update", "delete", "findAndModify");
+    private static final List<String> WRITE_COUNTERS = Arrays.asList("insert", "update", "remove", "writeLock");
+
+    private final Set<String> writtenCollections = ConcurrentHashMap.newKeySet();
+    private volatile MongoClient client;
+    private final Map<String, Map<String, Long>> writeCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking using the given client, which must have been created with this listener
+     * registered. Since the writes issued before are not known, the first call to
+     * {@link #getWrittenCollections(MongoDatabase)} will not be able to determine the written
+     * collections.
+     */
+    public void track(final MongoClient mongoClient) {
+        client = mongoClient;
+    }
+
+    /**
+     * Returns the names of the collections of the given database written to since the last
+     * {@link #reset(MongoDatabase)} of it or null, if these are not known.
+     */
+    public Set<String> getWrittenCollections(final MongoDatabase connection) {
+        final Map<String, Long> startCounters = writeCounters.get(connection.getName());
+        if (startCounters == null) {
+            return null;
+        }
+
+        final String prefix = connection.getName() + ".";
+        final Map<String, Long> counters = readWriteCounters(prefix);
+        if (counters == null) {
+            return null;
+        }
+
+        final Set<String> collectionNames = new HashSet<>();
+        for (final Entry<String, Long> entry : counters.entrySet()) {
+            if (!entry.getValue().equals(startCounters.get(entry.getKey()))) {
+                collectionNames.add(entry.getKey().substring(prefix.length()));
+            }
+        }
+        for (final String namespace : writtenCollections) {
+            if (namespace.startsWith(prefix)) {
+                collectionNames.add(namespace.substring(prefix.length()));
+            }
+        }
+        return collectionNames;
+    }
+
+    /**
+     * Forgets the writes to the given database tracked so far. To be called after a cleanup of it.
+     */
+    public void reset(final MongoDatabase connection) {
+        final String prefix = connection.getName() + ".";
+        writtenCollections.removeIf(namespace -> namespace.startsWith(prefix));
+
+        final Map<String, Long> counters = readWriteCounters(prefix);
+        if (counters == null) {
+            writeCounters.remove(connection.getName());
+        } else {
+            writeCounters.put(connection.getName(), counters);
+        }
+    }
+
+    private Map<String, Long> readWriteCounters(final String prefix) {
+        if (client == null) {
+            return null;
+        }
+
+        final Document top;
+        try {
+            top = client.getDatabase("admin").runCommand(new Document("top", 1));
+        } catch (final MongoException e) {
+            // e.g. not authorized or not supported by mongos
+            return null;
+        }
+
+        final Map<String, Long> counters = new HashMap<>();
+        for (final Entry<String, Object> entry : top.get("totals", Document.class).entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getValue() instanceof Document) {
+                final Document usage = (Document) entry.getValue();
+                long count = 0;
+                for (final String counter : WRITE_COUNTERS) {
+                    final Document value = usage.get(counter, Document.class);
+                    count += value == null ? 0 : ((Number) value.get("count")).longValue();
+                }
+                counters.put(entry.getKey(), count);
+            }
+        }
+        return counters;
+    }
+
+    @Override
+    public void commandStarted(final CommandStartedEvent event) {
+        final String commandName = event.getCommandName();
+        final BsonDocument command = event.getCommand();
+        if (WRITE_COMMANDS.contains(commandName)) {
+            record(event.getDatabaseName(), command.get(commandName));
+        } else if ("aggregate".equals(commandName) && command.isArray("pipeline")) {
+            // $out writes to a temporary collection, which is renamed afterwards. Thus the server
+            // statistics do not reveal the target collection.
+            final BsonArray pipeline = command.getArray("pipeline");
+            if (!pipeline.isEmpty() && pipeline.get(pipeline.size() - 1).isDocument()) {
+                record(event.getDatabaseName(), pipeline.get(pipeline.size() - 1).asDocument().get("$out"));
+            }
+        }
+    }
+
+    private void record(final String databaseName, final BsonValue collectionName) {
+        if (collectionName != null && collectionName.isString()) {
+            writtenCollections.add(databaseName + "." + collectionName.asString().getValue());
+        }
+    }
+
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        // nothing to do. The command has been recorded when started
+    }
+
+    @Override
+    public void commandFailed(final CommandFailedEvent event) {
+        // nothing to do. A failed command may have written partially
+    }
+}
@@ -0,0 +1,47 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Writes documents using unordered bulk writes, so that the server is accessed once per chunk
+ * instead of once per document. Unless passed explicitly, the chunk size is configured by the system
+ * property {@value #CHUNK_SIZE_PROPERTY} (defaults to {@value #DEFAULT_CHUNK_SIZE}).
+ */
+final class BulkWriteSupport {
+
+    static final String CHUNK_SIZE_PROPERTY = "jpa-unit.mongodb.chunk-size";
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private BulkWriteSupport() {}
+
+    static int configuredChunkSize() {
+        return Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE);
+    }
+
+    static void bulkWrite(final MongoCollection<Document> collection, final List<Document> documents,
+            final Function<Document, WriteModel<Document>> toWriteModel, final int chunkSize) {
+        // the write models are created per chunk, so that lazily created documents, like generated
+        // ones, are never held in memory as a whole
+        List<WriteModel<Document>> chunk = new ArrayList<>();
+        for (final Document document : documents) {
+            chunk.add(toWriteModel.apply(document));
+            if (chunk.size() == chunkSize) {
+                collection.bulkWrite(chunk, UNORDERED);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            collection.bulkWrite(chunk, UNORDERED);
+        }
+    }
+}
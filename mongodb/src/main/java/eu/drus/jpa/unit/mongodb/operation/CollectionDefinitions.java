@@ -0,0 +1,80 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+
+/**
+ * Caches the options and index specifications of collections, so that these can be recreated
+ * after the collections have been dropped. The definition of a collection is captured the first
+ * time it is requested.
+ */
+public class CollectionDefinitions {
+
+    private static final String ID_INDEX_NAME = "_id_";
+
+    private final ConcurrentMap<String, Document> definitions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the <code>create</code> and <code>createIndexes</code> commands recreating the given
+     * collection or null, if the collection does not exist or is a view.
+     */
+    public List<Document> getCreateCommands(final MongoDatabase connection, final String collectionName) {
+        final String key = connection.getName() + "." + collectionName;
+        Document definition = definitions.get(key);
+        if (definition == null) {
+            definition = capture(connection, collectionName);
+            if (definition == null) {
+                return null;
+            }
+            definitions.putIfAbsent(key, definition);
+        }
+
+        final List<Document> commands = new ArrayList<>();
+        final Document create = new Document("create", collectionName);
+        create.putAll(definition.get("options", Document.class));
+        commands.add(create);
+
+        @SuppressWarnings("unchecked")
+        final List<Document> indexes = definition.get("indexes", List.class);
+        if (!indexes.isEmpty()) {
+            commands.add(new Document("createIndexes", collectionName).append("indexes", indexes));
+        }
+        return commands;
+    }
+
+    private Document capture(final MongoDatabase connection, final String collectionName) {
+        final Document info = connection.listCollections().filter(Filters.eq("name", collectionName)).first();
+        if (info == null || "view".equals(info.getString("type"))) {
+            return null;
+        }
+
+        final List<Document> indexes = new ArrayList<>();
+        for (final Document index : connection.getCollection(collectionName).listIndexes()) {
+            if (!ID_INDEX_NAME.equals(index.getString("name"))) {
+                indexes.add(toIndexSpecification(index));
+            }
+        }
+
+        final Document options = info.get("options", Document.class);
+        return new Document("options", options == null ? new Document() : options).append("indexes", indexes);
+    }
+
+    private Document toIndexSpecification(final Document index) {
+        final Document specification = new Document();
+        for (final Entry<String, Object> entry : index.entrySet()) {
+            // the namespace and version are determined by the server
+            if (!"ns".equals(entry.getKey()) && !"v".equals(entry.getKey())) {
+                specification.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return specification;
+    }
+}
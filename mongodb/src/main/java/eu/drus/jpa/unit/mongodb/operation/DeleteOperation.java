@@ -1,22 +1,35 @@
 package eu.drus.jpa.unit.mongodb.operation;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static eu.drus.jpa.unit.mongodb.operation.BulkWriteSupport.bulkWrite;
+
 import java.util.List;
 
 import org.bson.Document;
 
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.DeleteOneModel;
 
 public class DeleteOperation implements MongoDbOperation {
 
+    private final int chunkSize;
+
+    public DeleteOperation() {
+        this(BulkWriteSupport.configuredChunkSize());
+    }
+
+    public DeleteOperation(final int chunkSize) {
+        checkArgument(chunkSize > 0, "chunk size must be positive");
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public void execute(final MongoDatabase connection, final Document data) {
         for (final String collectionName : data.keySet()) {
             @SuppressWarnings("unchecked")
             final List<Document> entry = data.get(collectionName, List.class);
 
-            final MongoCollection<Document> collection = connection.getCollection(collectionName);
-            entry.forEach(collection::deleteOne);
+            bulkWrite(connection.getCollection(collectionName), entry, DeleteOneModel::new, chunkSize);
         }
     }
 
@@ -0,0 +1,51 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.List;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Empties collections by dropping and recreating them with their original options and indexes,
+ * which is much faster than deleting the documents of large collections.
+ */
+public class DropAndRecreateOperation implements MongoDbOperation {
+
+    private final CollectionDefinitions collectionDefinitions;
+    private final IndexRegistry indexRegistry;
+
+    public DropAndRecreateOperation(final CollectionDefinitions collectionDefinitions) {
+        this(collectionDefinitions, new IndexRegistry());
+    }
+
+    /**
+     * Creates an operation, which invalidates the indexes registered for the dropped collections
+     * in the given registry.
+     */
+    public DropAndRecreateOperation(final CollectionDefinitions collectionDefinitions, final IndexRegistry indexRegistry) {
+        this.collectionDefinitions = collectionDefinitions;
+        this.indexRegistry = indexRegistry;
+    }
+
+    @Override
+    public void execute(final MongoDatabase connection, final Document data) {
+        // the collections are independent of each other and are thus recreated concurrently
+        data.keySet().parallelStream().forEach(collectionName -> dropAndRecreate(connection, collectionName));
+    }
+
+    private void dropAndRecreate(final MongoDatabase connection, final String collectionName) {
+        final List<Document> createCommands = collectionDefinitions.getCreateCommands(connection, collectionName);
+        if (createCommands == null) {
+            // nothing to drop
+            return;
+        }
+
+        connection.getCollection(collectionName).drop();
+        // the captured definition may predate indexes created while seeding
+        indexRegistry.forget(connection, collectionName);
+        for (final Document command : createCommands) {
+            connection.runCommand(command);
+        }
+    }
+}
@@ -10,12 +10,25 @@ import com.mongodb.client.model.CollationAlternate;
 import com.mongodb.client.model.CollationCaseFirst;
 import com.mongodb.client.model.CollationMaxVariable;
 import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 
 public class IndexOptionsUtils {
 
     private IndexOptionsUtils() {}
 
+    /**
+     * Converts an index definition of a data set, consisting of the <code>index</code> keys and the
+     * optional <code>options</code>.
+     */
+    public static IndexModel toIndexModel(final Document index) {
+        final Document indexKeys = index.get("index", Document.class);
+        if (index.containsKey("options")) {
+            return new IndexModel(indexKeys, toIndexOptions(index.get("options", Document.class)));
+        }
+        return new IndexModel(indexKeys);
+    }
+
     public static IndexOptions toIndexOptions(final Document options) {
         final IndexOptions indexOptions = new IndexOptions();
 
@@ -0,0 +1,133 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+
+/**
+ * Keeps track of the indexes existing in collections, so that the indexes defined in data sets are
+ * only created if they do not exist with identical keys and options yet. The existing indexes of a
+ * collection are read once, the first time the collection is seen.
+ */
+public class IndexRegistry {
+
+    private static final Map<String, String> OPTION_NAMES;
+
+    static {
+        // the options of the data sets, which are named differently by listIndexes
+        final Map<String, String> optionNames = new HashMap<>();
+        optionNames.put("textVersion", "textIndexVersion");
+        optionNames.put("sphereVersion", "2dsphereIndexVersion");
+        OPTION_NAMES = Collections.unmodifiableMap(optionNames);
+    }
+
+    private final ConcurrentMap<String, Map<String, Document>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates those of the given index definitions, which do not exist in the collection yet, using
+     * a single <code>createIndexes</code> command.
+     */
+    public void createIndexes(final MongoCollection<Document> collection, final List<Document> indexDefinitions) {
+        final Map<String, Document> existingIndexes = indexes.computeIfAbsent(collection.getNamespace().getFullName(),
+                key -> readIndexes(collection));
+
+        final List<IndexModel> missingIndexes = new ArrayList<>();
+        final List<Document> createdIndexes = new ArrayList<>();
+        for (final Document indexDefinition : indexDefinitions) {
+            final Document keys = indexDefinition.get("index", Document.class);
+            final Document options = indexDefinition.containsKey("options") ? indexDefinition.get("options", Document.class)
+                    : new Document();
+            final String name = options.containsKey("name") ? options.getString("name") : generateIndexName(keys);
+
+            if (!isSameIndex(existingIndexes.get(name), keys, options)) {
+                missingIndexes.add(IndexOptionsUtils.toIndexModel(indexDefinition));
+                createdIndexes.add(toIndexDescription(name, keys, options));
+            }
+        }
+
+        if (!missingIndexes.isEmpty()) {
+            collection.createIndexes(missingIndexes);
+            for (final Document index : createdIndexes) {
+                existingIndexes.put(index.getString("name"), index);
+            }
+        }
+    }
+
+    /**
+     * Forgets the indexes of the given collection, e.g. because it has been dropped.
+     */
+    public void forget(final MongoDatabase connection, final String collectionName) {
+        indexes.remove(connection.getName() + "." + collectionName);
+    }
+
+    /**
+     * Forgets all indexes, e.g. because arbitrary scripts have been executed.
+     */
+    public void clear() {
+        indexes.clear();
+    }
+
+    private static Map<String, Document> readIndexes(final MongoCollection<Document> collection) {
+        final Map<String, Document> existingIndexes = new ConcurrentHashMap<>();
+        for (final Document index : collection.listIndexes()) {
+            existingIndexes.put(index.getString("name"), index);
+        }
+        return existingIndexes;
+    }
+
+    private static boolean isSameIndex(final Document existingIndex, final Document keys, final Document options) {
+        if (existingIndex == null || !keys.equals(existingIndex.get("key"))) {
+            return false;
+        }
+
+        for (final Entry<String, Object> option : options.entrySet()) {
+            // the index version is chosen by the server, if not supported
+            if (!"version".equals(option.getKey()) && !isSameValue(option.getValue(), existingIndex.get(toOptionName(option.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameValue(final Object expected, final Object actual) {
+        if (expected instanceof Number && actual instanceof Number) {
+            return ((Number) expected).doubleValue() == ((Number) actual).doubleValue();
+        }
+        return expected.equals(actual);
+    }
+
+    private static Document toIndexDescription(final String name, final Document keys, final Document options) {
+        final Document description = new Document("key", keys).append("name", name);
+        for (final Entry<String, Object> option : options.entrySet()) {
+            description.put(toOptionName(option.getKey()), option.getValue());
+        }
+        return description;
+    }
+
+    private static String toOptionName(final String option) {
+        return OPTION_NAMES.getOrDefault(option, option);
+    }
+
+    private static String generateIndexName(final Document keys) {
+        // same as the name generated by the driver and the server
+        final StringBuilder name = new StringBuilder();
+        for (final Entry<String, Object> key : keys.entrySet()) {
+            if (name.length() != 0) {
+                name.append('_');
+            }
+            name.append(key.getKey()).append('_').append(key.getValue().toString().replace(' ', '_'));
+        }
+        return name.toString();
+    }
+}
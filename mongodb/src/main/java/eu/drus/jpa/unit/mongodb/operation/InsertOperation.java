@@ -1,18 +1,47 @@
 package eu.drus.jpa.unit.mongodb.operation;
 
-import static eu.drus.jpa.unit.mongodb.operation.IndexOptionsUtils.toIndexOptions;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
 
 public class InsertOperation implements MongoDbOperation {
 
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final IndexRegistry indexRegistry;
+    private final int chunkSize;
+
+    public InsertOperation() {
+        this(BulkWriteSupport.configuredChunkSize());
+    }
+
+    public InsertOperation(final int chunkSize) {
+        this(null, chunkSize);
+    }
+
+    /**
+     * Creates an operation, which creates only those indexes of the data sets not already known to
+     * the given registry.
+     */
+    public InsertOperation(final IndexRegistry indexRegistry) {
+        this(indexRegistry, BulkWriteSupport.configuredChunkSize());
+    }
+
+    public InsertOperation(final IndexRegistry indexRegistry, final int chunkSize) {
+        checkArgument(chunkSize > 0, "chunk size must be positive");
+        this.indexRegistry = indexRegistry;
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public void execute(final MongoDatabase connection, final Document data) {
         for (final Entry<String, Object> entry : data.entrySet()) {
@@ -41,7 +70,11 @@ public class InsertOperation implements MongoDbOperation {
     }
 
     private void insertData(final MongoCollection<Document> collection, final List<Document> entries) {
-        collection.insertMany(entries);
+        // documents are inserted in chunks, so that lazily created documents, like generated ones, are
+        // never held in memory as a whole
+        for (int i = 0; i < entries.size(); i += chunkSize) {
+            collection.insertMany(entries.subList(i, Math.min(i + chunkSize, entries.size())), UNORDERED);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -56,16 +89,10 @@ public class InsertOperation implements MongoDbOperation {
     }
 
     private void insertIndexes(final MongoCollection<Document> collection, final List<Document> indexes) {
-        for (final Document index : indexes) {
-
-            final Document indexKeys = index.get("index", Document.class);
-
-            if (index.containsKey("options")) {
-                final Document indexOptions = index.get("options", Document.class);
-                collection.createIndex(indexKeys, toIndexOptions(indexOptions));
-            } else {
-                collection.createIndex(indexKeys);
-            }
+        if (indexRegistry != null) {
+            indexRegistry.createIndexes(collection, indexes);
+        } else {
+            collection.createIndexes(indexes.stream().map(IndexOptionsUtils::toIndexModel).collect(Collectors.toList()));
         }
     }
 }
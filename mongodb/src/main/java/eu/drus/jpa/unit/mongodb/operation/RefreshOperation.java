@@ -1,32 +1,49 @@
 package eu.drus.jpa.unit.mongodb.operation;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static eu.drus.jpa.unit.mongodb.operation.BulkWriteSupport.bulkWrite;
+
 import java.util.List;
 
 import org.bson.Document;
 
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 
 public class RefreshOperation implements MongoDbOperation {
 
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    private final int chunkSize;
+
+    public RefreshOperation() {
+        this(BulkWriteSupport.configuredChunkSize());
+    }
+
+    public RefreshOperation(final int chunkSize) {
+        checkArgument(chunkSize > 0, "chunk size must be positive");
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public void execute(final MongoDatabase connection, final Document data) {
         for (final String collectionName : data.keySet()) {
-            final MongoCollection<Document> collection = connection.getCollection(collectionName);
-
             @SuppressWarnings("unchecked")
             final List<Document> documents = data.get(collectionName, List.class);
 
-            for (final Document doc : documents) {
-                final UpdateResult result = collection.replaceOne(Filters.eq(doc.get("_id")), doc);
-
-                if (result.getMatchedCount() == 0) {
-                    collection.insertOne(doc);
-                }
-            }
+            bulkWrite(connection.getCollection(collectionName), documents, RefreshOperation::toWriteModel, chunkSize);
         }
     }
 
+    private static WriteModel<Document> toWriteModel(final Document doc) {
+        if (!doc.containsKey("_id")) {
+            // can not be known, the id is generated on insert
+            return new InsertOneModel<>(doc);
+        }
+        return new ReplaceOneModel<>(Filters.eq(doc.get("_id")), doc, UPSERT);
+    }
 }
@@ -0,0 +1,127 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.CountOptions;
+
+/**
+ * Inserts data sets by copying template collections on the server. The first time a data set is
+ * seeded, its documents are inserted into template collections, which are copied to the seeded
+ * collections on each seed. Collections already containing documents can not be replaced by a
+ * copy and are seeded by the given insert operation instead.
+ */
+public class TemplateInsertOperation implements MongoDbOperation {
+
+    // the copy of a template is prepared in the template database and moved afterwards, since
+    // before MongoDB 4.4 $out can only write to the database of the aggregation. The move copies
+    // the documents once more
+    private static final String STAGING_SUFFIX = ".staging";
+
+    private final TemplateRegistry templateRegistry;
+    private final String dataSetKey;
+    private final CollectionDefinitions collectionDefinitions;
+    private final IndexRegistry indexRegistry;
+    private final MongoDbOperation insertOperation;
+
+    /**
+     * Creates an operation for the data set identified by the given key, e.g. the paths of its
+     * files.
+     */
+    public TemplateInsertOperation(final TemplateRegistry templateRegistry, final String dataSetKey,
+            final CollectionDefinitions collectionDefinitions, final IndexRegistry indexRegistry, final MongoDbOperation insertOperation) {
+        this.templateRegistry = templateRegistry;
+        this.dataSetKey = dataSetKey;
+        this.collectionDefinitions = collectionDefinitions;
+        this.indexRegistry = indexRegistry;
+        this.insertOperation = insertOperation;
+    }
+
+    @Override
+    public void execute(final MongoDatabase connection, final Document data) {
+        final MongoDatabase templateDatabase = templateRegistry.getTemplateDatabase(connection);
+        String templatePrefix = templateRegistry.getTemplatePrefix(connection, dataSetKey);
+        if (templatePrefix == null) {
+            templatePrefix = templateRegistry.newTemplatePrefix();
+            createTemplates(templateDatabase, templatePrefix, data);
+            templateRegistry.register(connection, dataSetKey, templatePrefix);
+        }
+
+        for (final Entry<String, Object> entry : data.entrySet()) {
+            final String collectionName = entry.getKey();
+            if (getCollectionData(entry.getValue()).isEmpty() || !isEmpty(connection.getCollection(collectionName))) {
+                insertOperation.execute(connection, new Document(collectionName, entry.getValue()));
+            } else {
+                copyTemplate(connection, templateDatabase, templatePrefix + collectionName, collectionName,
+                        getIndexData(entry.getValue()));
+            }
+        }
+    }
+
+    private static void createTemplates(final MongoDatabase templateDatabase, final String templatePrefix, final Document data) {
+        final Document templates = new Document();
+        for (final Entry<String, Object> entry : data.entrySet()) {
+            final List<Document> documents = getCollectionData(entry.getValue());
+            if (!documents.isEmpty()) {
+                // left over by an earlier run
+                templateDatabase.getCollection(templatePrefix + entry.getKey()).drop();
+                templates.put(templatePrefix + entry.getKey(), documents);
+            }
+        }
+        new InsertOperation().execute(templateDatabase, templates);
+    }
+
+    private void copyTemplate(final MongoDatabase connection, final MongoDatabase templateDatabase, final String templateName,
+            final String collectionName, final List<Document> indexes) {
+        final String stagingName = templateName + STAGING_SUFFIX;
+        templateDatabase.getCollection(stagingName).drop();
+
+        // the copy replaces the seeded collection and is thus created with its options and indexes
+        final List<Document> createCommands = collectionDefinitions.getCreateCommands(connection, collectionName);
+        if (createCommands != null) {
+            for (final Document command : createCommands) {
+                final Document stagingCommand = new Document(command);
+                stagingCommand.put(command.keySet().iterator().next(), stagingName);
+                templateDatabase.runCommand(stagingCommand);
+            }
+        }
+        if (!indexes.isEmpty()) {
+            templateDatabase.getCollection(stagingName)
+                    .createIndexes(indexes.stream().map(IndexOptionsUtils::toIndexModel).collect(Collectors.toList()));
+        }
+
+        // $out retains the indexes of the existing staging collection
+        templateDatabase.getCollection(templateName).aggregate(Collections.singletonList(Aggregates.out(stagingName))).toCollection();
+        templateRegistry.moveFromTemplateDatabase(connection, stagingName, collectionName);
+        indexRegistry.forget(connection, collectionName);
+    }
+
+    private static boolean isEmpty(final MongoCollection<Document> collection) {
+        return collection.count(new Document(), new CountOptions().limit(1)) == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> getCollectionData(final Object obj) {
+        if (List.class.isAssignableFrom(obj.getClass())) {
+            return (List<Document>) obj;
+        } else {
+            final List<Document> data = ((Document) obj).get("data", List.class);
+            return data == null ? Collections.emptyList() : data;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> getIndexData(final Object obj) {
+        if (Document.class.isAssignableFrom(obj.getClass()) && ((Document) obj).containsKey("indexes")) {
+            return ((Document) obj).get("indexes", List.class);
+        }
+        return Collections.emptyList();
+    }
+}
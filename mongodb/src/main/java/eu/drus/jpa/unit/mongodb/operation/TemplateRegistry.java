@@ -0,0 +1,81 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Keeps track of the template collections data sets have been seeded into. The templates of a
+ * database are kept in a separate database, so that these are neither affected by the cleanup nor
+ * visible to the tests. All templates are dropped by {@link #dropAll()}.
+ */
+public class TemplateRegistry {
+
+    static final String DATABASE_SUFFIX = "_jpa_unit_templates";
+
+    private final MongoClient client;
+    private final ConcurrentMap<String, String> templates = new ConcurrentHashMap<>();
+    private final Set<String> templateDatabases = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger templateCounter = new AtomicInteger();
+
+    public TemplateRegistry(final MongoClient client) {
+        this.client = client;
+    }
+
+    /**
+     * The database holding the templates of the given database.
+     */
+    public MongoDatabase getTemplateDatabase(final MongoDatabase connection) {
+        final String databaseName = connection.getName() + DATABASE_SUFFIX;
+        templateDatabases.add(databaseName);
+        return client.getDatabase(databaseName);
+    }
+
+    /**
+     * Returns the prefix of the template collections holding the data set with the given key or
+     * null, if the data set has not been seeded into templates yet.
+     */
+    public String getTemplatePrefix(final MongoDatabase connection, final String dataSetKey) {
+        return templates.get(connection.getName() + ":" + dataSetKey);
+    }
+
+    /**
+     * Returns a new prefix for the template collections of the given data set, which are
+     * registered by {@link #register(MongoDatabase, String, String)} once seeded.
+     */
+    public String newTemplatePrefix() {
+        return "t" + templateCounter.incrementAndGet() + ".";
+    }
+
+    public void register(final MongoDatabase connection, final String dataSetKey, final String templatePrefix) {
+        templates.put(connection.getName() + ":" + dataSetKey, templatePrefix);
+    }
+
+    /**
+     * Moves a collection of the template database to the given database, replacing the collection
+     * of the same name. The documents are copied by the server.
+     */
+    public void moveFromTemplateDatabase(final MongoDatabase connection, final String templateCollectionName,
+            final String collectionName) {
+        final String source = connection.getName() + DATABASE_SUFFIX + "." + templateCollectionName;
+        client.getDatabase("admin").runCommand(new Document("renameCollection", source)
+                .append("to", connection.getName() + "." + collectionName).append("dropTarget", true));
+    }
+
+    /**
+     * Drops all template databases and forgets the templates.
+     */
+    public void dropAll() {
+        templates.clear();
+        for (final String databaseName : templateDatabases) {
+            client.getDatabase(databaseName).drop();
+        }
+        templateDatabases.clear();
+    }
+}
@@ -1,23 +1,37 @@
 package eu.drus.jpa.unit.mongodb.operation;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static eu.drus.jpa.unit.mongodb.operation.BulkWriteSupport.bulkWrite;
+
 import java.util.List;
 
 import org.bson.Document;
 
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
 
 public class UpdateOperation implements MongoDbOperation {
 
+    private final int chunkSize;
+
+    public UpdateOperation() {
+        this(BulkWriteSupport.configuredChunkSize());
+    }
+
+    public UpdateOperation(final int chunkSize) {
+        checkArgument(chunkSize > 0, "chunk size must be positive");
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public void execute(final MongoDatabase connection, final Document data) {
         for (final String collectionName : data.keySet()) {
             @SuppressWarnings("unchecked")
             final List<Document> documents = data.get(collectionName, List.class);
 
-            final MongoCollection<Document> collection = connection.getCollection(collectionName);
-            documents.forEach(d -> collection.replaceOne(Filters.eq(d.get("_id")), d));
+            bulkWrite(connection.getCollection(collectionName), documents, d -> new ReplaceOneModel<>(Filters.eq(d.get("_id")), d),
+                    chunkSize);
         }
     }
 
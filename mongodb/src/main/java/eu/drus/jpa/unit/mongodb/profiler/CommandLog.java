@@ -0,0 +1,73 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The commands recorded while the database profiler was enabled, in the order of their execution.
+ */
+public class CommandLog {
+
+    private final List<ProfiledCommand> commands;
+
+    public CommandLog(final List<ProfiledCommand> commands) {
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+    }
+
+    public List<ProfiledCommand> getCommands() {
+        return commands;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    public int count(final String type) {
+        int count = 0;
+        for (final ProfiledCommand command : commands) {
+            if (command.getType().equals(type)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getReturnedDocuments() {
+        long count = 0;
+        for (final ProfiledCommand command : commands) {
+            count += command.getReturnedDocuments();
+        }
+        return count;
+    }
+
+    /**
+     * Describes the commands of the given type, or all commands if null, grouped by type and
+     * collection, most frequent first.
+     */
+    public String describe(final String type) {
+        final Map<String, long[]> groups = new LinkedHashMap<>();
+        for (final ProfiledCommand command : commands) {
+            if (type == null || command.getType().equals(type)) {
+                // count, duration and returned documents
+                final long[] group = groups.computeIfAbsent(command.getType() + " " + command.getCollection(), k -> new long[3]);
+                group[0]++;
+                group[1] += command.getMillis();
+                group[2] += command.getReturnedDocuments();
+            }
+        }
+
+        final List<Map.Entry<String, long[]>> entries = new ArrayList<>(groups.entrySet());
+        // the sort is stable, so equally frequent commands retain the order of their first execution
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<String, long[]> entry : entries) {
+            final long[] group = entry.getValue();
+            builder.append(String.format("  %5dx %s (%d ms, %d documents returned)%n", group[0], entry.getKey(), group[1], group[2]));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+
+/**
+ * Records the commands issued against a database by all clients using the database profiler.
+ * Since the JPA provider uses a client of its own, a <code>CommandListener</code> registered with
+ * the client of JPA Unit would not see these.
+ */
+public class CommandProfiler {
+
+    private static final String PROFILE_COLLECTION = "system.profile";
+
+    // the default size of 1 MB would only hold a few thousand entries
+    private static final long PROFILE_SIZE = 16L * 1024 * 1024;
+
+    private final MongoDatabase connection;
+    private final int previousLevel;
+
+    private CommandProfiler(final MongoDatabase connection, final int previousLevel) {
+        this.connection = connection;
+        this.previousLevel = previousLevel;
+    }
+
+    /**
+     * Enables profiling of all commands. Entries of earlier profiling sessions are discarded.
+     */
+    public static CommandProfiler start(final MongoDatabase connection) {
+        try {
+            // the profile collection can only be recreated while profiling is disabled
+            final Document status = connection.runCommand(new Document("profile", 0));
+            connection.getCollection(PROFILE_COLLECTION).drop();
+            connection.createCollection(PROFILE_COLLECTION, new CreateCollectionOptions().capped(true).sizeInBytes(PROFILE_SIZE));
+            connection.runCommand(new Document("profile", 2));
+            return new CommandProfiler(connection, ((Number) status.get("was")).intValue());
+        } catch (final MongoException e) {
+            throw new JpaUnitException("Could not enable the profiler of database " + connection.getName(), e);
+        }
+    }
+
+    /**
+     * Restores the profiling level found on start and returns the commands recorded since.
+     */
+    public CommandLog stop() {
+        final List<ProfiledCommand> commands = new ArrayList<>();
+        try {
+            connection.runCommand(new Document("profile", previousLevel));
+            boolean isFirstEntry = true;
+            for (final Document entry : connection.getCollection(PROFILE_COLLECTION).find()) {
+                final ProfiledCommand command = ProfiledCommand.of(entry);
+                // the command enabling the profiler is recorded first. The profile collection is
+                // capped, so if it is missing, the oldest entries have been overwritten
+                if (isFirstEntry && !"profile".equals(command.getType())) {
+                    throw new JpaUnitException("The profile of database " + connection.getName() + " exceeded its size of "
+                            + PROFILE_SIZE / (1024 * 1024) + " MB, thus not all commands of the test could be recorded");
+                }
+                isFirstEntry = false;
+
+                if (!"profile".equals(command.getType())) {
+                    commands.add(command);
+                }
+            }
+        } catch (final MongoException e) {
+            throw new JpaUnitException("Could not read the profile of database " + connection.getName(), e);
+        }
+        return new CommandLog(commands);
+    }
+}
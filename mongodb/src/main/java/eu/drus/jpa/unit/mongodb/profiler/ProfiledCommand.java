@@ -0,0 +1,108 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import org.bson.Document;
+
+/**
+ * A command recorded by the database profiler.
+ */
+public class ProfiledCommand {
+
+    private final String type;
+    private final String collection;
+    private final long millis;
+    private final long returnedDocuments;
+    private final String planSummary;
+
+    ProfiledCommand(final String type, final String collection, final long millis, final long returnedDocuments,
+            final String planSummary) {
+        this.type = type;
+        this.collection = collection;
+        this.millis = millis;
+        this.returnedDocuments = returnedDocuments;
+        this.planSummary = planSummary;
+    }
+
+    /**
+     * Converts an entry of the <code>system.profile</code> collection.
+     */
+    static ProfiledCommand of(final Document entry) {
+        final String op = entry.getString("op");
+        final Document command = getCommand(entry);
+
+        final String type;
+        switch (op) {
+        case "query":
+            type = "find";
+            break;
+        case "getmore":
+            type = "getMore";
+            break;
+        case "remove":
+            type = "delete";
+            break;
+        case "command":
+            type = command == null || command.isEmpty() ? op : normalize(command.keySet().iterator().next());
+            break;
+        default:
+            type = op;
+        }
+
+        String collection = entry.getString("ns");
+        collection = collection == null ? "" : collection.substring(collection.indexOf('.') + 1);
+        if ("$cmd".equals(collection) && command != null && !command.isEmpty()) {
+            // older servers report commands against the command namespace
+            final Object target = command.values().iterator().next();
+            collection = target instanceof String ? (String) target : collection;
+        }
+
+        return new ProfiledCommand(type, collection, toLong(entry.get("millis")), toLong(entry.get("nreturned")),
+                entry.getString("planSummary"));
+    }
+
+    private static Document getCommand(final Document entry) {
+        // reported as query by servers before 3.6
+        final Object command = entry.containsKey("command") ? entry.get("command") : entry.get("query");
+        return command instanceof Document ? (Document) command : null;
+    }
+
+    private static String normalize(final String commandName) {
+        return "findandmodify".equals(commandName) ? "findAndModify" : commandName;
+    }
+
+    private static long toLong(final Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * The command name, like <code>find</code>, <code>aggregate</code> or <code>insert</code>.
+     * Single update and delete statements are reported as <code>update</code> and
+     * <code>delete</code>.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public long getReturnedDocuments() {
+        return returnedDocuments;
+    }
+
+    /**
+     * The summary of the plan executed, like <code>COLLSCAN</code> or
+     * <code>IXSCAN { name: 1 }</code>, or null if not applicable.
+     */
+    public String getPlanSummary() {
+        return planSummary;
+    }
+
+    public boolean isCollectionScan() {
+        return planSummary != null && planSummary.contains("COLLSCAN");
+    }
+}
@@ -0,0 +1,179 @@
+package eu.drus.jpa.unit.mongodb;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonParseException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
+
+import eu.drus.jpa.unit.spi.DbFeatureException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandScriptTest {
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Captor
+    private ArgumentCaptor<List<WriteModel<Document>>> writeModelCaptor;
+
+    @Captor
+    private ArgumentCaptor<BulkWriteOptions> optionsCaptor;
+
+    @Before
+    public void prepareMocks() {
+        when(connection.getCollection(anyString())).thenReturn(collection);
+    }
+
+    @Test
+    public void testScriptDetection() {
+        assertThat(CommandScript.isCommandScript("{ \"drop\": \"Customer\" }"), equalTo(Boolean.TRUE));
+        assertThat(CommandScript.isCommandScript("[ { \"drop\": \"Customer\" } ]"), equalTo(Boolean.TRUE));
+        assertThat(CommandScript.isCommandScript("db.Customer.drop()"), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testSingleCommand() throws DbFeatureException {
+        // GIVEN
+        final CommandScript script = CommandScript.parse("{ \"delete\": \"Customer\", \"deletes\": [ { \"q\": {}, \"limit\": 0 } ] }");
+
+        // WHEN
+        script.execute(connection);
+
+        // THEN
+        verify(connection).runCommand(new Document("delete", "Customer").append("deletes",
+                Arrays.asList(new Document("q", new Document()).append("limit", 0))));
+    }
+
+    @Test
+    public void testCommandsAreExecutedInOrder() throws DbFeatureException {
+        // GIVEN
+        final CommandScript script = CommandScript.parse("[ { \"drop\": \"Customer\" }, { \"create\": \"Customer\" } ]");
+
+        // WHEN
+        script.execute(connection);
+
+        // THEN
+        final InOrder order = inOrder(connection);
+        order.verify(connection).runCommand(new Document("drop", "Customer"));
+        order.verify(connection).runCommand(new Document("create", "Customer"));
+    }
+
+    @Test
+    public void testParallelCommands() throws DbFeatureException {
+        // GIVEN
+        final CommandScript script = CommandScript.parse("{ \"parallel\": [ { \"drop\": \"Customer\" }, { \"drop\": \"Invoice\" } ] }");
+
+        // WHEN
+        script.execute(connection);
+
+        // THEN
+        verify(connection).runCommand(new Document("drop", "Customer"));
+        verify(connection).runCommand(new Document("drop", "Invoice"));
+    }
+
+    @Test
+    public void testBulkWrite() throws DbFeatureException {
+        // GIVEN
+        final CommandScript script = CommandScript.parse("{ \"bulkWrite\": \"Customer\", \"ordered\": false, \"operations\": [ "
+                + "{ \"insertOne\": { \"document\": { \"_id\": NumberLong(1) } } }, "
+                + "{ \"updateMany\": { \"filter\": {}, \"update\": { \"$set\": { \"name\": \"Max\" } }, \"upsert\": true } } ] }");
+
+        // WHEN
+        script.execute(connection);
+
+        // THEN
+        verify(connection).getCollection("Customer");
+        verify(collection).bulkWrite(writeModelCaptor.capture(), optionsCaptor.capture());
+        final List<WriteModel<Document>> writeModels = writeModelCaptor.getValue();
+        assertThat(writeModels.size(), equalTo(2));
+        assertThat(writeModels.get(0), instanceOf(InsertOneModel.class));
+        assertThat(((InsertOneModel<Document>) writeModels.get(0)).getDocument(), equalTo(new Document("_id", 1L)));
+        assertThat(writeModels.get(1), instanceOf(UpdateManyModel.class));
+        assertThat(((UpdateManyModel<Document>) writeModels.get(1)).getOptions().isUpsert(), equalTo(Boolean.TRUE));
+        assertThat(optionsCaptor.getValue().isOrdered(), equalTo(Boolean.FALSE));
+        verify(connection, never()).runCommand(any(Bson.class));
+    }
+
+    @Test
+    public void testInvalidScriptIsRejectedBeforeExecution() {
+        // GIVEN
+
+        // WHEN
+        try {
+            CommandScript.parse("[ { \"drop\": \"Customer\" }, { \"bulkWrite\": \"Customer\", \"operations\": [ { \"insertMany\": {} } ] } ]");
+            fail("JsonParseException expected");
+        } catch (final JsonParseException e) {
+            // THEN
+            verify(connection, never()).runCommand(any(Bson.class));
+        }
+    }
+
+    @Test
+    public void testWriteErrorsOfCommandAreReported() {
+        // GIVEN
+        final Document command = new Document("insert", "Customer").append("documents", Arrays.asList(new Document("_id", 1L)));
+        when(connection.runCommand(command)).thenReturn(new Document("ok", 1.0).append("n", 0).append("writeErrors",
+                Arrays.asList(new Document("index", 0).append("code", 11000).append("errmsg", "E11000 duplicate key error"))));
+        final CommandScript script = CommandScript.parse("{ \"insert\": \"Customer\", \"documents\": [ { \"_id\": NumberLong(1) } ] }");
+
+        // WHEN
+        try {
+            script.execute(connection);
+            fail("DbFeatureException expected");
+        } catch (final DbFeatureException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("writeErrors"));
+            assertThat(e.getMessage(), containsString("E11000 duplicate key error"));
+        }
+    }
+
+    @Test
+    public void testWriteConcernErrorOfParallelCommandIsReported() {
+        // GIVEN
+        when(connection.runCommand(new Document("drop", "Invoice"))).thenReturn(new Document("ok", 1.0).append("writeConcernError",
+                new Document("code", 64).append("errmsg", "waiting for replication timed out")));
+        final CommandScript script = CommandScript.parse("{ \"parallel\": [ { \"drop\": \"Customer\" }, { \"drop\": \"Invoice\" } ] }");
+
+        // WHEN
+        try {
+            script.execute(connection);
+            fail("DbFeatureException expected");
+        } catch (final DbFeatureException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("writeConcernError"));
+            assertThat(e.getMessage(), containsString("waiting for replication timed out"));
+        }
+    }
+}
@@ -5,10 +5,13 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -18,6 +21,7 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -46,6 +50,8 @@ public class DataSetComparatorTest {
     @Mock
     private MongoDatabase mongoDatabase;
 
+    private FindIterable<Document> currentEntries;
+
     private AssertionErrorCollector errorCollector;
 
     @Before
@@ -108,6 +114,7 @@ public class DataSetComparatorTest {
         when(documentIterator.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterable = mock(FindIterable.class);
+        when(findIterable.batchSize(anyInt())).thenReturn(findIterable);
         when(findIterable.iterator()).thenReturn(documentIterator);
 
         final MongoCollection<Document> collection = mock(MongoCollection.class);
@@ -163,6 +170,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -178,6 +186,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithEntries.next()).thenAnswer((final InvocationOnMock invocation) -> currentDocumentsIt.next());
 
         final FindIterable<Document> findIterableWithEntries = mock(FindIterable.class);
+        when(findIterableWithEntries.batchSize(anyInt())).thenReturn(findIterableWithEntries);
         when(findIterableWithEntries.iterator()).thenReturn(documentIteratorWithEntries);
 
         final MongoCollection<Document> collectionWithEntries = mock(MongoCollection.class);
@@ -234,6 +243,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -249,6 +259,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithEntries.next()).thenAnswer((final InvocationOnMock invocation) -> currentDocumentsIt.next());
 
         final FindIterable<Document> findIterableWithEntries = mock(FindIterable.class);
+        when(findIterableWithEntries.batchSize(anyInt())).thenReturn(findIterableWithEntries);
         when(findIterableWithEntries.iterator()).thenReturn(documentIteratorWithEntries);
 
         final MongoCollection<Document> collectionWithEntries = mock(MongoCollection.class);
@@ -306,6 +317,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -321,6 +333,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithEntries.next()).thenAnswer((final InvocationOnMock invocation) -> currentDocumentsIt.next());
 
         final FindIterable<Document> findIterableWithEntries = mock(FindIterable.class);
+        when(findIterableWithEntries.batchSize(anyInt())).thenReturn(findIterableWithEntries);
         when(findIterableWithEntries.iterator()).thenReturn(documentIteratorWithEntries);
 
         final MongoCollection<Document> collectionWithEntries = mock(MongoCollection.class);
@@ -378,6 +391,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -393,6 +407,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithEntries.next()).thenAnswer((final InvocationOnMock invocation) -> currentDocumentsIt.next());
 
         final FindIterable<Document> findIterableWithEntries = mock(FindIterable.class);
+        when(findIterableWithEntries.batchSize(anyInt())).thenReturn(findIterableWithEntries);
         when(findIterableWithEntries.iterator()).thenReturn(documentIteratorWithEntries);
 
         final MongoCollection<Document> collectionWithEntries = mock(MongoCollection.class);
@@ -451,6 +466,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -473,6 +489,7 @@ public class DataSetComparatorTest {
         }).when(documentIteratorWithEntries).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> findIterableWithEntries = mock(FindIterable.class);
+        when(findIterableWithEntries.batchSize(anyInt())).thenReturn(findIterableWithEntries);
         when(findIterableWithEntries.iterator()).thenReturn(documentIteratorWithEntries);
 
         final MongoCollection<Document> collectionWithEntries = mock(MongoCollection.class);
@@ -529,6 +546,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -551,6 +569,7 @@ public class DataSetComparatorTest {
         }).when(collection1DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection1Iterable = mock(FindIterable.class);
+        when(collection1Iterable.batchSize(anyInt())).thenReturn(collection1Iterable);
         when(collection1Iterable.iterator()).thenReturn(collection1DocumentIterator);
 
         final MongoCollection<Document> collection1 = mock(MongoCollection.class);
@@ -573,12 +592,13 @@ public class DataSetComparatorTest {
         }).when(collection2DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection2Iterable = mock(FindIterable.class);
+        when(collection2Iterable.batchSize(anyInt())).thenReturn(collection2Iterable);
         when(collection2Iterable.iterator()).thenReturn(collection2DocumentIterator);
 
         final MongoCollection<Document> collection2 = mock(MongoCollection.class);
-        when(collection1.count()).thenReturn(1l);
-        when(collection1.find(any(Document.class))).thenReturn(collection2Iterable);
-        when(collection1.find()).thenReturn(collection2Iterable);
+        when(collection2.count()).thenReturn(1l);
+        when(collection2.find(any(Document.class))).thenReturn(collection2Iterable);
+        when(collection2.find()).thenReturn(collection2Iterable);
         when(mongoDatabase.getCollection(eq(COLLECTION_NAME_2))).thenReturn(collection2);
 
         final String[] toExclude = new String[] {};
@@ -621,6 +641,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -643,6 +664,7 @@ public class DataSetComparatorTest {
         }).when(collection1DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection1Iterable = mock(FindIterable.class);
+        when(collection1Iterable.batchSize(anyInt())).thenReturn(collection1Iterable);
         when(collection1Iterable.iterator()).thenReturn(collection1DocumentIterator);
 
         final MongoCollection<Document> collection1 = mock(MongoCollection.class);
@@ -665,12 +687,13 @@ public class DataSetComparatorTest {
         }).when(collection2DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection2Iterable = mock(FindIterable.class);
+        when(collection2Iterable.batchSize(anyInt())).thenReturn(collection2Iterable);
         when(collection2Iterable.iterator()).thenReturn(collection2DocumentIterator);
 
         final MongoCollection<Document> collection2 = mock(MongoCollection.class);
-        when(collection1.count()).thenReturn(1l);
-        when(collection1.find(any(Document.class))).thenReturn(collection2Iterable);
-        when(collection1.find()).thenReturn(collection2Iterable);
+        when(collection2.count()).thenReturn(1l);
+        when(collection2.find(any(Document.class))).thenReturn(collection2Iterable);
+        when(collection2.find()).thenReturn(collection2Iterable);
         when(mongoDatabase.getCollection(eq(COLLECTION_NAME_2))).thenReturn(collection2);
 
         final String[] toExclude = new String[] {};
@@ -719,6 +742,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -741,9 +765,11 @@ public class DataSetComparatorTest {
         }).when(collection1DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection1Iterable = mock(FindIterable.class);
+        when(collection1Iterable.batchSize(anyInt())).thenReturn(collection1Iterable);
         when(collection1Iterable.iterator()).thenReturn(collection1DocumentIterator);
 
         final FindIterable<Document> collection1EmptyIterable = mock(FindIterable.class);
+        when(collection1EmptyIterable.batchSize(anyInt())).thenReturn(collection1EmptyIterable);
         final MongoCursor<Document> collection1EmptyDocumentIterator = mock(MongoCursor.class);
         when(collection1EmptyDocumentIterator.hasNext()).thenReturn(Boolean.FALSE);
         when(collection1EmptyIterable.iterator()).thenReturn(collection1EmptyDocumentIterator);
@@ -803,6 +829,7 @@ public class DataSetComparatorTest {
         when(documentIteratorWithoutEntries.hasNext()).thenReturn(Boolean.FALSE);
 
         final FindIterable<Document> findIterableWithoutEntries = mock(FindIterable.class);
+        when(findIterableWithoutEntries.batchSize(anyInt())).thenReturn(findIterableWithoutEntries);
         when(findIterableWithoutEntries.iterator()).thenReturn(documentIteratorWithoutEntries);
 
         final MongoCollection<Document> collectionWithoutEntries = mock(MongoCollection.class);
@@ -825,9 +852,11 @@ public class DataSetComparatorTest {
         }).when(collection1DocumentIterator).forEachRemaining(any(Consumer.class));
 
         final FindIterable<Document> collection1Iterable = mock(FindIterable.class);
+        when(collection1Iterable.batchSize(anyInt())).thenReturn(collection1Iterable);
         when(collection1Iterable.iterator()).thenReturn(collection1DocumentIterator);
 
         final FindIterable<Document> collection1EmptyIterable = mock(FindIterable.class);
+        when(collection1EmptyIterable.batchSize(anyInt())).thenReturn(collection1EmptyIterable);
         final MongoCursor<Document> collection1EmptyDocumentIterator = mock(MongoCursor.class);
         when(collection1EmptyDocumentIterator.hasNext()).thenReturn(Boolean.FALSE);
         when(collection1EmptyIterable.iterator()).thenReturn(collection1EmptyDocumentIterator);
@@ -853,4 +882,203 @@ public class DataSetComparatorTest {
 
         errorCollector.report();
     }
+
+    @Test
+    public void testEachCollectionIsReadOnceUsingAProjectionOfTheExcludedColumns() {
+        // GIVEN
+        final Document current1 = new Document().append("_id", 1).append("a", "A").append("b", "B").append("version", 3);
+        final Document current2 = new Document().append("_id", 2).append("a", "A2").append("b", "B2").append("version", 7);
+        final MongoCollection<Document> collection = mockCollection(COLLECTION_NAME_1, current1, current2);
+
+        final Document expected1 = new Document().append("a", "A").append("b", "B").append("version", 0);
+        final Document expected2 = new Document().append("a", "A2").append("b", "B2").append("version", 0);
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1, Arrays.asList(expected1, expected2));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {
+                "version"
+        }, false);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+        verify(collection).find();
+        verify(collection, never()).find(any(Document.class));
+        verify(currentEntries).projection(any(Bson.class));
+        verify(currentEntries).batchSize(anyInt());
+    }
+
+    @Test
+    public void testEntriesAreComparedAsMultiset() {
+        // GIVEN
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", "A").append("b", "B"));
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1, Arrays.asList(DOCUMENT_1, DOCUMENT_1));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, false);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString(DOCUMENT_1 + " was expected in [" + COLLECTION_NAME_1 + "], but is not present"));
+        }
+    }
+
+    @Test
+    public void testNumbersAreComparedByValue() {
+        // GIVEN
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", 1L).append("b", new Document("c", 2.0)),
+                new Document().append("_id", 2).append("a", 2.5));
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1,
+                Arrays.asList(new Document().append("a", 2.5), new Document().append("b", new Document("c", 2)).append("a", 1)));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test
+    public void testEntriesWithDifferentFieldsMatchingTheSameDocuments() {
+        // GIVEN
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", 1).append("b", 2),
+                new Document().append("_id", 2).append("a", 1).append("b", 3));
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1,
+                Arrays.asList(new Document().append("a", 1), new Document().append("a", 1).append("b", 2)));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test
+    public void testEntriesWithDifferentFieldsMatchingDocumentsWithSingleCandidate() {
+        // GIVEN
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", 1).append("b", 2),
+                new Document().append("_id", 2).append("a", 1).append("b", 3));
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1,
+                Arrays.asList(new Document().append("a", 1), new Document().append("b", 2)));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+    }
+
+    @Test
+    public void testEntriesWithDifferentFieldsRequiringBacktracking() {
+        // GIVEN
+        final MongoCollection<Document> collection = mockCollection(COLLECTION_NAME_1,
+                new Document().append("_id", 1).append("a", 1).append("b", 2),
+                new Document().append("_id", 2).append("b", 2).append("c", 3),
+                new Document().append("_id", 3).append("a", 1).append("c", 3));
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1, Arrays.asList(new Document().append("a", 1),
+                new Document().append("b", 2), new Document().append("c", 3)));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(0));
+        verify(collection).find();
+    }
+
+    @Test
+    public void testEntriesWithDifferentFieldsMatchOneDocumentEach() {
+        // GIVEN
+        final Document unexpected = new Document().append("_id", 3).append("a", 1).append("b", 2);
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", 1).append("b", 2),
+                new Document().append("_id", 2).append("a", 1).append("b", 3), unexpected);
+
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1,
+                Arrays.asList(new Document().append("a", 1), new Document().append("b", 2)));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString(unexpected + " was not expected in [" + COLLECTION_NAME_1 + "], but is present"));
+        }
+    }
+
+    @Test
+    public void testEntriesWithDifferentFieldsReportMismatches() {
+        // GIVEN
+        final Document unexpected = new Document().append("_id", 2).append("a", 2).append("b", 3);
+        mockCollection(COLLECTION_NAME_1, new Document().append("_id", 1).append("a", 1).append("b", 2), unexpected);
+
+        final Document missing = new Document().append("b", 4);
+        final Document expectedDataSet = new Document().append(COLLECTION_NAME_1,
+                Arrays.asList(new Document().append("a", 1), missing));
+        final DataSetComparator comparator = new DataSetComparator(new String[] {}, true);
+
+        // WHEN
+        comparator.compare(mongoDatabase, expectedDataSet, errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(2));
+
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString(missing + " was expected in [" + COLLECTION_NAME_1 + "], but is not present"));
+            assertThat(e.getMessage(), containsString(unexpected + " was not expected in [" + COLLECTION_NAME_1 + "], but is present"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private MongoCollection<Document> mockCollection(final String collectionName, final Document... documents) {
+        final MongoIterable<String> collectionNames = mock(MongoIterable.class);
+        when(collectionNames.iterator()).thenAnswer((final InvocationOnMock invocation) -> mockCursor(Arrays.asList(collectionName)));
+        when(mongoDatabase.listCollectionNames()).thenReturn(collectionNames);
+
+        currentEntries = mock(FindIterable.class);
+        when(currentEntries.projection(any(Bson.class))).thenReturn(currentEntries);
+        when(currentEntries.batchSize(anyInt())).thenReturn(currentEntries);
+        when(currentEntries.iterator()).thenAnswer((final InvocationOnMock invocation) -> mockCursor(Arrays.asList(documents)));
+
+        final MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(collection.find()).thenReturn(currentEntries);
+        when(mongoDatabase.getCollection(eq(collectionName))).thenReturn(collection);
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MongoCursor<T> mockCursor(final List<T> elements) {
+        final Iterator<T> it = elements.iterator();
+        final MongoCursor<T> cursor = mock(MongoCursor.class);
+        when(cursor.hasNext()).thenAnswer((final InvocationOnMock invocation) -> it.hasNext());
+        when(cursor.next()).thenAnswer((final InvocationOnMock invocation) -> it.next());
+        doAnswer((final InvocationOnMock invocation) -> {
+            it.forEachRemaining((Consumer<T>) invocation.getArguments()[0]);
+            return null;
+        }).when(cursor).forEachRemaining(any(Consumer.class));
+        return cursor;
+    }
 }
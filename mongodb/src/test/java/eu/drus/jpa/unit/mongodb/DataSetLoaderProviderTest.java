@@ -6,15 +6,31 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import org.bson.BsonBinaryWriter;
 import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonParseException;
+import org.bson.types.ObjectId;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
 import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
 
@@ -22,6 +38,9 @@ public class DataSetLoaderProviderTest {
 
     private static final DataSetLoaderProvider LOADER_PROVIDER = new DataSetLoaderProvider();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private static File getFile(final String path) throws URISyntaxException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(path);
         return new File(url.toURI());
@@ -56,7 +75,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final Document document = loader.load(getFile("test-data.json"));
+        final Document document = loader.load(getFile("test-data.json").toPath());
 
         // THEN
         assertThat(document, notNullValue());
@@ -96,9 +115,167 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.yaml"));
+        loader.load(getFile("test-data.yaml").toPath());
 
         // THEN
         // Exception from the parser is thrown
     }
+
+    @Test
+    public void testJsonLoaderLoadsCollectionWithIndexesAndExtendedJson() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("test-data.json");
+        Files.write(file.toPath(),
+                ("{ \"people\": { \"indexes\": [ { \"index\": { \"name\": 1 } } ], "
+                        + "\"data\": [ { \"_id\": { \"$oid\": \"5a0c5e7c6f4a3b2c1d0e9f8a\" }, \"age\": { \"$numberLong\": \"42\" } } ] } }")
+                                .getBytes(StandardCharsets.UTF_8));
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.jsonLoader();
+
+        // WHEN
+        final Document document = loader.load(file.toPath());
+
+        // THEN
+        final Document people = document.get("people", Document.class);
+        final List<Document> indexes = people.get("indexes", List.class);
+        assertThat(indexes, equalTo(Arrays.asList(new Document("index", new Document("name", 1)))));
+        final List<Document> data = people.get("data", List.class);
+        assertThat(data, equalTo(Arrays.asList(new Document("_id", new ObjectId("5a0c5e7c6f4a3b2c1d0e9f8a")).append("age", 42L))));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testJsonLoaderRejectsCollectionContainingValuesOtherThanDocuments() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("test-data.json");
+        Files.write(file.toPath(), "{ \"people\": [ 1, 2 ] }".getBytes(StandardCharsets.UTF_8));
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.jsonLoader();
+
+        // WHEN
+        loader.load(file.toPath());
+
+        // THEN
+        // JsonParseException is thrown
+    }
+
+    @Test
+    public void testBsonLoaderLoadsMongoDumpFile() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("people.bson");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(toBson(new Document("_id", 1).append("name", "foo")));
+            out.write(toBson(new Document("_id", 2).append("nested", new Document("value", "bar"))));
+        }
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.bsonLoader();
+
+        // WHEN
+        final Document document = loader.load(file.toPath());
+
+        // THEN
+        assertThat(document.keySet(), equalTo(Collections.singleton("people")));
+        final List<Document> data = document.get("people", List.class);
+        assertThat(data, equalTo(Arrays.asList(new Document("_id", 1).append("name", "foo"),
+                new Document("_id", 2).append("nested", new Document("value", "bar")))));
+    }
+
+    @Test
+    public void testBsonLoaderLoadsIndexesFromMongoDumpMetadata() throws Exception {
+        // GIVEN
+        final File file = folder.newFile("people.bson");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(toBson(new Document("_id", 1)));
+        }
+        Files.write(folder.newFile("people.metadata.json").toPath(),
+                ("{ \"options\": {}, \"indexes\": [ { \"v\": 2, \"key\": { \"_id\": 1 }, \"name\": \"_id_\", \"ns\": \"db.people\" }, "
+                        + "{ \"v\": 2, \"key\": { \"name\": 1 }, \"name\": \"name_1\", \"unique\": true, \"ns\": \"db.people\" } ] }")
+                                .getBytes(StandardCharsets.UTF_8));
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.bsonLoader();
+
+        // WHEN
+        final Document document = loader.load(file.toPath());
+
+        // THEN
+        final Document people = document.get("people", Document.class);
+        final List<Document> indexes = people.get("indexes", List.class);
+        assertThat(indexes, equalTo(Arrays.asList(new Document("index", new Document("name", 1)).append("options",
+                new Document("name", "name_1").append("unique", true)))));
+        final List<Document> data = people.get("data", List.class);
+        assertThat(data, equalTo(Arrays.asList(new Document("_id", 1))));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBsonLoaderLoadUsingWrongResource() throws Exception {
+        // GIVEN
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.bsonLoader();
+
+        // WHEN
+        loader.load(getFile("test-data.json").toPath());
+
+        // THEN
+        // IOException is thrown
+    }
+
+    private static byte[] toBson(final Document document) {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new DocumentCodec().encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    @Test
+    public void testBinaryLoaderLoadUsingProperResource() throws Exception {
+        // GIVEN
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("BIN_COLLECTION_1").addColumn("bson", ColumnType.BYTES)
+                .addRow(toBson(new Document("id", 1).append("nested", new Document("value", "foo"))));
+        writer.addTable("BIN_COLLECTION_1$indexes").addColumn("bson", ColumnType.BYTES)
+                .addRow(toBson(new Document("index", new Document("id", 1))));
+        writer.addTable("BIN_COLLECTION_2").addColumn("id", ColumnType.INT).addColumn("version", ColumnType.STRING).addRow(2, null);
+        final File file = folder.newFile("test-data.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.write(out);
+        }
+
+        // WHEN
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        final Document document = loader.load(file.toPath());
+
+        // THEN
+        assertThat(document, notNullValue());
+
+        final Set<String> tableNames = document.keySet();
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("BIN_COLLECTION_1", "BIN_COLLECTION_2"));
+
+        final Document collection1 = document.get("BIN_COLLECTION_1", Document.class);
+        final List<Document> indexes = collection1.get("indexes", List.class);
+        assertThat(indexes.size(), equalTo(1));
+        assertThat(indexes.get(0), equalTo(new Document("index", new Document("id", 1))));
+        final List<Document> data = collection1.get("data", List.class);
+        assertThat(data.size(), equalTo(1));
+        assertThat(data.get(0), equalTo(new Document("id", 1).append("nested", new Document("value", "foo"))));
+
+        final List<Document> collection2 = document.get("BIN_COLLECTION_2", List.class);
+        assertThat(collection2.size(), equalTo(1));
+        assertThat(collection2.get(0), equalTo(new Document("id", 2)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBinaryLoaderLoadUsingWrongResource() throws Exception {
+        // WHEN
+        final DataSetLoader<Document> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        loader.load(getFile("test-data.json").toPath());
+
+        // THEN
+        // IOException is thrown
+    }
 }
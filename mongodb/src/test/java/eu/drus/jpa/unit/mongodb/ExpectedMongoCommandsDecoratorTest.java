@@ -0,0 +1,171 @@
+package eu.drus.jpa.unit.mongodb;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.mongodb.profiler.CommandLog;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.TestInvocation;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExpectedMongoCommandsDecoratorTest {
+
+    @Mock
+    private TestInvocation invocation;
+
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private ExecutionContext ctx;
+
+    @Mock
+    private CommandLog log;
+
+    @Mock
+    private ExpectedMongoCommands expectedCommands;
+
+    private ExpectedMongoCommandsDecorator decorator = new ExpectedMongoCommandsDecorator();
+
+    private AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+    @Before
+    public void setupMocks() throws Exception {
+        when(invocation.getContext()).thenReturn(ctx);
+        when(ctx.getData(eq(eu.drus.jpa.unit.spi.Constants.KEY_ASSERTION_ERROR_COLLECTOR))).thenReturn(errorCollector);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getExpectedMongoCommands()).thenReturn(expectedCommands);
+        when(ctx.getData(eq(Constants.KEY_COMMAND_LOG))).thenReturn(log);
+
+        when(expectedCommands.find()).thenReturn(-1);
+        when(expectedCommands.aggregate()).thenReturn(-1);
+        when(expectedCommands.insert()).thenReturn(-1);
+        when(expectedCommands.update()).thenReturn(-1);
+        when(expectedCommands.delete()).thenReturn(-1);
+        when(expectedCommands.findAndModify()).thenReturn(-1);
+        when(expectedCommands.maxTotal()).thenReturn(-1);
+        when(expectedCommands.maxReturnedDocuments()).thenReturn(-1L);
+
+        when(log.count(anyString())).thenReturn(0);
+        when(log.count("find")).thenReturn(11);
+        when(log.count("update")).thenReturn(1);
+        when(log.size()).thenReturn(12);
+        when(log.getReturnedDocuments()).thenReturn(30L);
+        when(log.describe("find")).thenReturn("     10x find address (3 ms, 20 documents returned)\n");
+        when(log.describe(null)).thenReturn("     10x find address (3 ms, 20 documents returned)\n      1x update people\n");
+    }
+
+    @Test
+    public void testExpectedCommandsAreNotVerifiedWithoutAnnotation() throws Exception {
+        // GIVEN
+        when(resolver.getExpectedMongoCommands()).thenReturn(null);
+
+        // WHEN
+        decorator.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(log);
+        verify(ctx).storeData(eq(Constants.KEY_COMMAND_LOG), isNull());
+    }
+
+    @Test
+    public void testExpectedCommandsAreNotVerifiedIfTestFailed() throws Exception {
+        // GIVEN
+        when(expectedCommands.find()).thenReturn(1);
+        when(invocation.getException()).thenReturn(Optional.of(new Exception()));
+
+        // WHEN
+        decorator.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        verifyZeroInteractions(log);
+    }
+
+    @Test
+    public void testMatchingCommandCounts() throws Exception {
+        // GIVEN
+        when(expectedCommands.find()).thenReturn(11);
+        when(expectedCommands.update()).thenReturn(1);
+        when(expectedCommands.insert()).thenReturn(0);
+        when(expectedCommands.maxTotal()).thenReturn(12);
+        when(expectedCommands.maxReturnedDocuments()).thenReturn(30L);
+
+        // WHEN
+        decorator.afterTest(invocation);
+        errorCollector.report();
+
+        // THEN
+        // no AssertionError
+    }
+
+    @Test
+    public void testUnexpectedCommandCountIsReportedWithCommands() throws Exception {
+        // GIVEN
+        when(expectedCommands.find()).thenReturn(2);
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Expected 2 find commands, but 11 were executed"));
+            assertThat(e.getMessage(), containsString("10x find address"));
+            assertThat(e.getMessage(), not(containsString("update people")));
+        }
+    }
+
+    @Test
+    public void testExceededLimitsAreReported() throws Exception {
+        // GIVEN
+        when(expectedCommands.maxTotal()).thenReturn(5);
+        when(expectedCommands.maxReturnedDocuments()).thenReturn(10L);
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Expected at most 5 commands, but 12 were executed"));
+            assertThat(e.getMessage(), containsString("Expected at most 10 returned documents, but 30 were returned"));
+            assertThat(e.getMessage(), containsString("update people"));
+        }
+    }
+
+    @Test
+    public void testRequiredPriority() {
+        // GIVEN
+
+        // WHEN
+        final int priority = decorator.getPriority();
+
+        // THEN
+        assertThat(priority, equalTo(-1));
+    }
+}
@@ -1,25 +1,35 @@
 package eu.drus.jpa.unit.mongodb;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
 
 import eu.drus.jpa.unit.mongodb.ext.Configuration;
 import eu.drus.jpa.unit.mongodb.ext.ConfigurationRegistry;
+import eu.drus.jpa.unit.mongodb.operation.TemplateRegistry;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
 import eu.drus.jpa.unit.spi.TestInvocation;
@@ -45,20 +55,32 @@ public class MongoClientDecoratorTest {
     @Mock
     private TestInvocation invocation;
 
+    @Mock
+    private TemplateRegistry templateRegistry;
+
+    @Captor
+    private ArgumentCaptor<WriteTracker> writeTrackerCaptor;
+
     private MongoClientDecorator decorator;
 
     @Before
     public void prepareTest() throws Exception {
         whenNew(ConfigurationRegistry.class).withAnyArguments().thenReturn(configRegistry);
         whenNew(MongoClient.class).withAnyArguments().thenReturn(mongoClient);
+        whenNew(TemplateRegistry.class).withAnyArguments().thenReturn(templateRegistry);
 
-        when(ctx.getData(eq(Constants.KEY_MONGO_CLIENT))).thenReturn(mongoClient);
         when(configRegistry.getConfiguration(any(PersistenceUnitDescriptor.class))).thenReturn(configuration);
+        when(configuration.getClientOptions()).thenReturn(MongoClientOptions.builder().build());
         when(invocation.getContext()).thenReturn(ctx);
 
         decorator = new MongoClientDecorator();
     }
 
+    @After
+    public void closeClients() {
+        MongoClientDecorator.CLIENTS.closeAll();
+    }
+
     @Test
     public void testRequiredPriority() {
         // GIVEN
@@ -79,17 +101,50 @@ public class MongoClientDecoratorTest {
 
         // THEN
         verify(ctx).storeData(eq(Constants.KEY_MONGO_CLIENT), eq(mongoClient));
+        verify(ctx).storeData(eq(Constants.KEY_WRITE_TRACKER), any(WriteTracker.class));
+        verify(ctx).storeData(eq(Constants.KEY_TEMPLATE_REGISTRY), eq(templateRegistry));
+    }
+
+    @Test
+    public void testClientIsSharedByTestClassesWithEqualConfiguration() throws Throwable {
+        // GIVEN
+        decorator.beforeAll(invocation);
+
+        // WHEN
+        decorator.beforeAll(invocation);
+
+        // THEN
+        verify(ctx, times(2)).storeData(eq(Constants.KEY_WRITE_TRACKER), writeTrackerCaptor.capture());
+        assertThat(writeTrackerCaptor.getAllValues().get(1), sameInstance(writeTrackerCaptor.getAllValues().get(0)));
     }
 
     @Test
     public void testAfterTest() throws Throwable {
         // GIVEN
+        decorator.beforeAll(invocation);
 
         // WHEN
         decorator.afterAll(invocation);
 
         // THEN
-        verify(mongoClient).close();
+        verify(mongoClient, never()).close();
         verify(ctx).storeData(eq(Constants.KEY_MONGO_CLIENT), isNull());
+        verify(ctx).storeData(eq(Constants.KEY_WRITE_TRACKER), isNull());
+        verify(ctx).storeData(eq(Constants.KEY_TEMPLATE_REGISTRY), isNull());
+    }
+
+    @Test
+    public void testTemplatesAreDroppedBeforeClosingTheClient() throws Throwable {
+        // GIVEN
+        decorator.beforeAll(invocation);
+        decorator.afterAll(invocation);
+
+        // WHEN
+        MongoClientDecorator.CLIENTS.closeAll();
+
+        // THEN
+        final InOrder order = inOrder(templateRegistry, mongoClient);
+        order.verify(templateRegistry).dropAll();
+        order.verify(mongoClient).close();
     }
 }
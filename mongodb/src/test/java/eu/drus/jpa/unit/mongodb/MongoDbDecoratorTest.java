@@ -1,6 +1,8 @@
 package eu.drus.jpa.unit.mongodb;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
@@ -9,13 +11,19 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 
+import java.util.Arrays;
 import java.util.Optional;
 
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,10 +32,17 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
 
+import eu.drus.jpa.unit.api.ExpectedMongoCommands;
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
 import eu.drus.jpa.unit.mongodb.ext.Configuration;
 import eu.drus.jpa.unit.mongodb.ext.ConfigurationRegistry;
+import eu.drus.jpa.unit.mongodb.profiler.CommandLog;
+import eu.drus.jpa.unit.mongodb.profiler.CommandProfiler;
+import eu.drus.jpa.unit.mongodb.profiler.ProfiledCommand;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.FeatureResolver;
 import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
@@ -60,6 +75,9 @@ public class MongoDbDecoratorTest {
     @Mock
     private ConfigurationRegistry configRegistry;
 
+    @Mock
+    private FeatureResolver featureResolver;
+
     private MongoDbDecorator decorator;
 
     @Before
@@ -69,6 +87,7 @@ public class MongoDbDecoratorTest {
         whenNew(ConfigurationRegistry.class).withAnyArguments().thenReturn(configRegistry);
 
         when(invocation.getContext()).thenReturn(ctx);
+        when(invocation.getFeatureResolver()).thenReturn(featureResolver);
         when(ctx.getData(eq(Constants.KEY_MONGO_CLIENT))).thenReturn(mongoClient);
         when(ctx.getData(eq(Constants.KEY_MONGO_DB))).thenReturn(mongoDataBase);
         when(ctx.getData(eq(Constants.KEY_FEATURE_EXECUTOR))).thenReturn(executor);
@@ -123,6 +142,72 @@ public class MongoDbDecoratorTest {
         verifyZeroInteractions(mongoClient);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testProfilerIsStartedAfterSeedingIfCommandsAreVerified() throws Throwable {
+        // GIVEN
+        when(featureResolver.getExpectedMongoCommands()).thenReturn(mock(ExpectedMongoCommands.class));
+        when(mongoDataBase.runCommand(any(Bson.class))).thenReturn(new Document("was", 0));
+        when(mongoDataBase.getCollection(anyString())).thenReturn(mock(MongoCollection.class));
+
+        // WHEN
+        decorator.beforeTest(invocation);
+
+        // THEN
+        verify(mongoDataBase).runCommand(eq(new Document("profile", 2)));
+        verify(mongoDataBase).createCollection(eq("system.profile"), any(CreateCollectionOptions.class));
+        verify(ctx).storeData(eq(Constants.KEY_COMMAND_PROFILER), any(CommandProfiler.class));
+    }
+
+    @Test
+    public void testProfilerIsNotStartedIfCommandsAreNotVerified() throws Throwable {
+        // GIVEN
+
+        // WHEN
+        decorator.beforeTest(invocation);
+
+        // THEN
+        verify(ctx, never()).storeData(eq(Constants.KEY_COMMAND_PROFILER), any());
+    }
+
+    @Test
+    public void testForbiddenCollectionScanFailsTestAfterCleanup() throws Throwable {
+        // GIVEN
+        final ForbidFullTableScan forbidFullTableScan = mock(ForbidFullTableScan.class);
+        when(forbidFullTableScan.tables()).thenReturn(new String[] {
+                "people"
+        });
+        when(featureResolver.getForbidFullTableScan()).thenReturn(forbidFullTableScan);
+        when(invocation.getException()).thenReturn(Optional.empty());
+
+        final ProfiledCommand scan = mock(ProfiledCommand.class);
+        when(scan.isCollectionScan()).thenReturn(Boolean.TRUE);
+        when(scan.getCollection()).thenReturn("people");
+        when(scan.getType()).thenReturn("find");
+        when(scan.getPlanSummary()).thenReturn("COLLSCAN");
+        final ProfiledCommand otherScan = mock(ProfiledCommand.class);
+        when(otherScan.isCollectionScan()).thenReturn(Boolean.TRUE);
+        when(otherScan.getCollection()).thenReturn("addresses");
+        final CommandLog commandLog = mock(CommandLog.class);
+        when(commandLog.getCommands()).thenReturn(Arrays.asList(scan, otherScan));
+        final CommandProfiler profiler = mock(CommandProfiler.class);
+        when(profiler.stop()).thenReturn(commandLog);
+        when(ctx.getData(eq(Constants.KEY_COMMAND_PROFILER))).thenReturn(profiler);
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Collection scan on people by find command with plan COLLSCAN"));
+            assertThat(e.getMessage(), not(containsString("addresses")));
+        }
+
+        verify(ctx).storeData(eq(Constants.KEY_COMMAND_LOG), eq(commandLog));
+        verify(executor).executeAfterTest(eq(mongoDataBase), eq(Boolean.FALSE));
+    }
+
     @Test
     public void testRequiredPriority() {
         // GIVEN
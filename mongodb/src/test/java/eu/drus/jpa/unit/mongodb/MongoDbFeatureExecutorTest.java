@@ -15,6 +15,8 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
@@ -28,6 +30,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
@@ -153,6 +156,34 @@ public class MongoDbFeatureExecutorTest {
         verify(connection, never()).runCommand(any(Bson.class));
     }
 
+    @Test
+    public void testApplyCustomScriptFeatureExecutionUsingShellScript() throws DbFeatureException, IOException {
+        // GIVEN
+        final File tmpFile = tmpFolder.newFile();
+        Files.write(tmpFile.toPath(), "db.Customer.drop()".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        final DbFeature<MongoDatabase> feature = featureExecutor.createApplyCustomScriptFeature(Arrays.asList(tmpFile.getPath()));
+        feature.execute(connection);
+
+        // THEN
+        verify(connection).runCommand(eq(new BasicDBObject("$eval", "db.Customer.drop()")));
+    }
+
+    @Test(expected = DbFeatureException.class)
+    public void testApplyCustomScriptFeatureExecutionUsingInvalidCommandScript() throws DbFeatureException, IOException {
+        // GIVEN
+        final File tmpFile = tmpFolder.newFile();
+        Files.write(tmpFile.toPath(), "[ 1, 2 ]".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        final DbFeature<MongoDatabase> feature = featureExecutor.createApplyCustomScriptFeature(Arrays.asList(tmpFile.getPath()));
+        feature.execute(connection);
+
+        // THEN
+        // DbFeatureException is thrown
+    }
+
     @Test(expected = DbFeatureException.class)
     public void testApplyCustomScriptFeatureExecutionUsingNotAvailableFilePaths() throws DbFeatureException {
         // GIVEN
@@ -0,0 +1,168 @@
+package eu.drus.jpa.unit.mongodb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandStartedEvent;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteTrackerTest {
+
+    @Mock
+    private MongoClient client;
+
+    @Mock
+    private MongoDatabase adminDb;
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoDatabase otherConnection;
+
+    private WriteTracker tracker;
+
+    @Before
+    public void prepareMocks() {
+        when(client.getDatabase(eq("admin"))).thenReturn(adminDb);
+        when(connection.getName()).thenReturn("db");
+        when(otherConnection.getName()).thenReturn("other");
+        when(adminDb.runCommand(any(Bson.class))).thenReturn(top(0, 0));
+
+        tracker = new WriteTracker();
+        tracker.track(client);
+    }
+
+    private static Document top(final int writesOfCollection1, final int writesOfCollection2) {
+        return new Document("totals", new Document("note", "all times in microseconds")
+                .append("db.collection_1", new Document("insert", new Document("time", 10).append("count", writesOfCollection1))
+                        .append("writeLock", new Document("time", 10).append("count", writesOfCollection1)))
+                .append("db.collection_2", new Document("update", new Document("time", 10).append("count", writesOfCollection2)))
+                .append("other.collection_3", new Document("remove", new Document("time", 10).append("count", 1))));
+    }
+
+    private static CommandStartedEvent commandStarted(final String commandName, final BsonDocument command) {
+        return commandStarted("db", commandName, command);
+    }
+
+    private static CommandStartedEvent commandStarted(final String databaseName, final String commandName, final BsonDocument command) {
+        return new CommandStartedEvent(1, null, databaseName, commandName, command);
+    }
+
+    @Test
+    public void testWrittenCollectionsAreNotKnownBeforeFirstReset() {
+        // GIVEN
+
+        // WHEN
+        tracker.commandStarted(commandStarted("insert", new BsonDocument("insert", new BsonString("collection_1"))));
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection), nullValue());
+    }
+
+    @Test
+    public void testWritesOfOtherClientsAreDeterminedUsingServerStatistics() {
+        // GIVEN
+        tracker.reset(connection);
+        when(adminDb.runCommand(any(Bson.class))).thenReturn(top(0, 2));
+
+        // WHEN
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection), equalTo(new HashSet<>(Arrays.asList("collection_2"))));
+    }
+
+    @Test
+    public void testWriteCommandsAndAggregationOutputsAreRecorded() {
+        // GIVEN
+        tracker.reset(connection);
+
+        // WHEN
+        tracker.commandStarted(commandStarted("delete", new BsonDocument("delete", new BsonString("collection_4"))));
+        tracker.commandStarted(commandStarted("find", new BsonDocument("find", new BsonString("collection_5"))));
+        tracker.commandStarted(commandStarted("aggregate", new BsonDocument("aggregate", new BsonString("collection_1")).append("pipeline",
+                new BsonArray(Arrays.asList(new BsonDocument("$match", new BsonDocument("a", new BsonInt32(1))),
+                        new BsonDocument("$out", new BsonString("collection_6")))))));
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection), equalTo(new HashSet<>(Arrays.asList("collection_4", "collection_6"))));
+    }
+
+    @Test
+    public void testResetForgetsRecordedWrites() {
+        // GIVEN
+        tracker.reset(connection);
+        tracker.commandStarted(commandStarted("update", new BsonDocument("update", new BsonString("collection_4"))));
+
+        // WHEN
+        tracker.reset(connection);
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection).isEmpty(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testWrittenCollectionsAreNotKnownIfServerStatisticsAreNotAvailable() {
+        // GIVEN
+        when(adminDb.runCommand(any(Bson.class)))
+                .thenThrow(new MongoCommandException(new BsonDocument("ok", new BsonInt32(0)), new ServerAddress()));
+
+        // WHEN
+        tracker.reset(connection);
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection), nullValue());
+    }
+
+    @Test
+    public void testWrittenCollectionsAreNotKnownBeforeFirstResetOfTheDatabase() {
+        // GIVEN
+
+        // WHEN
+        tracker.reset(connection);
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection).isEmpty(), equalTo(Boolean.TRUE));
+        assertThat(tracker.getWrittenCollections(otherConnection), nullValue());
+    }
+
+    @Test
+    public void testResetKeepsWritesOfOtherDatabases() {
+        // GIVEN
+        tracker.reset(connection);
+        tracker.reset(otherConnection);
+        tracker.commandStarted(commandStarted("insert", new BsonDocument("insert", new BsonString("collection_4"))));
+        tracker.commandStarted(commandStarted("other", "insert", new BsonDocument("insert", new BsonString("collection_7"))));
+        when(adminDb.runCommand(any(Bson.class))).thenReturn(top(0, 2));
+
+        // WHEN
+        tracker.reset(connection);
+
+        // THEN
+        assertThat(tracker.getWrittenCollections(connection).isEmpty(), equalTo(Boolean.TRUE));
+        assertThat(tracker.getWrittenCollections(otherConnection), equalTo(new HashSet<>(Arrays.asList("collection_7"))));
+    }
+}
@@ -3,24 +3,31 @@ package eu.drus.jpa.unit.mongodb.operation;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.WriteModel;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DeleteOperationTest {
@@ -36,6 +43,9 @@ public class DeleteOperationTest {
     @Mock
     private MongoCollection<Document> collection;
 
+    @Captor
+    private ArgumentCaptor<List<? extends WriteModel<Document>>> modelsCaptor;
+
     private DeleteOperation operation = new DeleteOperation();
 
     @Before
@@ -43,6 +53,7 @@ public class DeleteOperationTest {
         when(connection.getCollection(anyString())).thenReturn(collection);
     }
 
+    @SuppressWarnings("unchecked")
     @Test
     public void testOperationExecution() {
         // GIVEN
@@ -61,11 +72,31 @@ public class DeleteOperationTest {
         assertThat(capturedCollectionNames.size(), equalTo(2));
         assertThat(capturedCollectionNames, hasItems(COLLECTION_NAME_1, COLLECTION_NAME_2));
 
-        final ArgumentCaptor<Document> documentCaptor = ArgumentCaptor.forClass(Document.class);
-        verify(collection, times(2)).deleteOne(documentCaptor.capture());
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), any(BulkWriteOptions.class));
+
+        final List<Bson> capturedFilters = new ArrayList<>();
+        for (final List<? extends WriteModel<Document>> models : modelsCaptor.getAllValues()) {
+            assertThat(models.size(), equalTo(1));
+            capturedFilters.add(((DeleteOneModel<Document>) models.get(0)).getFilter());
+        }
+        assertThat(capturedFilters, hasItems(DOCUMENT_1, DOCUMENT_2));
+    }
+
+    @Test
+    public void testDocumentsAreDeletedUnorderedInChunks() {
+        // GIVEN
+        final Document data = new Document().append(COLLECTION_NAME_1, Arrays.asList(DOCUMENT_1, DOCUMENT_2, DOCUMENT_1));
+        final DeleteOperation fixture = new DeleteOperation(2);
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        final ArgumentCaptor<BulkWriteOptions> optionsCaptor = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
 
-        final List<Document> capturedDocuments = documentCaptor.getAllValues();
-        assertThat(capturedDocuments.size(), equalTo(2));
-        assertThat(capturedDocuments, hasItems(DOCUMENT_1, DOCUMENT_2));
+        assertThat(modelsCaptor.getAllValues().get(0).size(), equalTo(2));
+        assertThat(modelsCaptor.getAllValues().get(1).size(), equalTo(1));
+        assertThat(optionsCaptor.getValue().isOrdered(), equalTo(Boolean.FALSE));
     }
 }
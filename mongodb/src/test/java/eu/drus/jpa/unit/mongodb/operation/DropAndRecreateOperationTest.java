@@ -0,0 +1,135 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.client.ListCollectionsIterable;
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DropAndRecreateOperationTest {
+
+    private static final String COLLECTION_NAME = "some_collection";
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private ListCollectionsIterable<Document> collectionInfos;
+
+    @Mock
+    private ListIndexesIterable<Document> indexes;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void prepareMocks() {
+        when(connection.getName()).thenReturn("db");
+        when(connection.getCollection(eq(COLLECTION_NAME))).thenReturn(collection);
+        when(connection.listCollections()).thenReturn(collectionInfos);
+        when(collectionInfos.filter(any(Bson.class))).thenReturn(collectionInfos);
+        when(collectionInfos.first()).thenReturn(new Document("name", COLLECTION_NAME).append("type", "collection")
+                .append("options", new Document("capped", true).append("size", 4096)));
+        when(collection.listIndexes()).thenReturn(indexes);
+
+        final List<Document> indexList = Arrays.asList(
+                new Document("v", 2).append("key", new Document("_id", 1)).append("name", "_id_").append("ns", "db." + COLLECTION_NAME),
+                new Document("v", 2).append("key", new Document("a", 1)).append("name", "a_1").append("unique", true).append("ns",
+                        "db." + COLLECTION_NAME));
+        when(indexes.iterator()).thenAnswer((final InvocationOnMock invocation) -> {
+            final Iterator<Document> it = indexList.iterator();
+            final MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> it.hasNext());
+            when(cursor.next()).thenAnswer(i -> it.next());
+            return cursor;
+        });
+    }
+
+    @Test
+    public void testCollectionIsRecreatedWithOptionsAndIndexes() {
+        // GIVEN
+        final DropAndRecreateOperation operation = new DropAndRecreateOperation(new CollectionDefinitions());
+
+        // WHEN
+        operation.execute(connection, new Document(COLLECTION_NAME, Arrays.asList()));
+
+        // THEN
+        verify(collection).drop();
+
+        final ArgumentCaptor<Bson> commandCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(connection, times(2)).runCommand(commandCaptor.capture());
+
+        final List<Bson> commands = commandCaptor.getAllValues();
+        assertThat(commands.get(0), equalTo(new Document("create", COLLECTION_NAME).append("capped", true).append("size", 4096)));
+        assertThat(commands.get(1), equalTo(new Document("createIndexes", COLLECTION_NAME).append("indexes",
+                Arrays.asList(new Document("key", new Document("a", 1)).append("name", "a_1").append("unique", true)))));
+    }
+
+    @Test
+    public void testDefinitionIsCapturedOnce() {
+        // GIVEN
+        final DropAndRecreateOperation operation = new DropAndRecreateOperation(new CollectionDefinitions());
+
+        // WHEN
+        operation.execute(connection, new Document(COLLECTION_NAME, Arrays.asList()));
+        operation.execute(connection, new Document(COLLECTION_NAME, Arrays.asList()));
+
+        // THEN
+        verify(collection, times(2)).drop();
+        verify(collection).listIndexes();
+        verify(connection).listCollections();
+    }
+
+    @Test
+    public void testNotExistingCollectionIsNotRecreated() {
+        // GIVEN
+        when(collectionInfos.first()).thenReturn(null);
+        final DropAndRecreateOperation operation = new DropAndRecreateOperation(new CollectionDefinitions());
+
+        // WHEN
+        operation.execute(connection, new Document(COLLECTION_NAME, Arrays.asList()));
+
+        // THEN
+        verify(collection, never()).drop();
+        verify(connection, never()).runCommand(any(Bson.class));
+    }
+
+    @Test
+    public void testIndexesOfDroppedCollectionAreForgotten() {
+        // GIVEN
+        final IndexRegistry indexRegistry = mock(IndexRegistry.class);
+        final DropAndRecreateOperation operation = new DropAndRecreateOperation(new CollectionDefinitions(), indexRegistry);
+
+        // WHEN
+        operation.execute(connection, new Document(COLLECTION_NAME, Arrays.asList()));
+
+        // THEN
+        verify(indexRegistry).forget(eq(connection), eq(COLLECTION_NAME));
+    }
+}
@@ -0,0 +1,138 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IndexRegistryTest {
+
+    private static final String COLLECTION_NAME = "some_collection";
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private ListIndexesIterable<Document> indexes;
+
+    @Captor
+    private ArgumentCaptor<List<IndexModel>> indexModelCaptor;
+
+    private List<Document> existingIndexes;
+
+    private IndexRegistry registry = new IndexRegistry();
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void prepareMocks() {
+        existingIndexes = new ArrayList<>();
+        existingIndexes.add(new Document("v", 2).append("key", new Document("_id", 1)).append("name", "_id_"));
+        existingIndexes.add(new Document("v", 2).append("key", new Document("a", 1)).append("name", "a_1").append("unique", true)
+                .append("expireAfterSeconds", 30));
+
+        when(connection.getName()).thenReturn("db");
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("db", COLLECTION_NAME));
+        when(collection.listIndexes()).thenReturn(indexes);
+        when(indexes.iterator()).thenAnswer((final InvocationOnMock invocation) -> {
+            final Iterator<Document> it = existingIndexes.iterator();
+            final MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> it.hasNext());
+            when(cursor.next()).thenAnswer(i -> it.next());
+            return cursor;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testExistingIndexIsNotCreated() {
+        // GIVEN
+        final Document index = new Document("index", new Document("a", 1)).append("options",
+                new Document("unique", true).append("expireAfterSeconds", 30L));
+
+        // WHEN
+        registry.createIndexes(collection, Arrays.asList(index));
+
+        // THEN
+        verify(collection, never()).createIndexes(any(List.class));
+    }
+
+    @Test
+    public void testMissingIndexesAreCreatedUsingOneCommand() {
+        // GIVEN
+        final Document index1 = new Document("index", new Document("a", 1)).append("options", new Document("unique", false));
+        final Document index2 = new Document("index", new Document("b", 1).append("c", -1));
+
+        // WHEN
+        registry.createIndexes(collection, Arrays.asList(index1, index2));
+
+        // THEN
+        verify(collection).createIndexes(indexModelCaptor.capture());
+
+        final List<IndexModel> indexModels = indexModelCaptor.getValue();
+        assertThat(indexModels.size(), equalTo(2));
+        assertThat(indexModels.get(0).getKeys(), equalTo(new Document("a", 1)));
+        assertThat(indexModels.get(1).getKeys(), equalTo(new Document("b", 1).append("c", -1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCreatedIndexesAreRegistered() {
+        // GIVEN
+        final Document index = new Document("index", new Document("b", 1).append("c", -1)).append("options",
+                new Document("sparse", true));
+
+        // WHEN
+        registry.createIndexes(collection, Arrays.asList(index));
+        registry.createIndexes(collection, Arrays.asList(index));
+
+        // THEN
+        verify(collection).listIndexes();
+        verify(collection, times(1)).createIndexes(any(List.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIndexesOfForgottenCollectionAreReadAgain() {
+        // GIVEN
+        final Document index = new Document("index", new Document("b", 1));
+        registry.createIndexes(collection, Arrays.asList(index));
+
+        // WHEN
+        registry.forget(connection, COLLECTION_NAME);
+        registry.createIndexes(collection, Arrays.asList(index));
+
+        // THEN
+        verify(collection, times(2)).listIndexes();
+        verify(collection, times(2)).createIndexes(any(List.class));
+    }
+}
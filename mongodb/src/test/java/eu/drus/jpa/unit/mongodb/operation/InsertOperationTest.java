@@ -3,7 +3,11 @@ package eu.drus.jpa.unit.mongodb.operation;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,6 +18,7 @@ import java.util.HashSet;
 import java.util.List;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,7 +29,9 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class InsertOperationTest {
@@ -46,6 +53,9 @@ public class InsertOperationTest {
     @Captor
     private ArgumentCaptor<List<Document>> documentCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<IndexModel>> indexModelCaptor;
+
     private InsertOperation operation = new InsertOperation();
 
     @Before
@@ -70,7 +80,7 @@ public class InsertOperationTest {
         assertThat(capturedCollectionNames.size(), equalTo(2));
         assertThat(capturedCollectionNames, hasItems(COLLECTION_NAME_1, COLLECTION_NAME_2));
 
-        verify(collection, times(2)).insertMany(documentCaptor.capture());
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), any(InsertManyOptions.class));
 
         final List<List<Document>> capturedDocuments = documentCaptor.getAllValues();
         assertThat(capturedDocuments.size(), equalTo(2));
@@ -96,7 +106,7 @@ public class InsertOperationTest {
         assertThat(capturedCollectionNames.size(), equalTo(2));
         assertThat(capturedCollectionNames, hasItems(COLLECTION_NAME_1, COLLECTION_NAME_2));
 
-        verify(collection, times(2)).insertMany(documentCaptor.capture());
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), any(InsertManyOptions.class));
 
         final List<List<Document>> capturedDocuments = documentCaptor.getAllValues();
         assertThat(capturedDocuments.size(), equalTo(2));
@@ -126,13 +136,17 @@ public class InsertOperationTest {
         assertThat(capturedCollectionNames.size(), equalTo(2));
         assertThat(capturedCollectionNames, hasItems(COLLECTION_NAME_1, COLLECTION_NAME_2));
 
-        final ArgumentCaptor<Document> indexCaptor = ArgumentCaptor.forClass(Document.class);
-        verify(collection, times(2)).createIndex(indexCaptor.capture());
-        final List<Document> capturedIndexes = indexCaptor.getAllValues();
-        assertThat(capturedIndexes.size(), equalTo(2));
+        verify(collection, times(2)).createIndexes(indexModelCaptor.capture());
+        final List<List<IndexModel>> capturedIndexModels = indexModelCaptor.getAllValues();
+        assertThat(capturedIndexModels.size(), equalTo(2));
+        assertThat(capturedIndexModels.get(0).size(), equalTo(1));
+        assertThat(capturedIndexModels.get(1).size(), equalTo(1));
+
+        final List<Bson> capturedIndexes = Arrays.asList(capturedIndexModels.get(0).get(0).getKeys(),
+                capturedIndexModels.get(1).get(0).getKeys());
         assertThat(capturedIndexes, hasItems(index1, index2));
 
-        verify(collection, times(2)).insertMany(documentCaptor.capture());
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), any(InsertManyOptions.class));
 
         final List<List<Document>> capturedDocuments = documentCaptor.getAllValues();
         assertThat(capturedDocuments.size(), equalTo(2));
@@ -167,20 +181,80 @@ public class InsertOperationTest {
         assertThat(capturedCollectionNames.size(), equalTo(2));
         assertThat(capturedCollectionNames, hasItems(COLLECTION_NAME_1, COLLECTION_NAME_2));
 
-        final ArgumentCaptor<Document> indexCaptor = ArgumentCaptor.forClass(Document.class);
-        final ArgumentCaptor<IndexOptions> optionsCaptor = ArgumentCaptor.forClass(IndexOptions.class);
-        verify(collection, times(2)).createIndex(indexCaptor.capture(), optionsCaptor.capture());
-        final List<Document> capturedIndexes = indexCaptor.getAllValues();
-        assertThat(capturedIndexes.size(), equalTo(2));
+        verify(collection, times(2)).createIndexes(indexModelCaptor.capture());
+        final List<List<IndexModel>> capturedIndexModels = indexModelCaptor.getAllValues();
+        assertThat(capturedIndexModels.size(), equalTo(2));
+
+        final List<IndexModel> indexModels = Arrays.asList(capturedIndexModels.get(0).get(0), capturedIndexModels.get(1).get(0));
+        final List<Bson> capturedIndexes = Arrays.asList(indexModels.get(0).getKeys(), indexModels.get(1).getKeys());
         assertThat(capturedIndexes, hasItems(index1, index2));
 
-        final List<IndexOptions> indexOptions = optionsCaptor.getAllValues();
-        assertThat(indexOptions.size(), equalTo(2));
+        final IndexOptions indexOptions = indexModels.get(capturedIndexes.indexOf(index2)).getOptions();
+        assertThat(indexOptions.getName(), equalTo("foo"));
+        assertThat(indexOptions.isUnique(), equalTo(Boolean.TRUE));
 
-        verify(collection, times(2)).insertMany(documentCaptor.capture());
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), any(InsertManyOptions.class));
 
         final List<List<Document>> capturedDocuments = documentCaptor.getAllValues();
         assertThat(capturedDocuments.size(), equalTo(2));
         assertThat(capturedDocuments, hasItems(values1, values2));
     }
+
+    @Test
+    public void testDocumentsAreInsertedUnorderedInChunks() {
+        // GIVEN
+        final List<Document> values = Arrays.asList(DOCUMENT_1, DOCUMENT_2, DOCUMENT_1);
+        final Document data = new Document().append(COLLECTION_NAME_1, values);
+        final InsertOperation fixture = new InsertOperation(2);
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        final ArgumentCaptor<InsertManyOptions> optionsCaptor = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), optionsCaptor.capture());
+
+        assertThat(documentCaptor.getAllValues(), equalTo(Arrays.asList(values.subList(0, 2), values.subList(2, 3))));
+        assertThat(optionsCaptor.getValue().isOrdered(), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testChunkSizeIsConfiguredBySystemProperty() {
+        // GIVEN
+        final List<Document> values = Arrays.asList(DOCUMENT_1, DOCUMENT_2, DOCUMENT_1);
+        final Document data = new Document().append(COLLECTION_NAME_1, values);
+        System.setProperty(BulkWriteSupport.CHUNK_SIZE_PROPERTY, "2");
+        final InsertOperation fixture;
+        try {
+            fixture = new InsertOperation();
+        } finally {
+            System.clearProperty(BulkWriteSupport.CHUNK_SIZE_PROPERTY);
+        }
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        verify(collection, times(2)).insertMany(documentCaptor.capture(), any(InsertManyOptions.class));
+        assertThat(documentCaptor.getAllValues(), equalTo(Arrays.asList(values.subList(0, 2), values.subList(2, 3))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIndexesKnownToTheIndexRegistryAreNotCreatedAgain() {
+        // GIVEN
+        final Document index = new Document().append("index", new Document().append("a", 1));
+        final Document data = new Document().append(COLLECTION_NAME_1,
+                new Document().append("data", Arrays.asList(DOCUMENT_1)).append("indexes", Arrays.asList(index)));
+        final IndexRegistry indexRegistry = mock(IndexRegistry.class);
+        final InsertOperation fixture = new InsertOperation(indexRegistry);
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        verify(indexRegistry).createIndexes(eq(collection), eq(Arrays.asList(index)));
+        verify(collection, never()).createIndexes(any(List.class));
+        verify(collection).insertMany(eq(Arrays.asList(DOCUMENT_1)), any(InsertManyOptions.class));
+    }
 }
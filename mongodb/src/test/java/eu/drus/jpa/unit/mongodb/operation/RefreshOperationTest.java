@@ -2,29 +2,32 @@ package eu.drus.jpa.unit.mongodb.operation;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.bson.Document;
-import org.bson.conversions.Bson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RefreshOperationTest {
@@ -33,6 +36,7 @@ public class RefreshOperationTest {
     private static final String USER_DEFINED_COLLECTION_NAME_2 = "some_collection_2";
     private static final Document DOCUMENT_1 = new Document().append("_id", "id1").append("key1", "val1");
     private static final Document DOCUMENT_2 = new Document().append("_id", "id2").append("key2", "val2");
+    private static final Document DOCUMENT_WITHOUT_ID = new Document().append("key3", "val3");
 
     @Mock
     private MongoDatabase connection;
@@ -40,22 +44,23 @@ public class RefreshOperationTest {
     @Mock
     private MongoCollection<Document> collection;
 
-    @Mock
-    private UpdateResult result;
+    @Captor
+    private ArgumentCaptor<List<? extends WriteModel<Document>>> modelsCaptor;
+
+    @Captor
+    private ArgumentCaptor<BulkWriteOptions> optionsCaptor;
 
     private RefreshOperation operation = new RefreshOperation();
 
     @Before
     public void prepareMocks() {
         when(connection.getCollection(anyString())).thenReturn(collection);
-        when(collection.replaceOne(any(Bson.class), any(Document.class))).thenReturn(result);
     }
 
+    @SuppressWarnings("unchecked")
     @Test
-    public void testDocumentIsInsertedIfNotKnown() {
+    public void testDocumentsAreUpserted() {
         // GIVEN
-        when(result.getMatchedCount()).thenReturn(Long.valueOf(0));
-
         final Document data = new Document().append(USER_DEFINED_COLLECTION_NAME_2, Arrays.asList(DOCUMENT_1))
                 .append(USER_DEFINED_COLLECTION_NAME_1, Arrays.asList(DOCUMENT_2));
 
@@ -63,35 +68,51 @@ public class RefreshOperationTest {
         operation.execute(connection, data);
 
         // THEN
-        verify(collection, times(2)).replaceOne(any(Bson.class), any(Document.class));
-
-        final ArgumentCaptor<Document> documentCaptor = ArgumentCaptor.forClass(Document.class);
-        verify(collection, times(2)).insertOne(documentCaptor.capture());
-
-        final List<Document> capturedDocuments = documentCaptor.getAllValues();
-        assertThat(capturedDocuments.size(), equalTo(2));
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
+
+        final List<Document> capturedDocuments = new ArrayList<>();
+        for (final List<? extends WriteModel<Document>> models : modelsCaptor.getAllValues()) {
+            assertThat(models.size(), equalTo(1));
+            final ReplaceOneModel<Document> model = (ReplaceOneModel<Document>) models.get(0);
+            assertThat(model.getOptions().isUpsert(), equalTo(Boolean.TRUE));
+            capturedDocuments.add(model.getReplacement());
+        }
         assertThat(capturedDocuments, hasItems(DOCUMENT_1, DOCUMENT_2));
+        assertThat(optionsCaptor.getValue().isOrdered(), equalTo(Boolean.FALSE));
     }
 
+    @SuppressWarnings("unchecked")
     @Test
-    public void testDocumentIsReplacedIfKnown() {
+    public void testDocumentWithoutIdIsInserted() {
         // GIVEN
-        when(result.getMatchedCount()).thenReturn(Long.valueOf(1));
-
-        final Document data = new Document().append(USER_DEFINED_COLLECTION_NAME_2, Arrays.asList(DOCUMENT_1))
-                .append(USER_DEFINED_COLLECTION_NAME_1, Arrays.asList(DOCUMENT_2));
+        final Document data = new Document().append(USER_DEFINED_COLLECTION_NAME_1, Arrays.asList(DOCUMENT_1, DOCUMENT_WITHOUT_ID));
 
         // WHEN
         operation.execute(connection, data);
 
         // THEN
-        final ArgumentCaptor<Document> documentCaptor = ArgumentCaptor.forClass(Document.class);
-        verify(collection, times(2)).replaceOne(any(Bson.class), documentCaptor.capture());
+        verify(collection).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
 
-        final List<Document> capturedDocuments = documentCaptor.getAllValues();
-        assertThat(capturedDocuments.size(), equalTo(2));
-        assertThat(capturedDocuments, hasItems(DOCUMENT_1, DOCUMENT_2));
+        final List<? extends WriteModel<Document>> models = modelsCaptor.getValue();
+        assertThat(models.size(), equalTo(2));
+        assertThat(models.get(0), instanceOf(ReplaceOneModel.class));
+        assertThat(models.get(1), instanceOf(InsertOneModel.class));
+        assertThat(((InsertOneModel<Document>) models.get(1)).getDocument(), equalTo(DOCUMENT_WITHOUT_ID));
+    }
+
+    @Test
+    public void testDocumentsAreUpsertedInChunks() {
+        // GIVEN
+        final Document data = new Document().append(USER_DEFINED_COLLECTION_NAME_1, Arrays.asList(DOCUMENT_1, DOCUMENT_2, DOCUMENT_1));
+        final RefreshOperation fixture = new RefreshOperation(2);
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
 
-        verify(collection, never()).insertOne(any(Document.class));
+        assertThat(modelsCaptor.getAllValues().get(0).size(), equalTo(2));
+        assertThat(modelsCaptor.getAllValues().get(1).size(), equalTo(1));
     }
 }
@@ -0,0 +1,153 @@
+package eu.drus.jpa.unit.mongodb.operation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.InsertManyOptions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TemplateInsertOperationTest {
+
+    private static final String DATA_SET_KEY = "data-set.json";
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoDatabase templateDatabase;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private MongoCollection<Document> templateCollection;
+
+    @Mock
+    private MongoCollection<Document> stagingCollection;
+
+    @Mock
+    private AggregateIterable<Document> aggregation;
+
+    @Mock
+    private TemplateRegistry templateRegistry;
+
+    @Mock
+    private CollectionDefinitions collectionDefinitions;
+
+    @Mock
+    private IndexRegistry indexRegistry;
+
+    @Mock
+    private MongoDbOperation insertOperation;
+
+    @Captor
+    private ArgumentCaptor<List<Document>> documentsCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<IndexModel>> indexCaptor;
+
+    private TemplateInsertOperation operation;
+
+    private final Document data = new Document("people",
+            new Document("indexes", Arrays.asList(new Document("index", new Document("name", 1)))).append("data",
+                    Arrays.asList(new Document("_id", 1), new Document("_id", 2))));
+
+    @Before
+    public void prepareMocks() {
+        when(connection.getName()).thenReturn("db");
+        when(connection.getCollection("people")).thenReturn(collection);
+        when(templateRegistry.getTemplateDatabase(connection)).thenReturn(templateDatabase);
+        when(templateRegistry.newTemplatePrefix()).thenReturn("t1.");
+        when(templateDatabase.getCollection("t1.people")).thenReturn(templateCollection);
+        when(templateDatabase.getCollection("t1.people.staging")).thenReturn(stagingCollection);
+        when(templateCollection.aggregate(anyList())).thenReturn(aggregation);
+        when(collection.count(any(Bson.class), any(CountOptions.class))).thenReturn(0L);
+        when(collectionDefinitions.getCreateCommands(connection, "people"))
+                .thenReturn(Arrays.asList(new Document("create", "people").append("capped", true),
+                        new Document("createIndexes", "people").append("indexes", Arrays.asList(new Document("name", "a_1")))));
+
+        operation = new TemplateInsertOperation(templateRegistry, DATA_SET_KEY, collectionDefinitions, indexRegistry, insertOperation);
+    }
+
+    @Test
+    public void testTemplatesAreCreatedOnFirstSeed() {
+        // GIVEN
+
+        // WHEN
+        operation.execute(connection, data);
+
+        // THEN
+        final InOrder order = inOrder(templateCollection, templateRegistry);
+        order.verify(templateCollection).drop();
+        order.verify(templateCollection).insertMany(documentsCaptor.capture(), any(InsertManyOptions.class));
+        order.verify(templateRegistry).register(connection, DATA_SET_KEY, "t1.");
+        assertThat(documentsCaptor.getValue(), equalTo(Arrays.asList(new Document("_id", 1), new Document("_id", 2))));
+        verify(templateCollection, never()).createIndexes(anyList());
+    }
+
+    @Test
+    public void testTemplateIsCopiedToCollection() {
+        // GIVEN
+        when(templateRegistry.getTemplatePrefix(connection, DATA_SET_KEY)).thenReturn("t1.");
+
+        // WHEN
+        operation.execute(connection, data);
+
+        // THEN
+        verify(templateRegistry, never()).register(any(MongoDatabase.class), anyString(), anyString());
+        verify(templateCollection, never()).insertMany(anyList(), any(InsertManyOptions.class));
+
+        final InOrder order = inOrder(stagingCollection, templateDatabase, aggregation, templateRegistry, indexRegistry);
+        order.verify(stagingCollection).drop();
+        order.verify(templateDatabase).runCommand(eq(new Document("create", "t1.people.staging").append("capped", true)));
+        order.verify(templateDatabase).runCommand(
+                eq(new Document("createIndexes", "t1.people.staging").append("indexes", Arrays.asList(new Document("name", "a_1")))));
+        order.verify(stagingCollection).createIndexes(indexCaptor.capture());
+        order.verify(aggregation).toCollection();
+        order.verify(templateRegistry).moveFromTemplateDatabase(connection, "t1.people.staging", "people");
+        order.verify(indexRegistry).forget(connection, "people");
+        assertThat(indexCaptor.getValue().size(), equalTo(1));
+        verify(insertOperation, never()).execute(any(MongoDatabase.class), any(Document.class));
+    }
+
+    @Test
+    public void testCollectionContainingDocumentsIsSeededByInsertOperation() {
+        // GIVEN
+        when(templateRegistry.getTemplatePrefix(connection, DATA_SET_KEY)).thenReturn("t1.");
+        when(collection.count(any(Bson.class), any(CountOptions.class))).thenReturn(1L);
+
+        // WHEN
+        operation.execute(connection, data);
+
+        // THEN
+        verify(insertOperation).execute(connection, new Document("people", data.get("people")));
+        verify(templateRegistry, never()).moveFromTemplateDatabase(any(MongoDatabase.class), anyString(), anyString());
+    }
+}
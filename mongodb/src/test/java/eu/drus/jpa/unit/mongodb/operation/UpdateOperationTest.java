@@ -3,27 +3,29 @@ package eu.drus.jpa.unit.mongodb.operation;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.bson.Document;
-import org.bson.conversions.Bson;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
 
 @RunWith(MockitoJUnitRunner.class)
 public class UpdateOperationTest {
@@ -39,8 +41,11 @@ public class UpdateOperationTest {
     @Mock
     private MongoCollection<Document> collection;
 
-    @Mock
-    private UpdateResult result;
+    @Captor
+    private ArgumentCaptor<List<? extends WriteModel<Document>>> modelsCaptor;
+
+    @Captor
+    private ArgumentCaptor<BulkWriteOptions> optionsCaptor;
 
     private UpdateOperation operation = new UpdateOperation();
 
@@ -49,6 +54,7 @@ public class UpdateOperationTest {
         when(connection.getCollection(anyString())).thenReturn(collection);
     }
 
+    @SuppressWarnings("unchecked")
     @Test
     public void testOperationExecution() {
         // GIVEN
@@ -59,11 +65,32 @@ public class UpdateOperationTest {
         operation.execute(connection, data);
 
         // THEN
-        final ArgumentCaptor<Document> documentCaptor = ArgumentCaptor.forClass(Document.class);
-        verify(collection, times(2)).replaceOne(any(Bson.class), documentCaptor.capture());
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
 
-        final List<Document> capturedDocuments = documentCaptor.getAllValues();
-        assertThat(capturedDocuments.size(), equalTo(2));
+        final List<Document> capturedDocuments = new ArrayList<>();
+        for (final List<? extends WriteModel<Document>> models : modelsCaptor.getAllValues()) {
+            assertThat(models.size(), equalTo(1));
+            final ReplaceOneModel<Document> model = (ReplaceOneModel<Document>) models.get(0);
+            assertThat(model.getOptions().isUpsert(), equalTo(Boolean.FALSE));
+            capturedDocuments.add(model.getReplacement());
+        }
         assertThat(capturedDocuments, hasItems(DOCUMENT_1, DOCUMENT_2));
+        assertThat(optionsCaptor.getValue().isOrdered(), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testDocumentsAreReplacedInChunks() {
+        // GIVEN
+        final Document data = new Document().append(USER_DEFINED_COLLECTION_NAME_1, Arrays.asList(DOCUMENT_1, DOCUMENT_2, DOCUMENT_1));
+        final UpdateOperation fixture = new UpdateOperation(2);
+
+        // WHEN
+        fixture.execute(connection, data);
+
+        // THEN
+        verify(collection, times(2)).bulkWrite(modelsCaptor.capture(), optionsCaptor.capture());
+
+        assertThat(modelsCaptor.getAllValues().get(0).size(), equalTo(2));
+        assertThat(modelsCaptor.getAllValues().get(1).size(), equalTo(1));
     }
 }
@@ -0,0 +1,54 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class CommandLogTest {
+
+    private final CommandLog log = new CommandLog(Arrays.asList(new ProfiledCommand("find", "people", 1, 1, "IXSCAN { _id: 1 }"),
+            new ProfiledCommand("find", "address", 2, 3, "COLLSCAN"), new ProfiledCommand("find", "address", 1, 2, "COLLSCAN"),
+            new ProfiledCommand("update", "people", 1, 0, null)));
+
+    @Test
+    public void testCounts() {
+        // GIVEN
+
+        // WHEN
+        final int finds = log.count("find");
+        final int inserts = log.count("insert");
+
+        // THEN
+        assertThat(finds, equalTo(3));
+        assertThat(inserts, equalTo(0));
+        assertThat(log.size(), equalTo(4));
+        assertThat(log.getReturnedDocuments(), equalTo(6L));
+    }
+
+    @Test
+    public void testCommandsAreDescribedGroupedByTypeAndCollectionMostFrequentFirst() {
+        // GIVEN
+
+        // WHEN
+        final String description = log.describe(null);
+
+        // THEN
+        assertThat(description,
+                equalTo(String.format("      2x find address (3 ms, 5 documents returned)%n      1x find people (1 ms, 1 documents returned)%n"
+                        + "      1x update people (1 ms, 0 documents returned)%n")));
+    }
+
+    @Test
+    public void testOnlyCommandsOfGivenTypeAreDescribed() {
+        // GIVEN
+
+        // WHEN
+        final String description = log.describe("update");
+
+        // THEN
+        assertThat(description, equalTo(String.format("      1x update people (1 ms, 0 documents returned)%n")));
+    }
+}
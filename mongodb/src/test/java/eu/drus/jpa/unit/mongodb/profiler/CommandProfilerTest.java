@@ -0,0 +1,124 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+
+import eu.drus.jpa.unit.api.JpaUnitException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandProfilerTest {
+
+    @Mock
+    private MongoDatabase connection;
+
+    @Mock
+    private MongoCollection<Document> profile;
+
+    @Mock
+    private FindIterable<Document> profileEntries;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    @Before
+    public void setupMocks() {
+        when(connection.getName()).thenReturn("db");
+        when(connection.runCommand(any(Document.class))).thenReturn(new Document("was", 1).append("ok", 1));
+        when(connection.getCollection(anyString())).thenReturn(profile);
+        when(profile.find()).thenReturn(profileEntries);
+        when(profileEntries.iterator()).thenReturn(cursor);
+    }
+
+    @Test
+    public void testProfilerIsEnabledWithNewProfileCollection() {
+        // GIVEN
+        final ArgumentCaptor<CreateCollectionOptions> optionsCaptor = ArgumentCaptor.forClass(CreateCollectionOptions.class);
+
+        // WHEN
+        CommandProfiler.start(connection);
+
+        // THEN
+        final InOrder order = inOrder(connection, profile);
+        order.verify(connection).runCommand(eq(new Document("profile", 0)));
+        order.verify(profile).drop();
+        order.verify(connection).createCollection(eq("system.profile"), optionsCaptor.capture());
+        order.verify(connection).runCommand(eq(new Document("profile", 2)));
+        assertThat(optionsCaptor.getValue().isCapped(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testPreviousLevelIsRestoredAndCommandsAreRead() {
+        // GIVEN
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(new Document("op", "command").append("ns", "db.$cmd").append("command", new Document("profile", 2)),
+                new Document("op", "query").append("ns", "db.people").append("command", new Document("find", "people")));
+        final CommandProfiler profiler = CommandProfiler.start(connection);
+
+        // WHEN
+        final CommandLog log = profiler.stop();
+
+        // THEN
+        final InOrder order = inOrder(connection, profile);
+        order.verify(connection).runCommand(eq(new Document("profile", 1)));
+        order.verify(profile).find();
+        assertThat(log.size(), equalTo(1));
+        assertThat(log.count("find"), equalTo(1));
+    }
+
+    @Test
+    public void testOverwrittenProfileEntriesAreReported() {
+        // GIVEN
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("op", "query").append("ns", "db.people").append("command", new Document("find", "people")));
+        final CommandProfiler profiler = CommandProfiler.start(connection);
+
+        // WHEN
+        try {
+            profiler.stop();
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("The profile of database db exceeded its size of 16 MB"));
+        }
+    }
+
+    @Test
+    public void testFailingProfilerIsReported() {
+        // GIVEN
+        when(connection.runCommand(any(Document.class)))
+                .thenThrow(new MongoCommandException(new org.bson.BsonDocument(), new ServerAddress()));
+
+        // WHEN
+        try {
+            CommandProfiler.start(connection);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Could not enable the profiler of database db"));
+        }
+    }
+}
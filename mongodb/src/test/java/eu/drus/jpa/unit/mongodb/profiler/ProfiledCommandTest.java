@@ -0,0 +1,79 @@
+package eu.drus.jpa.unit.mongodb.profiler;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.bson.Document;
+import org.junit.Test;
+
+public class ProfiledCommandTest {
+
+    @Test
+    public void testFindCommand() {
+        // GIVEN
+        final Document entry = new Document("op", "query").append("ns", "db.people")
+                .append("command", new Document("find", "people").append("filter", new Document("name", "foo"))).append("nreturned", 3)
+                .append("millis", 2).append("planSummary", "COLLSCAN");
+
+        // WHEN
+        final ProfiledCommand command = ProfiledCommand.of(entry);
+
+        // THEN
+        assertThat(command.getType(), equalTo("find"));
+        assertThat(command.getCollection(), equalTo("people"));
+        assertThat(command.getReturnedDocuments(), equalTo(3L));
+        assertThat(command.getMillis(), equalTo(2L));
+        assertThat(command.isCollectionScan(), equalTo(Boolean.TRUE));
+    }
+
+    @Test
+    public void testIndexedAggregateCommand() {
+        // GIVEN
+        final Document entry = new Document("op", "command").append("ns", "db.people")
+                .append("command", new Document("aggregate", "people").append("pipeline", new Document())).append("nreturned", 1)
+                .append("millis", 0).append("planSummary", "IXSCAN { name: 1 }");
+
+        // WHEN
+        final ProfiledCommand command = ProfiledCommand.of(entry);
+
+        // THEN
+        assertThat(command.getType(), equalTo("aggregate"));
+        assertThat(command.getCollection(), equalTo("people"));
+        assertThat(command.isCollectionScan(), equalTo(Boolean.FALSE));
+    }
+
+    @Test
+    public void testCommandReportedAgainstCommandNamespace() {
+        // GIVEN
+        final Document entry = new Document("op", "command").append("ns", "db.$cmd").append("query",
+                new Document("findandmodify", "people").append("query", new Document("_id", 1)));
+
+        // WHEN
+        final ProfiledCommand command = ProfiledCommand.of(entry);
+
+        // THEN
+        assertThat(command.getType(), equalTo("findAndModify"));
+        assertThat(command.getCollection(), equalTo("people"));
+        assertThat(command.getReturnedDocuments(), equalTo(0L));
+        assertThat(command.getPlanSummary(), nullValue());
+    }
+
+    @Test
+    public void testWriteOperations() {
+        // GIVEN
+        final Document insert = new Document("op", "insert").append("ns", "db.people").append("ninserted", 5);
+        final Document update = new Document("op", "update").append("ns", "db.people");
+        final Document remove = new Document("op", "remove").append("ns", "db.people");
+
+        // WHEN
+        final String insertType = ProfiledCommand.of(insert).getType();
+        final String updateType = ProfiledCommand.of(update).getType();
+        final String removeType = ProfiledCommand.of(remove).getType();
+
+        // THEN
+        assertThat(insertType, equalTo("insert"));
+        assertThat(updateType, equalTo("update"));
+        assertThat(removeType, equalTo("delete"));
+    }
+}
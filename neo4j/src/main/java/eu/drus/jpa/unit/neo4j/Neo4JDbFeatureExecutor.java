@@ -1,10 +1,9 @@
 package eu.drus.jpa.unit.neo4j;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -25,6 +24,7 @@ import eu.drus.jpa.unit.neo4j.dataset.DataSetLoaderProvider;
 import eu.drus.jpa.unit.neo4j.dataset.Edge;
 import eu.drus.jpa.unit.neo4j.dataset.GraphComparator;
 import eu.drus.jpa.unit.neo4j.dataset.GraphElementFactory;
+import eu.drus.jpa.unit.neo4j.dataset.NoSuchClassException;
 import eu.drus.jpa.unit.neo4j.dataset.Node;
 import eu.drus.jpa.unit.neo4j.operation.Neo4JOperation;
 import eu.drus.jpa.unit.spi.AbstractDbFeatureExecutor;
@@ -35,6 +35,8 @@ import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.DbFeature;
 import eu.drus.jpa.unit.spi.DbFeatureException;
 import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+import eu.drus.jpa.unit.util.ResourceLocator;
 
 public class Neo4JDbFeatureExecutor extends AbstractDbFeatureExecutor<Graph<Node, Edge>, Connection> {
 
@@ -45,13 +47,13 @@ public class Neo4JDbFeatureExecutor extends AbstractDbFeatureExecutor<Graph<Node
         graphElementFactory = new GraphElementFactory(entityClasses);
     }
 
-    private static URI toUri(final String path) throws URISyntaxException {
+    private static Path toPath(final String path) throws IOException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(path);
         if (url == null) {
             throw new JpaUnitException(path + " not found");
         }
 
-        return url.toURI();
+        return ResourceLocator.toPath(url);
     }
 
     @Override
@@ -59,17 +61,26 @@ public class Neo4JDbFeatureExecutor extends AbstractDbFeatureExecutor<Graph<Node
         final List<Graph<Node, Edge>> dataSets = new ArrayList<>();
         try {
             for (final String path : paths) {
-                final File file = new File(toUri(path));
+                final Path file = toPath(path);
                 final DataSetLoader<Graph<Node, Edge>> loader = DataSetFormat.inferFromFile(file)
                         .select(new DataSetLoaderProvider(graphElementFactory));
                 dataSets.add(loader.load(file));
             }
-        } catch (final IOException | URISyntaxException e) {
+        } catch (final IOException e) {
             throw new JpaUnitException("Could not load initial data sets", e);
         }
         return dataSets;
     }
 
+    @Override
+    protected Graph<Node, Edge> createGeneratedDataSet(final GeneratedDataSet generatedDataSet) {
+        try {
+            return new DataSetLoaderProvider(graphElementFactory).load(generatedDataSet);
+        } catch (final NoSuchClassException e) {
+            throw new JpaUnitException("Could not create generated data sets", e);
+        }
+    }
+
     @Override
     protected DbFeature<Connection> createCleanupFeature(final CleanupStrategy cleanupStrategy,
             final List<Graph<Node, Edge>> initialDataSets) {
@@ -1,5 +1,8 @@
 package eu.drus.jpa.unit.neo4j;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.zaxxer.hikari.HikariDataSource;
 
 import eu.drus.jpa.unit.neo4j.ext.Configuration;
@@ -7,9 +10,13 @@ import eu.drus.jpa.unit.neo4j.ext.ConfigurationRegistry;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.TestClassDecorator;
 import eu.drus.jpa.unit.spi.TestInvocation;
+import eu.drus.jpa.unit.util.SharedResources;
 
 public class Neo4JDriverDecorator implements TestClassDecorator {
 
+    // data sources are shared by all test classes connecting to the same database as the same user
+    static final SharedResources<List<String>, HikariDataSource> DATA_SOURCES = new SharedResources<>(HikariDataSource::close);
+
     private ConfigurationRegistry configurationRegistry = new ConfigurationRegistry();
 
     @Override
@@ -26,15 +33,20 @@ public class Neo4JDriverDecorator implements TestClassDecorator {
     public void beforeAll(final TestInvocation invocation) throws Exception {
         final ExecutionContext context = invocation.getContext();
         final Configuration configuration = configurationRegistry.getConfiguration(context.getDescriptor());
-        context.storeData(Constants.KEY_DATA_SOURCE, configuration.createDataSource());
+        context.storeData(Constants.KEY_DATA_SOURCE,
+                DATA_SOURCES.acquire(getDataSourceKey(configuration), () -> (HikariDataSource) configuration.createDataSource()));
     }
 
     @Override
     public void afterAll(final TestInvocation invocation) throws Exception {
         final ExecutionContext context = invocation.getContext();
-        final HikariDataSource ds = (HikariDataSource) context.getData(Constants.KEY_DATA_SOURCE);
-        ds.close();
+        final Configuration configuration = configurationRegistry.getConfiguration(context.getDescriptor());
         context.storeData(Constants.KEY_DATA_SOURCE, null);
+        DATA_SOURCES.release(getDataSourceKey(configuration));
+    }
+
+    private static List<String> getDataSourceKey(final Configuration configuration) {
+        return Arrays.asList(configuration.getConnectionUrl(), configuration.getUsername(), configuration.getPassword());
     }
 
 }
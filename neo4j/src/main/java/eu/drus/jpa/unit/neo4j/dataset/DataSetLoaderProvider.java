@@ -1,33 +1,76 @@
 package eu.drus.jpa.unit.neo4j.dataset;
 
-import java.io.File;
+import static java.util.stream.Collectors.toList;
+
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.jgrapht.Graph;
 import org.jgrapht.ext.ImportException;
 import org.jgrapht.graph.ClassBasedEdgeFactory;
 import org.jgrapht.graph.DefaultDirectedGraph;
 
-import eu.drus.jpa.unit.spi.DataSetFormat.LoaderProvider;
 import eu.drus.jpa.unit.neo4j.dataset.graphml.GraphMLReader;
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.Compression;
+import eu.drus.jpa.unit.spi.DataSetFormat.LoaderProvider;
 import eu.drus.jpa.unit.spi.DataSetLoader;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
 import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
 
 public class DataSetLoaderProvider implements LoaderProvider<Graph<Node, Edge>> {
 
+    private static final String NODES_TABLE = "nodes";
+    private static final String EDGES_TABLE = "edges";
+
+    // column names follow the header conventions of the neo4j import tool
+    private static final String ID_COLUMN = ":ID";
+    private static final String LABELS_COLUMN = ":LABEL";
+    private static final String SOURCE_COLUMN = ":START_ID";
+    private static final String TARGET_COLUMN = ":END_ID";
+    private static final List<String> STRUCTURAL_COLUMNS = Arrays.asList(ID_COLUMN, LABELS_COLUMN, SOURCE_COLUMN, TARGET_COLUMN);
+
     private GraphElementFactory graphElementFactory;
 
     public DataSetLoaderProvider(final GraphElementFactory graphElementFactory) {
         this.graphElementFactory = graphElementFactory;
     }
 
+    /**
+     * Creates a graph with a node for each row of the generated tables. The name of a table is
+     * used as the label of its nodes, the columns become the node attributes.
+     */
+    public Graph<Node, Edge> load(final GeneratedDataSet dataSet) throws NoSuchClassException {
+        final DefaultDirectedGraph<Node, Edge> graph = new DefaultDirectedGraph<>(new ClassBasedEdgeFactory<>(Edge.class));
+        for (final GeneratedDataSet.Table table : dataSet.getTables()) {
+            final List<String> labels = Collections.singletonList(table.getName());
+            final List<String> columnNames = table.getColumnNames();
+            for (int row = 0; row < table.getRowCount(); row++) {
+                final Map<String, Object> attributes = new HashMap<>();
+                for (int i = 0; i < columnNames.size(); i++) {
+                    attributes.put(columnNames.get(i), table.getValue(row, i));
+                }
+                graph.addVertex(graphElementFactory.createNode(table.getName() + "_" + row, labels, attributes));
+            }
+        }
+        return graph;
+    }
+
     @Override
     public DataSetLoader<Graph<Node, Edge>> xmlLoader() {
-        return (final File path) -> {
-            try {
+        return (final Path path) -> {
+            try (Reader reader = new InputStreamReader(Compression.openStream(path), StandardCharsets.UTF_8)) {
                 final DefaultDirectedGraph<Node, Edge> graph = new DefaultDirectedGraph<>(new ClassBasedEdgeFactory<>(Edge.class));
                 final GraphMLReader<Node, Edge> importer = new GraphMLReader<>(graphElementFactory, graphElementFactory);
-                importer.importGraph(graph, path);
+                importer.importGraph(graph, reader);
                 return graph;
             } catch (final ImportException e) {
                 throw new IOException(e);
@@ -56,4 +99,82 @@ public class DataSetLoaderProvider implements LoaderProvider<Graph<Node, Edge>>
         throw new UnsupportedDataSetFormatException("XSL data sets are not supportred for Neo4j");
     }
 
+    @Override
+    public DataSetLoader<Graph<Node, Edge>> binaryLoader() {
+        return (final Path path) -> {
+            final BinaryDataSet dataSet = BinaryDataSet.open(path);
+            final DefaultDirectedGraph<Node, Edge> graph = new DefaultDirectedGraph<>(new ClassBasedEdgeFactory<>(Edge.class));
+
+            final Map<String, Node> nodes = new HashMap<>();
+            for (final BinaryDataSet.Table table : getTables(dataSet, NODES_TABLE)) {
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    final Node node = createNode(table, row);
+                    nodes.put(node.getId(), node);
+                    graph.addVertex(node);
+                }
+            }
+
+            for (final BinaryDataSet.Table table : getTables(dataSet, EDGES_TABLE)) {
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    final Node from = getNode(nodes, table, row, SOURCE_COLUMN);
+                    final Node to = getNode(nodes, table, row, TARGET_COLUMN);
+                    graph.addEdge(from, to, graphElementFactory.createEdge(from, to, getString(table, row, ID_COLUMN),
+                            getLabels(table, row), getAttributes(table, row)));
+                }
+            }
+            return graph;
+        };
+    }
+
+    private Node createNode(final BinaryDataSet.Table table, final int row) throws IOException {
+        try {
+            return graphElementFactory.createNode(getString(table, row, ID_COLUMN), getLabels(table, row), getAttributes(table, row));
+        } catch (final NoSuchClassException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static List<BinaryDataSet.Table> getTables(final BinaryDataSet dataSet, final String name) {
+        return dataSet.getTables().stream().filter(t -> t.getName().equalsIgnoreCase(name)).collect(toList());
+    }
+
+    private static Node getNode(final Map<String, Node> nodes, final BinaryDataSet.Table table, final int row, final String column)
+            throws IOException {
+        final String id = getString(table, row, column);
+        final Node node = nodes.get(id);
+        if (node == null) {
+            throw new IOException("Edge " + getString(table, row, ID_COLUMN) + " references unknown node " + id);
+        }
+        return node;
+    }
+
+    private static String getString(final BinaryDataSet.Table table, final int row, final String column) throws IOException {
+        final int index = table.getColumnIndex(column);
+        if (index < 0) {
+            throw new IOException("Table " + table.getName() + " does not have the required column " + column);
+        }
+        final Object value = table.getValue(row, index);
+        return value == null ? null : value.toString();
+    }
+
+    private static List<String> getLabels(final BinaryDataSet.Table table, final int row) {
+        final int index = table.getColumnIndex(LABELS_COLUMN);
+        final Object labels = index < 0 ? null : table.getValue(row, index);
+        if (labels == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(labels.toString().split("[:;]")).filter(v -> !v.isEmpty()).sorted().collect(toList());
+    }
+
+    private static Map<String, Object> getAttributes(final BinaryDataSet.Table table, final int row) {
+        final Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            final String name = table.getColumnName(i);
+            final Object value = table.getValue(row, i);
+            if (!STRUCTURAL_COLUMNS.contains(name.toUpperCase()) && value != null) {
+                attributes.put(name, value);
+            }
+        }
+        return attributes;
+    }
 }
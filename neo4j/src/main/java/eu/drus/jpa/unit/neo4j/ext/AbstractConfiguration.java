@@ -25,6 +25,21 @@ public abstract class AbstractConfiguration implements Configuration {
         password = props.getProperty("user.password");
     }
 
+    @Override
+    public String getConnectionUrl() {
+        return connectionUrl;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
     @Override
     public DataSource createDataSource() {
         final HikariDataSource ds = new HikariDataSource();
@@ -4,5 +4,11 @@ import javax.sql.DataSource;
 
 public interface Configuration {
 
+    String getConnectionUrl();
+
+    String getUsername();
+
+    String getPassword();
+
     DataSource createDataSource();
 }
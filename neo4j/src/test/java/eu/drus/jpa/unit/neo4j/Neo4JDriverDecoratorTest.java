@@ -5,10 +5,13 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -56,12 +59,16 @@ public class Neo4JDriverDecoratorTest {
         when(configuration.createDataSource()).thenReturn(dataSource);
         when(invocation.getContext()).thenReturn(ctx);
         when(invocation.getTestClass()).thenReturn((Class) getClass());
-        when(ctx.getData(eq(Constants.KEY_DATA_SOURCE))).thenReturn(dataSource);
         when(configRegistry.getConfiguration(any(PersistenceUnitDescriptor.class))).thenReturn(configuration);
 
         decorator = new Neo4JDriverDecorator();
     }
 
+    @After
+    public void closeDataSources() {
+        Neo4JDriverDecorator.DATA_SOURCES.closeAll();
+    }
+
     @Test
     public void testRequiredPriority() {
         // GIVEN
@@ -84,15 +91,42 @@ public class Neo4JDriverDecoratorTest {
         verify(ctx).storeData(eq(Constants.KEY_DATA_SOURCE), eq(dataSource));
     }
 
+    @Test
+    public void testDataSourceIsSharedByTestClassesWithEqualConfiguration() throws Throwable {
+        // GIVEN
+        decorator.beforeAll(invocation);
+
+        // WHEN
+        decorator.beforeAll(invocation);
+
+        // THEN
+        verify(configuration).createDataSource();
+        verify(ctx, times(2)).storeData(eq(Constants.KEY_DATA_SOURCE), eq(dataSource));
+    }
+
     @Test
     public void testAfterTest() throws Throwable {
         // GIVEN
+        decorator.beforeAll(invocation);
 
         // WHEN
         decorator.afterAll(invocation);
 
         // THEN
-        verify(dataSource).close();
+        verify(dataSource, never()).close();
         verify(ctx).storeData(eq(Constants.KEY_DATA_SOURCE), isNull());
     }
+
+    @Test
+    public void testDataSourceIsClosedWhenClosingSharedDataSources() throws Throwable {
+        // GIVEN
+        decorator.beforeAll(invocation);
+        decorator.afterAll(invocation);
+
+        // WHEN
+        Neo4JDriverDecorator.DATA_SOURCES.closeAll();
+
+        // THEN
+        verify(dataSource).close();
+    }
 }
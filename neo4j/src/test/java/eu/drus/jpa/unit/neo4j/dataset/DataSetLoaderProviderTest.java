@@ -1,5 +1,6 @@
 package eu.drus.jpa.unit.neo4j.dataset;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
@@ -7,7 +8,9 @@ import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Arrays;
@@ -16,11 +19,15 @@ import java.util.List;
 
 import org.jgrapht.Graph;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
 import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.UnsupportedDataSetFormatException;
 
@@ -31,6 +38,9 @@ public class DataSetLoaderProviderTest {
     private static final DataSetLoaderProvider LOADER_PROVIDER = new DataSetLoaderProvider(
             new GraphElementFactory(Collections.emptyList()));
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @SuppressWarnings("unchecked")
     @Before
     public void prepareMocks() throws Exception {
@@ -73,7 +83,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final Graph<Node, Edge> graph = loader.load(getFile("test-data.xml"));
+        final Graph<Node, Edge> graph = loader.load(getFile("test-data.xml").toPath());
 
         // THEN
         assertThat(graph, notNullValue());
@@ -105,9 +115,58 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.csv"));
+        loader.load(getFile("test-data.csv").toPath());
 
         // THEN
         // Exception from the parser is thrown
     }
+
+    @Test
+    public void testBinaryLoaderLoadUsingProperResource() throws Exception {
+        // GIVEN
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("nodes").addColumn(":ID", ColumnType.STRING).addColumn(":LABEL", ColumnType.STRING)
+                .addColumn("name", ColumnType.STRING).addRow("n1", "Person", "foo").addRow("n2", "Person", null);
+        writer.addTable("edges").addColumn(":ID", ColumnType.STRING).addColumn(":START_ID", ColumnType.STRING)
+                .addColumn(":END_ID", ColumnType.STRING).addColumn(":LABEL", ColumnType.STRING).addRow("e1", "n1", "n2", "KNOWS");
+        final File file = folder.newFile("test-data.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.write(out);
+        }
+
+        // WHEN
+        final DataSetLoader<Graph<Node, Edge>> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        final Graph<Node, Edge> graph = loader.load(file.toPath());
+
+        // THEN
+        assertThat(graph, notNullValue());
+        assertThat(graph.vertexSet().size(), equalTo(2));
+        assertThat(graph.edgeSet().size(), equalTo(1));
+
+        final Edge edge = graph.edgeSet().iterator().next();
+        assertThat(edge.getId(), equalTo("e1"));
+        assertThat(edge.getLabels(), equalTo(Arrays.asList("KNOWS")));
+        assertThat(edge.getSourceNode().getId(), equalTo("n1"));
+        assertThat(edge.getTargetNode().getId(), equalTo("n2"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBinaryLoaderLoadUsingWrongResource() throws Exception {
+        // WHEN
+        final DataSetLoader<Graph<Node, Edge>> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        loader.load(getFile("test-data.xml").toPath());
+
+        // THEN
+        // IOException is thrown
+    }
 }
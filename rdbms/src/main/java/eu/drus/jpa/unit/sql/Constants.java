@@ -7,5 +7,6 @@ public final class Constants {
     public static final String KEY_DATA_SOURCE = "eu.drus.jpa.unit.sql.DataSource";
     public static final String KEY_CONNECTION = "eu.drus.jpa.unit.sql.DatabaseConnection";
     public static final String KEY_FEATURE_EXECUTOR = "eu.drus.jpa.unit.sql.FeatureExecutor";
+    public static final String KEY_QUERY_PLAN_VERIFIER = "eu.drus.jpa.unit.sql.QueryPlanVerifier";
 
 }
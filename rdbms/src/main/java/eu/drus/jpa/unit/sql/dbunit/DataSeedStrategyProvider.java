@@ -3,9 +3,12 @@ package eu.drus.jpa.unit.sql.dbunit;
 import org.dbunit.operation.DatabaseOperation;
 
 import eu.drus.jpa.unit.api.DataSeedStrategy.StrategyProvider;
+import eu.drus.jpa.unit.sql.dbunit.operation.UpsertOperation;
 
 public class DataSeedStrategyProvider implements StrategyProvider<DatabaseOperation> {
 
+    private static final DatabaseOperation REFRESH = new UpsertOperation();
+
     @Override
     public DatabaseOperation insertStrategy() {
         return DatabaseOperation.INSERT;
@@ -18,7 +21,7 @@ public class DataSeedStrategyProvider implements StrategyProvider<DatabaseOperat
 
     @Override
     public DatabaseOperation refreshStrategy() {
-        return DatabaseOperation.REFRESH;
+        return REFRESH;
     }
 
     @Override
@@ -14,12 +14,14 @@ import org.dbunit.assertion.DbComparisonFailure;
 import org.dbunit.assertion.DiffCollectingFailureHandler;
 import org.dbunit.assertion.Difference;
 import org.dbunit.dataset.Column;
+import org.dbunit.dataset.Columns;
 import org.dbunit.dataset.CompositeTable;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.FilteredDataSet;
 import org.dbunit.dataset.FilteredTableMetaData;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableMetaData;
 import org.dbunit.dataset.NoSuchTableException;
 import org.dbunit.dataset.SortedTable;
 import org.dbunit.dataset.filter.DefaultColumnFilter;
@@ -31,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import eu.drus.jpa.unit.api.JpaUnitException;
 import eu.drus.jpa.unit.spi.AssertionErrorCollector;
 import eu.drus.jpa.unit.spi.ColumnsHolder;
+import eu.drus.jpa.unit.sql.dbunit.dataset.ColumnarTable;
 
 public class DataSetComparator {
 
@@ -84,8 +87,7 @@ public class DataSetComparator {
                 final List<String> columnsForSorting = defineColumnsForSorting(filteredCurrentDataSet, expectedDataSet, tableName);
 
                 final ITable table = filteredCurrentDataSet.getTable(tableName);
-                final ITable expectedTable = sort(new TableWrapper(expectedDataSet.getTable(tableName), table.getTableMetaData()),
-                        columnsForSorting);
+                final ITable expectedTable = sort(expectedDataSet.getTable(tableName), table.getTableMetaData(), columnsForSorting);
                 final ITable currentTable = sort(table, columnsForSorting);
 
                 final List<String> columnsToIgnore = extractColumnsToBeIgnored(expectedDataSet.getTable(tableName), table);
@@ -140,6 +142,30 @@ public class DataSetComparator {
         return result;
     }
 
+    private ITable sort(final ITable table, final ITableMetaData metaData, final List<String> columnsForSorting)
+            throws DataSetException {
+        final ColumnarTable columnarTable = ColumnarTable.of(table);
+        if (columnarTable != null) {
+            final Column[] sortColumns = getColumns(metaData, columnsForSorting);
+            if (sortColumns != null && columnarTable.isSortableBy(sortColumns)) {
+                // sorts using the primitive column values instead of boxed ones
+                return new TableWrapper(columnarTable.sortBy(columnsForSorting.toArray(new String[columnsForSorting.size()])), metaData);
+            }
+        }
+        return sort(new TableWrapper(table, metaData), columnsForSorting);
+    }
+
+    private Column[] getColumns(final ITableMetaData metaData, final List<String> columnNames) throws DataSetException {
+        final Column[] columns = new Column[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Columns.getColumn(columnNames.get(i), metaData.getColumns());
+            if (columns[i] == null) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
     private ITable sort(final ITable table, final List<String> columnsForSorting) throws DataSetException {
         final SortedTable sortedTable = new SortedTable(table, columnsForSorting.toArray(new String[columnsForSorting.size()]));
         sortedTable.setUseComparable(true);
@@ -11,6 +11,7 @@ import org.dbunit.database.IDatabaseConnection;
 
 import eu.drus.jpa.unit.api.JpaUnitException;
 import eu.drus.jpa.unit.sql.dbunit.ext.DbUnitConnectionFactory;
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
 
 public final class DatabaseConnectionFactory {
 
@@ -35,6 +36,15 @@ public final class DatabaseConnectionFactory {
         }
     }
 
+    public static QueryPlanDialect getQueryPlanDialect(final String driverClass) {
+        for (final DbUnitConnectionFactory impl : SERVICE_LOADER) {
+            if (impl.supportsDriver(driverClass)) {
+                return impl.getQueryPlanDialect();
+            }
+        }
+        return null;
+    }
+
     private static String discoverSchema(final Connection connection) {
         try {
             return connection.getSchema();
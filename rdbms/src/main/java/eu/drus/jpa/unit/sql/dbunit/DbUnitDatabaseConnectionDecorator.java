@@ -38,6 +38,7 @@ public class DbUnitDatabaseConnectionDecorator implements TestClassDecorator {
         final ExecutionContext context = invocation.getContext();
         final IDatabaseConnection connection = (IDatabaseConnection) context.getData(Constants.KEY_CONNECTION);
         context.storeData(Constants.KEY_CONNECTION, null);
+        context.storeData(Constants.KEY_QUERY_PLAN_VERIFIER, null);
 
         connection.close();
     }
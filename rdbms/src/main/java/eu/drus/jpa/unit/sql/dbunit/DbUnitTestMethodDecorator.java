@@ -1,12 +1,20 @@
 package eu.drus.jpa.unit.sql.dbunit;
 
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.dbunit.database.IDatabaseConnection;
 
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
 import eu.drus.jpa.unit.spi.ExecutionContext;
+import eu.drus.jpa.unit.spi.Measurement;
 import eu.drus.jpa.unit.spi.TestInvocation;
 import eu.drus.jpa.unit.spi.TestMethodDecorator;
 import eu.drus.jpa.unit.sql.Constants;
 import eu.drus.jpa.unit.sql.SqlDbConfiguration;
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanVerifier;
 
 public class DbUnitTestMethodDecorator implements TestMethodDecorator {
 
@@ -19,11 +27,12 @@ public class DbUnitTestMethodDecorator implements TestMethodDecorator {
     public void beforeTest(final TestInvocation invocation) throws Exception {
         final ExecutionContext context = invocation.getContext();
 
-        final SqlDbFeatureExecutor dbFeatureExecutor = new SqlDbFeatureExecutor(invocation.getFeatureResolver());
         final IDatabaseConnection connection = (IDatabaseConnection) context.getData(Constants.KEY_CONNECTION);
+        final SqlDbFeatureExecutor dbFeatureExecutor = new SqlDbFeatureExecutor(invocation.getFeatureResolver(), connection);
 
         dbFeatureExecutor.executeBeforeTest(connection);
         context.storeData(Constants.KEY_FEATURE_EXECUTOR, dbFeatureExecutor);
+        context.storeData(eu.drus.jpa.unit.spi.Constants.KEY_SEEDED_TABLES, dbFeatureExecutor.getSeededTables());
     }
 
     @Override
@@ -35,7 +44,51 @@ public class DbUnitTestMethodDecorator implements TestMethodDecorator {
 
         final IDatabaseConnection connection = (IDatabaseConnection) context.getData(Constants.KEY_CONNECTION);
 
-        dbFeatureExecutor.executeAfterTest(connection, invocation.getException().isPresent());
+        try {
+            if (!invocation.getException().isPresent()) {
+                // the plans are verified against the seeded data, thus before the cleanup
+                verifyQueryPlans(invocation, connection);
+            }
+        } finally {
+            dbFeatureExecutor.executeAfterTest(connection, invocation.getException().isPresent());
+        }
+    }
+
+    private void verifyQueryPlans(final TestInvocation invocation, final IDatabaseConnection connection) throws Exception {
+        final ForbidFullTableScan forbidFullTableScan = invocation.getFeatureResolver().getForbidFullTableScan();
+        final ExecutionContext context = invocation.getContext();
+        final Measurement measurement = (Measurement) context.getData(eu.drus.jpa.unit.spi.Constants.KEY_MEASUREMENT);
+        if (forbidFullTableScan == null || measurement == null) {
+            return;
+        }
+
+        final StatementLog log = measurement.getStatementLog();
+        if (log == null) {
+            // passing without any verification would be misleading
+            throw new AssertionError("Statement recording is not available for persistence unit "
+                    + context.getDescriptor().getUnitName() + ". @ForbidFullTableScan requires the JDBC connection"
+                    + " to be configured by javax.persistence.jdbc.url or hibernate.connection.url");
+        }
+        if (log.size() == 0) {
+            throw new AssertionError("No SQL statements were recorded for persistence unit " + context.getDescriptor().getUnitName()
+                    + ", thus there are no query plans @ForbidFullTableScan could verify");
+        }
+
+        QueryPlanVerifier verifier = (QueryPlanVerifier) context.getData(Constants.KEY_QUERY_PLAN_VERIFIER);
+        if (verifier == null) {
+            final String driverClass = ((BasicDataSource) context.getData(Constants.KEY_DATA_SOURCE)).getDriverClassName();
+            final QueryPlanDialect dialect = DatabaseConnectionFactory.getQueryPlanDialect(driverClass);
+            if (dialect == null) {
+                throw new JpaUnitException("Verification of query plans is not supported for " + driverClass);
+            }
+            // cached for all tests using the same connection
+            verifier = new QueryPlanVerifier(dialect);
+            context.storeData(Constants.KEY_QUERY_PLAN_VERIFIER, verifier);
+        }
+
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+        verifier.verify(connection.getConnection(), log.getStatements(), forbidFullTableScan, errorCollector);
+        errorCollector.report();
     }
 
     @Override
@@ -1,15 +1,15 @@
 package eu.drus.jpa.unit.sql.dbunit;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
@@ -33,31 +33,50 @@ import eu.drus.jpa.unit.spi.DataSetLoader;
 import eu.drus.jpa.unit.spi.DbFeature;
 import eu.drus.jpa.unit.spi.DbFeatureException;
 import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+import eu.drus.jpa.unit.sql.dbunit.dataset.ColumnTypeResolver;
 import eu.drus.jpa.unit.sql.dbunit.dataset.DataSetLoaderProvider;
+import eu.drus.jpa.unit.util.ResourceLocator;
 
 public class SqlDbFeatureExecutor extends AbstractDbFeatureExecutor<IDataSet, IDatabaseConnection> {
 
     private StrategyProviderFactory providerFactory;
+    private DataSetLoaderProvider loaderProvider;
 
     public SqlDbFeatureExecutor(final FeatureResolver featureResolver) {
         super(featureResolver);
         providerFactory = new StrategyProviderFactory();
+        loaderProvider = new DataSetLoaderProvider();
+    }
+
+    public SqlDbFeatureExecutor(final FeatureResolver featureResolver, final IDatabaseConnection connection) {
+        super(featureResolver);
+        providerFactory = new StrategyProviderFactory();
+        loaderProvider = new DataSetLoaderProvider(createColumnTypeResolver(connection));
+    }
+
+    private static ColumnTypeResolver createColumnTypeResolver(final IDatabaseConnection connection) {
+        try {
+            return new ColumnTypeResolver(connection);
+        } catch (final SQLException e) {
+            throw new JpaUnitException("Could not access database meta data", e);
+        }
     }
 
     private static IDataSet mergeDataSets(final List<IDataSet> dataSets) throws DataSetException {
         return new CompositeDataSet(dataSets.toArray(new IDataSet[dataSets.size()]));
     }
 
-    private static URI toUri(final String path) {
+    private static Path toPath(final String path) {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(path);
         if (url == null) {
             throw new JpaUnitException(path + " not found");
         }
 
         try {
-            return url.toURI();
-        } catch (final URISyntaxException e) {
-            throw new JpaUnitException("Could not convert " + path + " to URI.", e);
+            return ResourceLocator.toPath(url);
+        } catch (final IOException e) {
+            throw new JpaUnitException("Could not access " + path, e);
         }
     }
 
@@ -66,8 +85,8 @@ public class SqlDbFeatureExecutor extends AbstractDbFeatureExecutor<IDataSet, ID
         final List<IDataSet> dataSets = new ArrayList<>();
         try {
             for (final String path : paths) {
-                final File file = new File(toUri(path));
-                final DataSetLoader<IDataSet> loader = DataSetFormat.inferFromFile(file).select(new DataSetLoaderProvider());
+                final Path file = toPath(path);
+                final DataSetLoader<IDataSet> loader = DataSetFormat.inferFromFile(file).select(loaderProvider);
                 dataSets.add(loader.load(file));
             }
         } catch (final IOException e) {
@@ -76,6 +95,24 @@ public class SqlDbFeatureExecutor extends AbstractDbFeatureExecutor<IDataSet, ID
         return dataSets;
     }
 
+    @Override
+    protected IDataSet createGeneratedDataSet(final GeneratedDataSet generatedDataSet) {
+        try {
+            return loaderProvider.load(generatedDataSet);
+        } catch (final DataSetException e) {
+            throw new JpaUnitException("Could not create generated data sets", e);
+        }
+    }
+
+    @Override
+    protected Collection<String> getTableNames(final IDataSet dataSet) {
+        try {
+            return Arrays.asList(dataSet.getTableNames());
+        } catch (final DataSetException e) {
+            throw new JpaUnitException("Could not access initial data sets", e);
+        }
+    }
+
     @Override
     protected DbFeature<IDatabaseConnection> createCleanupFeature(final CleanupStrategy cleanupStrategy,
             final List<IDataSet> initialDataSets) {
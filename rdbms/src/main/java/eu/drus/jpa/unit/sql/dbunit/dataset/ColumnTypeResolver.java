@@ -0,0 +1,61 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.Columns;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITableMetaData;
+
+public class ColumnTypeResolver {
+
+    private final IDataSet databaseDataSet;
+    private final Map<String, Column[]> databaseColumns = new HashMap<>();
+
+    public ColumnTypeResolver(final IDatabaseConnection connection) throws SQLException {
+        // the database data set is cached by the connection, which lives as long as the test class
+        databaseDataSet = connection.createDataSet();
+    }
+
+    public ITableMetaData resolve(final ITableMetaData metaData) throws DataSetException {
+        final Column[] typedColumns = getDatabaseColumns(metaData.getTableName());
+        if (typedColumns.length == 0) {
+            return metaData;
+        }
+
+        final Column[] columns = metaData.getColumns();
+        final Column[] resolved = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            final Column typedColumn = Columns.getColumn(columns[i].getColumnName(), typedColumns);
+            resolved[i] = typedColumn == null ? columns[i]
+                    : new Column(columns[i].getColumnName(), typedColumn.getDataType(), typedColumn.getSqlTypeName(),
+                            typedColumn.getNullable());
+        }
+        return new DefaultTableMetaData(metaData.getTableName(), resolved);
+    }
+
+    private Column[] getDatabaseColumns(final String tableName) throws DataSetException {
+        final String key = tableName.toUpperCase();
+        Column[] columns = databaseColumns.get(key);
+        if (columns == null) {
+            // tables not known to the database keep the unknown column types
+            columns = isKnownTable(tableName) ? databaseDataSet.getTableMetaData(tableName).getColumns() : new Column[0];
+            databaseColumns.put(key, columns);
+        }
+        return columns;
+    }
+
+    private boolean isKnownTable(final String tableName) throws DataSetException {
+        for (final String name : databaseDataSet.getTableNames()) {
+            if (name.equalsIgnoreCase(tableName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,450 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dbunit.dataset.datatype.BigIntegerDataType;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.StringDataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+
+abstract class ColumnVector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final DataType dataType;
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    ColumnVector(final DataType dataType) {
+        this.dataType = dataType;
+    }
+
+    static ColumnVector create(final DataType dataType) {
+        switch (dataType.getSqlType()) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            return new IntVector(dataType);
+        case Types.BIGINT:
+            return new LongVector(dataType);
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return new DoubleVector(dataType);
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+        case Types.BLOB:
+            return new BinaryVector(dataType);
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.CLOB:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+            return new StringVector(dataType);
+        default:
+            // untyped data sets contain strings in most of the cases. Values of other types
+            // cause the vector to be converted into an ObjectVector.
+            return dataType == DataType.UNKNOWN ? new StringVector(dataType) : new ObjectVector(dataType);
+        }
+    }
+
+    static ColumnVector toObjectVector(final ColumnVector vector) {
+        final ObjectVector objectVector = new ObjectVector(vector.getDataType());
+        for (int i = 0; i < vector.size(); i++) {
+            objectVector.add(vector.get(i));
+        }
+        return objectVector;
+    }
+
+    static int grow(final int capacity, final int required) {
+        return Math.max(required, Math.max(INITIAL_CAPACITY, capacity * 2));
+    }
+
+    DataType getDataType() {
+        return dataType;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isNull(final int row) {
+        return nulls.get(row);
+    }
+
+    boolean add(final Object value) {
+        if (value == null) {
+            nulls.set(size);
+            appendDefault(size);
+        } else if (!append(size, value)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    Object get(final int row) {
+        return isNull(row) ? null : getValue(row);
+    }
+
+    int compare(final int row1, final int row2) throws TypeCastException {
+        final boolean isNull1 = isNull(row1);
+        final boolean isNull2 = isNull(row2);
+        if (isNull1 || isNull2) {
+            return isNull1 == isNull2 ? 0 : isNull1 ? -1 : 1;
+        }
+        return compareValues(row1, row2);
+    }
+
+    void bind(final PreparedStatement statement, final int index, final int row, final DataType targetType)
+            throws SQLException, TypeCastException {
+        if (isNull(row)) {
+            statement.setNull(index, targetType.getSqlType());
+        } else if (!targetType.equals(dataType) || !bindValue(statement, index, row)) {
+            targetType.setSqlValue(getValue(row), index, statement);
+        }
+    }
+
+    void trim() {
+        // nothing to do by default
+    }
+
+    abstract void appendDefault(int row);
+
+    abstract boolean append(int row, Object value);
+
+    abstract Object getValue(int row);
+
+    int compareValues(final int row1, final int row2) throws TypeCastException {
+        return dataType.compare(getValue(row1), getValue(row2));
+    }
+
+    boolean bindValue(final PreparedStatement statement, final int index, final int row) throws SQLException {
+        return false;
+    }
+
+    static class IntVector extends ColumnVector {
+
+        private int[] values = new int[0];
+
+        IntVector(final DataType dataType) {
+            super(dataType);
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 1);
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            if (!(value instanceof Integer)) {
+                return false;
+            }
+            ensureCapacity(row + 1);
+            values[row] = (Integer) value;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return values[row];
+        }
+
+        @Override
+        int compareValues(final int row1, final int row2) {
+            return Integer.compare(values[row1], values[row2]);
+        }
+
+        @Override
+        boolean bindValue(final PreparedStatement statement, final int index, final int row) throws SQLException {
+            statement.setInt(index, values[row]);
+            return true;
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size());
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static class LongVector extends ColumnVector {
+
+        private final boolean isBigInteger;
+        private long[] values = new long[0];
+
+        LongVector(final DataType dataType) {
+            super(dataType);
+            isBigInteger = dataType instanceof BigIntegerDataType;
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 1);
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            final long longValue;
+            if (isBigInteger && value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+                longValue = ((BigInteger) value).longValue();
+            } else if (!isBigInteger && value instanceof Long) {
+                longValue = (Long) value;
+            } else {
+                return false;
+            }
+            ensureCapacity(row + 1);
+            values[row] = longValue;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return isBigInteger ? BigInteger.valueOf(values[row]) : Long.valueOf(values[row]);
+        }
+
+        @Override
+        int compareValues(final int row1, final int row2) {
+            return Long.compare(values[row1], values[row2]);
+        }
+
+        @Override
+        boolean bindValue(final PreparedStatement statement, final int index, final int row) throws SQLException {
+            statement.setLong(index, values[row]);
+            return true;
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size());
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static class DoubleVector extends ColumnVector {
+
+        private double[] values = new double[0];
+
+        DoubleVector(final DataType dataType) {
+            super(dataType);
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 1);
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            if (!(value instanceof Double)) {
+                return false;
+            }
+            ensureCapacity(row + 1);
+            values[row] = (Double) value;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return values[row];
+        }
+
+        @Override
+        int compareValues(final int row1, final int row2) {
+            return Double.compare(values[row1], values[row2]);
+        }
+
+        @Override
+        boolean bindValue(final PreparedStatement statement, final int index, final int row) throws SQLException {
+            statement.setDouble(index, values[row]);
+            return true;
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size());
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static class StringVector extends ColumnVector {
+
+        private final List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> codes = new HashMap<>();
+        private int[] values = new int[0];
+
+        StringVector(final DataType dataType) {
+            super(dataType);
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 1);
+            values[row] = -1;
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add((String) value);
+                codes.put((String) value, code);
+            }
+            ensureCapacity(row + 1);
+            values[row] = code;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return dictionary.get(values[row]);
+        }
+
+        @Override
+        int compareValues(final int row1, final int row2) throws TypeCastException {
+            if (values[row1] == values[row2]) {
+                return 0;
+            }
+            return getDataType() == DataType.UNKNOWN ? super.compareValues(row1, row2)
+                    : dictionary.get(values[row1]).compareTo(dictionary.get(values[row2]));
+        }
+
+        @Override
+        boolean bindValue(final PreparedStatement statement, final int index, final int row) throws SQLException {
+            if (getDataType().getClass() != StringDataType.class) {
+                return false;
+            }
+            statement.setString(index, dictionary.get(values[row]));
+            return true;
+        }
+
+        @Override
+        void trim() {
+            // the lookup map is only required while the vector is filled
+            codes = new HashMap<>();
+            values = Arrays.copyOf(values, size());
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static class BinaryVector extends ColumnVector {
+
+        private byte[] slab = new byte[0];
+        private int[] offsets = new int[1];
+
+        BinaryVector(final DataType dataType) {
+            super(dataType);
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 2, 0);
+            offsets[row + 1] = offsets[row];
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            if (!(value instanceof byte[])) {
+                return false;
+            }
+            final byte[] bytes = (byte[]) value;
+            ensureCapacity(row + 2, offsets[row] + bytes.length);
+            System.arraycopy(bytes, 0, slab, offsets[row], bytes.length);
+            offsets[row + 1] = offsets[row] + bytes.length;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return Arrays.copyOfRange(slab, offsets[row], offsets[row + 1]);
+        }
+
+        @Override
+        void trim() {
+            slab = Arrays.copyOf(slab, offsets[size()]);
+            offsets = Arrays.copyOf(offsets, size() + 1);
+        }
+
+        private void ensureCapacity(final int offsetCount, final int slabSize) {
+            if (offsets.length < offsetCount) {
+                offsets = Arrays.copyOf(offsets, grow(offsets.length, offsetCount));
+            }
+            if (slab.length < slabSize) {
+                slab = Arrays.copyOf(slab, grow(slab.length, slabSize));
+            }
+        }
+    }
+
+    static class ObjectVector extends ColumnVector {
+
+        private Object[] values = new Object[0];
+
+        ObjectVector(final DataType dataType) {
+            super(dataType);
+        }
+
+        @Override
+        void appendDefault(final int row) {
+            ensureCapacity(row + 1);
+        }
+
+        @Override
+        boolean append(final int row, final Object value) {
+            ensureCapacity(row + 1);
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        Object getValue(final int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim() {
+            values = Arrays.copyOf(values, size());
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.util.Collection;
+
+import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.OrderedTableNameMap;
+import org.dbunit.dataset.stream.IDataSetConsumer;
+import org.dbunit.dataset.stream.IDataSetProducer;
+
+public class ColumnarDataSet extends AbstractDataSet implements IDataSetConsumer {
+
+    private OrderedTableNameMap tables;
+    private OrderedTableNameMap builders;
+    private ColumnarTable.Builder activeTable;
+    private int[] activeColumns;
+    private Object[] activeRow;
+
+    public ColumnarDataSet(final IDataSetProducer producer) throws DataSetException {
+        super(false);
+        tables = createTableNameMap();
+        producer.setConsumer(this);
+        producer.produce();
+    }
+
+    @Override
+    protected ITableIterator createIterator(final boolean reversed) throws DataSetException {
+        @SuppressWarnings("unchecked")
+        final Collection<ITable> orderedTables = tables.orderedValues();
+        return new DefaultTableIterator(orderedTables.toArray(new ITable[orderedTables.size()]), reversed);
+    }
+
+    @Override
+    public void startDataSet() throws DataSetException {
+        tables = createTableNameMap();
+        builders = createTableNameMap();
+    }
+
+    @Override
+    public void endDataSet() throws DataSetException {
+        for (final String tableName : builders.getTableNames()) {
+            tables.add(tableName, ((ColumnarTable.Builder) builders.get(tableName)).build());
+        }
+        builders = null;
+    }
+
+    @Override
+    public void startTable(final ITableMetaData metaData) throws DataSetException {
+        final String tableName = metaData.getTableName();
+        if (builders.containsTable(tableName)) {
+            // rows of the same table are not necessarily produced en bloc. These are appended to the
+            // rows produced before, possibly with the columns in a different order
+            activeTable = (ColumnarTable.Builder) builders.get(tableName);
+            activeColumns = getColumnIndexes(activeTable.getTableMetaData(), metaData);
+            activeRow = new Object[activeColumns.length];
+        } else {
+            activeTable = new ColumnarTable.Builder(metaData);
+            builders.add(tableName, activeTable);
+        }
+    }
+
+    @Override
+    public void endTable() throws DataSetException {
+        activeTable = null;
+        activeColumns = null;
+        activeRow = null;
+    }
+
+    @Override
+    public void row(final Object[] values) throws DataSetException {
+        if (activeColumns == null) {
+            activeTable.addRow(values);
+            return;
+        }
+
+        for (int i = 0; i < activeColumns.length; i++) {
+            activeRow[i] = values[activeColumns[i]];
+        }
+        activeTable.addRow(activeRow);
+    }
+
+    private static int[] getColumnIndexes(final ITableMetaData metaData, final ITableMetaData producedMetaData) throws DataSetException {
+        final Column[] columns = metaData.getColumns();
+        final int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = producedMetaData.getColumnIndex(columns[i].getColumnName());
+        }
+        return indexes;
+    }
+}
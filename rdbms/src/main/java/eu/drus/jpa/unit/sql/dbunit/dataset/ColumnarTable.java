@@ -0,0 +1,166 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.dbunit.dataset.AbstractTable;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoSuchColumnException;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+
+public class ColumnarTable extends AbstractTable {
+
+    private final ITableMetaData metaData;
+    private final ColumnVector[] columns;
+    private final int rowCount;
+    private final int[] rows;
+
+    private ColumnarTable(final ITableMetaData metaData, final ColumnVector[] columns, final int rowCount, final int[] rows) {
+        this.metaData = metaData;
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.rows = rows;
+    }
+
+    @Override
+    public ITableMetaData getTableMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Object getValue(final int row, final String column) throws DataSetException {
+        assertValidRowIndex(row);
+        return columns[getColumnIndex(column)].get(toVectorRow(row));
+    }
+
+    public void bindValue(final PreparedStatement statement, final int index, final int row, final int column, final DataType targetType)
+            throws SQLException, TypeCastException {
+        columns[column].bind(statement, index, toVectorRow(row), targetType);
+    }
+
+    public boolean isSortableBy(final Column[] sortColumns) throws DataSetException {
+        try {
+            for (final Column sortColumn : sortColumns) {
+                if (!columns[getColumnIndex(sortColumn.getColumnName())].getDataType().equals(sortColumn.getDataType())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (final NoSuchColumnException e) {
+            return false;
+        }
+    }
+
+    public ColumnarTable sortBy(final String[] sortColumns) throws DataSetException {
+        final ColumnVector[] vectors = new ColumnVector[sortColumns.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            vectors[i] = columns[getColumnIndex(sortColumns[i])];
+        }
+
+        // the rows are sorted as permutation of the vector rows, without boxing these
+        final int[] sortedRows = new int[getRowCount()];
+        for (int i = 0; i < sortedRows.length; i++) {
+            sortedRows[i] = toVectorRow(i);
+        }
+        mergeSort(sortedRows, sortedRows.clone(), 0, sortedRows.length, vectors);
+        return new ColumnarTable(metaData, columns, rowCount, sortedRows);
+    }
+
+    /**
+     * Sorts the given range of rows stably, using the other array of equal content as buffer.
+     */
+    private static void mergeSort(final int[] rows, final int[] buffer, final int from, final int to, final ColumnVector[] vectors)
+            throws TypeCastException {
+        if (to - from < 2) {
+            return;
+        }
+
+        final int middle = (from + to) >>> 1;
+        // the halves are sorted into the buffer, which is then merged back
+        mergeSort(buffer, rows, from, middle, vectors);
+        mergeSort(buffer, rows, middle, to, vectors);
+
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && compare(buffer[left], buffer[right], vectors) <= 0) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compare(final int row1, final int row2, final ColumnVector[] vectors) throws TypeCastException {
+        for (final ColumnVector vector : vectors) {
+            final int result = vector.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private int toVectorRow(final int row) {
+        return rows == null ? row : rows[row];
+    }
+
+    /**
+     * Returns the column wise representation of the given table or <code>null</code> if it has none.
+     */
+    public static ColumnarTable of(final ITable table) throws DataSetException {
+        if (table instanceof ColumnarTable) {
+            return (ColumnarTable) table;
+        } else if (table instanceof LazyDataSet.LazyTable) {
+            return ((LazyDataSet.LazyTable) table).decode();
+        }
+        return null;
+    }
+
+    static class Builder {
+
+        private final ITableMetaData metaData;
+        private final ColumnVector[] columns;
+        private int rowCount;
+
+        Builder(final ITableMetaData metaData) throws DataSetException {
+            this.metaData = metaData;
+            final Column[] metaDataColumns = metaData.getColumns();
+            columns = new ColumnVector[metaDataColumns.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = ColumnVector.create(metaDataColumns[i].getDataType());
+            }
+        }
+
+        ITableMetaData getTableMetaData() {
+            return metaData;
+        }
+
+        void addRow(final Object[] values) {
+            for (int i = 0; i < columns.length; i++) {
+                if (!columns[i].add(values[i])) {
+                    // the value does not fit into the specialized vector
+                    columns[i] = ColumnVector.toObjectVector(columns[i]);
+                    columns[i].add(values[i]);
+                }
+            }
+            rowCount++;
+        }
+
+        ColumnarTable build() {
+            for (final ColumnVector column : columns) {
+                column.trim();
+            }
+            return new ColumnarTable(metaData, columns, rowCount, null);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.common.handlers.PipelineException;
+import org.dbunit.dataset.csv.CsvDataSetWriter;
+import org.dbunit.dataset.csv.CsvParserException;
+import org.dbunit.dataset.csv.CsvParserImpl;
+import org.dbunit.dataset.datatype.DataType;
+
+import eu.drus.jpa.unit.spi.Compression;
+import eu.drus.jpa.unit.sql.dbunit.dataset.LazyDataSet.TableEntry;
+
+/**
+ * Indexes the tables of a csv data set. Each table is stored in its own file, which is scanned once
+ * to read its header and to count its records. The rows of a table are parsed from its file when
+ * these are needed. Table files may be compressed, like <code>TABLE.csv.gz</code>.
+ */
+class CsvDataSetIndex {
+
+    private static final String TABLE_ORDERING_FILE = "table-ordering.txt";
+
+    private CsvDataSetIndex() {}
+
+    static List<TableEntry> create(final Path directory) throws DataSetException {
+        final List<TableEntry> entries = new ArrayList<>();
+        try {
+            for (final String tableName : readTableNames(directory)) {
+                final Path file = tableFile(directory, tableName);
+                final DefaultTableMetaData metaData;
+                final int rowCount;
+                try (BufferedReader reader = new BufferedReader(openReader(file))) {
+                    metaData = new DefaultTableMetaData(tableName, readColumns(reader.readLine()));
+                    rowCount = countRecords(reader);
+                }
+                entries.add(new TableEntry(metaData, rowCount, consumer -> {
+                    final List<?> rows = readRows(file);
+                    for (int i = 1; i < rows.size(); i++) {
+                        final Object[] values = ((List<?>) rows.get(i)).toArray();
+                        for (int j = 0; j < values.length; j++) {
+                            values[j] = CsvDataSetWriter.NULL.equals(values[j]) ? null : values[j];
+                        }
+                        consumer.row(values);
+                    }
+                }));
+            }
+        } catch (final IOException | PipelineException e) {
+            throw new DataSetException("Error parsing csv data set", e);
+        }
+        return entries;
+    }
+
+    private static List<String> readTableNames(final Path directory) throws IOException {
+        final List<String> tableNames = new ArrayList<>();
+        for (final String line : Files.readAllLines(directory.resolve(TABLE_ORDERING_FILE), StandardCharsets.UTF_8)) {
+            final String tableName = line.trim();
+            if (!tableName.isEmpty()) {
+                tableNames.add(tableName);
+            }
+        }
+        return tableNames;
+    }
+
+    private static Path tableFile(final Path directory, final String tableName) {
+        for (final Compression compression : Compression.values()) {
+            final Path file = directory.resolve(tableName + ".csv" + compression.suffix());
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+        // not existing. Reading it will report the error
+        return directory.resolve(tableName + ".csv");
+    }
+
+    private static Reader openReader(final Path file) throws IOException {
+        return new InputStreamReader(Compression.openStream(file), StandardCharsets.UTF_8);
+    }
+
+    private static Column[] readColumns(final String header) throws PipelineException {
+        final List<?> columnNames = header == null ? new ArrayList<>() : new CsvParserImpl().parse(header);
+        final Column[] columns = new Column[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(((String) columnNames.get(i)).trim(), DataType.UNKNOWN);
+        }
+        return columns;
+    }
+
+    private static int countRecords(final Reader reader) throws IOException {
+        // a record ends with a line break outside of quotes. Like the parser, a backslash escapes
+        // the next character of a quoted value. Empty lines are not counted
+        int records = 0;
+        boolean isQuoted = false;
+        boolean isEscaped = false;
+        boolean hasContent = false;
+        final char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                final char c = buffer[i];
+                if (isEscaped) {
+                    isEscaped = false;
+                } else if ((c == '\n' || c == '\r') && !isQuoted) {
+                    if (hasContent) {
+                        records++;
+                        hasContent = false;
+                    }
+                    continue;
+                } else if (c == '"') {
+                    isQuoted = !isQuoted;
+                } else if (c == '\\' && isQuoted) {
+                    isEscaped = true;
+                }
+                hasContent = true;
+            }
+        }
+        return hasContent ? records + 1 : records;
+    }
+
+    private static List<?> readRows(final Path file) throws DataSetException {
+        try (Reader reader = openReader(file)) {
+            return new CsvParserImpl().parse(reader, file.toString());
+        } catch (final IOException | CsvParserException e) {
+            throw new DataSetException("Error parsing csv data set for table " + file.getFileName(), e);
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package eu.drus.jpa.unit.sql.dbunit.dataset;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
 
-import org.dbunit.dataset.CachedDataSet;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ReplacementDataSet;
-import org.dbunit.dataset.csv.CsvDataSet;
 import org.dbunit.dataset.excel.XlsDataSet;
-import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.dataset.stream.IDataSetProducer;
+import org.dbunit.dataset.xml.FlatXmlProducer;
+import org.xml.sax.InputSource;
 
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.Compression;
 import eu.drus.jpa.unit.spi.DataSetFormat.LoaderProvider;
 import eu.drus.jpa.unit.spi.DataSetLoader;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
 
 public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
 
+    private final ColumnTypeResolver typeResolver;
+
+    public DataSetLoaderProvider() {
+        this(null);
+    }
+
+    public DataSetLoaderProvider(final ColumnTypeResolver typeResolver) {
+        this.typeResolver = typeResolver;
+    }
+
     private IDataSet defineReplaceableExpressions(final IDataSet dataSet) {
         final ReplacementDataSet replacementDataSet = new ReplacementDataSet(dataSet);
         replacementDataSet.addReplacementObject("[null]", null);
@@ -25,13 +38,32 @@ public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
         return replacementDataSet;
     }
 
+    private IDataSet load(final IDataSetProducer producer) throws DataSetException {
+        if (typeResolver == null) {
+            return defineReplaceableExpressions(new ColumnarDataSet(producer));
+        }
+
+        // values are converted to the column types known by the database while loading. This
+        // includes the replacement of [null] expressions.
+        return new ColumnarDataSet(new TypedDataSetProducer(producer, typeResolver));
+    }
+
+    private IDataSet load(final List<LazyDataSet.TableEntry> tables) throws DataSetException {
+        if (typeResolver == null) {
+            return defineReplaceableExpressions(new LazyDataSet(tables, null));
+        }
+        return new LazyDataSet(tables, typeResolver);
+    }
+
+    public IDataSet load(final GeneratedDataSet dataSet) throws DataSetException {
+        return new GeneratedDbUnitDataSet(dataSet, typeResolver);
+    }
+
     @Override
     public DataSetLoader<IDataSet> xmlLoader() {
-        return (final File path) -> {
-            try (InputStream in = new FileInputStream(path)) {
-                final FlatXmlDataSetBuilder flatXmlDataSetBuilder = new FlatXmlDataSetBuilder();
-                flatXmlDataSetBuilder.setColumnSensing(true);
-                return defineReplaceableExpressions(flatXmlDataSetBuilder.build(in));
+        return (final Path path) -> {
+            try (InputStream in = Compression.openStream(path)) {
+                return load(new FlatXmlProducer(new InputSource(in), true, true, false));
             } catch (final DataSetException e) {
                 throw new IOException(e);
             }
@@ -40,9 +72,9 @@ public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
 
     @Override
     public DataSetLoader<IDataSet> yamlLoader() {
-        return (final File path) -> {
-            try (InputStream in = new FileInputStream(path)) {
-                return defineReplaceableExpressions(new CachedDataSet(new YamlDataSetProducer(in), false));
+        return (final Path path) -> {
+            try (InputStream in = Compression.openStream(path)) {
+                return load(new YamlDataSetProducer(in));
             } catch (final DataSetException e) {
                 throw new IOException(e);
             }
@@ -51,9 +83,9 @@ public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
 
     @Override
     public DataSetLoader<IDataSet> jsonLoader() {
-        return (final File path) -> {
-            try (InputStream in = new FileInputStream(path)) {
-                return defineReplaceableExpressions(new CachedDataSet(new JsonDataSetProducer(in), false));
+        return (final Path path) -> {
+            try {
+                return load(JsonDataSetIndex.create(path));
             } catch (final DataSetException e) {
                 throw new IOException(e);
             }
@@ -62,9 +94,9 @@ public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
 
     @Override
     public DataSetLoader<IDataSet> csvLoader() {
-        return (final File path) -> {
+        return (final Path path) -> {
             try {
-                return defineReplaceableExpressions(new CsvDataSet(path));
+                return load(CsvDataSetIndex.create(path));
             } catch (final DataSetException e) {
                 throw new IOException(e);
             }
@@ -73,12 +105,23 @@ public class DataSetLoaderProvider implements LoaderProvider<IDataSet> {
 
     @Override
     public DataSetLoader<IDataSet> xlsLoader() {
-        return (final File path) -> {
-            try (InputStream in = new FileInputStream(path)) {
+        return (final Path path) -> {
+            try (InputStream in = Compression.openStream(path)) {
                 return defineReplaceableExpressions(new XlsDataSet(in));
             } catch (final DataSetException e) {
                 throw new IOException(e);
             }
         };
     }
+
+    @Override
+    public DataSetLoader<IDataSet> binaryLoader() {
+        return (final Path path) -> {
+            try {
+                return new MappedDataSet(BinaryDataSet.open(path), typeResolver);
+            } catch (final DataSetException e) {
+                throw new IOException(e);
+            }
+        };
+    }
 }
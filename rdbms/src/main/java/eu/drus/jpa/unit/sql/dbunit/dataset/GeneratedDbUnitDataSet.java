@@ -0,0 +1,78 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.AbstractTable;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+
+/**
+ * DbUnit view on a {@link GeneratedDataSet}. Rows are generated when DbUnit accesses these, e.g.
+ * while inserting them, and are not stored.
+ */
+public class GeneratedDbUnitDataSet extends AbstractDataSet {
+
+    private final List<ITable> tables = new ArrayList<>();
+
+    public GeneratedDbUnitDataSet(final GeneratedDataSet dataSet, final ColumnTypeResolver typeResolver) throws DataSetException {
+        super(false);
+        for (final GeneratedDataSet.Table table : dataSet.getTables()) {
+            final ITableMetaData metaData = createMetaData(table);
+            tables.add(new GeneratedTable(table, typeResolver == null ? metaData : typeResolver.resolve(metaData)));
+        }
+    }
+
+    private static ITableMetaData createMetaData(final GeneratedDataSet.Table table) {
+        final List<String> columnNames = table.getColumnNames();
+        final Column[] columns = new Column[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(columnNames.get(i), DataType.UNKNOWN);
+        }
+        return new DefaultTableMetaData(table.getName(), columns);
+    }
+
+    @Override
+    protected ITableIterator createIterator(final boolean reversed) throws DataSetException {
+        return new DefaultTableIterator(tables.toArray(new ITable[tables.size()]), reversed);
+    }
+
+    private static class GeneratedTable extends AbstractTable {
+
+        private final GeneratedDataSet.Table table;
+        private final ITableMetaData metaData;
+
+        private GeneratedTable(final GeneratedDataSet.Table table, final ITableMetaData metaData) {
+            this.table = table;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public ITableMetaData getTableMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public int getRowCount() {
+            return table.getRowCount();
+        }
+
+        @Override
+        public Object getValue(final int row, final String column) throws DataSetException {
+            assertValidRowIndex(row);
+
+            // the column order of the meta data is the same as in the generated data set
+            final int columnIndex = getColumnIndex(column);
+            return metaData.getColumns()[columnIndex].getDataType().typeCast(table.getValue(row, columnIndex));
+        }
+    }
+}
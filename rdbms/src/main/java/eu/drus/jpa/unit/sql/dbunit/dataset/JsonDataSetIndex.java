@@ -0,0 +1,214 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import eu.drus.jpa.unit.spi.Compression;
+import eu.drus.jpa.unit.sql.dbunit.dataset.LazyDataSet.TableEntry;
+
+/**
+ * Indexes the tables of a json data set by a single scan over the bytes of the file. For each
+ * table its position in the file, the names of its columns and the number of its rows are
+ * recorded. The rows of a table are parsed from its position in the file when these are needed.
+ * Positions of compressed files refer to the uncompressed content, which is skipped while
+ * decompressing up to the position of a table.
+ */
+class JsonDataSetIndex {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+    private final List<TableEntry> entries = new ArrayList<>();
+    private final ByteArrayOutputStream token = new ByteArrayOutputStream();
+
+    private boolean rootSeen;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private String lastString;
+    private String tableName;
+    private boolean expectsTable;
+    private long tableStart;
+    private int rowCount;
+    private Collection<String> columnNames;
+
+    private JsonDataSetIndex(final Path file) {
+        this.file = file;
+    }
+
+    static List<TableEntry> create(final Path file) throws DataSetException {
+        final JsonDataSetIndex index = new JsonDataSetIndex(file);
+        try (InputStream in = Compression.openStream(file)) {
+            index.scan(in);
+        } catch (final IOException e) {
+            throw new DataSetException("Error parsing json data set", e);
+        }
+        return index.entries;
+    }
+
+    private void scan(final InputStream in) throws IOException, DataSetException {
+        final byte[] buffer = new byte[8192];
+        long position = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++, position++) {
+                accept(buffer[i], position);
+            }
+        }
+
+        if (depth != 0 || inString || !rootSeen) {
+            throw new DataSetException("Error parsing json data set: unexpected end of " + file);
+        }
+    }
+
+    private void accept(final byte b, final long position) throws DataSetException {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                lastString = decodeString(token.toByteArray());
+                return;
+            }
+            token.write(b);
+            return;
+        }
+
+        switch (b) {
+        case '"':
+            checkNoTableValue(b);
+            checkInsideDataSet(b);
+            checkNoRowValue();
+            inString = true;
+            token.reset();
+            break;
+        case ':':
+            if (depth == 1) {
+                tableName = lastString;
+                expectsTable = true;
+            } else if (depth == 3) {
+                columnNames.add(lastString);
+            }
+            break;
+        case '[':
+        case '{':
+            startStructure(b, position);
+            break;
+        case ']':
+        case '}':
+            endStructure(position);
+            break;
+        case ' ':
+        case '\t':
+        case '\r':
+        case '\n':
+        case ',':
+            break;
+        default:
+            checkNoTableValue(b);
+            checkInsideDataSet(b);
+            checkNoRowValue();
+        }
+    }
+
+    private void startStructure(final byte b, final long position) throws DataSetException {
+        if (depth == 0) {
+            if (b != '{' || rootSeen) {
+                throw new DataSetException("Error parsing json data set: " + file + " is expected to contain a single object");
+            }
+            rootSeen = true;
+        } else if (depth == 1) {
+            checkNoTableValue(b);
+            expectsTable = false;
+            tableStart = position;
+            rowCount = 0;
+            columnNames = new LinkedHashSet<>();
+        } else if (depth == 2) {
+            if (b != '{') {
+                checkNoRowValue();
+            }
+            rowCount++;
+        }
+        depth++;
+    }
+
+    private void endStructure(final long position) throws DataSetException {
+        depth--;
+        if (depth < 0) {
+            throw new DataSetException("Error parsing json data set: unexpected end of structure in " + file);
+        } else if (depth == 1) {
+            final List<Column> columns = new ArrayList<>();
+            for (final String columnName : columnNames) {
+                columns.add(new Column(columnName, DataType.UNKNOWN));
+            }
+            final DefaultTableMetaData metaData = new DefaultTableMetaData(tableName, columns.toArray(new Column[columns.size()]));
+            final long start = tableStart;
+            final long length = position + 1 - tableStart;
+            entries.add(new TableEntry(metaData, rowCount, consumer -> {
+                for (final Map<String, Object> row : readRows(start, length)) {
+                    final Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        final Object rawValue = row.get(columns.get(i).getColumnName());
+                        values[i] = rawValue == null ? null : String.valueOf(rawValue);
+                    }
+                    consumer.row(values);
+                }
+            }));
+        }
+    }
+
+    private void checkInsideDataSet(final byte b) throws DataSetException {
+        if (depth == 0 || depth == 1 && b != '"') {
+            throw new DataSetException("Error parsing json data set: unexpected character '" + (char) b + "' in " + file);
+        }
+    }
+
+    private void checkNoTableValue(final byte b) throws DataSetException {
+        if (expectsTable && b != '[') {
+            throw new DataSetException("Error parsing json data set: table " + tableName + " is expected to be an array");
+        }
+    }
+
+    private void checkNoRowValue() throws DataSetException {
+        if (depth == 2) {
+            throw new DataSetException("Error parsing json data set: rows of table " + tableName + " are expected to be objects");
+        }
+    }
+
+    private static String decodeString(final byte[] bytes) {
+        final String value = new String(bytes, StandardCharsets.UTF_8);
+        return value.indexOf('\\') == -1 ? value : GSON.fromJson('"' + value + '"', String.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readRows(final long start, final long length) throws DataSetException {
+        try (InputStream in = Compression.openStream(file)) {
+            ByteStreams.skipFully(in, start);
+            final Reader reader = new InputStreamReader(ByteStreams.limit(in, length), StandardCharsets.UTF_8);
+            return GSON.fromJson(reader, List.class);
+        } catch (final IOException | JsonParseException e) {
+            throw new DataSetException("Error parsing json data set", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.AbstractTable;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoSuchTableException;
+import org.dbunit.dataset.OrderedTableNameMap;
+import org.dbunit.dataset.stream.IDataSetConsumer;
+import org.dbunit.dataset.stream.IDataSetProducer;
+
+/**
+ * Data set, which is created from an index of the tables contained in a data set file. Table names,
+ * meta data and (if known) row counts are taken from the index. The rows of a table are decoded
+ * when these are accessed the first time.
+ */
+public class LazyDataSet extends AbstractDataSet {
+
+    @FunctionalInterface
+    interface TableSource {
+        /**
+         * Reads the rows of a single table and reports these to the given consumer.
+         */
+        void produce(IDataSetConsumer consumer) throws DataSetException;
+    }
+
+    static class TableEntry {
+
+        private final ITableMetaData metaData;
+        private final int rowCount;
+        private final TableSource source;
+
+        /**
+         * @param rowCount
+         *            the number of rows or -1 if not known without decoding the table
+         */
+        TableEntry(final ITableMetaData metaData, final int rowCount, final TableSource source) {
+            this.metaData = metaData;
+            this.rowCount = rowCount;
+            this.source = source;
+        }
+
+        String getTableName() {
+            return metaData.getTableName();
+        }
+    }
+
+    private final OrderedTableNameMap tables;
+
+    public LazyDataSet(final List<TableEntry> entries, final ColumnTypeResolver typeResolver) throws DataSetException {
+        super(false);
+        tables = createTableNameMap();
+        for (final TableEntry entry : entries) {
+            final LazyTable table = new LazyTable(entry, typeResolver);
+            if (tables.containsTable(entry.getTableName())) {
+                tables.update(entry.getTableName(), table);
+            } else {
+                tables.add(entry.getTableName(), table);
+            }
+        }
+    }
+
+    @Override
+    protected ITableIterator createIterator(final boolean reversed) throws DataSetException {
+        @SuppressWarnings("unchecked")
+        final Collection<ITable> orderedTables = tables.orderedValues();
+        return new DefaultTableIterator(orderedTables.toArray(new ITable[orderedTables.size()]), reversed);
+    }
+
+    @Override
+    public String[] getTableNames() throws DataSetException {
+        return tables.getTableNames();
+    }
+
+    @Override
+    public ITableMetaData getTableMetaData(final String tableName) throws DataSetException {
+        return getTable(tableName).getTableMetaData();
+    }
+
+    @Override
+    public ITable getTable(final String tableName) throws DataSetException {
+        final ITable table = (ITable) tables.get(tableName);
+        if (table == null) {
+            throw new NoSuchTableException(tableName);
+        }
+        return table;
+    }
+
+    static class LazyTable extends AbstractTable {
+
+        private final TableEntry entry;
+        private final ColumnTypeResolver typeResolver;
+        private final ITableMetaData metaData;
+        private ColumnarTable table;
+
+        private LazyTable(final TableEntry entry, final ColumnTypeResolver typeResolver) throws DataSetException {
+            this.entry = entry;
+            this.typeResolver = typeResolver;
+            metaData = typeResolver == null ? entry.metaData : typeResolver.resolve(entry.metaData);
+        }
+
+        @Override
+        public ITableMetaData getTableMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public int getRowCount() {
+            if (entry.rowCount >= 0) {
+                return entry.rowCount;
+            }
+
+            try {
+                return decode().getRowCount();
+            } catch (final DataSetException e) {
+                throw new IllegalStateException("Could not read rows of table " + metaData.getTableName(), e);
+            }
+        }
+
+        @Override
+        public Object getValue(final int row, final String column) throws DataSetException {
+            return decode().getValue(row, column);
+        }
+
+        synchronized ColumnarTable decode() throws DataSetException {
+            if (table == null) {
+                final IDataSetProducer producer = new TableProducer(entry);
+                final ColumnarDataSet dataSet = new ColumnarDataSet(
+                        typeResolver == null ? producer : new TypedDataSetProducer(producer, typeResolver));
+                table = (ColumnarTable) dataSet.getTable(metaData.getTableName());
+            }
+            return table;
+        }
+    }
+
+    private static class TableProducer implements IDataSetProducer {
+
+        private final TableEntry entry;
+        private IDataSetConsumer consumer;
+
+        private TableProducer(final TableEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void setConsumer(final IDataSetConsumer consumer) throws DataSetException {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void produce() throws DataSetException {
+            consumer.startDataSet();
+            consumer.startTable(entry.metaData);
+            entry.source.produce(consumer);
+            consumer.endTable();
+            consumer.endDataSet();
+        }
+    }
+}
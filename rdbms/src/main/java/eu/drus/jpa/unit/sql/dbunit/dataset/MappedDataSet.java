@@ -0,0 +1,91 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.AbstractTable;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet;
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+
+public class MappedDataSet extends AbstractDataSet {
+
+    private final List<ITable> tables = new ArrayList<>();
+
+    public MappedDataSet(final BinaryDataSet dataSet, final ColumnTypeResolver typeResolver) throws DataSetException {
+        super(false);
+        for (final BinaryDataSet.Table table : dataSet.getTables()) {
+            final ITableMetaData metaData = createMetaData(table);
+            tables.add(new MappedTable(table, typeResolver == null ? metaData : typeResolver.resolve(metaData)));
+        }
+    }
+
+    private static ITableMetaData createMetaData(final BinaryDataSet.Table table) {
+        final Column[] columns = new Column[table.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(table.getColumnName(i), toDataType(table.getColumnType(i)));
+        }
+        return new DefaultTableMetaData(table.getName(), columns);
+    }
+
+    private static DataType toDataType(final ColumnType type) {
+        switch (type) {
+        case INT:
+            return DataType.INTEGER;
+        case LONG:
+            return DataType.BIGINT_AUX_LONG;
+        case DOUBLE:
+            return DataType.DOUBLE;
+        case BOOLEAN:
+            return DataType.BOOLEAN;
+        case BYTES:
+            return DataType.VARBINARY;
+        default:
+            return DataType.VARCHAR;
+        }
+    }
+
+    @Override
+    protected ITableIterator createIterator(final boolean reversed) throws DataSetException {
+        return new DefaultTableIterator(tables.toArray(new ITable[tables.size()]), reversed);
+    }
+
+    private static class MappedTable extends AbstractTable {
+
+        private final BinaryDataSet.Table table;
+        private final ITableMetaData metaData;
+
+        private MappedTable(final BinaryDataSet.Table table, final ITableMetaData metaData) {
+            this.table = table;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public ITableMetaData getTableMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public int getRowCount() {
+            return table.getRowCount();
+        }
+
+        @Override
+        public Object getValue(final int row, final String column) throws DataSetException {
+            assertValidRowIndex(row);
+
+            // the column order of the meta data is the same as in the binary data set
+            final int columnIndex = getColumnIndex(column);
+            return metaData.getColumns()[columnIndex].getDataType().typeCast(table.getValue(row, columnIndex));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import static java.util.Objects.requireNonNull;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.stream.IDataSetConsumer;
+import org.dbunit.dataset.stream.IDataSetProducer;
+
+public class TypedDataSetProducer implements IDataSetProducer {
+
+    private final IDataSetProducer producer;
+    private final ColumnTypeResolver typeResolver;
+
+    public TypedDataSetProducer(final IDataSetProducer producer, final ColumnTypeResolver typeResolver) {
+        requireNonNull(producer);
+        requireNonNull(typeResolver);
+        this.producer = producer;
+        this.typeResolver = typeResolver;
+    }
+
+    @Override
+    public void setConsumer(final IDataSetConsumer consumer) throws DataSetException {
+        producer.setConsumer(new TypeConvertingConsumer(consumer));
+    }
+
+    @Override
+    public void produce() throws DataSetException {
+        producer.produce();
+    }
+
+    private class TypeConvertingConsumer implements IDataSetConsumer {
+
+        private final IDataSetConsumer consumer;
+        private Column[] columns;
+
+        private TypeConvertingConsumer(final IDataSetConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startDataSet() throws DataSetException {
+            consumer.startDataSet();
+        }
+
+        @Override
+        public void endDataSet() throws DataSetException {
+            consumer.endDataSet();
+        }
+
+        @Override
+        public void startTable(final ITableMetaData metaData) throws DataSetException {
+            final ITableMetaData typedMetaData = typeResolver.resolve(metaData);
+            columns = typedMetaData.getColumns();
+            consumer.startTable(typedMetaData);
+        }
+
+        @Override
+        public void endTable() throws DataSetException {
+            columns = null;
+            consumer.endTable();
+        }
+
+        @Override
+        public void row(final Object[] values) throws DataSetException {
+            final Object[] typedValues = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                typedValues[i] = isNullExpression(values[i]) ? null : columns[i].getDataType().typeCast(values[i]);
+            }
+            consumer.row(typedValues);
+        }
+
+        private boolean isNullExpression(final Object value) {
+            return "[null]".equals(value) || "[NULL]".equals(value);
+        }
+    }
+}
@@ -8,9 +8,18 @@ import java.sql.Connection;
 import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.IDatabaseConnection;
 
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
+
 public interface DbUnitConnectionFactory {
 
     boolean supportsDriver(final String driverClass);
 
     IDatabaseConnection createConnection(final Connection connection, final String schema) throws DatabaseUnitException;
+
+    /**
+     * The dialect to explain queries or <code>null</code>, if not supported for this database.
+     */
+    default QueryPlanDialect getQueryPlanDialect() {
+        return null;
+    }
 }
@@ -6,6 +6,8 @@ import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.ext.h2.H2Connection;
 
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
+
 public class H2ConnectionFactory implements DbUnitConnectionFactory {
 
     @Override
@@ -17,4 +19,9 @@ public class H2ConnectionFactory implements DbUnitConnectionFactory {
     public IDatabaseConnection createConnection(final Connection connection, final String schema) throws DatabaseUnitException {
         return new H2Connection(connection, schema);
     }
+
+    @Override
+    public QueryPlanDialect getQueryPlanDialect() {
+        return QueryPlanDialect.H2;
+    }
 }
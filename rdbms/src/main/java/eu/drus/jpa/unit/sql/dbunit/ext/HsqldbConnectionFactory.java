@@ -6,6 +6,8 @@ import org.dbunit.DatabaseUnitException;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.ext.hsqldb.HsqldbConnection;
 
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
+
 public class HsqldbConnectionFactory implements DbUnitConnectionFactory {
 
     @Override
@@ -17,4 +19,9 @@ public class HsqldbConnectionFactory implements DbUnitConnectionFactory {
     public IDatabaseConnection createConnection(final Connection connection, final String schema) throws DatabaseUnitException {
         return new HsqldbConnection(connection, schema);
     }
+
+    @Override
+    public QueryPlanDialect getQueryPlanDialect() {
+        return QueryPlanDialect.HSQLDB;
+    }
 }
@@ -8,6 +8,8 @@ import org.dbunit.database.DatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.ext.postgresql.PostgresqlDataTypeFactory;
 
+import eu.drus.jpa.unit.sql.dbunit.plan.QueryPlanDialect;
+
 public class PostgresqlConnectionFactory implements DbUnitConnectionFactory {
 
     @Override
@@ -23,4 +25,9 @@ public class PostgresqlConnectionFactory implements DbUnitConnectionFactory {
 
         return dbUnitConnection;
     }
+
+    @Override
+    public QueryPlanDialect getQueryPlanDialect() {
+        return QueryPlanDialect.POSTGRESQL;
+    }
 }
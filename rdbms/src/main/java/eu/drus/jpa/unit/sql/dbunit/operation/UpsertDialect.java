@@ -0,0 +1,107 @@
+package eu.drus.jpa.unit.sql.dbunit.operation;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public enum UpsertDialect {
+    H2 {
+        @Override
+        boolean supportsDatabase(final String productName) {
+            return "H2".equals(productName);
+        }
+
+        @Override
+        public String createStatement(final String tableName, final List<String> columns, final List<String> keys) {
+            return "MERGE INTO " + tableName + " (" + join(columns) + ") KEY (" + join(keys) + ") VALUES (" + placeholders(columns) + ")";
+        }
+    },
+    HSQLDB {
+        @Override
+        boolean supportsDatabase(final String productName) {
+            return "HSQL Database Engine".equals(productName);
+        }
+
+        @Override
+        public String createStatement(final String tableName, final List<String> columns, final List<String> keys) {
+            // HSQLDB does not know the H2 specific MERGE ... KEY syntax, but supports the standard MERGE statement
+            final StringBuilder sql = new StringBuilder();
+            sql.append("MERGE INTO ").append(tableName).append(" AS t USING (VALUES (").append(placeholders(columns)).append(")) AS v (")
+                    .append(join(columns)).append(") ON ").append(join(keys, c -> "t." + c + " = v." + c, " AND "));
+
+            final List<String> values = nonKeyColumns(columns, keys);
+            if (!values.isEmpty()) {
+                sql.append(" WHEN MATCHED THEN UPDATE SET ").append(join(values, c -> "t." + c + " = v." + c, ", "));
+            }
+            return sql.append(" WHEN NOT MATCHED THEN INSERT (").append(join(columns)).append(") VALUES (")
+                    .append(join(columns, c -> "v." + c, ", ")).append(")").toString();
+        }
+    },
+    POSTGRESQL {
+        @Override
+        boolean supportsDatabase(final String productName) {
+            return "PostgreSQL".equals(productName);
+        }
+
+        @Override
+        public String createStatement(final String tableName, final List<String> columns, final List<String> keys) {
+            final List<String> values = nonKeyColumns(columns, keys);
+            final String onConflict = values.isEmpty() ? "DO NOTHING"
+                    : "DO UPDATE SET " + join(values, c -> c + " = EXCLUDED." + c, ", ");
+            return "INSERT INTO " + tableName + " (" + join(columns) + ") VALUES (" + placeholders(columns) + ") ON CONFLICT ("
+                    + join(keys) + ") " + onConflict;
+        }
+    },
+    MYSQL {
+        @Override
+        boolean supportsDatabase(final String productName) {
+            return "MySQL".equals(productName) || "MariaDB".equals(productName);
+        }
+
+        @Override
+        public String createStatement(final String tableName, final List<String> columns, final List<String> keys) {
+            List<String> values = nonKeyColumns(columns, keys);
+            if (values.isEmpty()) {
+                // ON DUPLICATE KEY UPDATE requires at least one assignment
+                values = Collections.singletonList(keys.get(0));
+            }
+            return "INSERT INTO " + tableName + " (" + join(columns) + ") VALUES (" + placeholders(columns) + ") ON DUPLICATE KEY UPDATE "
+                    + join(values, c -> c + " = VALUES(" + c + ")", ", ");
+        }
+    };
+
+    abstract boolean supportsDatabase(String productName);
+
+    public abstract String createStatement(String tableName, List<String> columns, List<String> keys);
+
+    public static UpsertDialect forConnection(final Connection connection) throws SQLException {
+        final String productName = connection.getMetaData().getDatabaseProductName();
+        for (final UpsertDialect dialect : values()) {
+            if (dialect.supportsDatabase(productName)) {
+                return dialect;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> nonKeyColumns(final List<String> columns, final List<String> keys) {
+        return columns.stream().filter(c -> !keys.contains(c)).collect(toList());
+    }
+
+    private static String placeholders(final List<String> columns) {
+        return join(columns, c -> "?", ", ");
+    }
+
+    private static String join(final List<String> columns) {
+        return join(columns, Function.identity(), ", ");
+    }
+
+    private static String join(final List<String> columns, final Function<String, String> mapper, final String delimiter) {
+        return columns.stream().map(mapper).collect(joining(delimiter));
+    }
+}
@@ -0,0 +1,148 @@
+package eu.drus.jpa.unit.sql.dbunit.operation;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.Columns;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoPrimaryKeyException;
+import org.dbunit.dataset.NoSuchColumnException;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.dbunit.operation.AbstractOperation;
+import org.dbunit.operation.DatabaseOperation;
+
+import eu.drus.jpa.unit.sql.dbunit.dataset.ColumnarTable;
+
+public class UpsertOperation extends AbstractOperation {
+
+    private final DatabaseOperation fallbackOperation;
+
+    public UpsertOperation() {
+        this(DatabaseOperation.REFRESH);
+    }
+
+    UpsertOperation(final DatabaseOperation fallbackOperation) {
+        this.fallbackOperation = fallbackOperation;
+    }
+
+    @Override
+    public void execute(final IDatabaseConnection connection, final IDataSet dataSet) throws DatabaseUnitException, SQLException {
+        final UpsertDialect dialect = UpsertDialect.forConnection(connection.getConnection());
+        if (dialect == null) {
+            fallbackOperation.execute(connection, dataSet);
+            return;
+        }
+
+        final IDataSet databaseDataSet = connection.createDataSet();
+        final int batchSize = (Integer) connection.getConfig().getProperty(DatabaseConfig.PROPERTY_BATCH_SIZE);
+
+        final ITableIterator iterator = dataSet.iterator();
+        while (iterator.next()) {
+            final ITable table = iterator.getTable();
+            if (table.getRowCount() != 0) {
+                upsert(connection, dialect, getOperationMetaData(databaseDataSet, table.getTableMetaData()), table, batchSize);
+            }
+        }
+    }
+
+    private void upsert(final IDatabaseConnection connection, final UpsertDialect dialect, final ITableMetaData metaData,
+            final ITable table, final int batchSize) throws DataSetException, SQLException {
+        final Column[] columns = metaData.getColumns();
+
+        final String sql = dialect.createStatement(getQualifiedName(connection.getSchema(), metaData.getTableName(), connection),
+                getQualifiedNames(columns, connection), getQualifiedNames(metaData.getPrimaryKeys(), connection));
+
+        final ColumnarTable columnarTable = ColumnarTable.of(table);
+        final int[] columnIndexes = columnarTable == null ? null : getColumnIndexes(columnarTable, columns);
+
+        try (PreparedStatement statement = connection.getConnection().prepareStatement(sql)) {
+            final int rowCount = table.getRowCount();
+            for (int row = 0; row < rowCount; row++) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (columnarTable != null) {
+                        columnarTable.bindValue(statement, i + 1, row, columnIndexes[i], columns[i].getDataType());
+                    } else {
+                        setValue(statement, i + 1, columns[i], table.getValue(row, columns[i].getColumnName()));
+                    }
+                }
+                statement.addBatch();
+
+                if ((row + 1) % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+
+            if (rowCount % batchSize != 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private int[] getColumnIndexes(final ColumnarTable table, final Column[] columns) throws DataSetException {
+        final int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = table.getTableMetaData().getColumnIndex(columns[i].getColumnName());
+        }
+        return indexes;
+    }
+
+    private void setValue(final PreparedStatement statement, final int index, final Column column, final Object value)
+            throws SQLException, TypeCastException {
+        final DataType dataType = column.getDataType();
+        if (value == null || value == ITable.NO_VALUE) {
+            statement.setNull(index, dataType.getSqlType());
+        } else {
+            dataType.setSqlValue(value, index, statement);
+        }
+    }
+
+    private List<String> getQualifiedNames(final Column[] columns, final IDatabaseConnection connection) {
+        final List<String> names = new ArrayList<>(columns.length);
+        for (final Column column : columns) {
+            names.add(getQualifiedName(null, column.getColumnName(), connection));
+        }
+        return names;
+    }
+
+    private static ITableMetaData getOperationMetaData(final IDataSet databaseDataSet, final ITableMetaData metaData)
+            throws DataSetException {
+        // the database data set caches the table meta data, so this does not hit the database more than once per table
+        final ITableMetaData databaseMetaData = databaseDataSet.getTableMetaData(metaData.getTableName());
+        final Column[] databaseColumns = databaseMetaData.getColumns();
+
+        final List<Column> columns = new ArrayList<>();
+        for (final Column column : metaData.getColumns()) {
+            final Column databaseColumn = Columns.getColumn(column.getColumnName(), databaseColumns);
+            if (databaseColumn == null) {
+                throw new NoSuchColumnException(databaseMetaData.getTableName(), column.getColumnName());
+            }
+            columns.add(databaseColumn);
+        }
+
+        final Column[] primaryKeys = databaseMetaData.getPrimaryKeys();
+        if (primaryKeys.length == 0) {
+            throw new NoPrimaryKeyException(databaseMetaData.getTableName());
+        }
+
+        for (final Column primaryKey : primaryKeys) {
+            if (!columns.contains(primaryKey)) {
+                throw new NoPrimaryKeyException(
+                        "Data set for table " + databaseMetaData.getTableName() + " does not define primary key " + primaryKey.getColumnName());
+            }
+        }
+
+        return new DefaultTableMetaData(databaseMetaData.getTableName(), columns.toArray(new Column[columns.size()]), primaryKeys);
+    }
+}
@@ -0,0 +1,156 @@
+package eu.drus.jpa.unit.sql.dbunit.plan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Database specific way to obtain the query plan of a statement and to find the tables read by a
+ * full table scan in it.
+ */
+public enum QueryPlanDialect {
+    H2 {
+        private final Pattern tableScan = Pattern.compile("/\\* ([^\\s*]+)\\.tableScan \\*/");
+
+        @Override
+        public String explain(final Connection connection, final String sql) throws SQLException {
+            return explainPrepared(connection, "EXPLAIN " + sql);
+        }
+
+        @Override
+        public List<String> findFullTableScans(final String plan) {
+            final List<String> tables = new ArrayList<>();
+            if (plan.contains("/* direct lookup */")) {
+                // e.g. COUNT(*) of a table, which is answered without reading the rows
+                return tables;
+            }
+            final Matcher matcher = tableScan.matcher(plan);
+            while (matcher.find()) {
+                tables.add(tableName(matcher.group(1)));
+            }
+            return tables;
+        }
+    },
+    HSQLDB {
+        private final Pattern table = Pattern.compile("^\\s*table=(\\S+)\\s*$");
+        private final Pattern fullScan = Pattern.compile("^\\s*access=FULL SCAN\\s*$");
+
+        @Override
+        public String explain(final Connection connection, final String sql) throws SQLException {
+            return explainPrepared(connection, "EXPLAIN PLAN FOR " + sql);
+        }
+
+        @Override
+        public List<String> findFullTableScans(final String plan) {
+            // the access type of a range variable follows the name of its table
+            final List<String> tables = new ArrayList<>();
+            String currentTable = null;
+            for (final String line : plan.split("\n")) {
+                final Matcher matcher = table.matcher(line);
+                if (matcher.matches()) {
+                    currentTable = tableName(matcher.group(1));
+                } else if (currentTable != null && fullScan.matcher(line).matches()) {
+                    tables.add(currentTable);
+                }
+            }
+            return tables;
+        }
+    },
+    POSTGRESQL {
+        private final Pattern seqScan = Pattern.compile("Seq Scan on (\\S+)");
+
+        @Override
+        public String explain(final Connection connection, final String sql) throws SQLException {
+            // statements with parameters can only be explained without their values as generic
+            // plan, which is supported since PostgreSQL 16
+            final String statement = numberParameters(sql);
+            if (statement.equals(sql)) {
+                return runExplain(connection, "EXPLAIN " + sql);
+            }
+
+            final int majorVersion = connection.getMetaData().getDatabaseMajorVersion();
+            if (majorVersion < 16) {
+                throw new SQLFeatureNotSupportedException(
+                        "Explaining statements with parameters is not supported before PostgreSQL 16, but the database is PostgreSQL "
+                                + majorVersion);
+            }
+            return runExplain(connection, "EXPLAIN (GENERIC_PLAN) " + statement);
+        }
+
+        private String runExplain(final Connection connection, final String explain) throws SQLException {
+            try (Statement stmt = connection.createStatement()) {
+                return readPlan(stmt.executeQuery(explain));
+            }
+        }
+
+        @Override
+        public List<String> findFullTableScans(final String plan) {
+            final List<String> tables = new ArrayList<>();
+            final Matcher matcher = seqScan.matcher(plan);
+            while (matcher.find()) {
+                tables.add(tableName(matcher.group(1)));
+            }
+            return tables;
+        }
+    };
+
+    public abstract String explain(Connection connection, String sql) throws SQLException;
+
+    /**
+     * Returns the names of the tables, without schema, read by a full table scan according to the
+     * given plan.
+     */
+    public abstract List<String> findFullTableScans(String plan);
+
+    private static String explainPrepared(final Connection connection, final String sql) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            // the values of the parameters do not influence the plan
+            final int parameterCount = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                stmt.setNull(i, Types.NULL);
+            }
+            return readPlan(stmt.executeQuery());
+        }
+    }
+
+    private static String readPlan(final ResultSet rs) throws SQLException {
+        try {
+            final StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        } finally {
+            rs.close();
+        }
+    }
+
+    private static String tableName(final String qualifiedName) {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1).replace("\"", "");
+    }
+
+    private static String numberParameters(final String sql) {
+        final StringBuilder statement = new StringBuilder();
+        boolean inLiteral = false;
+        int parameter = 0;
+        for (final char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                statement.append('$').append(++parameter);
+            } else {
+                statement.append(c);
+            }
+        }
+        return statement.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package eu.drus.jpa.unit.sql.dbunit.plan;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.core.jdbc.StatementType;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+import eu.drus.jpa.unit.spi.DbFeatureException;
+
+/**
+ * Verifies the query plans of executed SELECT statements. Plans are cached per statement text, so
+ * that statements executed repeatedly, also by different tests, are explained only once.
+ */
+public class QueryPlanVerifier {
+
+    private final QueryPlanDialect dialect;
+    private final Map<String, String> plans = new HashMap<>();
+
+    public QueryPlanVerifier(final QueryPlanDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public void verify(final Connection connection, final List<String> statements, final ForbidFullTableScan forbidFullTableScan,
+            final AssertionErrorCollector errorCollector) throws DbFeatureException {
+        for (final String sql : new LinkedHashSet<>(statements)) {
+            if (StatementType.of(sql) != StatementType.SELECT) {
+                continue;
+            }
+
+            final String plan = getPlan(connection, sql);
+            final Set<String> scannedTables = new LinkedHashSet<>();
+            for (final String table : dialect.findFullTableScans(plan)) {
+                if (isForbidden(table, forbidFullTableScan.tables())) {
+                    scannedTables.add(table);
+                }
+            }
+
+            if (!scannedTables.isEmpty()) {
+                errorCollector.collect(String.format("Full table scan on %s by statement:%n  %s%nwith plan:%n%s",
+                        String.join(", ", scannedTables), sql, plan));
+            }
+        }
+    }
+
+    private String getPlan(final Connection connection, final String sql) throws DbFeatureException {
+        String plan = plans.get(sql);
+        if (plan == null) {
+            try {
+                plan = dialect.explain(connection, sql);
+            } catch (final SQLException e) {
+                throw new DbFeatureException("Could not explain statement " + sql + ": " + e.getMessage(), e);
+            }
+            plans.put(sql, plan);
+        }
+        return plan;
+    }
+
+    private static boolean isForbidden(final String table, final String[] forbiddenTables) {
+        if (forbiddenTables.length == 0) {
+            return true;
+        }
+        for (final String forbiddenTable : forbiddenTables) {
+            if (forbiddenTable.equalsIgnoreCase(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,12 +1,13 @@
 package eu.drus.jpa.unit.sql.dbunit;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 
 import org.dbunit.operation.DatabaseOperation;
 import org.junit.Test;
 
-import eu.drus.jpa.unit.sql.dbunit.DataSeedStrategyProvider;
+import eu.drus.jpa.unit.sql.dbunit.operation.UpsertOperation;
 
 public class DataSeedStrategyProviderTest {
 
@@ -30,7 +31,7 @@ public class DataSeedStrategyProviderTest {
     public void testRefreshStrategy() {
         final DatabaseOperation operation = STRATEGY_PROVIDER.refreshStrategy();
 
-        assertThat(operation, equalTo(DatabaseOperation.REFRESH));
+        assertThat(operation, instanceOf(UpsertOperation.class));
     }
 
     @Test
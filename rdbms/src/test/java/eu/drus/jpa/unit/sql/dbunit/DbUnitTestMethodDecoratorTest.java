@@ -1,17 +1,22 @@
 package eu.drus.jpa.unit.sql.dbunit;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 
+import java.util.Arrays;
 import java.util.Optional;
 
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.dbunit.database.DatabaseConnection;
 import org.dbunit.database.IDatabaseConnection;
 import org.junit.Before;
@@ -21,8 +26,13 @@ import org.mockito.Mock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.api.JpaUnitException;
+import eu.drus.jpa.unit.core.jdbc.StatementLog;
 import eu.drus.jpa.unit.spi.ExecutionContext;
 import eu.drus.jpa.unit.spi.FeatureResolver;
+import eu.drus.jpa.unit.spi.Measurement;
+import eu.drus.jpa.unit.spi.PersistenceUnitDescriptor;
 import eu.drus.jpa.unit.spi.TestInvocation;
 import eu.drus.jpa.unit.sql.Constants;
 
@@ -44,6 +54,12 @@ public class DbUnitTestMethodDecoratorTest {
     @Mock
     private SqlDbFeatureExecutor executor;
 
+    @Mock
+    private FeatureResolver resolver;
+
+    @Mock
+    private PersistenceUnitDescriptor descriptor;
+
     private DbUnitTestMethodDecorator decorator;
 
     @Before
@@ -52,6 +68,7 @@ public class DbUnitTestMethodDecoratorTest {
         whenNew(SqlDbFeatureExecutor.class).withAnyArguments().thenReturn(executor);
 
         when(invocation.getContext()).thenReturn(ctx);
+        when(invocation.getFeatureResolver()).thenReturn(resolver);
         when(ctx.getData(eq(Constants.KEY_CONNECTION))).thenReturn(connection);
         when(ctx.getData(eq(Constants.KEY_FEATURE_EXECUTOR))).thenReturn(executor);
 
@@ -84,6 +101,74 @@ public class DbUnitTestMethodDecoratorTest {
         verifyZeroInteractions(connection);
     }
 
+    @Test
+    public void testAfterTestCleansUpIfQueryPlansCannotBeVerified() throws Throwable {
+        // GIVEN
+        final BasicDataSource ds = new BasicDataSource();
+        ds.setDriverClassName("org.sqlite.JDBC");
+        when(invocation.getException()).thenReturn(Optional.empty());
+        final StatementLog log = mock(StatementLog.class);
+        when(log.size()).thenReturn(1);
+        when(log.getStatements()).thenReturn(Arrays.asList("SELECT * FROM DEPOSITOR"));
+        final Measurement measurement = mock(Measurement.class);
+        when(measurement.getStatementLog()).thenReturn(log);
+        when(resolver.getForbidFullTableScan()).thenReturn(mock(ForbidFullTableScan.class));
+        when(ctx.getData(eq(eu.drus.jpa.unit.spi.Constants.KEY_MEASUREMENT))).thenReturn(measurement);
+        when(ctx.getData(eq(Constants.KEY_DATA_SOURCE))).thenReturn(ds);
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            fail("JpaUnitException expected");
+        } catch (final JpaUnitException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("org.sqlite.JDBC"));
+        }
+        verify(executor).executeAfterTest(eq(connection), eq(Boolean.FALSE));
+    }
+
+    @Test
+    public void testUnavailableStatementRecordingIsReported() throws Throwable {
+        // GIVEN
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getForbidFullTableScan()).thenReturn(mock(ForbidFullTableScan.class));
+        when(ctx.getData(eq(eu.drus.jpa.unit.spi.Constants.KEY_MEASUREMENT))).thenReturn(mock(Measurement.class));
+        when(ctx.getDescriptor()).thenReturn(descriptor);
+        when(descriptor.getUnitName()).thenReturn("my-unit");
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("Statement recording is not available for persistence unit my-unit"));
+        }
+        verify(executor).executeAfterTest(eq(connection), eq(Boolean.FALSE));
+    }
+
+    @Test
+    public void testMissingStatementsAreReported() throws Throwable {
+        // GIVEN
+        final Measurement measurement = mock(Measurement.class);
+        when(measurement.getStatementLog()).thenReturn(mock(StatementLog.class));
+        when(invocation.getException()).thenReturn(Optional.empty());
+        when(resolver.getForbidFullTableScan()).thenReturn(mock(ForbidFullTableScan.class));
+        when(ctx.getData(eq(eu.drus.jpa.unit.spi.Constants.KEY_MEASUREMENT))).thenReturn(measurement);
+        when(ctx.getDescriptor()).thenReturn(descriptor);
+        when(descriptor.getUnitName()).thenReturn("my-unit");
+
+        // WHEN
+        try {
+            decorator.afterTest(invocation);
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("No SQL statements were recorded for persistence unit my-unit"));
+        }
+        verify(executor).executeAfterTest(eq(connection), eq(Boolean.FALSE));
+    }
+
     @Test
     public void testRequiredPriority() {
         // GIVEN
@@ -0,0 +1,177 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.xml.FlatXmlProducer;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+public class ColumnarDataSetTest {
+
+    private static IDataSet loadJson(final String json) throws Exception {
+        return new ColumnarDataSet(new JsonDataSetProducer(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testTablesAreStoredColumnWise() throws Exception {
+        // WHEN
+        final IDataSet dataSet = loadJson("{\"TABLE_1\": [{\"id\": \"1\", \"name\": \"foo\"}, {\"id\": \"2\", \"name\": \"foo\"}]}");
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table, instanceOf(ColumnarTable.class));
+        assertThat(table.getRowCount(), equalTo(2));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1"));
+        assertThat(table.getValue(1, "id"), equalTo((Object) "2"));
+
+        // dictionary encoded strings are shared
+        assertThat(table.getValue(0, "name"), sameInstance(table.getValue(1, "name")));
+    }
+
+    @Test
+    public void testNullValuesArePreserved() throws Exception {
+        // WHEN
+        final IDataSet dataSet = loadJson("{\"TABLE_1\": [{\"id\": \"1\", \"name\": \"foo\"}, {\"id\": \"2\"}]}");
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getValue(0, "name"), equalTo((Object) "foo"));
+        assertThat(table.getValue(1, "name"), nullValue());
+    }
+
+    @Test
+    public void testValuesNotFittingIntoColumnTypeAreKept() throws Exception {
+        // GIVEN
+        final ColumnarTable.Builder builder = new ColumnarTable.Builder(new DefaultTableMetaData("TABLE_1", new Column[] {
+                new Column("id", DataType.INTEGER)
+        }));
+
+        // WHEN
+        builder.addRow(new Object[] {
+                1
+        });
+        builder.addRow(new Object[] {
+                "2"
+        });
+        final ColumnarTable table = builder.build();
+
+        // THEN
+        assertThat(table.getValue(0, "id"), equalTo((Object) 1));
+        assertThat(table.getValue(1, "id"), equalTo((Object) "2"));
+    }
+
+    @Test
+    public void testRowsOfSameTableProducedSeparatelyAreMerged() throws Exception {
+        // GIVEN
+        final String xml = "<dataset><TABLE_1 id=\"1\"/><TABLE_2 id=\"2\"/><TABLE_1 id=\"3\"/></dataset>";
+
+        // WHEN
+        final IDataSet dataSet = new ColumnarDataSet(new FlatXmlProducer(new InputSource(new StringReader(xml))));
+
+        // THEN
+        assertThat(dataSet.getTableNames().length, equalTo(2));
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getRowCount(), equalTo(2));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1"));
+        assertThat(table.getValue(1, "id"), equalTo((Object) "3"));
+    }
+
+    @Test
+    public void testRowsOfSameTableProducedSeparatelyWithOtherColumnOrderAreMerged() throws Exception {
+        // GIVEN
+        final String xml = "<dataset><TABLE_1 id=\"1\" name=\"a\"/><TABLE_2 id=\"2\"/><TABLE_1 name=\"b\" id=\"3\"/>"
+                + "<TABLE_1 id=\"4\" name=\"c\"/></dataset>";
+
+        // WHEN
+        final IDataSet dataSet = new ColumnarDataSet(new FlatXmlProducer(new InputSource(new StringReader(xml))));
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getRowCount(), equalTo(3));
+        assertThat(table.getValue(1, "id"), equalTo((Object) "3"));
+        assertThat(table.getValue(1, "name"), equalTo((Object) "b"));
+        assertThat(table.getValue(2, "id"), equalTo((Object) "4"));
+        assertThat(table.getValue(2, "name"), equalTo((Object) "c"));
+    }
+
+    @Test
+    public void testSortByPrimitiveColumnValues() throws Exception {
+        // GIVEN
+        final ColumnarTable.Builder builder = new ColumnarTable.Builder(new DefaultTableMetaData("TABLE_1",
+                new Column[] {
+                        new Column("id", DataType.INTEGER), new Column("name", DataType.VARCHAR)
+                }));
+        builder.addRow(new Object[] {
+                10, "b"
+        });
+        builder.addRow(new Object[] {
+                2, "a"
+        });
+        builder.addRow(new Object[] {
+                null, "c"
+        });
+        builder.addRow(new Object[] {
+                2, null
+        });
+        final ColumnarTable table = builder.build();
+
+        // WHEN
+        final ITable sorted = table.sortBy(new String[] {
+                "id", "name"
+        });
+
+        // THEN
+        assertThat(sorted.getValue(0, "id"), nullValue());
+        assertThat(sorted.getValue(1, "id"), equalTo((Object) 2));
+        assertThat(sorted.getValue(1, "name"), nullValue());
+        assertThat(sorted.getValue(2, "id"), equalTo((Object) 2));
+        assertThat(sorted.getValue(2, "name"), equalTo((Object) "a"));
+        assertThat(sorted.getValue(3, "id"), equalTo((Object) 10));
+
+        // the original table is not changed
+        assertThat(table.getValue(0, "id"), equalTo((Object) 10));
+    }
+
+    @Test
+    public void testSortKeepsTheOrderOfEqualRows() throws Exception {
+        // GIVEN
+        final ColumnarTable.Builder builder = new ColumnarTable.Builder(new DefaultTableMetaData("TABLE_1",
+                new Column[] {
+                        new Column("id", DataType.INTEGER), new Column("group", DataType.INTEGER)
+                }));
+        for (int i = 0; i < 100; i++) {
+            builder.addRow(new Object[] {
+                    i, (i * 7) % 5
+            });
+        }
+        final ColumnarTable table = builder.build();
+
+        // WHEN
+        final ITable sorted = table.sortBy(new String[] {
+                "group"
+        });
+
+        // THEN
+        for (int i = 1; i < sorted.getRowCount(); i++) {
+            final int previousGroup = (Integer) sorted.getValue(i - 1, "group");
+            final int group = (Integer) sorted.getValue(i, "group");
+            assertThat(previousGroup <= group, equalTo(Boolean.TRUE));
+            if (previousGroup == group) {
+                assertThat((Integer) sorted.getValue(i - 1, "id") < (Integer) sorted.getValue(i, "id"), equalTo(Boolean.TRUE));
+            }
+        }
+    }
+}
@@ -3,32 +3,65 @@ package eu.drus.jpa.unit.sql.dbunit.dataset;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.github.luben.zstd.ZstdOutputStream;
+
+import eu.drus.jpa.unit.spi.BinaryDataSet.ColumnType;
+import eu.drus.jpa.unit.spi.BinaryDataSetWriter;
+import eu.drus.jpa.unit.spi.DataSetFormat;
 import eu.drus.jpa.unit.spi.DataSetLoader;
+import eu.drus.jpa.unit.util.ResourceLocator;
 
 public class DataSetLoaderProviderTest {
 
     private static final DataSetLoaderProvider LOADER_PROVIDER = new DataSetLoaderProvider();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private static File getFile(final String path) throws URISyntaxException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(path);
         return new File(url.toURI());
     }
 
+    @FunctionalInterface
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private static File compress(final File source, final File target, final Compressor compressor) throws IOException {
+        try (OutputStream out = compressor.wrap(new FileOutputStream(target))) {
+            Files.copy(source.toPath(), out);
+        }
+        return target;
+    }
+
     @Test
     public void testJsonLoaderLoadUsingProperResource() throws Exception {
         // WHEN
@@ -38,7 +71,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data.json"));
+        final IDataSet dataSet = loader.load(getFile("test-data.json").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -78,7 +111,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.yaml"));
+        loader.load(getFile("test-data.yaml").toPath());
 
         // THEN
         // IOException is thrown
@@ -93,7 +126,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data.yaml"));
+        final IDataSet dataSet = loader.load(getFile("test-data.yaml").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -133,7 +166,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.json"));
+        loader.load(getFile("test-data.json").toPath());
 
         // THEN
         // IOException is thrown
@@ -148,7 +181,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data.xml"));
+        final IDataSet dataSet = loader.load(getFile("test-data.xml").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -188,7 +221,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.json"));
+        loader.load(getFile("test-data.json").toPath());
 
         // THEN
         // IOException is thrown
@@ -204,7 +237,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data.xlsx"));
+        final IDataSet dataSet = loader.load(getFile("test-data.xlsx").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -244,7 +277,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.json"));
+        loader.load(getFile("test-data.json").toPath());
 
         // THEN
         // IOException is thrown
@@ -260,7 +293,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data.xls"));
+        final IDataSet dataSet = loader.load(getFile("test-data.xls").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -300,7 +333,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.json"));
+        loader.load(getFile("test-data.json").toPath());
 
         // THEN
         // IOException is thrown
@@ -315,7 +348,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        final IDataSet dataSet = loader.load(getFile("test-data"));
+        final IDataSet dataSet = loader.load(getFile("test-data").toPath());
 
         // THEN
         assertThat(dataSet, notNullValue());
@@ -355,7 +388,7 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("test-data.json"));
+        loader.load(getFile("test-data.json").toPath());
 
         // THEN
         // IOException is thrown
@@ -370,9 +403,169 @@ public class DataSetLoaderProviderTest {
         assertThat(loader, notNullValue());
 
         // WHEN
-        loader.load(getFile("./META-INF"));
+        loader.load(getFile("./META-INF").toPath());
 
         // THEN
         // IOException is thrown
     }
+
+    @Test
+    public void testBinaryLoaderLoadUsingProperResource() throws Exception {
+        // GIVEN
+        final BinaryDataSetWriter writer = new BinaryDataSetWriter();
+        writer.addTable("BIN_TABLE_1").addColumn("id", ColumnType.INT).addColumn("version", ColumnType.STRING).addRow(1, "Record 1")
+                .addRow(2, null);
+        writer.addTable("BIN_TABLE_2").addColumn("id", ColumnType.LONG).addRow(4L);
+        final File file = folder.newFile("test-data.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            writer.write(out);
+        }
+
+        // WHEN
+        final DataSetLoader<IDataSet> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        final IDataSet dataSet = loader.load(file.toPath());
+
+        // THEN
+        assertThat(dataSet, notNullValue());
+
+        final List<String> tableNames = Arrays.asList(dataSet.getTableNames());
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("BIN_TABLE_1", "BIN_TABLE_2"));
+
+        final ITable table1 = dataSet.getTable("BIN_TABLE_1");
+        assertThat(table1.getRowCount(), equalTo(2));
+        assertThat(table1.getValue(0, "id"), equalTo((Object) 1));
+        assertThat(table1.getValue(0, "version"), equalTo((Object) "Record 1"));
+        assertThat(table1.getValue(1, "version"), nullValue());
+
+        final ITable table2 = dataSet.getTable("BIN_TABLE_2");
+        assertThat(table2.getRowCount(), equalTo(1));
+        assertThat(table2.getValue(0, "id"), equalTo((Object) 4L));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBinaryLoaderLoadUsingWrongFileResource() throws Exception {
+        // WHEN
+        final DataSetLoader<IDataSet> loader = LOADER_PROVIDER.binaryLoader();
+
+        // THEN
+        assertThat(loader, notNullValue());
+
+        // WHEN
+        loader.load(getFile("test-data.json").toPath());
+
+        // THEN
+        // IOException is thrown
+    }
+
+    @Test
+    public void testJsonLoaderLoadUsingGzipCompressedResource() throws Exception {
+        // GIVEN
+        final File file = compress(getFile("test-data.json"), folder.newFile("test-data.json.gz"), GZIPOutputStream::new);
+
+        // WHEN
+        final IDataSet dataSet = LOADER_PROVIDER.jsonLoader().load(file.toPath());
+
+        // THEN
+        final List<String> tableNames = Arrays.asList(dataSet.getTableNames());
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("JSON_TABLE_1", "JSON_TABLE_2"));
+
+        // the second table is read by skipping the uncompressed content of the first one
+        final ITable table2 = dataSet.getTable("JSON_TABLE_2");
+        assertThat(table2.getRowCount(), equalTo(1));
+        assertThat(table2.getValue(0, "id"), notNullValue());
+
+        final ITable table1 = dataSet.getTable("JSON_TABLE_1");
+        assertThat(table1.getRowCount(), equalTo(3));
+        assertThat(table1.getValue(2, "id"), notNullValue());
+    }
+
+    @Test
+    public void testXmlLoaderLoadUsingZstdCompressedResource() throws Exception {
+        // GIVEN
+        final File file = compress(getFile("test-data.xml"), folder.newFile("test-data.xml.zst"), ZstdOutputStream::new);
+
+        // WHEN
+        final IDataSet dataSet = LOADER_PROVIDER.xmlLoader().load(file.toPath());
+
+        // THEN
+        final List<String> tableNames = Arrays.asList(dataSet.getTableNames());
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("XML_TABLE_1", "XML_TABLE_2"));
+        assertThat(dataSet.getTable("XML_TABLE_1").getRowCount(), equalTo(3));
+    }
+
+    @Test
+    public void testYamlLoaderLoadUsingDeflateCompressedResource() throws Exception {
+        // GIVEN
+        final File file = compress(getFile("test-data.yaml"), folder.newFile("test-data.yaml.deflate"), DeflaterOutputStream::new);
+
+        // WHEN
+        final IDataSet dataSet = LOADER_PROVIDER.yamlLoader().load(file.toPath());
+
+        // THEN
+        final List<String> tableNames = Arrays.asList(dataSet.getTableNames());
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("YAML_TABLE_1", "YAML_TABLE_2"));
+        assertThat(dataSet.getTable("YAML_TABLE_1").getRowCount(), equalTo(3));
+    }
+
+    @Test
+    public void testCsvLoaderLoadUsingDirectoryWithCompressedFiles() throws Exception {
+        // GIVEN
+        final File source = getFile("test-data");
+        final File directory = folder.newFolder("test-data");
+        Files.copy(new File(source, "table-ordering.txt").toPath(), new File(directory, "table-ordering.txt").toPath());
+        compress(new File(source, "CSV_TABLE_1.csv"), new File(directory, "CSV_TABLE_1.csv.gz"), GZIPOutputStream::new);
+        Files.copy(new File(source, "CSV_TABLE_2.csv").toPath(), new File(directory, "CSV_TABLE_2.csv").toPath());
+
+        // WHEN
+        final IDataSet dataSet = LOADER_PROVIDER.csvLoader().load(directory.toPath());
+
+        // THEN
+        final List<String> tableNames = Arrays.asList(dataSet.getTableNames());
+        assertThat(tableNames.size(), equalTo(2));
+        assertThat(tableNames, hasItems("CSV_TABLE_1", "CSV_TABLE_2"));
+        assertThat(dataSet.getTable("CSV_TABLE_1").getRowCount(), equalTo(3));
+        assertThat(dataSet.getTable("CSV_TABLE_2").getRowCount(), equalTo(1));
+    }
+
+    @Test
+    public void testLoadDataSetsPackagedInJar() throws Exception {
+        // GIVEN
+        final File jar = folder.newFile("fixtures.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("test-data/"));
+            out.closeEntry();
+            for (final String entry : Arrays.asList("test-data.json", "test-data/table-ordering.txt", "test-data/CSV_TABLE_1.csv",
+                    "test-data/CSV_TABLE_2.csv")) {
+                out.putNextEntry(new JarEntry(entry));
+                Files.copy(getFile(entry).toPath(), out);
+                out.closeEntry();
+            }
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {
+                jar.toURI().toURL()
+        }, null)) {
+            final Path jsonFile = ResourceLocator.toPath(classLoader.getResource("test-data.json"));
+            final Path csvDirectory = ResourceLocator.toPath(classLoader.getResource("test-data"));
+
+            // WHEN
+            final IDataSet jsonDataSet = DataSetFormat.inferFromFile(jsonFile).select(LOADER_PROVIDER).load(jsonFile);
+            final IDataSet csvDataSet = DataSetFormat.inferFromFile(csvDirectory).select(LOADER_PROVIDER).load(csvDirectory);
+
+            // THEN
+            assertThat(jsonDataSet.getTable("JSON_TABLE_2").getRowCount(), equalTo(1));
+            assertThat(jsonDataSet.getTable("JSON_TABLE_1").getRowCount(), equalTo(3));
+            assertThat(csvDataSet.getTable("CSV_TABLE_1").getRowCount(), equalTo(3));
+            assertThat(csvDataSet.getTable("CSV_TABLE_2").getRowCount(), equalTo(1));
+        }
+    }
 }
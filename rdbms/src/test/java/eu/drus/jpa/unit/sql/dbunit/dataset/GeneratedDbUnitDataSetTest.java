@@ -0,0 +1,103 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.ext.h2.H2Connection;
+import org.dbunit.operation.DatabaseOperation;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.GeneratedColumn;
+import eu.drus.jpa.unit.api.GeneratedDataSets;
+import eu.drus.jpa.unit.api.GeneratedTable;
+import eu.drus.jpa.unit.api.ValueGenerator;
+import eu.drus.jpa.unit.spi.GeneratedDataSet;
+
+public class GeneratedDbUnitDataSetTest {
+
+    private static final String CONNECTION_URL = "jdbc:h2:mem:generated;DB_CLOSE_DELAY=-1";
+    private static final String USER_NAME = "test";
+    private static final String PASSWORD = "test";
+    private static final String DB_SETUP_SCRIPT = "src/test/resources/schema.sql";
+
+    @GeneratedDataSets(@GeneratedTable(name = "XML_TABLE_1", rows = 5000, columns = {
+            @GeneratedColumn(name = "id"),
+            @GeneratedColumn(name = "version", generator = ValueGenerator.TEMPLATE, template = "Record {row} version")
+    }))
+    private static class Generated {}
+
+    @BeforeClass
+    public static void createSchema() throws Exception {
+        RunScript.execute(CONNECTION_URL, USER_NAME, PASSWORD, DB_SETUP_SCRIPT, StandardCharsets.UTF_8, false);
+    }
+
+    private IDatabaseConnection connection;
+
+    @Before
+    public void openConnection() throws Exception {
+        connection = new H2Connection(DriverManager.getConnection(CONNECTION_URL, USER_NAME, PASSWORD), null);
+    }
+
+    @After
+    public void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    private static GeneratedDataSet generatedDataSet() {
+        return new GeneratedDataSet(Generated.class.getAnnotation(GeneratedDataSets.class));
+    }
+
+    @Test
+    public void testGeneratedValuesWithoutTypeResolution() throws Exception {
+        // WHEN
+        final IDataSet dataSet = new GeneratedDbUnitDataSet(generatedDataSet(), null);
+
+        // THEN
+        final ITable table = dataSet.getTable("XML_TABLE_1");
+        assertThat(table.getRowCount(), equalTo(5000));
+        assertThat(table.getValue(0, "id"), equalTo((Object) 1L));
+        assertThat(table.getValue(4999, "version"), equalTo((Object) "Record 5000 version"));
+    }
+
+    @Test
+    public void testGeneratedValuesAreConvertedToDatabaseColumnTypes() throws Exception {
+        // WHEN
+        final IDataSet dataSet = new DataSetLoaderProvider(new ColumnTypeResolver(connection)).load(generatedDataSet());
+
+        // THEN
+        final ITable table = dataSet.getTable("XML_TABLE_1");
+        assertThat(table.getValue(1, "id"), instanceOf(Integer.class));
+        assertThat(table.getValue(1, "id"), equalTo((Object) 2));
+    }
+
+    @Test
+    public void testInsertGeneratedData() throws Exception {
+        // GIVEN
+        final IDataSet dataSet = new DataSetLoaderProvider(new ColumnTypeResolver(connection)).load(generatedDataSet());
+
+        // WHEN
+        DatabaseOperation.CLEAN_INSERT.execute(connection, dataSet);
+
+        // THEN
+        try (Statement statement = connection.getConnection().createStatement();
+                ResultSet rs = statement.executeQuery("select count(*), max(id) from XML_TABLE_1")) {
+            rs.next();
+            assertThat(rs.getInt(1), equalTo(5000));
+            assertThat(rs.getInt(2), equalTo(5000));
+        }
+    }
+}
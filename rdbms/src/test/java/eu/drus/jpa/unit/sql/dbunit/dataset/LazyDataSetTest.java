@@ -0,0 +1,169 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LazyDataSetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(final File file, final String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testJsonTablesAreDecodedOnlyWhenAccessed() throws Exception {
+        // GIVEN
+        final String table1 = "[{\"id\": \"1\", \"name\": \"foo\"}, {\"id\": \"2\"}]";
+        final String table2 = "[{\"id\": \"3\"}]";
+        final File file = write(folder.newFile("data.json"), "{\"TABLE_1\": " + table1 + ", \"TABLE_2\": " + table2 + "}");
+
+        // WHEN
+        final IDataSet dataSet = new LazyDataSet(JsonDataSetIndex.create(file.toPath()), null);
+
+        // table 1 is broken after the index has been created. Since its rows are not decoded yet,
+        // the index information is still available
+        write(file, "{\"TABLE_1\": " + table1.replaceAll(".", " ") + ", \"TABLE_2\": " + table2 + "}");
+
+        // THEN
+        assertThat(dataSet.getTableNames(), equalTo(new String[] {
+                "TABLE_1", "TABLE_2"
+        }));
+        assertThat(dataSet.getTable("TABLE_1").getRowCount(), equalTo(2));
+        assertThat(dataSet.getTable("TABLE_1").getTableMetaData().getColumns().length, equalTo(2));
+
+        final ITable table = dataSet.getTable("TABLE_2");
+        assertThat(table.getRowCount(), equalTo(1));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "3"));
+    }
+
+    @Test
+    public void testJsonTableValues() throws Exception {
+        // GIVEN
+        final File file = write(folder.newFile("data.json"),
+                "{\"TABLE_\\u0031\": [{\"id\": 1, \"name\": \"f\\\"oo\", \"nested\": {\"a\": [1]}}, {\"id\": \"2\", \"name\": null}], \"TABLE_2\": []}");
+
+        // WHEN
+        final IDataSet dataSet = new LazyDataSet(JsonDataSetIndex.create(file.toPath()), null);
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getTableMetaData().getColumns().length, equalTo(3));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1.0"));
+        assertThat(table.getValue(0, "name"), equalTo((Object) "f\"oo"));
+        assertThat(table.getValue(0, "nested"), notNullValue());
+        assertThat(table.getValue(1, "id"), equalTo((Object) "2"));
+        assertThat(table.getValue(1, "name"), nullValue());
+        assertThat(table.getValue(1, "nested"), nullValue());
+
+        assertThat(ColumnarTable.of(table), notNullValue());
+        assertThat(dataSet.getTable("TABLE_2").getRowCount(), equalTo(0));
+    }
+
+    @Test(expected = DataSetException.class)
+    public void testJsonTableNotBeingAnArray() throws Exception {
+        // GIVEN
+        final File file = write(folder.newFile("data.json"), "{\"TABLE_1\": {\"id\": 1}}");
+
+        // WHEN
+        JsonDataSetIndex.create(file.toPath());
+    }
+
+    @Test(expected = DataSetException.class)
+    public void testJsonRowNotBeingAnObject() throws Exception {
+        // GIVEN
+        final File file = write(folder.newFile("data.json"), "{\"TABLE_1\": [1, 2]}");
+
+        // WHEN
+        JsonDataSetIndex.create(file.toPath());
+    }
+
+    @Test(expected = DataSetException.class)
+    public void testIncompleteJson() throws Exception {
+        // GIVEN
+        final File file = write(folder.newFile("data.json"), "{\"TABLE_1\": [{\"id\": 1}");
+
+        // WHEN
+        JsonDataSetIndex.create(file.toPath());
+    }
+
+    @Test
+    public void testCsvTablesAreDecodedOnlyWhenAccessed() throws Exception {
+        // GIVEN
+        final File directory = folder.newFolder("data");
+        write(new File(directory, "table-ordering.txt"), "TABLE_1\nTABLE_2\n");
+        final File table1 = write(new File(directory, "TABLE_1.csv"), "id, name\n1,foo\n2,null\n");
+        write(new File(directory, "TABLE_2.csv"), "id\n3\n");
+
+        // WHEN
+        final IDataSet dataSet = new LazyDataSet(CsvDataSetIndex.create(directory.toPath()), null);
+        table1.delete();
+
+        // THEN
+        assertThat(dataSet.getTableNames(), equalTo(new String[] {
+                "TABLE_1", "TABLE_2"
+        }));
+        assertThat(dataSet.getTableMetaData("TABLE_1").getColumns()[1].getColumnName(), equalTo("name"));
+
+        final ITable table = dataSet.getTable("TABLE_2");
+        assertThat(table.getRowCount(), equalTo(1));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "3"));
+    }
+
+    @Test
+    public void testCsvTableValues() throws Exception {
+        // GIVEN
+        final File directory = folder.newFolder("data");
+        write(new File(directory, "table-ordering.txt"), "TABLE_1\n");
+        write(new File(directory, "TABLE_1.csv"), "id,name\n1,foo\n2,null\n");
+
+        // WHEN
+        final IDataSet dataSet = new LazyDataSet(CsvDataSetIndex.create(directory.toPath()), null);
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getRowCount(), equalTo(2));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1"));
+        assertThat(table.getValue(0, "name"), equalTo((Object) "foo"));
+        assertThat(table.getValue(1, "name"), nullValue());
+    }
+
+    @Test
+    public void testCsvRecordsAreCountedWithoutDecoding() throws Exception {
+        // GIVEN
+        final File directory = folder.newFolder("data");
+        write(new File(directory, "table-ordering.txt"), "TABLE_1\n");
+        final String content = "id,name\r\n1,\"foo\nbar\"\r\n2,\"a \\\" b\"\n3,baz";
+        final File table1 = write(new File(directory, "TABLE_1.csv"), content);
+
+        // WHEN
+        final IDataSet dataSet = new LazyDataSet(CsvDataSetIndex.create(directory.toPath()), null);
+        table1.delete();
+
+        // THEN
+        final ITable table = dataSet.getTable("TABLE_1");
+        assertThat(table.getRowCount(), equalTo(3));
+
+        // the parser sees the same records
+        write(table1, content);
+        assertThat(table.getValue(0, "name"), equalTo((Object) "foo\nbar"));
+        assertThat(table.getValue(1, "name"), equalTo((Object) "a \" b"));
+        assertThat(table.getValue(2, "name"), equalTo((Object) "baz"));
+    }
+}
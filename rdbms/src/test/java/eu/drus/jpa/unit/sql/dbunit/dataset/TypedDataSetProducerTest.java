@@ -0,0 +1,97 @@
+package eu.drus.jpa.unit.sql.dbunit.dataset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.CachedDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+import org.dbunit.ext.h2.H2Connection;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TypedDataSetProducerTest {
+
+    private static final String CONNECTION_URL = "jdbc:h2:mem:typed;DB_CLOSE_DELAY=-1";
+    private static final String USER_NAME = "test";
+    private static final String PASSWORD = "test";
+    private static final String DB_SETUP_SCRIPT = "src/test/resources/schema.sql";
+
+    @BeforeClass
+    public static void createSchema() throws Exception {
+        RunScript.execute(CONNECTION_URL, USER_NAME, PASSWORD, DB_SETUP_SCRIPT, StandardCharsets.UTF_8, false);
+    }
+
+    private IDatabaseConnection connection;
+
+    @Before
+    public void openConnection() throws Exception {
+        connection = new H2Connection(DriverManager.getConnection(CONNECTION_URL, USER_NAME, PASSWORD), null);
+    }
+
+    @After
+    public void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    private IDataSet load(final String json) throws Exception {
+        final JsonDataSetProducer producer = new JsonDataSetProducer(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        return new CachedDataSet(new TypedDataSetProducer(producer, new ColumnTypeResolver(connection)), false);
+    }
+
+    @Test
+    public void testValuesAreConvertedToDatabaseColumnTypes() throws Exception {
+        // WHEN
+        final IDataSet dataSet = load("{\"XML_TABLE_1\": [{\"id\": \"1\", \"version\": \"Record 1 version\"}]}");
+
+        // THEN
+        final ITable table = dataSet.getTable("XML_TABLE_1");
+        assertThat(table.getRowCount(), equalTo(1));
+        assertThat(table.getTableMetaData().getColumns()[table.getTableMetaData().getColumnIndex("id")].getDataType(),
+                equalTo(DataType.INTEGER));
+        assertThat(table.getValue(0, "id"), instanceOf(Integer.class));
+        assertThat(table.getValue(0, "id"), equalTo((Object) 1));
+        assertThat(table.getValue(0, "version"), equalTo((Object) "Record 1 version"));
+    }
+
+    @Test
+    public void testNullExpressionsAreReplaced() throws Exception {
+        // WHEN
+        final IDataSet dataSet = load("{\"XML_TABLE_1\": [{\"id\": \"1\", \"version\": \"[null]\", \"value_1\": \"[NULL]\"}]}");
+
+        // THEN
+        final ITable table = dataSet.getTable("XML_TABLE_1");
+        assertThat(table.getValue(0, "version"), nullValue());
+        assertThat(table.getValue(0, "value_1"), nullValue());
+    }
+
+    @Test
+    public void testTablesUnknownToTheDatabaseAreNotTyped() throws Exception {
+        // WHEN
+        final IDataSet dataSet = load("{\"UNKNOWN_TABLE\": [{\"id\": \"1\"}]}");
+
+        // THEN
+        final ITable table = dataSet.getTable("UNKNOWN_TABLE");
+        assertThat(table.getTableMetaData().getColumns()[0].getDataType(), equalTo(DataType.UNKNOWN));
+        assertThat(table.getValue(0, "id"), equalTo((Object) "1"));
+    }
+
+    @Test(expected = TypeCastException.class)
+    public void testValuesNotMatchingTheColumnTypeAreRejected() throws Exception {
+        // WHEN
+        load("{\"XML_TABLE_1\": [{\"id\": \"foo\"}]}");
+    }
+}
@@ -0,0 +1,83 @@
+package eu.drus.jpa.unit.sql.dbunit.operation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class UpsertDialectTest {
+
+    private static final List<String> COLUMNS = Arrays.asList("ID", "NAME", "VALUE");
+    private static final List<String> KEYS = Collections.singletonList("ID");
+
+    private static Connection connectionFor(final String productName) throws Exception {
+        final Connection connection = mock(Connection.class);
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        return connection;
+    }
+
+    @Test
+    public void testDialectDetection() throws Exception {
+        assertThat(UpsertDialect.forConnection(connectionFor("H2")), equalTo(UpsertDialect.H2));
+        assertThat(UpsertDialect.forConnection(connectionFor("HSQL Database Engine")), equalTo(UpsertDialect.HSQLDB));
+        assertThat(UpsertDialect.forConnection(connectionFor("PostgreSQL")), equalTo(UpsertDialect.POSTGRESQL));
+        assertThat(UpsertDialect.forConnection(connectionFor("MySQL")), equalTo(UpsertDialect.MYSQL));
+        assertThat(UpsertDialect.forConnection(connectionFor("MariaDB")), equalTo(UpsertDialect.MYSQL));
+        assertThat(UpsertDialect.forConnection(connectionFor("SQLite")), nullValue());
+    }
+
+    @Test
+    public void testH2Statement() {
+        assertThat(UpsertDialect.H2.createStatement("T", COLUMNS, KEYS),
+                equalTo("MERGE INTO T (ID, NAME, VALUE) KEY (ID) VALUES (?, ?, ?)"));
+    }
+
+    @Test
+    public void testHsqldbStatement() {
+        assertThat(UpsertDialect.HSQLDB.createStatement("T", COLUMNS, KEYS),
+                equalTo("MERGE INTO T AS t USING (VALUES (?, ?, ?)) AS v (ID, NAME, VALUE) ON t.ID = v.ID"
+                        + " WHEN MATCHED THEN UPDATE SET t.NAME = v.NAME, t.VALUE = v.VALUE"
+                        + " WHEN NOT MATCHED THEN INSERT (ID, NAME, VALUE) VALUES (v.ID, v.NAME, v.VALUE)"));
+    }
+
+    @Test
+    public void testHsqldbStatementWithKeyColumnsOnly() {
+        assertThat(UpsertDialect.HSQLDB.createStatement("T", KEYS, KEYS), equalTo(
+                "MERGE INTO T AS t USING (VALUES (?)) AS v (ID) ON t.ID = v.ID WHEN NOT MATCHED THEN INSERT (ID) VALUES (v.ID)"));
+    }
+
+    @Test
+    public void testPostgresqlStatement() {
+        assertThat(UpsertDialect.POSTGRESQL.createStatement("T", COLUMNS, KEYS),
+                equalTo("INSERT INTO T (ID, NAME, VALUE) VALUES (?, ?, ?) ON CONFLICT (ID) DO UPDATE SET NAME = EXCLUDED.NAME, VALUE = EXCLUDED.VALUE"));
+    }
+
+    @Test
+    public void testPostgresqlStatementWithKeyColumnsOnly() {
+        assertThat(UpsertDialect.POSTGRESQL.createStatement("T", KEYS, KEYS),
+                equalTo("INSERT INTO T (ID) VALUES (?) ON CONFLICT (ID) DO NOTHING"));
+    }
+
+    @Test
+    public void testMySqlStatement() {
+        assertThat(UpsertDialect.MYSQL.createStatement("T", COLUMNS, KEYS), equalTo(
+                "INSERT INTO T (ID, NAME, VALUE) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE NAME = VALUES(NAME), VALUE = VALUES(VALUE)"));
+    }
+
+    @Test
+    public void testMySqlStatementWithKeyColumnsOnly() {
+        assertThat(UpsertDialect.MYSQL.createStatement("T", KEYS, KEYS),
+                equalTo("INSERT INTO T (ID) VALUES (?) ON DUPLICATE KEY UPDATE ID = VALUES(ID)"));
+    }
+}
@@ -0,0 +1,172 @@
+package eu.drus.jpa.unit.sql.dbunit.operation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.NoPrimaryKeyException;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.ext.h2.H2Connection;
+import org.dbunit.operation.DatabaseOperation;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.drus.jpa.unit.sql.dbunit.dataset.ColumnTypeResolver;
+import eu.drus.jpa.unit.sql.dbunit.dataset.DataSetLoaderProvider;
+
+public class UpsertOperationTest {
+
+    private static final String CONNECTION_URL = "jdbc:h2:mem:upsert;DB_CLOSE_DELAY=-1";
+    private static final String USER_NAME = "test";
+    private static final String PASSWORD = "test";
+    private static final String DB_SETUP_SCRIPT = "src/test/resources/schema.sql";
+
+    @BeforeClass
+    public static void createSchema() throws Exception {
+        RunScript.execute(CONNECTION_URL, USER_NAME, PASSWORD, DB_SETUP_SCRIPT, StandardCharsets.UTF_8, false);
+    }
+
+    private IDatabaseConnection connection;
+    private IDataSet initialDataSet;
+
+    private int getRecordCountFromTable(final String tableName) throws SQLException {
+        final ResultSet rs = connection.getConnection().createStatement().executeQuery("select count(*) from " + tableName + ";");
+        rs.next();
+        return rs.getInt(1);
+    }
+
+    private String getVersion(final String tableName, final int id) throws SQLException {
+        final ResultSet rs = connection.getConnection().createStatement()
+                .executeQuery("select version from " + tableName + " where id = " + id + ";");
+        rs.next();
+        return rs.getString(1);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        initialDataSet = new FlatXmlDataSetBuilder().build(new File("src/test/resources/test-data.xml"));
+        connection = new H2Connection(DriverManager.getConnection(CONNECTION_URL, USER_NAME, PASSWORD), null);
+
+        DatabaseOperation.DELETE_ALL.execute(connection, initialDataSet);
+        connection.getConnection().createStatement()
+                .execute("insert into XML_TABLE_1(id, version, value_1) values(1, 'Old version', 'Old Value 1');");
+        connection.getConnection().createStatement()
+                .execute("insert into XML_TABLE_1(id, version, value_1) values(10, 'Record 10 version', 'Record 10 Value 1');");
+        connection.getConnection().commit();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testUpsertUpdatesExistingAndInsertsNewRows() throws Exception {
+        // GIVEN
+        final UpsertOperation operation = new UpsertOperation();
+
+        // WHEN
+        operation.execute(connection, initialDataSet);
+
+        // THEN
+        assertThat(getRecordCountFromTable("XML_TABLE_1"), equalTo(4));
+        assertThat(getRecordCountFromTable("XML_TABLE_2"), equalTo(1));
+        assertThat(getVersion("XML_TABLE_1", 1), equalTo("Record 1 version"));
+        assertThat(getVersion("XML_TABLE_1", 3), equalTo("Record 3 version"));
+        assertThat(getVersion("XML_TABLE_1", 10), equalTo("Record 10 version"));
+    }
+
+    @Test
+    public void testUpsertUsingSmallBatches() throws Exception {
+        // GIVEN
+        connection.getConfig().setProperty(DatabaseConfig.PROPERTY_BATCH_SIZE, 2);
+        final UpsertOperation operation = new UpsertOperation();
+
+        // WHEN
+        operation.execute(connection, initialDataSet);
+
+        // THEN
+        assertThat(getRecordCountFromTable("XML_TABLE_1"), equalTo(4));
+        assertThat(getRecordCountFromTable("XML_TABLE_2"), equalTo(1));
+    }
+
+    @Test
+    public void testUpsertIsIdempotent() throws Exception {
+        // GIVEN
+        final UpsertOperation operation = new UpsertOperation();
+
+        // WHEN
+        operation.execute(connection, initialDataSet);
+        operation.execute(connection, initialDataSet);
+
+        // THEN
+        assertThat(getRecordCountFromTable("XML_TABLE_1"), equalTo(4));
+        assertThat(getRecordCountFromTable("XML_TABLE_2"), equalTo(1));
+    }
+
+    @Test
+    public void testUpsertUsingColumnarDataSet() throws Exception {
+        // GIVEN
+        final IDataSet dataSet = new DataSetLoaderProvider(new ColumnTypeResolver(connection)).xmlLoader()
+                .load(new File("src/test/resources/test-data.xml").toPath());
+        final UpsertOperation operation = new UpsertOperation();
+
+        // WHEN
+        operation.execute(connection, dataSet);
+
+        // THEN
+        assertThat(getRecordCountFromTable("XML_TABLE_1"), equalTo(4));
+        assertThat(getRecordCountFromTable("XML_TABLE_2"), equalTo(1));
+        assertThat(getVersion("XML_TABLE_1", 1), equalTo("Record 1 version"));
+        assertThat(getVersion("XML_TABLE_2", 4), equalTo("Record 4 version"));
+    }
+
+    @Test(expected = NoPrimaryKeyException.class)
+    public void testUpsertRequiresPrimaryKeyColumnsInDataSet() throws Exception {
+        // GIVEN
+        final IDataSet dataSet = new FlatXmlDataSetBuilder()
+                .build(new StringReader("<dataset><XML_TABLE_2 version=\"Record 4 version\"/></dataset>"));
+        final UpsertOperation operation = new UpsertOperation();
+
+        // WHEN
+        operation.execute(connection, dataSet);
+    }
+
+    @Test
+    public void testFallbackOperationIsUsedForUnsupportedDatabase() throws Exception {
+        // GIVEN
+        final DatabaseOperation fallbackOperation = mock(DatabaseOperation.class);
+        final IDatabaseConnection dbUnitConnection = mock(IDatabaseConnection.class);
+        final Connection jdbcConnection = mock(Connection.class);
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dbUnitConnection.getConnection()).thenReturn(jdbcConnection);
+        when(jdbcConnection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("SQLite");
+
+        final UpsertOperation operation = new UpsertOperation(fallbackOperation);
+
+        // WHEN
+        operation.execute(dbUnitConnection, initialDataSet);
+
+        // THEN
+        verify(fallbackOperation).execute(any(IDatabaseConnection.class), any(IDataSet.class));
+    }
+}
@@ -0,0 +1,143 @@
+package eu.drus.jpa.unit.sql.dbunit.plan;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class QueryPlanDialectTest {
+
+    private static Connection connection;
+
+    @BeforeClass
+    public static void createDatabase() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:query-plan-dialect");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE DEPOSITOR (ID BIGINT PRIMARY KEY, NAME VARCHAR(50))");
+            stmt.execute("CREATE TABLE ADDRESS (ID BIGINT PRIMARY KEY, CITY VARCHAR(50), DEPOSITOR_ID BIGINT REFERENCES DEPOSITOR(ID))");
+        }
+    }
+
+    @AfterClass
+    public static void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testH2PlanUsingPrimaryKey() throws SQLException {
+        // WHEN
+        final String plan = QueryPlanDialect.H2.explain(connection, "SELECT * FROM DEPOSITOR WHERE ID = ?");
+
+        // THEN
+        assertThat(QueryPlanDialect.H2.findFullTableScans(plan), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void testH2PlanWithFullTableScan() throws SQLException {
+        // WHEN
+        final String plan = QueryPlanDialect.H2.explain(connection,
+                "SELECT a.* FROM ADDRESS a JOIN DEPOSITOR d ON a.DEPOSITOR_ID = d.ID WHERE a.CITY = ?");
+
+        // THEN
+        assertThat(plan, containsString("tableScan"));
+        assertThat(QueryPlanDialect.H2.findFullTableScans(plan), equalTo(Arrays.asList("ADDRESS")));
+    }
+
+    @Test
+    public void testH2PlanOfDirectLookup() throws SQLException {
+        // WHEN
+        final String plan = QueryPlanDialect.H2.explain(connection, "SELECT COUNT(*) FROM DEPOSITOR");
+
+        // THEN
+        assertThat(QueryPlanDialect.H2.findFullTableScans(plan), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void testHsqldbPlan() {
+        // GIVEN
+        final String plan = "isDistinctSelect=[false]\n" + "isGrouped=[false]\n" + "[range variable 1\n" + "  join type=INNER\n"
+                + "  table=DEPOSITOR\n" + "  cardinality=1\n" + "  access=FULL SCAN\n" + "  join condition = [index=SYS_IDX_SYS_PK_10092\n"
+                + "  ]\n" + "][range variable 2\n" + "  join type=INNER\n" + "  table=ADDRESS\n" + "  cardinality=1\n"
+                + "  access=INDEX PRED\n" + "]]\n";
+
+        // WHEN
+        final Object tables = QueryPlanDialect.HSQLDB.findFullTableScans(plan);
+
+        // THEN
+        assertThat(tables, equalTo(Arrays.asList("DEPOSITOR")));
+    }
+
+    @Test
+    public void testPostgresqlPlan() {
+        // GIVEN
+        final String plan = "Hash Join  (cost=1.04..2.10 rows=1 width=16)\n" + "  Hash Cond: (a.depositor_id = d.id)\n"
+                + "  ->  Seq Scan on address a  (cost=0.00..1.03 rows=3 width=16)\n" + "  ->  Hash  (cost=1.02..1.02 rows=1 width=8)\n"
+                + "        ->  Index Scan using depositor_pkey on public.depositor d  (cost=0.00..1.02 rows=1 width=8)\n"
+                + "  ->  Parallel Seq Scan on public.\"CONTACT_DETAIL\" c  (cost=0.00..1.03 rows=3 width=16)\n";
+
+        // WHEN
+        final Object tables = QueryPlanDialect.POSTGRESQL.findFullTableScans(plan);
+
+        // THEN
+        assertThat(tables, equalTo(Arrays.asList("address", "CONTACT_DETAIL")));
+    }
+
+    @Test
+    public void testPostgresqlExplainOfStatementWithParameters() throws SQLException {
+        // GIVEN
+        final Connection pgConnection = mock(Connection.class);
+        final Statement stmt = mock(Statement.class);
+        final ResultSet rs = mock(ResultSet.class);
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(pgConnection.createStatement()).thenReturn(stmt);
+        when(pgConnection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseMajorVersion()).thenReturn(16);
+        when(stmt.executeQuery(anyString())).thenReturn(rs);
+
+        // WHEN
+        QueryPlanDialect.POSTGRESQL.explain(pgConnection, "SELECT * FROM depositor WHERE name = ? AND surname <> '?' AND id = ?");
+        QueryPlanDialect.POSTGRESQL.explain(pgConnection, "SELECT * FROM depositor");
+
+        // THEN
+        verify(stmt).executeQuery("EXPLAIN (GENERIC_PLAN) SELECT * FROM depositor WHERE name = $1 AND surname <> '?' AND id = $2");
+        verify(stmt).executeQuery("EXPLAIN SELECT * FROM depositor");
+    }
+
+    @Test
+    public void testPostgresqlExplainOfStatementWithParametersBeforeVersion16() throws SQLException {
+        // GIVEN
+        final Connection pgConnection = mock(Connection.class);
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(pgConnection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseMajorVersion()).thenReturn(15);
+
+        // WHEN
+        try {
+            QueryPlanDialect.POSTGRESQL.explain(pgConnection, "SELECT * FROM depositor WHERE name = ?");
+            fail("SQLFeatureNotSupportedException expected");
+        } catch (final SQLFeatureNotSupportedException e) {
+            // THEN
+            assertThat(e.getMessage(), containsString("not supported before PostgreSQL 16"));
+        }
+        verify(pgConnection, never()).createStatement();
+    }
+}
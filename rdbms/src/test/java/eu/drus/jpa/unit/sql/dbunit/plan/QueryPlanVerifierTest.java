@@ -0,0 +1,106 @@
+package eu.drus.jpa.unit.sql.dbunit.plan;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.drus.jpa.unit.api.ForbidFullTableScan;
+import eu.drus.jpa.unit.spi.AssertionErrorCollector;
+
+public class QueryPlanVerifierTest {
+
+    private static final String SCAN_OF_DEPOSITOR = "SELECT * FROM DEPOSITOR WHERE NAME = ?";
+
+    private Connection connection;
+
+    @Before
+    public void createDatabase() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:query-plan-verifier");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE DEPOSITOR (ID BIGINT PRIMARY KEY, NAME VARCHAR(50))");
+            stmt.execute("CREATE TABLE ADDRESS (ID BIGINT PRIMARY KEY, CITY VARCHAR(50))");
+        }
+    }
+
+    @After
+    public void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    private static ForbidFullTableScan forbidFullTableScan(final String... tables) {
+        final ForbidFullTableScan annotation = mock(ForbidFullTableScan.class);
+        when(annotation.tables()).thenReturn(tables);
+        return annotation;
+    }
+
+    @Test
+    public void testFullTableScansOfAnyTableAreReported() throws Exception {
+        // GIVEN
+        final QueryPlanVerifier verifier = new QueryPlanVerifier(QueryPlanDialect.H2);
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+        final List<String> statements = Arrays.asList(SCAN_OF_DEPOSITOR, "SELECT * FROM ADDRESS WHERE ID = ?", SCAN_OF_DEPOSITOR,
+                "SELECT * FROM ADDRESS", "DELETE FROM ADDRESS");
+
+        // WHEN
+        verifier.verify(connection, statements, forbidFullTableScan(), errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(2));
+        try {
+            errorCollector.report();
+            fail("AssertionError expected");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), containsString("Full table scan on DEPOSITOR by statement:"));
+            assertThat(e.getMessage(), containsString(SCAN_OF_DEPOSITOR));
+            assertThat(e.getMessage(), containsString("PUBLIC.DEPOSITOR.tableScan"));
+            assertThat(e.getMessage(), containsString("Full table scan on ADDRESS by statement:"));
+        }
+    }
+
+    @Test
+    public void testOnlyFullTableScansOfGivenTablesAreReported() throws Exception {
+        // GIVEN
+        final QueryPlanVerifier verifier = new QueryPlanVerifier(QueryPlanDialect.H2);
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        verifier.verify(connection, Arrays.asList(SCAN_OF_DEPOSITOR, "SELECT * FROM ADDRESS"), forbidFullTableScan("address"),
+                errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+    }
+
+    @Test
+    public void testPlansAreCachedPerStatement() throws Exception {
+        // GIVEN
+        final QueryPlanVerifier verifier = new QueryPlanVerifier(QueryPlanDialect.H2);
+        verifier.verify(connection, Arrays.asList(SCAN_OF_DEPOSITOR), forbidFullTableScan(), new AssertionErrorCollector());
+
+        // the statement can not be explained anymore
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE DEPOSITOR");
+        }
+        final AssertionErrorCollector errorCollector = new AssertionErrorCollector();
+
+        // WHEN
+        verifier.verify(connection, Arrays.asList(SCAN_OF_DEPOSITOR), forbidFullTableScan(), errorCollector);
+
+        // THEN
+        assertThat(errorCollector.amountOfErrors(), equalTo(1));
+    }
+}